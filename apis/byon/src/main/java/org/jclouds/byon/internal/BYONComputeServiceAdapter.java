@@ -30,6 +30,7 @@ import javax.inject.Singleton;
 
 import org.jclouds.byon.Node;
 import org.jclouds.byon.functions.NodeToNodeMetadata;
+import org.jclouds.compute.ComputeServiceAdapter.SelectsNodesByIds;
 import org.jclouds.compute.JCloudsNativeComputeServiceAdapter;
 import org.jclouds.compute.domain.Hardware;
 import org.jclouds.compute.domain.Image;
@@ -48,7 +49,7 @@ import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.ImmutableSet.Builder;
 import com.google.common.util.concurrent.UncheckedExecutionException;
 @Singleton
-public class BYONComputeServiceAdapter implements JCloudsNativeComputeServiceAdapter {
+public class BYONComputeServiceAdapter implements JCloudsNativeComputeServiceAdapter, SelectsNodesByIds {
    private final Supplier<LoadingCache<String, Node>> nodes;
    private final NodeToNodeMetadata converter;
    private final JustProvider locationSupplier;
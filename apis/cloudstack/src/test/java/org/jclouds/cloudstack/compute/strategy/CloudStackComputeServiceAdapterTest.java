@@ -0,0 +1,162 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.cloudstack.compute.strategy;
+
+import static org.easymock.EasyMock.createMock;
+import static org.easymock.EasyMock.expect;
+import static org.easymock.EasyMock.replay;
+import static org.easymock.EasyMock.verify;
+import static org.jclouds.compute.predicates.NodePredicates.inGroup;
+import static org.testng.Assert.assertEquals;
+
+import java.util.Map;
+import java.util.Set;
+
+import org.jclouds.cloudstack.CloudStackApi;
+import org.jclouds.cloudstack.compute.functions.VirtualMachineToNodeMetadata;
+import org.jclouds.cloudstack.domain.FirewallRule;
+import org.jclouds.cloudstack.domain.IPForwardingRule;
+import org.jclouds.cloudstack.domain.Network;
+import org.jclouds.cloudstack.domain.NetworkType;
+import org.jclouds.cloudstack.domain.Project;
+import org.jclouds.cloudstack.domain.SecurityGroup;
+import org.jclouds.cloudstack.domain.ServiceOffering;
+import org.jclouds.cloudstack.domain.SshKeyPair;
+import org.jclouds.cloudstack.domain.Template;
+import org.jclouds.cloudstack.domain.VirtualMachine;
+import org.jclouds.cloudstack.domain.Zone;
+import org.jclouds.cloudstack.domain.ZoneAndName;
+import org.jclouds.cloudstack.features.VirtualMachineApi;
+import org.jclouds.cloudstack.functions.CreateFirewallRulesForIP;
+import org.jclouds.cloudstack.functions.CreatePortForwardingRulesForIP;
+import org.jclouds.cloudstack.functions.StaticNATVirtualMachineInNetwork;
+import org.jclouds.cloudstack.strategy.BlockUntilJobCompletesAndReturnResult;
+import org.jclouds.collect.Memoized;
+import org.jclouds.compute.config.ComputeServiceAdapterContextModule.AddDefaultCredentialsToImage;
+import org.jclouds.compute.domain.ComputeMetadata;
+import org.jclouds.compute.domain.Image;
+import org.jclouds.compute.domain.NodeMetadata;
+import org.jclouds.compute.functions.GroupNamingConvention;
+import org.jclouds.compute.strategy.FanOut;
+import org.jclouds.compute.strategy.PrioritizeCredentialsFromTemplate;
+import org.jclouds.compute.strategy.impl.AdaptingComputeServiceStrategies;
+import org.jclouds.domain.Credentials;
+import org.jclouds.domain.Location;
+import org.jclouds.domain.LoginCredentials;
+import org.testng.annotations.Test;
+
+import com.google.common.base.Function;
+import com.google.common.base.Functions;
+import com.google.common.base.Predicate;
+import com.google.common.base.Predicates;
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.collect.FluentIterable;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Maps;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.inject.AbstractModule;
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import com.google.inject.TypeLiteral;
+
+@Test(groups = "unit", testName = "CloudStackComputeServiceAdapterTest")
+public class CloudStackComputeServiceAdapterTest {
+
+   private static <K, V> LoadingCache<K, V> emptyCache(final V empty) {
+      return CacheBuilder.newBuilder().build(new CacheLoader<K, V>() {
+         @Override
+         public V load(K key) {
+            return empty;
+         }
+      });
+   }
+
+   private static VirtualMachine vm(String id, String displayName, String group) {
+      return VirtualMachine.builder().id(id).name("i-3-" + id + "-VM").displayName(displayName).group(group)
+            .state(VirtualMachine.State.RUNNING).zoneId("1").templateId("2").serviceOfferingId("1")
+            .serviceOfferingName("Small Instance").cpuCount(1).cpuSpeed(500).memory(512).hypervisor("XenServer")
+            .build();
+   }
+
+   public void testGroupIncludesVirtualMachinesOutsideItsInstanceGroup() {
+      CloudStackApi client = createMock(CloudStackApi.class);
+      VirtualMachineApi virtualMachineApi = createMock(VirtualMachineApi.class);
+      expect(client.getVirtualMachineApi()).andReturn(virtualMachineApi);
+      // the node created by jclouds, one created before instance groups were used, and one of another group
+      expect(virtualMachineApi.listVirtualMachines()).andReturn(ImmutableSet.of(vm("1", "test-a1b", "test"),
+            vm("2", "test-c2d", null), vm("3", "other-e3f", "other")));
+      replay(client, virtualMachineApi);
+
+      // as BaseComputeService#destroyNodesMatching does
+      @SuppressWarnings("unchecked")
+      Predicate<ComputeMetadata> inGroup = (Predicate<ComputeMetadata>) (Predicate<?>) inGroup("test");
+      Iterable<? extends NodeMetadata> nodes = strategies(client).listDetailsOnNodesMatching(inGroup);
+
+      assertEquals(FluentIterable.from(nodes).transform(new Function<NodeMetadata, String>() {
+         @Override
+         public String apply(NodeMetadata input) {
+            return input.getId();
+         }
+      }).toSet(), ImmutableSet.of("1", "2"));
+      verify(client, virtualMachineApi);
+   }
+
+   private static AdaptingComputeServiceStrategies<VirtualMachine, ServiceOffering, Template, Zone> strategies(
+         CloudStackApi client) {
+      final LoadingCache<String, Set<IPForwardingRule>> vmToRules = emptyCache(ImmutableSet.<IPForwardingRule> of());
+      Injector injector = Guice.createInjector(new AbstractModule() {
+         @Override
+         protected void configure() {
+            bind(new TypeLiteral<Supplier<Set<? extends Location>>>() {
+            }).annotatedWith(Memoized.class).toInstance(
+                  Suppliers.<Set<? extends Location>> ofInstance(ImmutableSet.<Location> of()));
+            bind(new TypeLiteral<Supplier<Set<? extends Image>>>() {
+            }).annotatedWith(Memoized.class).toInstance(
+                  Suppliers.<Set<? extends Image>> ofInstance(ImmutableSet.<Image> of()));
+            bind(new TypeLiteral<LoadingCache<String, Set<IPForwardingRule>>>() {
+            }).toInstance(vmToRules);
+         }
+      });
+      BlockUntilJobCompletesAndReturnResult blockUntilJobCompletes = new BlockUntilJobCompletesAndReturnResult(client,
+            Predicates.<String> alwaysTrue());
+      CloudStackComputeServiceAdapter adapter = new CloudStackComputeServiceAdapter(client,
+            Predicates.<String> alwaysTrue(),
+            Suppliers.<Map<String, Network>> ofInstance(ImmutableMap.<String, Network> of()),
+            Suppliers.<Map<String, Project>> ofInstance(ImmutableMap.<String, Project> of()),
+            blockUntilJobCompletes, createMock(StaticNATVirtualMachineInNetwork.Factory.class),
+            new CreatePortForwardingRulesForIP(client, blockUntilJobCompletes, vmToRules),
+            new CreateFirewallRulesForIP(client, blockUntilJobCompletes,
+                  CloudStackComputeServiceAdapterTest.<String, Set<FirewallRule>> emptyCache(
+                        ImmutableSet.<FirewallRule> of())),
+            vmToRules, Maps.<String, Credentials> newHashMap(), ImmutableMap.<NetworkType, OptionsConverter> of(),
+            null, CloudStackComputeServiceAdapterTest.<ZoneAndName, SecurityGroup> emptyCache(null),
+            CloudStackComputeServiceAdapterTest.<String, SshKeyPair> emptyCache(null),
+            injector.getInstance(GroupNamingConvention.Factory.class));
+      return new AdaptingComputeServiceStrategies<VirtualMachine, ServiceOffering, Template, Zone>(
+            Maps.<String, Credentials> newHashMap(),
+            new PrioritizeCredentialsFromTemplate(Functions.forMap(
+                  ImmutableMap.<org.jclouds.compute.domain.Template, LoginCredentials> of(), null)),
+            adapter, injector.getInstance(VirtualMachineToNodeMetadata.class),
+            Functions.forMap(ImmutableMap.<Template, Image> of(), null), new AddDefaultCredentialsToImage(null),
+            new FanOut(MoreExecutors.newDirectExecutorService()));
+   }
+}
@@ -0,0 +1,365 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.cloudwatch;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+
+import java.io.Closeable;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.jclouds.cloudwatch.domain.MetricDatum;
+import org.jclouds.cloudwatch.domain.StatisticValues;
+import org.jclouds.cloudwatch.features.MetricApi;
+
+import com.google.common.annotations.Beta;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Optional;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Iterables;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Publishes metric data points to a namespace in the background, unlike
+ * {@link CloudWatch#putMetricData(CloudWatchApi, String, Iterable, String)} which blocks its caller on each request.
+ * <p>
+ * Data points are queued without locking. Every flush interval, the queued points sharing their metric name,
+ * dimensions and unit, and whose timestamps fall in the same minute, are summed up into a single datum carrying their
+ * {@link StatisticValues}, and the result is sent in batches of the largest size PutMetricData accepts. When the queue
+ * is full, new points are dropped or, with {@link OverflowPolicy#BLOCK}, wait for the next flush to make room.
+ *
+ * <h4>Example usage</h4>
+ *
+ * <pre>
+ * MetricPublisher publisher = MetricPublisher.builder(cloudWatchApi.getMetricApiForRegion(region), "MyApp").build();
+ * publisher.start();
+ * publisher.publish(MetricDatum.builder().metricName("Latency").unit(Unit.MILLISECONDS).value(12.0).build());
+ * ...
+ * publisher.close();
+ * </pre>
+ */
+@Beta
+public class MetricPublisher implements Closeable {
+
+   /**
+    * What {@link MetricPublisher#publish} does when the queue is full.
+    */
+   public enum OverflowPolicy {
+      /**
+       * Drops the data point.
+       */
+      DROP,
+      /**
+       * Waits for room, up to the block timeout, then drops the data point.
+       */
+      BLOCK;
+   }
+
+   public static Builder builder(MetricApi api, String namespace) {
+      return new Builder(api, namespace);
+   }
+
+   public static class Builder {
+      private final MetricApi api;
+      private final String namespace;
+      private long flushInterval = 60000;
+      private int capacity = 10000;
+      private OverflowPolicy overflowPolicy = OverflowPolicy.DROP;
+      private long blockTimeout = 1000;
+
+      private Builder(MetricApi api, String namespace) {
+         this.api = checkNotNull(api, "api");
+         this.namespace = checkNotNull(namespace, "namespace");
+      }
+
+      /**
+       * How often, in milliseconds, the queued data points are aggregated and sent. Defaults to 60000, the finest
+       * resolution of CloudWatch statistics.
+       */
+      public Builder flushInterval(long flushInterval) {
+         checkArgument(flushInterval > 0, "flushInterval must be positive");
+         this.flushInterval = flushInterval;
+         return this;
+      }
+
+      /**
+       * How many data points may wait for the next flush. Defaults to 10000.
+       */
+      public Builder capacity(int capacity) {
+         checkArgument(capacity > 0, "capacity must be positive");
+         this.capacity = capacity;
+         return this;
+      }
+
+      /**
+       * What to do with data points published while the queue is full. Defaults to {@link OverflowPolicy#DROP}.
+       */
+      public Builder overflowPolicy(OverflowPolicy overflowPolicy) {
+         this.overflowPolicy = checkNotNull(overflowPolicy, "overflowPolicy");
+         return this;
+      }
+
+      /**
+       * How long, in milliseconds, {@link OverflowPolicy#BLOCK} waits for room. Defaults to 1000.
+       */
+      public Builder blockTimeout(long blockTimeout) {
+         checkArgument(blockTimeout >= 0, "blockTimeout must not be negative");
+         this.blockTimeout = blockTimeout;
+         return this;
+      }
+
+      public MetricPublisher build() {
+         return new MetricPublisher(this);
+      }
+   }
+
+   // PutMetricData accepts up to 20 data points per request
+   @VisibleForTesting
+   static final int MAX_BATCH = 20;
+   // the finest resolution of CloudWatch statistics
+   private static final long RESOLUTION = TimeUnit.MINUTES.toMillis(1);
+
+   private final MetricApi api;
+   private final String namespace;
+   private final long flushInterval;
+   private final int capacity;
+   private final OverflowPolicy overflowPolicy;
+   private final long blockTimeout;
+
+   private final ConcurrentLinkedQueue<MetricDatum> queue = new ConcurrentLinkedQueue<MetricDatum>();
+   private final Semaphore room;
+   private final ScheduledExecutorService scheduler;
+   private volatile boolean closed;
+
+   private final AtomicLong published = new AtomicLong();
+   private final AtomicLong dropped = new AtomicLong();
+   private final AtomicLong sent = new AtomicLong();
+   private final AtomicLong putCalls = new AtomicLong();
+   private final AtomicLong errors = new AtomicLong();
+
+   private MetricPublisher(Builder builder) {
+      this.api = builder.api;
+      this.namespace = builder.namespace;
+      this.flushInterval = builder.flushInterval;
+      this.capacity = builder.capacity;
+      this.overflowPolicy = builder.overflowPolicy;
+      this.blockTimeout = builder.blockTimeout;
+      this.room = new Semaphore(capacity);
+      this.scheduler = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder()
+            .setNameFormat("cloudwatch-publisher-%d").setDaemon(true).build());
+   }
+
+   /**
+    * Starts flushing the queued data points every flush interval.
+    */
+   public synchronized void start() {
+      checkState(!closed, "publisher closed");
+      scheduler.scheduleWithFixedDelay(new Runnable() {
+         @Override
+         public void run() {
+            flush();
+         }
+      }, flushInterval, flushInterval, TimeUnit.MILLISECONDS);
+   }
+
+   /**
+    * Queues a data point for the next flush.
+    *
+    * @return false when the data point was dropped, because the queue is full or the publisher closed
+    */
+   public boolean publish(MetricDatum datum) {
+      checkNotNull(datum, "datum");
+      if (closed || !reserveRoom()) {
+         dropped.incrementAndGet();
+         return false;
+      }
+      queue.add(datum);
+      published.incrementAndGet();
+      return true;
+   }
+
+   private boolean reserveRoom() {
+      if (room.tryAcquire())
+         return true;
+      if (overflowPolicy == OverflowPolicy.DROP)
+         return false;
+      try {
+         return room.tryAcquire(blockTimeout, TimeUnit.MILLISECONDS);
+      } catch (InterruptedException e) {
+         Thread.currentThread().interrupt();
+         return false;
+      }
+   }
+
+   /**
+    * Aggregates the queued data points and sends them.
+    */
+   public void flush() {
+      List<MetricDatum> drained = Lists.newArrayList();
+      synchronized (queue) {
+         for (MetricDatum datum = queue.poll(); datum != null; datum = queue.poll()) {
+            drained.add(datum);
+         }
+         // making room only once drained keeps blocked data points for the next flush
+         room.release(drained.size());
+         for (List<MetricDatum> batch : Iterables.partition(aggregate(drained), MAX_BATCH)) {
+            try {
+               putCalls.incrementAndGet();
+               api.putMetricsInNamespace(batch, namespace);
+               sent.addAndGet(batch.size());
+            } catch (RuntimeException e) {
+               // statistics are best effort, a failed batch is not sent again
+               errors.incrementAndGet();
+            }
+         }
+      }
+   }
+
+   /**
+    * Sums up the data points of the same series into one datum, timestamped with the start of the minute its data
+    * points were taken in. Data points carrying neither a value nor statistic values, and series of a single data
+    * point, are left as they are.
+    */
+   @VisibleForTesting
+   static List<MetricDatum> aggregate(Iterable<MetricDatum> data) {
+      Map<List<Object>, List<MetricDatum>> series = Maps.newLinkedHashMap();
+      ImmutableList.Builder<MetricDatum> aggregated = ImmutableList.builder();
+      for (MetricDatum datum : data) {
+         if (!datum.getValue().isPresent() && !datum.getStatisticValues().isPresent()) {
+            aggregated.add(datum);
+            continue;
+         }
+         List<Object> key = ImmutableList.<Object> of(datum.getMetricName(), datum.getDimensions(), datum.getUnit(),
+               minuteOf(datum));
+         List<MetricDatum> samples = series.get(key);
+         if (samples == null)
+            series.put(key, samples = Lists.newArrayList());
+         samples.add(datum);
+      }
+      for (List<MetricDatum> samples : series.values()) {
+         aggregated.add(samples.size() == 1 ? samples.get(0) : sum(samples));
+      }
+      return aggregated.build();
+   }
+
+   private static MetricDatum sum(List<MetricDatum> samples) {
+      double maximum = Double.NEGATIVE_INFINITY;
+      double minimum = Double.POSITIVE_INFINITY;
+      double sampleCount = 0;
+      double sum = 0;
+      for (MetricDatum sample : samples) {
+         if (sample.getStatisticValues().isPresent()) {
+            StatisticValues values = sample.getStatisticValues().get();
+            maximum = Math.max(maximum, values.getMaximum());
+            minimum = Math.min(minimum, values.getMinimum());
+            sampleCount += values.getSampleCount();
+            sum += values.getSum();
+         } else {
+            double value = sample.getValue().get();
+            maximum = Math.max(maximum, value);
+            minimum = Math.min(minimum, value);
+            sampleCount++;
+            sum += value;
+         }
+      }
+      MetricDatum first = samples.get(0);
+      return MetricDatum.builder().metricName(first.getMetricName()).dimensions(first.getDimensions())
+            .unit(first.getUnit()).timestamp(minuteOf(first).orNull())
+            .statisticValues(new StatisticValues(maximum, minimum, sampleCount, sum)).build();
+   }
+
+   /**
+    * @return the start of the minute the data point was taken in, or absent when it carries no timestamp and so is
+    *         stamped by CloudWatch on receipt
+    */
+   private static Optional<Date> minuteOf(MetricDatum datum) {
+      if (!datum.getTimestamp().isPresent())
+         return Optional.absent();
+      long time = datum.getTimestamp().get().getTime();
+      return Optional.of(new Date(time - time % RESOLUTION));
+   }
+
+   /**
+    * Stops the periodic flushes and sends the data points still queued.
+    */
+   @Override
+   public synchronized void close() {
+      closed = true;
+      scheduler.shutdown();
+      try {
+         scheduler.awaitTermination(flushInterval, TimeUnit.MILLISECONDS);
+      } catch (InterruptedException e) {
+         Thread.currentThread().interrupt();
+      } finally {
+         scheduler.shutdownNow();
+         flush();
+      }
+   }
+
+   /**
+    * @return data points queued so far
+    */
+   public long getPublished() {
+      return published.get();
+   }
+
+   /**
+    * @return data points dropped because the queue was full or the publisher closed
+    */
+   public long getDropped() {
+      return dropped.get();
+   }
+
+   /**
+    * @return data points sent after aggregation
+    */
+   public long getSent() {
+      return sent.get();
+   }
+
+   /**
+    * @return PutMetricData requests made
+    */
+   public long getPutCalls() {
+      return putCalls.get();
+   }
+
+   /**
+    * @return failed PutMetricData requests
+    */
+   public long getErrors() {
+      return errors.get();
+   }
+
+   /**
+    * @return data points waiting for the next flush
+    */
+   public int getQueued() {
+      return capacity - room.availablePermits();
+   }
+}
@@ -0,0 +1,166 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.cloudwatch;
+
+import static org.easymock.EasyMock.createMock;
+import static org.easymock.EasyMock.replay;
+import static org.easymock.EasyMock.verify;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+import java.util.Date;
+import java.util.List;
+
+import org.jclouds.cloudwatch.MetricPublisher.OverflowPolicy;
+import org.jclouds.cloudwatch.domain.Dimension;
+import org.jclouds.cloudwatch.domain.MetricDatum;
+import org.jclouds.cloudwatch.domain.StatisticValues;
+import org.jclouds.cloudwatch.domain.Unit;
+import org.jclouds.cloudwatch.features.MetricApi;
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Iterables;
+
+/**
+ * Tests behavior of {@code MetricPublisher}.
+ */
+@Test(groups = "unit", testName = "MetricPublisherTest")
+public class MetricPublisherTest {
+
+   private static final String NAMESPACE = "JCLOUDS/Test";
+
+   private static MetricDatum latency(String host, double value) {
+      return MetricDatum.builder().metricName("Latency").dimension(new Dimension("Host", host))
+            .unit(Unit.MILLISECONDS).value(value).build();
+   }
+
+   private static MetricDatum latencyAt(long time, double value) {
+      return MetricDatum.builder().metricName("Latency").dimension(new Dimension("Host", "a"))
+            .unit(Unit.MILLISECONDS).timestamp(new Date(time)).value(value).build();
+   }
+
+   public void testSamplesOfTheSameSeriesAreAggregated() {
+      List<MetricDatum> aggregated = MetricPublisher.aggregate(ImmutableList.of(latency("a", 3), latency("b", 7),
+            latency("a", 1), MetricDatum.builder().metricName("Latency").dimension(new Dimension("Host", "a"))
+                  .unit(Unit.MILLISECONDS).statisticValues(new StatisticValues(9, 2, 4, 20)).build()));
+
+      assertEquals(aggregated.size(), 2);
+      MetricDatum a = aggregated.get(0);
+      assertEquals(a.getDimensions(), ImmutableSet.of(new Dimension("Host", "a")));
+      assertEquals(a.getUnit(), Unit.MILLISECONDS);
+      assertFalse(a.getValue().isPresent());
+      StatisticValues values = a.getStatisticValues().get();
+      assertEquals(values.getMaximum(), 9.0);
+      assertEquals(values.getMinimum(), 1.0);
+      assertEquals(values.getSampleCount(), 6.0);
+      assertEquals(values.getSum(), 24.0);
+      // a series of a single sample is sent as it is
+      assertEquals(aggregated.get(1), latency("b", 7));
+   }
+
+   public void testSamplesTakenInTheSameMinuteAreAggregated() {
+      long minute = 1400000040000L;
+      List<MetricDatum> aggregated = MetricPublisher.aggregate(ImmutableList.of(
+            latencyAt(minute + 1000, 3), latencyAt(minute + 59000, 5), latencyAt(minute + 60000, 8)));
+
+      assertEquals(aggregated.size(), 2);
+      MetricDatum first = aggregated.get(0);
+      assertEquals(first.getTimestamp().get(), new Date(minute));
+      assertEquals(first.getStatisticValues().get().getSampleCount(), 2.0);
+      assertEquals(first.getStatisticValues().get().getSum(), 8.0);
+      // the following minute is a series of its own
+      assertEquals(aggregated.get(1), latencyAt(minute + 60000, 8));
+   }
+
+   public void testFlushSendsFullBatches() {
+      MetricApi metricApi = createMock(MetricApi.class);
+      ImmutableList.Builder<MetricDatum> builder = ImmutableList.builder();
+      for (int i = 0; i < 45; i++) {
+         builder.add(latency("host" + i, i));
+      }
+      List<MetricDatum> metrics = builder.build();
+      for (List<MetricDatum> slice : Iterables.partition(metrics, MetricPublisher.MAX_BATCH)) {
+         metricApi.putMetricsInNamespace(slice, NAMESPACE);
+      }
+      replay(metricApi);
+
+      MetricPublisher publisher = MetricPublisher.builder(metricApi, NAMESPACE).build();
+      for (MetricDatum datum : metrics) {
+         assertTrue(publisher.publish(datum));
+      }
+      publisher.flush();
+
+      verify(metricApi);
+      assertEquals(publisher.getPutCalls(), 3);
+      assertEquals(publisher.getSent(), 45);
+      assertEquals(publisher.getQueued(), 0);
+   }
+
+   public void testFullQueueDropsDataPoints() {
+      MetricApi metricApi = createMock(MetricApi.class);
+      replay(metricApi);
+      MetricPublisher publisher = MetricPublisher.builder(metricApi, NAMESPACE).capacity(2).build();
+
+      assertTrue(publisher.publish(latency("a", 1)));
+      assertTrue(publisher.publish(latency("a", 2)));
+      assertFalse(publisher.publish(latency("a", 3)));
+
+      assertEquals(publisher.getPublished(), 2);
+      assertEquals(publisher.getDropped(), 1);
+      assertEquals(publisher.getQueued(), 2);
+   }
+
+   public void testBlockedDataPointsAreQueuedOnceFlushed() throws InterruptedException {
+      MetricApi metricApi = createMock(MetricApi.class);
+      metricApi.putMetricsInNamespace(ImmutableList.of(latency("a", 1)), NAMESPACE);
+      replay(metricApi);
+      final MetricPublisher publisher = MetricPublisher.builder(metricApi, NAMESPACE).capacity(1)
+            .overflowPolicy(OverflowPolicy.BLOCK).blockTimeout(10000).build();
+      publisher.publish(latency("a", 1));
+
+      Thread flusher = new Thread() {
+         @Override
+         public void run() {
+            publisher.flush();
+         }
+      };
+      flusher.start();
+      assertTrue(publisher.publish(latency("a", 2)));
+      flusher.join();
+
+      verify(metricApi);
+      assertEquals(publisher.getDropped(), 0);
+      assertEquals(publisher.getQueued(), 1);
+   }
+
+   public void testCloseSendsTheQueuedDataPoints() {
+      MetricApi metricApi = createMock(MetricApi.class);
+      metricApi.putMetricsInNamespace(ImmutableList.of(latency("a", 1)), NAMESPACE);
+      replay(metricApi);
+      MetricPublisher publisher = MetricPublisher.builder(metricApi, NAMESPACE).build();
+      publisher.start();
+      publisher.publish(latency("a", 1));
+
+      publisher.close();
+
+      verify(metricApi);
+      assertFalse(publisher.publish(latency("a", 2)));
+   }
+}
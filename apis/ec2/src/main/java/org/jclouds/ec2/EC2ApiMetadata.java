@@ -21,7 +21,9 @@ import static org.jclouds.aws.reference.AWSConstants.PROPERTY_HEADER_TAG;
 import static org.jclouds.compute.config.ComputeServiceProperties.RESOURCENAME_DELIMITER;
 import static org.jclouds.ec2.reference.EC2Constants.PROPERTY_EC2_AMI_OWNERS;
 import static org.jclouds.ec2.reference.EC2Constants.PROPERTY_EC2_AUTO_ALLOCATE_ELASTIC_IPS;
+import static org.jclouds.ec2.reference.EC2Constants.PROPERTY_EC2_FILTER_NODES_BY_GROUP;
 import static org.jclouds.ec2.reference.EC2Constants.PROPERTY_EC2_GENERATE_INSTANCE_NAMES;
+import static org.jclouds.ec2.reference.EC2Constants.PROPERTY_EC2_PARALLEL_REGION_LISTING;
 import static org.jclouds.ec2.reference.EC2Constants.PROPERTY_EC2_TIMEOUT_SECURITYGROUP_PRESENT;
 
 import java.net.URI;
@@ -61,6 +63,8 @@ public final class EC2ApiMetadata extends BaseHttpApiMetadata<EC2Api> {
       properties.setProperty(PROPERTY_EC2_AUTO_ALLOCATE_ELASTIC_IPS, "false");
       properties.setProperty(RESOURCENAME_DELIMITER, "#");
       properties.setProperty(PROPERTY_EC2_GENERATE_INSTANCE_NAMES, "true");
+      properties.setProperty(PROPERTY_EC2_PARALLEL_REGION_LISTING, "false");
+      properties.setProperty(PROPERTY_EC2_FILTER_NODES_BY_GROUP, "false");
       return properties;
    }
 
@@ -36,20 +36,27 @@ import javax.inject.Singleton;
 
 import org.jclouds.Constants;
 import org.jclouds.aws.util.AWSUtils;
+import org.jclouds.compute.config.ComputeServiceProperties;
 import org.jclouds.compute.domain.ComputeMetadata;
 import org.jclouds.compute.domain.NodeMetadata;
+import org.jclouds.compute.functions.GroupNamingConvention;
 import org.jclouds.compute.predicates.NodePredicates;
 import org.jclouds.compute.reference.ComputeServiceConstants;
+import org.jclouds.compute.strategy.FanOut;
 import org.jclouds.compute.strategy.ListNodesStrategy;
 import org.jclouds.ec2.EC2Api;
 import org.jclouds.ec2.domain.Reservation;
 import org.jclouds.ec2.domain.RunningInstance;
+import org.jclouds.ec2.features.InstanceApi;
+import org.jclouds.ec2.reference.EC2Constants;
 import org.jclouds.location.Region;
 import org.jclouds.logging.Logger;
 
 import com.google.common.base.Function;
+import com.google.common.base.Optional;
 import com.google.common.base.Predicate;
 import com.google.common.base.Supplier;
+import com.google.common.collect.ImmutableMultimap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Multimap;
 import com.google.common.util.concurrent.ListeningExecutorService;
@@ -64,7 +71,22 @@ public class EC2ListNodesStrategy implements ListNodesStrategy {
 
    @Inject(optional = true)
    @Named(Constants.PROPERTY_REQUEST_TIMEOUT)
-   protected static Long maxTime;
+   protected Long maxTime;
+
+   @Inject(optional = true)
+   @Named(EC2Constants.PROPERTY_EC2_PARALLEL_REGION_LISTING)
+   protected boolean parallelRegionListing = false;
+
+   @Inject(optional = true)
+   @Named(ComputeServiceProperties.FAN_OUT_MAX_CONCURRENCY)
+   protected int maxConcurrency = FanOut.DEFAULT_MAX_CONCURRENCY;
+
+   @Inject(optional = true)
+   @Named(EC2Constants.PROPERTY_EC2_FILTER_NODES_BY_GROUP)
+   protected boolean filterNodesByGroup = false;
+
+   @Inject
+   protected GroupNamingConvention.Factory namingConvention;
 
    protected final EC2Api client;
    protected final Supplier<Set<String>> regions;
@@ -88,15 +110,7 @@ public class EC2ListNodesStrategy implements ListNodesStrategy {
 
    @Override
    public Set<? extends NodeMetadata> listNodesByIds(Iterable<String> ids) {
-      Multimap<String, String> idsByHandles = index(ids, splitHandle(1));
-      Multimap<String, String> idsByRegions = transformValues(idsByHandles, splitHandle(0));
-      Multimap<String, String> idsByConfiguredRegions = filterKeys(idsByRegions, in(regions.get()));
-
-      if (idsByConfiguredRegions.isEmpty()) {
-         return ImmutableSet.of();
-      }
-      
-      Iterable<? extends RunningInstance> instances = pollRunningInstancesByRegionsAndIds(idsByConfiguredRegions);
+      Iterable<? extends RunningInstance> instances = pollRunningInstancesByIds(ids);
       Iterable<? extends NodeMetadata> nodes = transform(filter(instances, notNull()),
                                                          runningInstanceToNodeMetadata);
       return ImmutableSet.copyOf(nodes);
@@ -104,26 +118,79 @@ public class EC2ListNodesStrategy implements ListNodesStrategy {
 
    @Override
    public Set<? extends NodeMetadata> listDetailsOnNodesMatching(Predicate<ComputeMetadata> filter) {
-      Iterable<? extends RunningInstance> instances = pollRunningInstances();
+      Iterable<? extends RunningInstance> instances = pollRunningInstancesMatching(filter);
       Iterable<? extends NodeMetadata> nodes = filter(transform(filter(instances, notNull()),
                runningInstanceToNodeMetadata), and(notNull(), filter));
       return ImmutableSet.copyOf(nodes);
    }
 
+   /**
+    * Only describes the instances with the ids {@code filter} is built for by
+    * {@link NodePredicates#withIds}, or, when {@link EC2Constants#PROPERTY_EC2_FILTER_NODES_BY_GROUP} is set, the
+    * instances that may be in the group it is built for by {@link NodePredicates#inGroup}.
+    */
+   protected Iterable<? extends RunningInstance> pollRunningInstancesMatching(Predicate<ComputeMetadata> filter) {
+      Optional<Set<String>> ids = NodePredicates.idsSelectedBy(filter);
+      if (ids.isPresent())
+         return pollRunningInstancesByIds(ids.get());
+      Optional<String> group = NodePredicates.groupSelectedBy(filter);
+      if (group.isPresent() && filterNodesByGroup)
+         return pollRunningInstancesInGroup(group.get());
+      return pollRunningInstances();
+   }
+
+   private Iterable<? extends RunningInstance> pollRunningInstancesByIds(Iterable<String> ids) {
+      Multimap<String, String> handlesByRegions = index(ids, splitHandle(0));
+      Multimap<String, String> idsByRegions = transformValues(handlesByRegions, splitHandle(1));
+      Multimap<String, String> idsByConfiguredRegions = filterKeys(idsByRegions, in(regions.get()));
+
+      if (idsByConfiguredRegions.isEmpty()) {
+         return ImmutableSet.of();
+      }
+      
+      return pollRunningInstancesByRegionsAndIds(idsByConfiguredRegions);
+   }
+
    protected Iterable<? extends RunningInstance> pollRunningInstances() {
       Iterable<? extends Set<? extends Reservation<? extends RunningInstance>>> reservations
-         = transform(regions.get(), allInstancesInRegion());
+         = transformRegions(regions.get(), allInstancesInRegion(), "reservations");
       
       return concat(concat(reservations));
    }
 
+   protected Iterable<? extends RunningInstance> pollRunningInstancesInGroup(String group) {
+      Iterable<? extends Set<? extends Reservation<? extends RunningInstance>>> reservations
+         = transformRegions(regions.get(), instancesInGroupInRegion(group), "reservations in group");
+
+      return concat(concat(reservations));
+   }
+
    protected Iterable<? extends RunningInstance> pollRunningInstancesByRegionsAndIds(final Multimap<String, String> idsByRegions) {
       Iterable<? extends Set<? extends Reservation<? extends RunningInstance>>> reservations
-         = transform(idsByRegions.keySet(), instancesByIdInRegion(idsByRegions));
+         = transformRegions(idsByRegions.keySet(), instancesByIdInRegion(idsByRegions), "reservations by id");
       
       return concat(concat(reservations));
    }
 
+   /**
+    * Applies {@code function} to each region, either lazily on the calling thread or, when
+    * {@link EC2Constants#PROPERTY_EC2_PARALLEL_REGION_LISTING} is set, concurrently on the user executor.
+    */
+   protected <T> Iterable<T> transformRegions(Iterable<String> regions, Function<String, T> function, String logPrefix) {
+      if (!parallelRegionListing)
+         return transform(regions, function);
+      return transformRegionsInParallel(regions, function, logPrefix);
+   }
+
+   /**
+    * Lists the regions concurrently using {@link FanOut}, so that one slow or broken region does not hide the nodes
+    * in the others.
+    */
+   protected <T> Iterable<T> transformRegionsInParallel(Iterable<String> regions, Function<String, T> function,
+            String logPrefix) {
+      return FanOut.transform(regions, function, userExecutor, maxTime, maxConcurrency, logger, logPrefix).values();
+   }
+
    protected Function<String, String> splitHandle(final int pos) {
       return new Function<String, String>() {
 
@@ -145,6 +212,30 @@ public class EC2ListNodesStrategy implements ListNodesStrategy {
       };
    }
 
+   /**
+    * Describes the instances in the security group of {@code group} or with a key pair named after it, as
+    * {@link org.jclouds.ec2.compute.functions.RunningInstanceToNodeMetadata} reads the group from either. The key pair
+    * filter may match other groups sharing the same prefix, which are filtered out afterwards.
+    */
+   protected Function<String, Set<? extends Reservation<? extends RunningInstance>>> instancesInGroupInRegion(
+            String group) {
+      final String sharedName = namingConvention.create().sharedNameForGroup(group);
+      return new Function<String, Set<? extends Reservation<? extends RunningInstance>>>() {
+
+         @Override
+         public Set<? extends Reservation<? extends RunningInstance>> apply(String from) {
+            InstanceApi instanceApi = client.getInstanceApi().get();
+            return ImmutableSet.<Reservation<? extends RunningInstance>> builder()
+               .addAll(instanceApi.describeInstancesInRegionWithFilter(from,
+                        ImmutableMultimap.of("instance.group-name", sharedName)))
+               .addAll(instanceApi.describeInstancesInRegionWithFilter(from,
+                        ImmutableMultimap.of("key-name", sharedName + "*")))
+               .build();
+         }
+
+      };
+   }
+
    protected Function<String, Set<? extends Reservation<? extends RunningInstance>>>
                                                                   instancesByIdInRegion(final Multimap<String, String> idsByRegions) {
       return new Function<String, Set<? extends Reservation<? extends RunningInstance>>>() {
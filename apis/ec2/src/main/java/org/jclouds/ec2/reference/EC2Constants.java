@@ -44,6 +44,22 @@ public class EC2Constants {
     */
    public static final String PROPERTY_EC2_GENERATE_INSTANCE_NAMES = "jclouds.ec2.generate-instance-names";
 
+   /**
+    * If this property is set to true, nodes are listed in all regions concurrently on the user executor, waiting at
+    * most {@link org.jclouds.Constants#PROPERTY_REQUEST_TIMEOUT} per region. Regions that fail are logged and skipped,
+    * so that the nodes in the remaining regions are still returned. Defaults to false, which lists one region after
+    * another.
+    */
+   public static final String PROPERTY_EC2_PARALLEL_REGION_LISTING = "jclouds.ec2.parallel-region-listing";
+
+   /**
+    * If this property is set to true, listing the nodes of a group, e.g. with
+    * {@link org.jclouds.compute.predicates.NodePredicates#inGroup}, only describes the instances whose security group
+    * or key pair is named after the group, using DescribeInstances filters. Defaults to false, as not every EC2 clone
+    * supports filters.
+    */
+   public static final String PROPERTY_EC2_FILTER_NODES_BY_GROUP = "jclouds.ec2.filter-nodes-by-group";
+
    protected EC2Constants() {
       throw new AssertionError("intentionally unimplemented");
    }
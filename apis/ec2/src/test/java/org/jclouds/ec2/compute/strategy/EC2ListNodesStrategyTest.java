@@ -0,0 +1,220 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.ec2.compute.strategy;
+
+import static org.easymock.EasyMock.createMock;
+import static org.testng.Assert.assertEquals;
+
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.jclouds.compute.domain.ComputeMetadata;
+import org.jclouds.compute.domain.NodeMetadata;
+import org.jclouds.compute.domain.NodeMetadata.Status;
+import org.jclouds.compute.domain.NodeMetadataBuilder;
+import org.jclouds.compute.predicates.NodePredicates;
+import org.jclouds.concurrent.TransformParallelException;
+import org.jclouds.ec2.EC2Api;
+import org.jclouds.ec2.domain.InstanceState;
+import org.jclouds.ec2.domain.Reservation;
+import org.jclouds.ec2.domain.RunningInstance;
+import org.jclouds.rest.AuthorizationException;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import com.google.common.base.Function;
+import com.google.common.base.Predicate;
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Multimap;
+import com.google.common.util.concurrent.ListeningExecutorService;
+import com.google.common.util.concurrent.MoreExecutors;
+
+@Test(groups = "unit", testName = "EC2ListNodesStrategyTest")
+public class EC2ListNodesStrategyTest {
+
+   private static final Function<RunningInstance, NodeMetadata> TO_NODE = new Function<RunningInstance, NodeMetadata>() {
+      @Override
+      public NodeMetadata apply(RunningInstance input) {
+         return new NodeMetadataBuilder().id(input.getRegion() + "/" + input.getId()).group(input.getKeyName())
+               .status(Status.RUNNING).build();
+      }
+   };
+
+   private ExecutorService executor;
+   private ListeningExecutorService userExecutor;
+
+   @BeforeClass
+   public void setUp() {
+      executor = Executors.newCachedThreadPool();
+      userExecutor = MoreExecutors.listeningDecorator(executor);
+   }
+
+   @AfterClass(alwaysRun = true)
+   public void tearDown() {
+      executor.shutdownNow();
+   }
+
+   public void testSequentialListingIsDefault() {
+      EC2ListNodesStrategy strategy = strategy(ImmutableSet.of("us-east-1", "us-west-1"));
+
+      assertEquals(ids(strategy.listNodes()), ImmutableSet.of("us-east-1/i-1", "us-west-1/i-1"));
+   }
+
+   public void testParallelListingMergesAllRegions() {
+      EC2ListNodesStrategy strategy = strategy(ImmutableSet.of("us-east-1", "us-west-1", "eu-west-1"));
+      strategy.parallelRegionListing = true;
+
+      assertEquals(ids(strategy.listNodes()), ImmutableSet.of("us-east-1/i-1", "us-west-1/i-1", "eu-west-1/i-1"));
+   }
+
+   public void testParallelListingReturnsPartialResultsWhenRegionFails() {
+      EC2ListNodesStrategy strategy = strategy(ImmutableSet.of("us-east-1", "broken", "eu-west-1"));
+      strategy.parallelRegionListing = true;
+
+      assertEquals(ids(strategy.listNodes()), ImmutableSet.of("us-east-1/i-1", "eu-west-1/i-1"));
+   }
+
+   public void testParallelListingReturnsPartialResultsWhenRegionTimesOut() {
+      EC2ListNodesStrategy strategy = strategy(ImmutableSet.of("us-east-1", "slow"));
+      strategy.parallelRegionListing = true;
+      strategy.maxTime = 100L;
+
+      assertEquals(ids(strategy.listNodes()), ImmutableSet.of("us-east-1/i-1"));
+   }
+
+   @Test(expectedExceptions = AuthorizationException.class)
+   public void testParallelListingPropagatesAuthorizationException() {
+      EC2ListNodesStrategy strategy = strategy(ImmutableSet.of("us-east-1", "unauthorized"));
+      strategy.parallelRegionListing = true;
+
+      strategy.listNodes();
+   }
+
+   @Test(expectedExceptions = TransformParallelException.class)
+   public void testParallelListingFailsWhenAllRegionsFail() {
+      EC2ListNodesStrategy strategy = strategy(ImmutableSet.of("broken"));
+      strategy.parallelRegionListing = true;
+
+      strategy.listNodes();
+   }
+
+   public void testIdsAreDescribedWithoutListingEveryInstance() {
+      EC2ListNodesStrategy strategy = filteringStrategy();
+
+      assertEquals(ids(strategy.listDetailsOnNodesMatching(NodePredicates.<ComputeMetadata> withIds("us-east-1/i-2"))),
+            ImmutableSet.of("us-east-1/i-2"));
+   }
+
+   public void testGroupIsDescribedWithFilters() {
+      EC2ListNodesStrategy strategy = filteringStrategy();
+      strategy.filterNodesByGroup = true;
+
+      assertEquals(ids(strategy.listDetailsOnNodesMatching(inGroup("web"))), ImmutableSet.of("us-east-1/i-3"));
+   }
+
+   @Test(expectedExceptions = AssertionError.class)
+   public void testGroupIsListedWhenFiltersAreDisabled() {
+      filteringStrategy().listDetailsOnNodesMatching(inGroup("web"));
+   }
+
+   @SuppressWarnings("unchecked")
+   private static Predicate<ComputeMetadata> inGroup(String group) {
+      return (Predicate<ComputeMetadata>) (Predicate<?>) NodePredicates.inGroup(group);
+   }
+
+   private EC2ListNodesStrategy filteringStrategy() {
+      Supplier<Set<String>> regionSupplier = Suppliers.<Set<String>> ofInstance(ImmutableSet.of("us-east-1"));
+      return new EC2ListNodesStrategy(createMock(EC2Api.class), regionSupplier, TO_NODE, userExecutor) {
+         @Override
+         protected Function<String, Set<? extends Reservation<? extends RunningInstance>>> allInstancesInRegion() {
+            throw new AssertionError("listed every instance");
+         }
+
+         @Override
+         protected Function<String, Set<? extends Reservation<? extends RunningInstance>>> instancesByIdInRegion(
+               Multimap<String, String> idsByRegions) {
+            return describing(reservation("i-2", null));
+         }
+
+         @Override
+         protected Function<String, Set<? extends Reservation<? extends RunningInstance>>> instancesInGroupInRegion(
+               String group) {
+            // the key pair filter also matches the instances of other groups sharing the prefix
+            Set<Reservation<RunningInstance>> reservations = ImmutableSet.<Reservation<RunningInstance>> builder()
+                  .addAll(reservation("i-3", group)).addAll(reservation("i-4", group + "2")).build();
+            return describing(reservations);
+         }
+      };
+   }
+
+   private static Function<String, Set<? extends Reservation<? extends RunningInstance>>> describing(
+         final Set<? extends Reservation<? extends RunningInstance>> reservations) {
+      return new Function<String, Set<? extends Reservation<? extends RunningInstance>>>() {
+         @Override
+         public Set<? extends Reservation<? extends RunningInstance>> apply(String region) {
+            return reservations;
+         }
+      };
+   }
+
+   private static Set<Reservation<RunningInstance>> reservation(String id, String keyName) {
+      RunningInstance instance = RunningInstance.builder().region("us-east-1").instanceId(id).imageId("ami-1")
+            .instanceType("m1.small").instanceState(InstanceState.RUNNING).rawState("running").keyName(keyName)
+            .build();
+      return ImmutableSet.of(Reservation.<RunningInstance> builder().region("us-east-1").instance(instance).build());
+   }
+
+   private EC2ListNodesStrategy strategy(Set<String> regions) {
+      Supplier<Set<String>> regionSupplier = Suppliers.<Set<String>> ofInstance(regions);
+      return new EC2ListNodesStrategy(createMock(EC2Api.class), regionSupplier, TO_NODE, userExecutor) {
+         @Override
+         protected Function<String, Set<? extends Reservation<? extends RunningInstance>>> allInstancesInRegion() {
+            return new Function<String, Set<? extends Reservation<? extends RunningInstance>>>() {
+               @Override
+               public Set<? extends Reservation<? extends RunningInstance>> apply(String region) {
+                  if (region.equals("broken"))
+                     throw new RuntimeException("region is broken");
+                  if (region.equals("unauthorized"))
+                     throw new AuthorizationException("not authorized in region");
+                  if (region.equals("slow")) {
+                     try {
+                        Thread.sleep(10000);
+                     } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                     }
+                  }
+                  RunningInstance instance = RunningInstance.builder().region(region).instanceId("i-1").imageId("ami-1")
+                        .instanceType("m1.small").instanceState(InstanceState.RUNNING).rawState("running").build();
+                  return ImmutableSet.of(Reservation.<RunningInstance> builder().region(region).instance(instance)
+                        .build());
+               }
+            };
+         }
+      };
+   }
+
+   private static Set<String> ids(Set<? extends ComputeMetadata> nodes) {
+      ImmutableSet.Builder<String> ids = ImmutableSet.builder();
+      for (ComputeMetadata node : nodes)
+         ids.add(node.getId());
+      return ids.build();
+   }
+}
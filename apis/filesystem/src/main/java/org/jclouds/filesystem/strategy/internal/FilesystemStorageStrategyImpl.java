@@ -24,9 +24,14 @@ import static com.google.common.base.Strings.isNullOrEmpty;
 import static com.google.common.io.BaseEncoding.base16;
 
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.nio.file.attribute.UserDefinedFileAttributeView;
 import java.nio.charset.StandardCharsets;
 import java.util.Date;
@@ -42,6 +47,7 @@ import org.jclouds.blobstore.LocalStorageStrategy;
 import org.jclouds.blobstore.domain.Blob;
 import org.jclouds.blobstore.domain.BlobBuilder;
 import org.jclouds.blobstore.options.ListContainerOptions;
+import org.jclouds.blobstore.util.BlobStoreUtils;
 import org.jclouds.domain.Location;
 import org.jclouds.filesystem.predicates.validators.FilesystemBlobKeyValidator;
 import org.jclouds.filesystem.predicates.validators.FilesystemContainerNameValidator;
@@ -49,6 +55,7 @@ import org.jclouds.filesystem.reference.FilesystemConstants;
 import org.jclouds.filesystem.util.Utils;
 import org.jclouds.io.ContentMetadata;
 import org.jclouds.io.Payload;
+import org.jclouds.javax.annotation.Nullable;
 import org.jclouds.logging.Logger;
 import org.jclouds.rest.annotations.ParamValidators;
 
@@ -79,6 +86,9 @@ public class FilesystemStorageStrategyImpl implements LocalStorageStrategy {
 
    private static final String BACK_SLASH = "\\";
 
+   /** Uploads are written to a file with this prefix in the target directory, then moved into place. */
+   private static final String TEMP_FILE_PREFIX = ".jclouds-upload-";
+
    @Resource
    protected Logger logger = Logger.NULL;
 
@@ -195,6 +205,17 @@ public class FilesystemStorageStrategyImpl implements LocalStorageStrategy {
       return blobNames;
    }
 
+   /**
+    * The file system has no sorted index, so the keys are sorted once per call; the caller still only loads
+    * metadata for the keys in the requested range.
+    */
+   @Override
+   public Iterable<String> getBlobKeysInsideContainer(String container, @Nullable String prefix,
+         @Nullable String marker) throws IOException {
+      return BlobStoreUtils.keysWithPrefixAfterMarker(Sets.newTreeSet(getBlobKeysInsideContainer(container)), prefix,
+            marker);
+   }
+
    @Override
    public Blob getBlob(final String container, final String key) {
       BlobBuilder builder = blobBuilders.get();
@@ -271,13 +292,13 @@ public class FilesystemStorageStrategyImpl implements LocalStorageStrategy {
       filesystemContainerNameValidator.validate(containerName);
       filesystemBlobKeyValidator.validate(blobKey);
       File outputFile = getFileForBlobKey(containerName, blobKey);
-      Path outputPath = outputFile.toPath();
-      HashingInputStream his = null;
+      // write to a temporary file in the same directory, so that readers never observe a partial blob
+      File tmpFile = null;
       try {
          Files.createParentDirs(outputFile);
-         his = new HashingInputStream(Hashing.md5(), payload.openStream());
-         Files.asByteSink(outputFile).writeFrom(his);
-         HashCode actualHashCode = his.hash();
+         tmpFile = File.createTempFile(TEMP_FILE_PREFIX, ".tmp", outputFile.getParentFile());
+         Path outputPath = tmpFile.toPath();
+         HashCode actualHashCode = writePayloadToFile(payload, tmpFile);
          HashCode expectedHashCode = payload.getContentMetadata().getContentMD5AsHashCode();
          if (expectedHashCode != null && !actualHashCode.equals(expectedHashCode)) {
             throw new IOException("MD5 hash code mismatch, actual: " + actualHashCode +
@@ -302,17 +323,61 @@ public class FilesystemStorageStrategyImpl implements LocalStorageStrategy {
                writeStringAttributeIfPresent(view, XATTR_USER_METADATA_PREFIX + entry.getKey(), entry.getValue());
             }
          }
+         moveIntoPlace(tmpFile, outputFile);
+         tmpFile = null;
          return base16().lowerCase().encode(actualHashCode.asBytes());
-      } catch (IOException ex) {
-         if (outputFile != null) {
-            if (!outputFile.delete()) {
-               logger.debug("Could not delete %s", outputFile);
+      } finally {
+         if (tmpFile != null && !tmpFile.delete()) {
+            logger.debug("Could not delete %s", tmpFile);
+         }
+         payload.release();
+      }
+   }
+
+   /**
+    * Copies the payload into the file and returns its MD5. Files are copied by the kernel with
+    * {@link FileChannel#transferFrom}, and then hashed from the page cache, rather than through heap buffers.
+    */
+   private static HashCode writePayloadToFile(Payload payload, File file) throws IOException {
+      if (payload.getRawContent() instanceof File) {
+         File source = (File) payload.getRawContent();
+         FileInputStream in = new FileInputStream(source);
+         try {
+            FileOutputStream out = new FileOutputStream(file);
+            try {
+               FileChannel sourceChannel = in.getChannel();
+               FileChannel targetChannel = out.getChannel();
+               long size = sourceChannel.size();
+               long position = 0;
+               while (position < size) {
+                  position += targetChannel.transferFrom(sourceChannel, position, size - position);
+               }
+            } finally {
+               Closeables.close(out, false);
             }
+         } finally {
+            Closeables.closeQuietly(in);
          }
-         throw ex;
+         return Files.asByteSource(file).hash(Hashing.md5());
+      }
+      HashingInputStream his = new HashingInputStream(Hashing.md5(), payload.openStream());
+      try {
+         Files.asByteSink(file).writeFrom(his);
+         return his.hash();
       } finally {
          Closeables.closeQuietly(his);
-         payload.release();
+      }
+   }
+
+   /**
+    * Atomically replaces the target with the source where the file system supports it.
+    */
+   private static void moveIntoPlace(File source, File target) throws IOException {
+      try {
+         java.nio.file.Files.move(source.toPath(), target.toPath(), StandardCopyOption.ATOMIC_MOVE,
+               StandardCopyOption.REPLACE_EXISTING);
+      } catch (AtomicMoveNotSupportedException e) {
+         java.nio.file.Files.move(source.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
       }
    }
 
@@ -540,6 +605,10 @@ public class FilesystemStorageStrategyImpl implements LocalStorageStrategy {
          Function<String, String> function) {
       File[] children = directory.listFiles();
       for (File child : children) {
+         if (child.getName().startsWith(TEMP_FILE_PREFIX)) {
+            // upload in progress
+            continue;
+         }
          if (child.isFile()) {
             blobNames.add(function.apply(child.getAbsolutePath()));
          } else if (child.isDirectory()) {
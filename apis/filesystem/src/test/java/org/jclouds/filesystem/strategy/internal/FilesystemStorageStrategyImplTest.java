@@ -45,6 +45,7 @@ import org.testng.annotations.AfterMethod;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
 import com.google.common.io.ByteSource;
@@ -376,6 +377,25 @@ public class FilesystemStorageStrategyImplTest {
             "Files are not equal");
    }
 
+   public void testWritePayloadReplacesExistingBlobAndLeavesNoTemporaryFiles() throws IOException {
+      String blobKey = TestUtils.createRandomBlobKey("writePayload-", ".img");
+      File sourceFile = TestUtils.getImageForBlobPayload();
+      Blob blob = storageStrategy.newBlob(blobKey);
+      blob.setPayload("old content");
+      storageStrategy.putBlob(CONTAINER_NAME, blob);
+
+      blob = storageStrategy.newBlob(blobKey);
+      blob.setPayload(new FilePayload(sourceFile));
+      storageStrategy.putBlob(CONTAINER_NAME, blob);
+
+      File blobFullPath = new File(TARGET_CONTAINER_NAME, blobKey);
+      assertTrue(Files.asByteSource(sourceFile).contentEquals(Files.asByteSource(blobFullPath)),
+            "Files are not equal");
+      assertEquals(ImmutableList.copyOf(storageStrategy.getBlobKeysInsideContainer(CONTAINER_NAME)),
+            ImmutableList.of(blobKey));
+      assertEquals(new File(TARGET_CONTAINER_NAME).list().length, 1, "Temporary file left behind");
+   }
+
    public void testWritePayloadOnFile_SourceFileDoesntExist() {
       File sourceFile = new File("asdfkjsadkfjasdlfasdflk.asdfasdfas");
       FilePayload payload = new FilePayload(sourceFile);
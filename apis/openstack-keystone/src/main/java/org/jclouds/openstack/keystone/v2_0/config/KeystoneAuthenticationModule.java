@@ -20,6 +20,7 @@ import static com.google.common.base.Preconditions.checkArgument;
 import static org.jclouds.util.Suppliers2.getLastValueInMap;
 
 import java.net.URI;
+import java.util.Date;
 import java.util.Map;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
@@ -28,6 +29,7 @@ import java.util.concurrent.TimeoutException;
 import javax.inject.Named;
 import javax.inject.Singleton;
 
+import org.jclouds.Constants;
 import org.jclouds.domain.Credentials;
 import org.jclouds.http.HttpRetryHandler;
 import org.jclouds.http.annotation.ClientError;
@@ -55,6 +57,7 @@ import org.jclouds.openstack.keystone.v2_0.suppliers.RegionIdToAdminURISupplier;
 import org.jclouds.openstack.keystone.v2_0.suppliers.RegionIdToURIFromAccessForTypeAndVersion;
 import org.jclouds.openstack.keystone.v2_0.suppliers.ZoneIdToURIFromAccessForTypeAndVersion;
 import org.jclouds.rest.annotations.ApiVersion;
+import org.jclouds.rest.internal.RenewingLoadingCache;
 
 import com.google.common.base.Function;
 import com.google.common.base.Supplier;
@@ -63,6 +66,7 @@ import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.ImmutableSet.Builder;
+import com.google.common.util.concurrent.ListeningExecutorService;
 import com.google.inject.AbstractModule;
 import com.google.inject.Injector;
 import com.google.inject.Provides;
@@ -217,10 +221,32 @@ public class KeystoneAuthenticationModule extends AbstractModule {
 
    // TODO: what is the timeout of the session token? modify default accordingly
    // PROPERTY_SESSION_INTERVAL is default to 60 seconds, but we have this here at 11 hours for now.
+   // tokens are renewed 5 minutes before they expire, at most once a minute, and the requests rejected with a token
+   // which was renewed since retry with the new one
    @Provides
    @Singleton
-   public LoadingCache<Credentials, Access> provideAccessCache(Function<Credentials, Access> getAccess) {
-      return CacheBuilder.newBuilder().expireAfterWrite(11, TimeUnit.HOURS).build(CacheLoader.from(getAccess));
+   protected RenewingLoadingCache<Credentials, Access> provideRenewingAccessCache(
+         Function<Credentials, Access> getAccess,
+         @Named(Constants.PROPERTY_USER_THREADS) ListeningExecutorService userExecutor) {
+      CacheLoader<Credentials, Access> loader = CacheLoader.from(getAccess);
+      return new RenewingLoadingCache<Credentials, Access>(CacheBuilder.newBuilder().expireAfterWrite(11, TimeUnit.HOURS)
+            .build(loader), loader, new Function<Access, Date>() {
+               @Override
+               public Date apply(Access input) {
+                  return input.getToken().getExpires();
+               }
+            }, new Function<Access, String>() {
+               @Override
+               public String apply(Access input) {
+                  return input.getToken().getId();
+               }
+            }, 300, 60, TimeUnit.SECONDS, userExecutor);
+   }
+
+   @Provides
+   @Singleton
+   public LoadingCache<Credentials, Access> provideAccessCache(RenewingLoadingCache<Credentials, Access> cache) {
+      return cache;
    }
 
    // Temporary conversion of a cache to a supplier until there is a single-element cache
@@ -68,7 +68,8 @@ import com.google.common.collect.ImmutableSet.Builder;
  * model to the computeService generic domain model.
  */
 public class NovaComputeServiceAdapter implements
-         ComputeServiceAdapter<ServerInRegion, FlavorInRegion, ImageInRegion, Location> {
+         ComputeServiceAdapter<ServerInRegion, FlavorInRegion, ImageInRegion, Location>,
+         ComputeServiceAdapter.ListsNodesByLocation<ServerInRegion> {
 
    @Resource
    @Named(ComputeServiceConstants.COMPUTE_LOGGER)
@@ -200,20 +201,30 @@ public class NovaComputeServiceAdapter implements
    @Override
    public Iterable<ServerInRegion> listNodes() {
       Builder<ServerInRegion> builder = ImmutableSet.builder();
-      for (final String regionId : regionIds.get()) {
-         builder.addAll(novaApi.getServerApi(regionId).listInDetail().concat()
-                  .transform(new Function<Server, ServerInRegion>() {
-
-                     @Override
-                     public ServerInRegion apply(Server arg0) {
-                        return new ServerInRegion(arg0, regionId);
-                     }
-
-                  }));
+      for (String regionId : listNodeLocationIds()) {
+         builder.addAll(listNodesInLocation(regionId));
       }
       return builder.build();
    }
 
+   @Override
+   public Iterable<String> listNodeLocationIds() {
+      return regionIds.get();
+   }
+
+   @Override
+   public Iterable<ServerInRegion> listNodesInLocation(final String regionId) {
+      return novaApi.getServerApi(regionId).listInDetail().concat()
+               .transform(new Function<Server, ServerInRegion>() {
+
+                  @Override
+                  public ServerInRegion apply(Server arg0) {
+                     return new ServerInRegion(arg0, regionId);
+                  }
+
+               });
+   }
+
    @Override
    public Iterable<ServerInRegion> listNodesByIds(final Iterable<String> ids) {
       return filter(listNodes(), new Predicate<ServerInRegion>() {
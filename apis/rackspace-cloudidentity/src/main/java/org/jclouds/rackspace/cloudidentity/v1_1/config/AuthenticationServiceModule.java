@@ -17,8 +17,10 @@
 package org.jclouds.rackspace.cloudidentity.v1_1.config;
 
 import static org.jclouds.Constants.PROPERTY_SESSION_INTERVAL;
+import static org.jclouds.Constants.PROPERTY_USER_THREADS;
 import static org.jclouds.rest.config.BinderUtils.bindHttpApi;
 
+import java.util.Date;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
@@ -37,11 +39,14 @@ import org.jclouds.rackspace.cloudidentity.v1_1.domain.Auth;
 import org.jclouds.rackspace.cloudidentity.v1_1.handlers.RetryOnRenew;
 import org.jclouds.rackspace.cloudidentity.v1_1.suppliers.RegionIdToURIFromAuthForServiceSupplier;
 import org.jclouds.rackspace.cloudidentity.v1_1.suppliers.V1DefaultRegionIdSupplier;
+import org.jclouds.rest.internal.RenewingLoadingCache;
 
+import com.google.common.base.Function;
 import com.google.common.base.Supplier;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
+import com.google.common.util.concurrent.ListeningExecutorService;
 import com.google.inject.AbstractModule;
 import com.google.inject.Provides;
 import com.google.inject.assistedinject.FactoryModuleBuilder;
@@ -96,11 +101,33 @@ public class AuthenticationServiceModule extends AbstractModule {
       }
    }
 
+   /**
+    * Tokens are renewed 5 minutes before they expire, at most once a minute, and the requests rejected with a token
+    * which was renewed since retry with the new one.
+    */
+   @Provides
+   @Singleton
+   protected RenewingLoadingCache<Credentials, Auth> provideRenewingAuthCache(GetAuth getAuth,
+         @Named(PROPERTY_SESSION_INTERVAL) long sessionInterval,
+         @Named(PROPERTY_USER_THREADS) ListeningExecutorService userExecutor) {
+      return new RenewingLoadingCache<Credentials, Auth>(CacheBuilder.newBuilder()
+            .expireAfterWrite(sessionInterval, TimeUnit.SECONDS).build(getAuth), getAuth, new Function<Auth, Date>() {
+               @Override
+               public Date apply(Auth input) {
+                  return input.getToken().getExpires();
+               }
+            }, new Function<Auth, String>() {
+               @Override
+               public String apply(Auth input) {
+                  return input.getToken().getId();
+               }
+            }, 300, 60, TimeUnit.SECONDS, userExecutor);
+   }
+
    @Provides
    @Singleton
-   protected LoadingCache<Credentials, Auth> provideAuthCache(GetAuth getAuth,
-         @Named(PROPERTY_SESSION_INTERVAL) long sessionInterval) {
-      return CacheBuilder.newBuilder().expireAfterWrite(sessionInterval, TimeUnit.SECONDS).build(getAuth);
+   protected LoadingCache<Credentials, Auth> provideAuthCache(RenewingLoadingCache<Credentials, Auth> cache) {
+      return cache;
    }
 
    @Provides
@@ -19,6 +19,7 @@ package org.jclouds.rackspace.cloudidentity.v1_1.handlers;
 import static org.jclouds.http.HttpUtils.closeClientButKeepContentStream;
 import static org.jclouds.http.HttpUtils.releasePayload;
 
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 
 import javax.annotation.Resource;
@@ -30,15 +31,16 @@ import org.jclouds.http.HttpCommand;
 import org.jclouds.http.HttpResponse;
 import org.jclouds.http.HttpRetryHandler;
 import org.jclouds.http.handlers.BackoffLimitedRetryHandler;
+import org.jclouds.location.Provider;
 import org.jclouds.logging.Logger;
 import org.jclouds.rackspace.cloudidentity.v1_1.domain.Auth;
+import org.jclouds.rest.internal.RenewingLoadingCache;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Supplier;
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
-import com.google.common.cache.LoadingCache;
 import com.google.common.collect.Multimap;
-import com.google.common.util.concurrent.Uninterruptibles;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
 
@@ -59,16 +61,11 @@ public class RetryOnRenew implements HttpRetryHandler {
    @Resource
    protected Logger logger = Logger.NULL;
 
-   private final LoadingCache<Credentials, Auth> authenticationResponseCache;
+   private final RenewingLoadingCache<Credentials, Auth> authenticationResponseCache;
 
-   private final BackoffLimitedRetryHandler backoffHandler;
+   private final Supplier<Credentials> creds;
 
-   @Inject
-   protected RetryOnRenew(LoadingCache<Credentials, Auth> authenticationResponseCache,
-           BackoffLimitedRetryHandler backoffHandler) {
-      this.authenticationResponseCache = authenticationResponseCache;
-      this.backoffHandler = backoffHandler;
-   }
+   private final BackoffLimitedRetryHandler backoffHandler;
 
    /*
     * The reason retries need to be tracked is that it is possible that a token
@@ -80,6 +77,14 @@ public class RetryOnRenew implements HttpRetryHandler {
    private static final Cache<HttpCommand, Integer> retryCountMap = CacheBuilder
          .newBuilder().expireAfterWrite(5, TimeUnit.MINUTES).build();
 
+   @Inject
+   protected RetryOnRenew(RenewingLoadingCache<Credentials, Auth> authenticationResponseCache,
+         @Provider Supplier<Credentials> creds, BackoffLimitedRetryHandler backoffHandler) {
+      this.authenticationResponseCache = authenticationResponseCache;
+      this.creds = creds;
+      this.backoffHandler = backoffHandler;
+   }
+
    @Override
    public boolean shouldRetryRequest(HttpCommand command, HttpResponse response) {
       boolean retry = false; // default
@@ -91,32 +96,26 @@ public class RetryOnRenew implements HttpRetryHandler {
                if (headers != null && headers.containsKey(AUTH_USER)
                         && headers.containsKey(AUTH_KEY) && !headers.containsKey(AUTH_TOKEN)) {
                   retry = false;
+               } else if (authenticationResponseCache.isRenewing()) {
+                  // Nor when renewing the token, which would wait for itself
+                  logger.debug("authentication rejected while renewing the token for %s", command);
+                  retry = false;
                } else {
                   closeClientButKeepContentStream(response);
                   // This is not an authentication request returning 401
                   // Check if we already had seen this request
                   Integer count = retryCountMap.getIfPresent(command);
 
-                  if (count == null) {
-                     // First time this non-authentication request failed
-                     logger.debug("invalidating authentication token - first time for %s", command);
-                     retryCountMap.put(command, 1);
-                     authenticationResponseCache.invalidateAll();
-                     retry = true;
-                  } else {
+                  if (count != null && count + 1 >= NUM_RETRIES) {
                      // This request has failed before
-                     if (count + 1 >= NUM_RETRIES) {
-                        logger.debug("too many 401s - giving up after: %s for %s", count, command);
-                        retry = false;
-                     } else {
-                        // Retry just in case
-                        logger.debug("invalidating authentication token - retry %s for %s", count, command);
-                        retryCountMap.put(command, count + 1);
-                        // Wait between retries
-                        authenticationResponseCache.invalidateAll();
-                        Uninterruptibles.sleepUninterruptibly(5, TimeUnit.SECONDS);
-                        retry = true;
-                     }
+                     logger.debug("too many 401s - giving up after: %s for %s", count, command);
+                     retry = false;
+                  } else {
+                     logger.debug("renewing authentication token - %s for %s", count == null ? "first time"
+                           : "retry " + count, command);
+                     retryCountMap.put(command, count == null ? 1 : count + 1);
+                     renewAuthentication(command.getCurrentRequest().getFirstHeaderOrNull(AUTH_TOKEN));
+                     retry = true;
                   }
                }
                break;
@@ -130,4 +129,18 @@ public class RetryOnRenew implements HttpRetryHandler {
       }
    }
 
+   /**
+    * Waits for a new token, sharing the renewal with the other requests rejected at the same time, unless the rejected
+    * token was renewed already. When renewing fails, the token is dropped so that the retry authenticates again and
+    * reports why it cannot.
+    */
+   private void renewAuthentication(String rejectedToken) {
+      Credentials credentials = creds.get();
+      try {
+         authenticationResponseCache.renew(credentials, rejectedToken);
+      } catch (ExecutionException e) {
+         logger.debug("could not renew authentication token: %s", e.getCause());
+         authenticationResponseCache.invalidate(credentials);
+      }
+   }
 }
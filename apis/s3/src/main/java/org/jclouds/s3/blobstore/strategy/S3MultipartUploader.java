@@ -0,0 +1,98 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.s3.blobstore.strategy;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.SortedMap;
+
+import org.jclouds.blobstore.BlobStore;
+import org.jclouds.blobstore.domain.Blob;
+import org.jclouds.blobstore.strategy.MultipartUploader;
+import org.jclouds.io.ContentMetadata;
+import org.jclouds.io.Payload;
+import org.jclouds.s3.S3Client;
+import org.jclouds.s3.domain.ObjectMetadataBuilder;
+
+/**
+ * Uploads the parts of a blob through the S3 multipart upload calls.
+ */
+public class S3MultipartUploader implements MultipartUploader {
+
+   public static final long MIN_PART_SIZE = 5242880L;
+   public static final long MAX_PART_SIZE = 5368709120L;
+   public static final int MAX_NUMBER_OF_PARTS = 10000;
+
+   private final S3Client client;
+   private final BlobStore blobStore;
+
+   /**
+    * @param blobStore
+    *           puts blobs that fit in a single part
+    */
+   public S3MultipartUploader(S3Client client, BlobStore blobStore) {
+      this.client = checkNotNull(client, "client");
+      this.blobStore = checkNotNull(blobStore, "blobStore");
+   }
+
+   @Override
+   public long getMinimumPartSize() {
+      return MIN_PART_SIZE;
+   }
+
+   @Override
+   public long getMaximumPartSize() {
+      return MAX_PART_SIZE;
+   }
+
+   @Override
+   public int getMaximumNumberOfParts() {
+      return MAX_NUMBER_OF_PARTS;
+   }
+
+   @Override
+   public String put(String container, Blob blob) {
+      return blobStore.putBlob(container, blob);
+   }
+
+   @Override
+   public String initiate(String container, Blob blob, int parts) {
+      ContentMetadata content = blob.getPayload().getContentMetadata();
+      return client.initiateMultipartUpload(container, ObjectMetadataBuilder.create()
+            .key(blob.getMetadata().getName())
+            .contentType(content.getContentType())
+            .contentDisposition(content.getContentDisposition())
+            .contentEncoding(content.getContentEncoding())
+            .userMetadata(blob.getMetadata().getUserMetadata())
+            .build());
+   }
+
+   @Override
+   public String uploadPart(String container, String name, String uploadId, int part, Payload payload) {
+      return client.uploadPart(container, name, part, uploadId, payload);
+   }
+
+   @Override
+   public String complete(String container, String name, String uploadId, SortedMap<Integer, String> parts) {
+      return client.completeMultipartUpload(container, name, uploadId, parts);
+   }
+
+   @Override
+   public void abort(String container, String name, String uploadId) {
+      client.abortMultipartUpload(container, name, uploadId);
+   }
+}
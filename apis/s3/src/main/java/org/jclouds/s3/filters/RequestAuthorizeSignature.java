@@ -19,21 +19,21 @@ package org.jclouds.s3.filters;
 import static com.google.common.base.Charsets.UTF_8;
 import static com.google.common.collect.Iterables.get;
 import static com.google.common.io.BaseEncoding.base64;
-import static com.google.common.io.ByteStreams.readBytes;
 import static org.jclouds.aws.reference.AWSConstants.PROPERTY_AUTH_TAG;
 import static org.jclouds.aws.reference.AWSConstants.PROPERTY_HEADER_TAG;
-import static org.jclouds.crypto.Macs.asByteProcessor;
 import static org.jclouds.http.utils.Queries.queryParser;
 import static org.jclouds.s3.reference.S3Constants.PROPERTY_S3_SERVICE_PATH;
 import static org.jclouds.s3.reference.S3Constants.PROPERTY_S3_VIRTUAL_HOST_BUCKETS;
 import static org.jclouds.util.Strings2.toInputStream;
 
+import java.security.InvalidKeyException;
 import java.util.Collection;
 import java.util.Locale;
 import java.util.Map.Entry;
 import java.util.Set;
 
 import javax.annotation.Resource;
+import javax.crypto.Mac;
 import javax.inject.Inject;
 import javax.inject.Named;
 import javax.inject.Provider;
@@ -62,7 +62,6 @@ import com.google.common.collect.Multimap;
 import com.google.common.collect.Ordering;
 import com.google.common.collect.SortedSetMultimap;
 import com.google.common.collect.TreeMultimap;
-import com.google.common.io.ByteProcessor;
 import com.google.common.net.HttpHeaders;
 
 /**
@@ -87,6 +86,7 @@ public class RequestAuthorizeSignature implements HttpRequestFilter, RequestSign
    private final Provider<String> timeStampProvider;
    private final Crypto crypto;
    private final HttpUtils utils;
+   private final ThreadLocal<KeyedMac> hmacSHA1 = new ThreadLocal<KeyedMac>();
 
    @Resource
    @Named(Constants.LOGGER_SIGNATURE)
@@ -172,13 +172,35 @@ public class RequestAuthorizeSignature implements HttpRequestFilter, RequestSign
 
    public String sign(String toSign) {
       try {
-         ByteProcessor<byte[]> hmacSHA1 = asByteProcessor(crypto.hmacSHA1(creds.get().credential.getBytes(UTF_8)));
-         return base64().encode(readBytes(toInputStream(toSign), hmacSHA1));
+         return base64().encode(hmacSHA1(creds.get().credential).doFinal(toSign.getBytes(UTF_8)));
       } catch (Exception e) {
          throw new HttpException("error signing request", e);
       }
    }
 
+   /**
+    * Returns the calling thread's HmacSHA1 instance keyed with the given secret, so that the hot path doesn't look up
+    * and initialize a new {@link Mac} per request. The instance is re-keyed when the credentials rotate.
+    */
+   private Mac hmacSHA1(String secret) throws InvalidKeyException {
+      KeyedMac keyed = hmacSHA1.get();
+      if (keyed == null || !keyed.secret.equals(secret)) {
+         keyed = new KeyedMac(secret, crypto.hmacSHA1(secret.getBytes(UTF_8)));
+         hmacSHA1.set(keyed);
+      }
+      return keyed.mac;
+   }
+
+   private static final class KeyedMac {
+      private final String secret;
+      private final Mac mac;
+
+      private KeyedMac(String secret, Mac mac) {
+         this.secret = secret;
+         this.mac = mac;
+      }
+   }
+
    void appendMethod(HttpRequest request, StringBuilder toSign) {
       toSign.append(request.getMethod()).append("\n");
    }
@@ -48,6 +48,7 @@ import org.jclouds.domain.Location;
 import org.jclouds.domain.LocationBuilder;
 import org.jclouds.domain.LocationScope;
 import org.jclouds.http.options.GetOptions;
+import org.jclouds.io.Payload;
 import org.jclouds.javax.annotation.Nullable;
 import org.jclouds.lifecycle.Closer;
 import org.jclouds.s3.S3AsyncClient;
@@ -335,6 +336,29 @@ public class StubS3AsyncClient implements S3AsyncClient {
       return immediateFuture(containerToBlobs.get(bucketName).containsKey(key));
    }
 
+   @Override
+   public ListenableFuture<String> initiateMultipartUpload(String bucketName, ObjectMetadata objectMetadata,
+         PutObjectOptions... options) {
+      return immediateFuture(null);
+   }
+
+   @Override
+   public ListenableFuture<Void> abortMultipartUpload(String bucketName, String key, String uploadId) {
+      return immediateFuture(null);
+   }
+
+   @Override
+   public ListenableFuture<String> uploadPart(String bucketName, String key, int partNumber, String uploadId,
+         Payload part) {
+      return immediateFuture(null);
+   }
+
+   @Override
+   public ListenableFuture<String> completeMultipartUpload(String bucketName, String key, String uploadId,
+         Map<Integer, String> parts) {
+      return immediateFuture(null);
+   }
+
    @Override
    public void close() throws IOException {
       closer.close();
@@ -0,0 +1,437 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.sqs;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+
+import java.io.Closeable;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.jclouds.sqs.domain.BatchResult;
+import org.jclouds.sqs.domain.Message;
+import org.jclouds.sqs.features.MessageApi;
+import org.jclouds.sqs.options.ReceiveMessageOptions;
+
+import com.google.common.annotations.Beta;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Consumes the messages of a queue with concurrent receivers feeding a bounded pool of workers.
+ * <p>
+ * Each receiver long polls the queue for as many messages as there are idle workers, up to 10. A message handled
+ * without error is deleted; deletions are coalesced into batches of up to 10 sent once full or after a short linger.
+ * While a worker is still handling a message, its visibility timeout is extended in batches so that the queue does
+ * not hand it to another consumer. A message whose handler failed is left to become visible again.
+ *
+ * <h4>Example usage</h4>
+ *
+ * <pre>
+ * MessageConsumer consumer = MessageConsumer.builder(sqsApi.getMessageApiForQueue(queue), handler)
+ *       .receivers(4).workers(40).waitTimeSeconds(20).build();
+ * consumer.start();
+ * ...
+ * consumer.close();
+ * </pre>
+ */
+@Beta
+public class MessageConsumer implements Closeable {
+
+   /**
+    * Processes the messages received.
+    */
+   public interface Handler {
+      /**
+       * @throws Exception
+       *            to leave the message in the queue
+       */
+      void handle(Message message) throws Exception;
+   }
+
+   public static Builder builder(MessageApi api, Handler handler) {
+      return new Builder(api, handler);
+   }
+
+   public static class Builder {
+      private final MessageApi api;
+      private final Handler handler;
+      private int receivers = 1;
+      private int workers = 10;
+      private int waitTimeSeconds;
+      private int visibilityTimeout = 30;
+      private long ackLinger = 100;
+
+      private Builder(MessageApi api, Handler handler) {
+         this.api = checkNotNull(api, "api");
+         this.handler = checkNotNull(handler, "handler");
+      }
+
+      /**
+       * Number of concurrent receive loops. Defaults to 1.
+       */
+      public Builder receivers(int receivers) {
+         checkArgument(receivers > 0, "receivers must be positive");
+         this.receivers = receivers;
+         return this;
+      }
+
+      /**
+       * Number of messages handled at the same time. Defaults to 10.
+       */
+      public Builder workers(int workers) {
+         checkArgument(workers > 0, "workers must be positive");
+         this.workers = workers;
+         return this;
+      }
+
+      /**
+       * How long, in seconds from 0 to 20, a receive waits for messages. Long polling needs api version 2012-11-05 or
+       * later, so this defaults to 0, which pauses a second between empty receives instead.
+       */
+      public Builder waitTimeSeconds(int waitTimeSeconds) {
+         checkArgument(waitTimeSeconds >= 0 && waitTimeSeconds <= 20, "waitTimeSeconds must be between 0 and 20");
+         this.waitTimeSeconds = waitTimeSeconds;
+         return this;
+      }
+
+      /**
+       * Visibility timeout, in seconds, of the messages received. Messages still handled when half of it has
+       * elapsed are hidden for as long again. Defaults to 30.
+       */
+      public Builder visibilityTimeout(int visibilityTimeout) {
+         checkArgument(visibilityTimeout >= 2, "visibilityTimeout must be at least 2 seconds");
+         this.visibilityTimeout = visibilityTimeout;
+         return this;
+      }
+
+      /**
+       * How long, in milliseconds, a deletion waits for others to share its batch. Defaults to 100.
+       */
+      public Builder ackLinger(long ackLinger) {
+         checkArgument(ackLinger > 0, "ackLinger must be positive");
+         this.ackLinger = ackLinger;
+         return this;
+      }
+
+      public MessageConsumer build() {
+         return new MessageConsumer(this);
+      }
+   }
+
+   @VisibleForTesting
+   static final int MAX_BATCH = 10;
+   private static final long EMPTY_RECEIVE_PAUSE = 1000;
+
+   private final MessageApi api;
+   private final Handler handler;
+   private final int receivers;
+   private final int waitTimeSeconds;
+   private final int visibilityTimeout;
+   private final long ackLinger;
+
+   private final ExecutorService receiverThreads;
+   private final ExecutorService workerThreads;
+   private final ScheduledExecutorService scheduler;
+   private final Semaphore idleWorkers;
+   // receipt handle to the time, in nanos, the message becomes visible again
+   private final ConcurrentMap<String, Long> handling = Maps.newConcurrentMap();
+   private final ConcurrentLinkedQueue<String> acks = new ConcurrentLinkedQueue<String>();
+   private volatile boolean running;
+
+   private final AtomicLong received = new AtomicLong();
+   private final AtomicLong deleted = new AtomicLong();
+   private final AtomicLong failed = new AtomicLong();
+   private final AtomicLong extended = new AtomicLong();
+   private final AtomicLong errors = new AtomicLong();
+   private final AtomicLong deleteCalls = new AtomicLong();
+
+   private MessageConsumer(Builder builder) {
+      this.api = builder.api;
+      this.handler = builder.handler;
+      this.receivers = builder.receivers;
+      this.waitTimeSeconds = builder.waitTimeSeconds;
+      this.visibilityTimeout = builder.visibilityTimeout;
+      this.ackLinger = builder.ackLinger;
+      this.receiverThreads = Executors.newFixedThreadPool(receivers, threads("sqs-receiver-%d"));
+      this.workerThreads = Executors.newFixedThreadPool(builder.workers, threads("sqs-worker-%d"));
+      this.scheduler = Executors.newSingleThreadScheduledExecutor(threads("sqs-acks-%d"));
+      this.idleWorkers = new Semaphore(builder.workers);
+   }
+
+   private static ThreadFactory threads(String nameFormat) {
+      return new ThreadFactoryBuilder().setNameFormat(nameFormat).setDaemon(true).build();
+   }
+
+   /**
+    * Starts receiving messages.
+    */
+   public synchronized void start() {
+      checkState(!running && !scheduler.isShutdown(), "consumer already started");
+      running = true;
+      for (int i = 0; i < receivers; i++) {
+         receiverThreads.execute(new Runnable() {
+            @Override
+            public void run() {
+               receive();
+            }
+         });
+      }
+      scheduler.scheduleWithFixedDelay(new Runnable() {
+         @Override
+         public void run() {
+            flushAcks(false);
+         }
+      }, ackLinger, ackLinger, TimeUnit.MILLISECONDS);
+      long extendEvery = TimeUnit.SECONDS.toMillis(visibilityTimeout) / 4;
+      scheduler.scheduleWithFixedDelay(new Runnable() {
+         @Override
+         public void run() {
+            extendVisibility();
+         }
+      }, extendEvery, extendEvery, TimeUnit.MILLISECONDS);
+   }
+
+   /**
+    * Stops receiving, waits for the messages being handled, and sends their deletions.
+    */
+   @Override
+   public synchronized void close() {
+      running = false;
+      receiverThreads.shutdown();
+      try {
+         // receivers return once their long poll does
+         receiverThreads.awaitTermination(waitTimeSeconds + visibilityTimeout, TimeUnit.SECONDS);
+         workerThreads.shutdown();
+         workerThreads.awaitTermination(visibilityTimeout, TimeUnit.SECONDS);
+      } catch (InterruptedException e) {
+         Thread.currentThread().interrupt();
+      } finally {
+         scheduler.shutdownNow();
+         receiverThreads.shutdownNow();
+         workerThreads.shutdownNow();
+         flushAcks(false);
+      }
+   }
+
+   private void receive() {
+      ReceiveMessageOptions options = new ReceiveMessageOptions().visibilityTimeout(visibilityTimeout);
+      if (waitTimeSeconds > 0)
+         options.waitTimeSeconds(waitTimeSeconds);
+      while (running) {
+         int permits = 0;
+         try {
+            idleWorkers.acquire();
+            permits = 1;
+            // the permit may have been freed by the last messages handled before closing
+            if (!running)
+               return;
+            permits += drainPermits(MAX_BATCH - 1);
+            long visibleAgain = System.nanoTime() + TimeUnit.SECONDS.toNanos(visibilityTimeout);
+            List<Message> messages = ImmutableList.copyOf(api.receive(permits, options));
+            for (Message message : messages) {
+               received.incrementAndGet();
+               handling.put(message.getReceiptHandle(), visibleAgain);
+               permits--;
+               workerThreads.execute(new Handle(message));
+            }
+            if (messages.isEmpty() && waitTimeSeconds == 0)
+               Thread.sleep(EMPTY_RECEIVE_PAUSE);
+         } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+         } catch (RuntimeException e) {
+            errors.incrementAndGet();
+            pause();
+         } finally {
+            idleWorkers.release(permits);
+         }
+      }
+   }
+
+   private int drainPermits(int max) {
+      int drained = 0;
+      while (drained < max && idleWorkers.tryAcquire())
+         drained++;
+      return drained;
+   }
+
+   private void pause() {
+      try {
+         Thread.sleep(EMPTY_RECEIVE_PAUSE);
+      } catch (InterruptedException e) {
+         Thread.currentThread().interrupt();
+      }
+   }
+
+   private class Handle implements Runnable {
+      private final Message message;
+
+      private Handle(Message message) {
+         this.message = message;
+      }
+
+      @Override
+      public void run() {
+         boolean handled = false;
+         try {
+            handler.handle(message);
+            handled = true;
+         } catch (Exception e) {
+            failed.incrementAndGet();
+         } finally {
+            handling.remove(message.getReceiptHandle());
+            idleWorkers.release();
+         }
+         if (handled)
+            ack(message.getReceiptHandle());
+      }
+   }
+
+   private void ack(String receiptHandle) {
+      acks.add(receiptHandle);
+      if (acks.size() >= MAX_BATCH) {
+         try {
+            scheduler.execute(new Runnable() {
+               @Override
+               public void run() {
+                  flushAcks(true);
+               }
+            });
+         } catch (RejectedExecutionException e) {
+            // closing, which flushes the remaining acks
+         }
+      }
+   }
+
+   /**
+    * @param fullBatchesOnly
+    *           leaves a partial batch to the next linger
+    */
+   @VisibleForTesting
+   void flushAcks(boolean fullBatchesOnly) {
+      synchronized (acks) {
+         flushAcksLocked(fullBatchesOnly);
+      }
+   }
+
+   private void flushAcksLocked(boolean fullBatchesOnly) {
+      while (!acks.isEmpty() && (!fullBatchesOnly || acks.size() >= MAX_BATCH)) {
+         List<String> batch = Lists.newArrayListWithCapacity(MAX_BATCH);
+         for (String receiptHandle = acks.poll(); receiptHandle != null; receiptHandle = acks.poll()) {
+            batch.add(receiptHandle);
+            if (batch.size() == MAX_BATCH)
+               break;
+         }
+         try {
+            deleteCalls.incrementAndGet();
+            BatchResult<String> result = api.delete(batch);
+            deleted.addAndGet(result.size());
+            errors.addAndGet(result.getErrors().size());
+         } catch (RuntimeException e) {
+            // the messages become visible again and are received anew
+            errors.incrementAndGet();
+         }
+      }
+   }
+
+   @VisibleForTesting
+   void extendVisibility() {
+      long now = System.nanoTime();
+      long soon = now + TimeUnit.SECONDS.toNanos(visibilityTimeout) / 2;
+      List<String> expiring = Lists.newArrayList();
+      for (Map.Entry<String, Long> entry : handling.entrySet()) {
+         if (entry.getValue() - soon <= 0)
+            expiring.add(entry.getKey());
+      }
+      long visibleAgain = now + TimeUnit.SECONDS.toNanos(visibilityTimeout);
+      for (List<String> batch : Lists.partition(expiring, MAX_BATCH)) {
+         try {
+            BatchResult<String> result = api.changeVisibility(batch, visibilityTimeout);
+            // entries are numbered from 1 in the order of the batch; failed ones are retried at the next check
+            for (String id : result.keySet()) {
+               String receiptHandle = batch.get(Integer.parseInt(id) - 1);
+               // replace only if the worker did not finish meanwhile
+               Long previous = handling.get(receiptHandle);
+               if (previous != null)
+                  handling.replace(receiptHandle, previous, visibleAgain);
+            }
+            extended.addAndGet(result.size());
+            errors.addAndGet(result.getErrors().size());
+         } catch (RuntimeException e) {
+            errors.incrementAndGet();
+         }
+      }
+   }
+
+   /**
+    * @return messages received so far
+    */
+   public long getReceived() {
+      return received.get();
+   }
+
+   /**
+    * @return messages handled and deleted so far
+    */
+   public long getDeleted() {
+      return deleted.get();
+   }
+
+   /**
+    * @return messages whose handler failed so far
+    */
+   public long getFailed() {
+      return failed.get();
+   }
+
+   /**
+    * @return visibility extensions so far
+    */
+   public long getExtended() {
+      return extended.get();
+   }
+
+   /**
+    * @return calls to the queue which failed, or entries of batches which did
+    */
+   public long getErrors() {
+      return errors.get();
+   }
+
+   /**
+    * @return {@code DeleteMessageBatch} calls so far
+    */
+   public long getDeleteCalls() {
+      return deleteCalls.get();
+   }
+}
@@ -0,0 +1,259 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.sqs;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Collection;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jclouds.sqs.domain.BatchError;
+import org.jclouds.sqs.domain.BatchResult;
+import org.jclouds.sqs.domain.Message;
+import org.jclouds.sqs.features.MessageApi;
+import org.testng.annotations.Test;
+
+import com.google.common.base.Stopwatch;
+import com.google.common.collect.FluentIterable;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ConcurrentHashMultiset;
+import com.google.common.collect.Iterables;
+import com.google.common.collect.Multiset;
+import com.google.common.collect.Sets;
+import com.google.common.hash.HashCode;
+
+/**
+ * Tests behavior of {@code MessageConsumer} against a queue kept in memory.
+ */
+@Test(groups = "unit", testName = "MessageConsumerTest")
+public class MessageConsumerTest {
+
+   /**
+    * Stands in for a queue, answering the receive, delete and change visibility calls of the consumer.
+    */
+   private static class FakeQueue implements InvocationHandler {
+      private final Queue<Message> messages = new ConcurrentLinkedQueue<Message>();
+      private final List<Integer> deleteBatches = new CopyOnWriteArrayList<Integer>();
+      private final Set<String> deleted = Sets.newConcurrentHashSet();
+      private final Multiset<String> extended = ConcurrentHashMultiset.create();
+      private final Set<String> refused = Sets.newConcurrentHashSet();
+      private final AtomicInteger receives = new AtomicInteger();
+
+      private FakeQueue(int count) {
+         for (int i = 0; i < count; i++) {
+            messages.add(Message.builder().id("id" + i).body("body" + i).receiptHandle("handle" + i)
+                  .md5(HashCode.fromInt(i)).build());
+         }
+      }
+
+      private MessageApi api() {
+         return (MessageApi) Proxy.newProxyInstance(MessageApi.class.getClassLoader(),
+               new Class<?>[] { MessageApi.class }, this);
+      }
+
+      @Override
+      @SuppressWarnings("unchecked")
+      public Object invoke(Object proxy, Method method, Object[] args) {
+         if (method.getName().equals("receive") && args.length == 2) {
+            receives.incrementAndGet();
+            ImmutableList.Builder<Message> received = ImmutableList.builder();
+            for (int i = 0; i < (Integer) args[0]; i++) {
+               Message message = messages.poll();
+               if (message == null)
+                  break;
+               received.add(message);
+            }
+            return FluentIterable.from(received.build());
+         } else if (method.getName().equals("delete") && args[0] instanceof Iterable) {
+            return record((Iterable<String>) args[0], deleted, deleteBatches);
+         } else if (method.getName().equals("changeVisibility") && args.length == 2) {
+            return record((Iterable<String>) args[0], extended, new CopyOnWriteArrayList<Integer>());
+         }
+         throw new UnsupportedOperationException(method.toString());
+      }
+
+      /**
+       * Answers like SQS does, with the entries numbered from 1 in the order of the batch.
+       */
+      private BatchResult<String> record(Iterable<String> receiptHandles, Collection<String> into,
+            List<Integer> batches) {
+         assertTrue(Iterables.size(receiptHandles) <= MessageConsumer.MAX_BATCH, "batch of " + receiptHandles);
+         batches.add(Iterables.size(receiptHandles));
+         BatchResult.Builder<String> result = BatchResult.builder();
+         int id = 0;
+         for (String receiptHandle : receiptHandles) {
+            into.add(receiptHandle);
+            id++;
+            if (refused.contains(receiptHandle))
+               result.addError(BatchError.builder().id(String.valueOf(id)).senderFault(false)
+                     .code("InternalError").message("try again").build());
+            else
+               result.put(String.valueOf(id), String.valueOf(id));
+         }
+         return result.build();
+      }
+   }
+
+   private static void awaitDeleted(MessageConsumer consumer, long count) throws InterruptedException {
+      Stopwatch watch = Stopwatch.createStarted();
+      while (consumer.getDeleted() < count && watch.elapsed(TimeUnit.SECONDS) < 30)
+         Thread.sleep(10);
+   }
+
+   public void testMessagesAreHandledOnceAndDeletedInBatches() throws InterruptedException {
+      FakeQueue queue = new FakeQueue(95);
+      final Set<String> handled = Sets.newConcurrentHashSet();
+      MessageConsumer consumer = MessageConsumer.builder(queue.api(), new MessageConsumer.Handler() {
+         @Override
+         public void handle(Message message) {
+            assertTrue(handled.add(message.getId()), "handled twice: " + message);
+         }
+      }).receivers(3).workers(8).ackLinger(50).build();
+
+      consumer.start();
+      awaitDeleted(consumer, 95);
+      consumer.close();
+
+      assertEquals(handled.size(), 95);
+      assertEquals(queue.deleted.size(), 95);
+      assertEquals(consumer.getReceived(), 95);
+      assertEquals(consumer.getErrors(), 0);
+      // acknowledgements are coalesced rather than sent one by one
+      assertTrue(consumer.getDeleteCalls() < 95 / 2, "delete calls: " + queue.deleteBatches);
+   }
+
+   public void testConcurrencyIsBoundedByWorkers() throws InterruptedException {
+      FakeQueue queue = new FakeQueue(40);
+      final AtomicInteger running = new AtomicInteger();
+      final AtomicInteger maxRunning = new AtomicInteger();
+      MessageConsumer consumer = MessageConsumer.builder(queue.api(), new MessageConsumer.Handler() {
+         @Override
+         public void handle(Message message) throws InterruptedException {
+            int now = running.incrementAndGet();
+            synchronized (maxRunning) {
+               maxRunning.set(Math.max(maxRunning.get(), now));
+            }
+            Thread.sleep(20);
+            running.decrementAndGet();
+         }
+      }).receivers(4).workers(3).build();
+
+      consumer.start();
+      awaitDeleted(consumer, 40);
+      consumer.close();
+
+      assertEquals(queue.deleted.size(), 40);
+      assertTrue(maxRunning.get() <= 3, "ran " + maxRunning.get() + " at once");
+   }
+
+   public void testSlowMessagesHaveTheirVisibilityExtended() throws InterruptedException {
+      FakeQueue queue = new FakeQueue(2);
+      MessageConsumer consumer = MessageConsumer.builder(queue.api(), new MessageConsumer.Handler() {
+         @Override
+         public void handle(Message message) throws InterruptedException {
+            Thread.sleep(1600);
+         }
+      }).visibilityTimeout(2).build();
+
+      consumer.start();
+      awaitDeleted(consumer, 2);
+      consumer.close();
+
+      assertEquals(queue.extended.elementSet(), Sets.newHashSet("handle0", "handle1"));
+      assertEquals(queue.deleted, Sets.newHashSet("handle0", "handle1"));
+   }
+
+   public void testOnlyTheExtensionsThatFailedAreRetried() throws InterruptedException {
+      FakeQueue queue = new FakeQueue(2);
+      queue.refused.add("handle0");
+      MessageConsumer consumer = MessageConsumer.builder(queue.api(), new MessageConsumer.Handler() {
+         @Override
+         public void handle(Message message) throws InterruptedException {
+            Thread.sleep(2600);
+         }
+      }).visibilityTimeout(2).build();
+
+      consumer.start();
+      awaitDeleted(consumer, 2);
+      consumer.close();
+
+      // the refused message is retried at each check, the other one waits for its new timeout to draw near
+      assertTrue(queue.extended.count("handle0") > queue.extended.count("handle1"), "extended " + queue.extended);
+      assertEquals(consumer.getExtended(), queue.extended.count("handle1"));
+   }
+
+   public void testNoMessageIsReceivedOnceClosing() throws InterruptedException {
+      FakeQueue queue = new FakeQueue(1);
+      final CountDownLatch handling = new CountDownLatch(1);
+      final CountDownLatch closing = new CountDownLatch(1);
+      final MessageConsumer consumer = MessageConsumer.builder(queue.api(), new MessageConsumer.Handler() {
+         @Override
+         public void handle(Message message) throws InterruptedException {
+            handling.countDown();
+            closing.await();
+         }
+      }).receivers(1).workers(1).build();
+
+      consumer.start();
+      handling.await();
+      // the receiver now waits for the only worker to be idle
+      int receives = queue.receives.get();
+      Thread closer = new Thread() {
+         @Override
+         public void run() {
+            consumer.close();
+         }
+      };
+      closer.start();
+      Thread.sleep(200);
+      closing.countDown();
+      closer.join();
+
+      assertEquals(queue.receives.get(), receives);
+      assertEquals(queue.deleted, Sets.newHashSet("handle0"));
+   }
+
+   public void testFailedMessagesAreNotDeleted() throws InterruptedException {
+      FakeQueue queue = new FakeQueue(10);
+      MessageConsumer consumer = MessageConsumer.builder(queue.api(), new MessageConsumer.Handler() {
+         @Override
+         public void handle(Message message) {
+            if (message.getId().equals("id3"))
+               throw new IllegalStateException("cannot handle " + message);
+         }
+      }).build();
+
+      consumer.start();
+      awaitDeleted(consumer, 9);
+      consumer.close();
+
+      assertEquals(consumer.getFailed(), 1);
+      assertEquals(queue.deleted.size(), 9);
+      assertTrue(!queue.deleted.contains("handle3"));
+   }
+}
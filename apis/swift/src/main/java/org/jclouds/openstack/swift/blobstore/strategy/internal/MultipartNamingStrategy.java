@@ -16,13 +16,13 @@
  */
 package org.jclouds.openstack.swift.blobstore.strategy.internal;
 
+import static org.jclouds.openstack.swift.blobstore.strategy.internal.ParallelMultipartUploadStrategy.PART_SEPARATOR;
+
 import javax.inject.Singleton;
 
 @Singleton
 public class MultipartNamingStrategy {
 
-   private static final String PART_SEPARATOR = "/";
-
    protected String getPartName(String key, int partNumber, int totalParts) {
       int base = (int) Math.log10(totalParts) + 1;
       return String.format("%s%s%0" + base + "d", key, PART_SEPARATOR, partNumber);
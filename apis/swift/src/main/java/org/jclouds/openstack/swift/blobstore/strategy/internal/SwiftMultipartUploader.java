@@ -0,0 +1,100 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.openstack.swift.blobstore.strategy.internal;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.SortedMap;
+
+import org.jclouds.blobstore.BlobStore;
+import org.jclouds.blobstore.domain.Blob;
+import org.jclouds.blobstore.strategy.MultipartUploader;
+import org.jclouds.io.Payload;
+import org.jclouds.openstack.swift.CommonSwiftClient;
+import org.jclouds.openstack.swift.blobstore.functions.BlobToObject;
+import org.jclouds.openstack.swift.blobstore.strategy.MultipartUpload;
+
+/**
+ * Uploads the parts of a blob as segments named by {@link MultipartNamingStrategy}, and completes the upload with a
+ * manifest object listing them.
+ * <p>
+ * Swift has no upload ids: the id of an upload is its number of parts, from which the names of the segments are
+ * derived.
+ */
+public class SwiftMultipartUploader implements MultipartUploader {
+
+   private final CommonSwiftClient client;
+   private final BlobStore blobStore;
+   private final BlobToObject blob2Object;
+   private final MultipartNamingStrategy namingStrategy;
+
+   /**
+    * @param blobStore
+    *           builds the segments and puts blobs that fit in a single part
+    */
+   public SwiftMultipartUploader(CommonSwiftClient client, BlobStore blobStore, BlobToObject blob2Object,
+         MultipartNamingStrategy namingStrategy) {
+      this.client = checkNotNull(client, "client");
+      this.blobStore = checkNotNull(blobStore, "blobStore");
+      this.blob2Object = checkNotNull(blob2Object, "blob2Object");
+      this.namingStrategy = checkNotNull(namingStrategy, "namingStrategy");
+   }
+
+   @Override
+   public long getMinimumPartSize() {
+      return MultipartUpload.MIN_PART_SIZE;
+   }
+
+   @Override
+   public long getMaximumPartSize() {
+      return MultipartUpload.MAX_PART_SIZE;
+   }
+
+   @Override
+   public int getMaximumNumberOfParts() {
+      return MultipartUpload.MAX_NUMBER_OF_PARTS;
+   }
+
+   @Override
+   public String put(String container, Blob blob) {
+      return blobStore.putBlob(container, blob);
+   }
+
+   @Override
+   public String initiate(String container, Blob blob, int parts) {
+      return String.valueOf(parts);
+   }
+
+   @Override
+   public String uploadPart(String container, String name, String uploadId, int part, Payload payload) {
+      String partName = namingStrategy.getPartName(name, part, Integer.parseInt(uploadId));
+      Blob blobPart = blobStore.blobBuilder(partName).payload(payload).contentDisposition(partName).build();
+      return client.putObject(container, blob2Object.apply(blobPart));
+   }
+
+   @Override
+   public String complete(String container, String name, String uploadId, SortedMap<Integer, String> parts) {
+      return client.putObjectManifest(container, name);
+   }
+
+   @Override
+   public void abort(String container, String name, String uploadId) {
+      int parts = Integer.parseInt(uploadId);
+      for (int part = 1; part <= parts; part++)
+         client.removeObject(container, namingStrategy.getPartName(name, part, parts));
+   }
+}
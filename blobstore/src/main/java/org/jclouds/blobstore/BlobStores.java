@@ -16,15 +16,46 @@
  */
 package org.jclouds.blobstore;
 
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Throwables.propagate;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
 
+import org.jclouds.blobstore.domain.Blob;
+import org.jclouds.blobstore.domain.BlobMetadata;
 import org.jclouds.blobstore.domain.PageSet;
 import org.jclouds.blobstore.domain.StorageMetadata;
+import org.jclouds.blobstore.internal.BlobRuntimeException;
+import org.jclouds.blobstore.options.GetOptions;
 import org.jclouds.blobstore.options.ListAllOptions;
 import org.jclouds.blobstore.options.ListContainerOptions;
+import org.jclouds.http.HttpResponseException;
+import org.jclouds.io.Payload;
 
 import com.google.common.annotations.Beta;
+import com.google.common.base.Throwables;
 import com.google.common.collect.AbstractIterator;
+import com.google.common.collect.Lists;
+import com.google.common.io.ByteStreams;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListeningExecutorService;
+import com.google.common.util.concurrent.MoreExecutors;
 
 /**
  * Utilities for using Blob Stores.
@@ -102,4 +133,282 @@ public class BlobStores {
       };
    }
 
+   /**
+    * Downloads a blob into a file as concurrent ranged GETs of {@code partSize} bytes, at most {@code parallelDegree}
+    * at a time on the io executor of the context. Each range is written at its position in the file as it arrives.
+    * <p>
+    * Every range must come from the version of the blob found when the download started: ranges are only returned if
+    * they match its etag, and are checked against it when they arrive. The file is left incomplete if the download
+    * fails.
+    * 
+    * @return the etag of the blob
+    * @throws KeyNotFoundException if the blob doesn't exist
+    * @throws BlobRuntimeException if the blob changed during the download
+    */
+   @Beta
+   public static String downloadBlob(BlobStoreContext context, final String container, final String name,
+            File destination, final long partSize, int parallelDegree) {
+      checkArgument(partSize > 0, "partSize must be positive");
+      checkArgument(parallelDegree > 0, "parallelDegree must be positive");
+      final BlobStore blobStore = context.getBlobStore();
+      BlobMetadata metadata = blobMetadata(blobStore, container, name);
+      final String etag = metadata.getETag();
+      final long length = metadata.getContentMetadata().getContentLength();
+      ListeningExecutorService executor = context.utils().ioExecutor();
+
+      Semaphore slots = new Semaphore(parallelDegree);
+      AtomicBoolean failed = new AtomicBoolean();
+      List<ListenableFuture<Long>> ranges = Lists.newArrayList();
+      RandomAccessFile file = null;
+      try {
+         file = new RandomAccessFile(destination, "rw");
+         file.setLength(length);
+         final FileChannel channel = file.getChannel();
+         for (long start = 0; start < length; start += partSize) {
+            slots.acquire();
+            if (failed.get())
+               break;
+            final long first = start;
+            ListenableFuture<Long> range = executor.submit(new Callable<Long>() {
+               @Override
+               public Long call() throws IOException {
+                  long last = Math.min(first + partSize, length) - 1;
+                  InputStream in = getRange(blobStore, container, name, etag, first, last).openStream();
+                  try {
+                     return checkRangeLength(container, name, first, last, write(in, channel, first));
+                  } finally {
+                     in.close();
+                  }
+               }
+            });
+            Futures.addCallback(range, new ReleaseSlot(slots, failed), MoreExecutors.directExecutor());
+            ranges.add(range);
+         }
+         Futures.allAsList(ranges).get();
+         channel.force(false);
+         return etag;
+      } catch (InterruptedException e) {
+         cancel(ranges);
+         Thread.currentThread().interrupt();
+         throw propagate(e);
+      } catch (ExecutionException e) {
+         cancel(ranges);
+         throw propagate(e.getCause());
+      } catch (IOException e) {
+         cancel(ranges);
+         throw propagate(e);
+      } finally {
+         if (file != null) {
+            try {
+               file.close();
+            } catch (IOException e) {
+               throw propagate(e);
+            }
+         }
+      }
+   }
+
+   /**
+    * Reads a blob through concurrent ranged GETs of {@code partSize} bytes, issued on the io executor of the context.
+    * At most {@code parallelDegree} ranges are fetched ahead of the one being read, which bounds the memory used to
+    * {@code parallelDegree + 1} ranges. Closing the stream cancels the ranges not yet read.
+    * <p>
+    * Ranges are checked against the etag of the blob found when the download started, as in
+    * {@link #downloadBlob}; a range from another version of the blob fails the read with an {@link IOException}.
+    * 
+    * @throws KeyNotFoundException if the blob doesn't exist
+    */
+   @Beta
+   public static InputStream streamBlob(BlobStoreContext context, String container, String name, long partSize,
+            int parallelDegree) {
+      checkArgument(partSize > 0 && partSize <= Integer.MAX_VALUE, "partSize must be positive and fit in an array");
+      checkArgument(parallelDegree > 0, "parallelDegree must be positive");
+      BlobStore blobStore = context.getBlobStore();
+      BlobMetadata metadata = blobMetadata(blobStore, container, name);
+      return new RangedInputStream(blobStore, context.utils().ioExecutor(), container, name, metadata.getETag(),
+               metadata.getContentMetadata().getContentLength(), (int) partSize, parallelDegree);
+   }
+
+   private static BlobMetadata blobMetadata(BlobStore blobStore, String container, String name) {
+      BlobMetadata metadata = blobStore.blobMetadata(container, name);
+      if (metadata == null)
+         throw new KeyNotFoundException(container, name, "while starting download");
+      checkArgument(metadata.getContentMetadata().getContentLength() != null, "%s/%s has no content length",
+               container, name);
+      return metadata;
+   }
+
+   private static Payload getRange(BlobStore blobStore, String container, String name, String etag,
+            long first, long last) {
+      GetOptions options = new GetOptions().range(first, last);
+      if (etag != null)
+         options.ifETagMatches(etag);
+      Blob blob;
+      try {
+         blob = blobStore.getBlob(container, name, options);
+      } catch (HttpResponseException e) {
+         if (e.getResponse() != null && e.getResponse().getStatusCode() == 412)
+            throw new BlobRuntimeException(String.format("%s/%s changed during download: etag %s no longer matches",
+                     container, name, etag), e);
+         throw e;
+      }
+      if (blob == null)
+         throw new KeyNotFoundException(container, name, "during download");
+      String rangeETag = blob.getMetadata().getETag();
+      if (etag != null && rangeETag != null && !etag.equals(rangeETag))
+         throw new BlobRuntimeException(String.format("%s/%s changed during download: etag %s instead of %s",
+                  container, name, rangeETag, etag));
+      return blob.getPayload();
+   }
+
+   private static long checkRangeLength(String container, String name, long first, long last, long read) {
+      if (read != last - first + 1)
+         throw new BlobRuntimeException(String.format("range %s-%s of %s/%s returned %s bytes", first, last,
+                  container, name, read));
+      return read;
+   }
+
+   private static long write(InputStream in, FileChannel channel, long position) throws IOException {
+      byte[] buffer = new byte[64 * 1024];
+      long written = 0;
+      for (int read = in.read(buffer); read != -1; read = in.read(buffer)) {
+         ByteBuffer bytes = ByteBuffer.wrap(buffer, 0, read);
+         while (bytes.hasRemaining())
+            written += channel.write(bytes, position + written);
+      }
+      return written;
+   }
+
+   private static void cancel(Iterable<? extends ListenableFuture<?>> futures) {
+      for (ListenableFuture<?> future : futures)
+         future.cancel(true);
+   }
+
+   private static final class ReleaseSlot implements FutureCallback<Object> {
+      private final Semaphore slots;
+      private final AtomicBoolean failed;
+
+      private ReleaseSlot(Semaphore slots, AtomicBoolean failed) {
+         this.slots = slots;
+         this.failed = failed;
+      }
+
+      @Override
+      public void onSuccess(Object result) {
+         slots.release();
+      }
+
+      @Override
+      public void onFailure(Throwable t) {
+         failed.set(true);
+         slots.release();
+      }
+   }
+
+   private static final class RangedInputStream extends InputStream {
+      private final BlobStore blobStore;
+      private final ListeningExecutorService executor;
+      private final String container;
+      private final String name;
+      private final String etag;
+      private final long length;
+      private final int partSize;
+      private final int parallelDegree;
+      private final Deque<ListenableFuture<byte[]>> ahead = new ArrayDeque<ListenableFuture<byte[]>>();
+      private long next;
+      private byte[] current = new byte[0];
+      private int position;
+
+      private RangedInputStream(BlobStore blobStore, ListeningExecutorService executor, String container,
+               String name, String etag, long length, int partSize, int parallelDegree) {
+         this.blobStore = blobStore;
+         this.executor = executor;
+         this.container = container;
+         this.name = name;
+         this.etag = etag;
+         this.length = length;
+         this.partSize = partSize;
+         this.parallelDegree = parallelDegree;
+         fetchAhead();
+      }
+
+      private void fetchAhead() {
+         while (ahead.size() < parallelDegree && next < length) {
+            final long first = next;
+            final long last = Math.min(first + partSize, length) - 1;
+            ahead.add(executor.submit(new Callable<byte[]>() {
+               @Override
+               public byte[] call() throws IOException {
+                  InputStream in = getRange(blobStore, container, name, etag, first, last).openStream();
+                  try {
+                     byte[] range = ByteStreams.toByteArray(in);
+                     checkRangeLength(container, name, first, last, range.length);
+                     return range;
+                  } finally {
+                     in.close();
+                  }
+               }
+            }));
+            next = last + 1;
+         }
+      }
+
+      /**
+       * @return false at the end of the blob
+       */
+      private boolean advance() throws IOException {
+         while (position == current.length) {
+            ListenableFuture<byte[]> range = ahead.poll();
+            if (range == null)
+               return false;
+            fetchAhead();
+            try {
+               current = range.get();
+               position = 0;
+            } catch (InterruptedException e) {
+               close();
+               Thread.currentThread().interrupt();
+               throw new InterruptedIOException();
+            } catch (ExecutionException e) {
+               close();
+               Throwables.propagateIfInstanceOf(e.getCause(), IOException.class);
+               throw new IOException(e.getCause());
+            }
+         }
+         return true;
+      }
+
+      @Override
+      public int read() throws IOException {
+         if (!advance())
+            return -1;
+         return current[position++] & 0xff;
+      }
+
+      @Override
+      public int read(byte[] b, int off, int len) throws IOException {
+         if (len == 0)
+            return 0;
+         if (!advance())
+            return -1;
+         int read = Math.min(len, current.length - position);
+         System.arraycopy(current, position, b, off, read);
+         position += read;
+         return read;
+      }
+
+      @Override
+      public int available() {
+         return current.length - position;
+      }
+
+      @Override
+      public void close() {
+         cancel(ahead);
+         ahead.clear();
+         next = length;
+         current = new byte[0];
+         position = 0;
+      }
+   }
 }
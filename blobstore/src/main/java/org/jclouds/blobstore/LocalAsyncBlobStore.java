@@ -18,19 +18,22 @@ package org.jclouds.blobstore;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.base.Preconditions.checkState;
+import static com.google.common.base.Predicates.equalTo;
+import static com.google.common.base.Predicates.not;
 import static com.google.common.base.Throwables.getCausalChain;
 import static com.google.common.collect.Iterables.filter;
-import static com.google.common.collect.Iterables.find;
 import static com.google.common.collect.Iterables.size;
 import static com.google.common.collect.Iterables.transform;
+import static com.google.common.collect.Lists.newArrayList;
 import static com.google.common.collect.Sets.filter;
 import static com.google.common.collect.Sets.newTreeSet;
 import static com.google.common.util.concurrent.Futures.immediateFailedFuture;
 import static com.google.common.util.concurrent.Futures.immediateFuture;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Set;
 import java.util.SortedSet;
 import java.util.regex.Pattern;
@@ -70,6 +73,7 @@ import org.jclouds.io.ByteStreams2;
 import org.jclouds.io.ContentMetadata;
 import org.jclouds.io.ContentMetadataCodec;
 import org.jclouds.io.Payload;
+import org.jclouds.io.Payloads;
 import org.jclouds.logging.Logger;
 
 import com.google.common.base.Function;
@@ -78,6 +82,9 @@ import com.google.common.base.Supplier;
 import com.google.common.base.Throwables;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Iterables;
+import com.google.common.collect.Iterators;
+import com.google.common.collect.Lists;
+import com.google.common.io.ByteSource;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.ListeningExecutorService;
@@ -126,95 +133,80 @@ public class LocalAsyncBlobStore extends BaseAsyncBlobStore {
       if (!storageStrategy.containerExists(container))
          return immediateFailedFuture(cnfe(container));
 
-      // Loading blobs from container
+      final String prefix = options != null ? options.getDir() : null;
+      String marker = options != null ? options.getMarker() : null;
+
+      // Loading the sorted blob keys after the marker, so that only the requested page is read
       Iterable<String> blobBelongingToContainer = null;
       try {
-         blobBelongingToContainer = storageStrategy.getBlobKeysInsideContainer(container);
+         blobBelongingToContainer = storageStrategy.getBlobKeysInsideContainer(container, prefix, marker);
       } catch (IOException e) {
          logger.error(e, "An error occurred loading blobs contained into container %s", container);
          Throwables.propagate(e);
       }
+      if (prefix != null) {
+         blobBelongingToContainer = filter(blobBelongingToContainer, not(equalTo(prefix)));
+      }
 
-      SortedSet<StorageMetadata> contents = newTreeSet(transform(blobBelongingToContainer,
-            new Function<String, StorageMetadata>() {
-               public StorageMetadata apply(String key) {
-                  if (!storageStrategy.blobExists(container, key)) {
-                     // handle directory
-                     return new StorageMetadataImpl(StorageType.FOLDER, /*id=*/ null, key,
-                           /*location=*/ null, /*uri=*/ null, /*eTag=*/ null, /*creationDate=*/ null,
-                           /*lastModified=*/ null, ImmutableMap.<String, String>of());
-                  }
-                  Blob oldBlob = loadBlob(container, key);
-                  checkState(oldBlob != null, "blob " + key + " is not present although it was in the list of "
-                        + container);
-                  checkState(oldBlob.getMetadata() != null, "blob " + container + "/" + key + " has no metadata");
-                  MutableBlobMetadata md = BlobStoreUtils.copy(oldBlob.getMetadata());
-                  String directoryName = ifDirectoryReturnName.execute(md);
-                  if (directoryName != null) {
-                     md.setName(directoryName);
-                     md.setType(StorageType.RELATIVE_PATH);
-                  }
-                  return md;
-               }
-            }));
-
-      String marker = null;
-      if (options != null) {
-         if (options.getMarker() != null) {
-            final String finalMarker = options.getMarker();
-            StorageMetadata lastMarkerMetadata = find(contents, new Predicate<StorageMetadata>() {
-               public boolean apply(StorageMetadata metadata) {
-                  return metadata.getName().compareTo(finalMarker) > 0;
-               }
-            });
-            contents = contents.tailSet(lastMarkerMetadata);
-         }
-
-         final String prefix = options.getDir();
-         if (prefix != null) {
-            contents = newTreeSet(filter(contents, new Predicate<StorageMetadata>() {
-               public boolean apply(StorageMetadata o) {
-                  return o != null && o.getName().startsWith(prefix) && !o.getName().equals(prefix);
-               }
-            }));
-         }
-
-         int maxResults = options.getMaxResults() != null ? options.getMaxResults() : 1000;
-         if (!contents.isEmpty()) {
-            StorageMetadata lastElement = contents.last();
-            contents = newTreeSet(Iterables.limit(contents, maxResults));
-            if (!contents.contains(lastElement)) {
-               // Partial listing
-               marker = contents.last().getName();
+      Function<String, StorageMetadata> toMetadata = new Function<String, StorageMetadata>() {
+         public StorageMetadata apply(String key) {
+            if (!storageStrategy.blobExists(container, key)) {
+               // handle directory
+               return new StorageMetadataImpl(StorageType.FOLDER, /*id=*/ null, key,
+                     /*location=*/ null, /*uri=*/ null, /*eTag=*/ null, /*creationDate=*/ null,
+                     /*lastModified=*/ null, ImmutableMap.<String, String>of());
+            }
+            Blob oldBlob = loadBlob(container, key);
+            checkState(oldBlob != null, "blob " + key + " is not present although it was in the list of "
+                  + container);
+            checkState(oldBlob.getMetadata() != null, "blob " + container + "/" + key + " has no metadata");
+            MutableBlobMetadata md = BlobStoreUtils.copy(oldBlob.getMetadata());
+            String directoryName = ifDirectoryReturnName.execute(md);
+            if (directoryName != null) {
+               md.setName(directoryName);
+               md.setType(StorageType.RELATIVE_PATH);
             }
+            return md;
          }
+      };
 
-         if (!options.isRecursive()) {
-            String delimiter = storageStrategy.getSeparator();
-            SortedSet<String> commonPrefixes = newTreeSet(
-                   transform(contents, new CommonPrefixes(prefix, delimiter)));
-            commonPrefixes.remove(CommonPrefixes.NO_PREFIX);
-
-            contents = newTreeSet(filter(contents, new DelimiterFilter(prefix, delimiter)));
+      if (options == null) {
+         return Futures.<PageSet<? extends StorageMetadata>> immediateFuture(new PageSetImpl<StorageMetadata>(
+               newTreeSet(transform(blobBelongingToContainer, toMetadata)), null));
+      }
 
-            for (String o : commonPrefixes) {
-               MutableStorageMetadata md = new MutableStorageMetadataImpl();
-               md.setType(StorageType.RELATIVE_PATH);
-               md.setName(o);
-               contents.add(md);
-            }
+      int maxResults = options.getMaxResults() != null ? options.getMaxResults() : 1000;
+      Iterator<String> keys = blobBelongingToContainer.iterator();
+      List<String> page = newArrayList(Iterators.limit(keys, maxResults));
+      // Partial listing
+      String nextMarker = keys.hasNext() && !page.isEmpty() ? Iterables.getLast(page) : null;
+      SortedSet<StorageMetadata> contents = newTreeSet(transform(page, toMetadata));
+
+      if (!options.isRecursive()) {
+         String delimiter = storageStrategy.getSeparator();
+         SortedSet<String> commonPrefixes = newTreeSet(
+                transform(contents, new CommonPrefixes(prefix, delimiter)));
+         commonPrefixes.remove(CommonPrefixes.NO_PREFIX);
+
+         contents = newTreeSet(filter(contents, new DelimiterFilter(prefix, delimiter)));
+
+         for (String o : commonPrefixes) {
+            MutableStorageMetadata md = new MutableStorageMetadataImpl();
+            md.setType(StorageType.RELATIVE_PATH);
+            md.setName(o);
+            contents.add(md);
          }
+      }
 
-         // trim metadata, if the response isn't supposed to be detailed.
-         if (!options.isDetailed()) {
-            for (StorageMetadata md : contents) {
-               md.getUserMetadata().clear();
-            }
+      // trim metadata, if the response isn't supposed to be detailed.
+      if (!options.isDetailed()) {
+         for (StorageMetadata md : contents) {
+            md.getUserMetadata().clear();
          }
       }
 
       return Futures.<PageSet<? extends StorageMetadata>> immediateFuture(new PageSetImpl<StorageMetadata>(contents,
-            marker));
+            nextMarker));
 
    }
 
@@ -471,26 +463,34 @@ public class LocalAsyncBlobStore extends BaseAsyncBlobStore {
          blob = copyBlob(blob);
 
          if (options.getRanges() != null && !options.getRanges().isEmpty()) {
-            byte[] data;
+            // slice the stored content rather than reading it into memory; for files, each slice seeks to its
+            // offset instead of reading from the start
+            ByteSource data;
+            long size;
             try {
-               data = ByteStreams2.toByteArrayAndClose(blob.getPayload().openStream());
+               if (blob.getPayload().getRawContent() instanceof ByteSource) {
+                  data = (ByteSource) blob.getPayload().getRawContent();
+               } else {
+                  data = ByteSource.wrap(ByteStreams2.toByteArrayAndClose(blob.getPayload().openStream()));
+               }
+               size = data.size();
             } catch (IOException e) {
                return immediateFailedFuture(new RuntimeException(e));
             }
-            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            List<ByteSource> slices = Lists.newArrayList();
+            long length = 0;
             for (String s : options.getRanges()) {
-               // HTTP uses a closed interval while Java array indexing uses a
-               // half-open interval.
-               int offset = 0;
-               int last = data.length - 1;
+               // HTTP uses a closed interval while ByteSource.slice takes an offset and a length.
+               long offset = 0;
+               long last = size - 1;
                if (s.startsWith("-")) {
-                  offset = last - Integer.parseInt(s.substring(1)) + 1;
+                  offset = Math.max(0, last - Long.parseLong(s.substring(1)) + 1);
                } else if (s.endsWith("-")) {
-                  offset = Integer.parseInt(s.substring(0, s.length() - 1));
+                  offset = Long.parseLong(s.substring(0, s.length() - 1));
                } else if (s.contains("-")) {
                   String[] firstLast = s.split("\\-");
-                  offset = Integer.parseInt(firstLast[0]);
-                  last = Integer.parseInt(firstLast[1]);
+                  offset = Long.parseLong(firstLast[0]);
+                  last = Long.parseLong(firstLast[1]);
                } else {
                   return immediateFailedFuture(new IllegalArgumentException("illegal range: " + s));
                }
@@ -498,16 +498,16 @@ public class LocalAsyncBlobStore extends BaseAsyncBlobStore {
                if (offset > last) {
                   return immediateFailedFuture(new IllegalArgumentException("illegal range: " + s));
                }
-               if (last + 1 > data.length) {
-                  last = data.length - 1;
+               if (last + 1 > size) {
+                  last = size - 1;
                }
-               out.write(data, offset, last - offset + 1);
+               slices.add(data.slice(offset, last - offset + 1));
+               length += last - offset + 1;
             }
             ContentMetadata cmd = blob.getPayload().getContentMetadata();
-            byte[] byteArray = out.toByteArray();
-            blob.setPayload(byteArray);
+            blob.setPayload(Payloads.newByteSourcePayload(ByteSource.concat(slices)));
             HttpUtils.copy(cmd, blob.getPayload().getContentMetadata());
-            blob.getPayload().getContentMetadata().setContentLength(Long.valueOf(byteArray.length));
+            blob.getPayload().getContentMetadata().setContentLength(length);
          }
       }
       checkNotNull(blob.getPayload(), "payload " + blob);
@@ -21,6 +21,7 @@ import java.io.IOException;
 import org.jclouds.blobstore.domain.Blob;
 import org.jclouds.blobstore.options.ListContainerOptions;
 import org.jclouds.domain.Location;
+import org.jclouds.javax.annotation.Nullable;
 
 /**
  * Strategy for local operations related to container and blob
@@ -88,6 +89,19 @@ public interface LocalStorageStrategy {
      */
     Iterable<String> getBlobKeysInsideContainer(String container) throws IOException;
 
+    /**
+     * Returns the blob keys inside a container in lexicographic order, restricted to those starting with
+     * prefix and sorting strictly after marker. Implementations should seek to the start of the range
+     * rather than scan every key, as this backs paged listing of large containers.
+     * @param container
+     * @param prefix only return keys starting with this, or null for all keys
+     * @param marker only return keys sorting after this, or null to start from the first key
+     * @return
+     * @throws IOException
+     */
+    Iterable<String> getBlobKeysInsideContainer(String container, @Nullable String prefix, @Nullable String marker)
+          throws IOException;
+
     /**
      * Load the blob with the given key belonging to the container with the given
      * name. There must exist a resource on the file system whose complete name
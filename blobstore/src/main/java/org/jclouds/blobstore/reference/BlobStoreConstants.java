@@ -53,6 +53,37 @@ public final class BlobStoreConstants {
     */
    public static final String PROPERTY_USER_METADATA_PREFIX = "jclouds.blobstore.metaprefix";
 
+   /**
+    * Integer property. Number of parts of a blob uploaded at the same time by a multipart upload.
+    * Parts are buffered in memory when the payload can't be sliced in place, so this also bounds
+    * the memory used by the upload. Defaults to 4.
+    */
+   public static final String PROPERTY_MULTIPART_PARALLEL_DEGREE = "jclouds.mpu.parallel.degree";
+
+   /**
+    * Long property. Preferred size in bytes of the parts of a multipart upload, raised or lowered
+    * to fit the limits of the provider. Defaults to 32MB.
+    */
+   public static final String PROPERTY_MULTIPART_PART_SIZE = "jclouds.mpu.parts.size";
+
+   /**
+    * Integer property. Number of times the upload of a failed part is retried, with an
+    * exponential backoff, before the multipart upload is aborted. Defaults to 3.
+    */
+   public static final String PROPERTY_MULTIPART_PART_RETRIES = "jclouds.mpu.parts.retries";
+
+   /**
+    * Integer property, read as {@link #PROPERTY_MULTIPART_PART_RETRIES} when that one is not set.
+    * <p>
+    * The parallel multipart uploads of aws-s3 and swift used to share this many retries, or
+    * {@code jclouds.mpu.parallel.retries.maxpercent} percent of the parts if more, across all the
+    * parts of an upload. Retries are now counted per part, and the percentage is no longer read.
+    *
+    * @deprecated use {@link #PROPERTY_MULTIPART_PART_RETRIES}
+    */
+   @Deprecated
+   public static final String PROPERTY_MULTIPART_PARALLEL_RETRIES_MIN = "jclouds.mpu.parallel.retries.min";
+
    public static final String BLOBSTORE_LOGGER = "jclouds.blobstore";
 
    private BlobStoreConstants() {
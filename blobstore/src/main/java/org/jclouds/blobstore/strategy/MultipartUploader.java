@@ -0,0 +1,78 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.blobstore.strategy;
+
+import java.util.SortedMap;
+
+import org.jclouds.blobstore.domain.Blob;
+import org.jclouds.io.Payload;
+
+/**
+ * The calls a provider needs to implement so that {@link PutBlobInPartsStrategy} can upload a blob in parts.
+ * <p>
+ * {@link #uploadPart} is called concurrently for different parts of the same upload. Parts are numbered from 1.
+ */
+public interface MultipartUploader {
+
+   /**
+    * @return the smallest size, in bytes, of any part but the last
+    */
+   long getMinimumPartSize();
+
+   /**
+    * @return the largest size, in bytes, of a part
+    */
+   long getMaximumPartSize();
+
+   /**
+    * @return the largest number of parts of an upload
+    */
+   int getMaximumNumberOfParts();
+
+   /**
+    * Uploads a blob that fits in a single part, without starting a multipart upload.
+    *
+    * @return the etag of the blob
+    */
+   String put(String container, Blob blob);
+
+   /**
+    * Starts the upload of {@code blob}, whose payload will be uploaded as {@code parts} parts.
+    *
+    * @return the id of the upload, passed to the other calls
+    */
+   String initiate(String container, Blob blob, int parts);
+
+   /**
+    * @return the etag, or whatever else identifies the uploaded part to {@link #complete}
+    */
+   String uploadPart(String container, String name, String uploadId, int part, Payload payload);
+
+   /**
+    * Assembles the uploaded parts into the blob.
+    *
+    * @param parts
+    *           the values returned by {@link #uploadPart}, by part number
+    * @return the etag of the blob
+    */
+   String complete(String container, String name, String uploadId, SortedMap<Integer, String> parts);
+
+   /**
+    * Discards the parts uploaded so far.
+    */
+   void abort(String container, String name, String uploadId);
+}
@@ -0,0 +1,259 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.blobstore.strategy.internal;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Throwables.propagate;
+import static org.jclouds.util.Throwables2.getFirstThrowableOfType;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.SortedMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.annotation.Resource;
+import javax.inject.Named;
+import javax.inject.Singleton;
+
+import org.jclouds.Constants;
+import org.jclouds.blobstore.domain.Blob;
+import org.jclouds.blobstore.reference.BlobStoreConstants;
+import org.jclouds.blobstore.strategy.MultipartUploader;
+import org.jclouds.blobstore.strategy.PutBlobInPartsStrategy;
+import org.jclouds.io.Payload;
+import org.jclouds.io.PayloadSlicer;
+import org.jclouds.logging.Logger;
+import org.jclouds.rest.AuthorizationException;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListeningExecutorService;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.inject.Inject;
+
+/**
+ * Uploads up to {@link BlobStoreConstants#PROPERTY_MULTIPART_PARALLEL_DEGREE} parts at a time on the user executor.
+ * <p>
+ * Repeatable payloads, such as files, are sliced in place. Other payloads are read sequentially into memory, one part
+ * at a time, and no more than one part is read ahead of the parts being uploaded. A failed part is retried
+ * {@link BlobStoreConstants#PROPERTY_MULTIPART_PART_RETRIES} times, unless the failure is an
+ * {@link AuthorizationException}; past that, the parts still uploading are cancelled and the upload is aborted.
+ */
+@Singleton
+public class ParallelPutBlobInPartsStrategy implements PutBlobInPartsStrategy {
+
+   public static final int DEFAULT_PARALLEL_DEGREE = 4;
+   public static final long DEFAULT_PART_SIZE = 32L * 1024 * 1024;
+   public static final int DEFAULT_PART_RETRIES = 3;
+
+   @Resource
+   @Named(BlobStoreConstants.BLOBSTORE_LOGGER)
+   protected Logger logger = Logger.NULL;
+
+   @Inject(optional = true)
+   @Named(BlobStoreConstants.PROPERTY_MULTIPART_PARALLEL_DEGREE)
+   protected int parallelDegree = DEFAULT_PARALLEL_DEGREE;
+
+   @Inject(optional = true)
+   @Named(BlobStoreConstants.PROPERTY_MULTIPART_PART_SIZE)
+   protected long partSize = DEFAULT_PART_SIZE;
+
+   @Inject(optional = true)
+   @Named(BlobStoreConstants.PROPERTY_MULTIPART_PART_RETRIES)
+   protected Integer partRetries;
+
+   @SuppressWarnings("deprecation")
+   @Inject(optional = true)
+   @Named(BlobStoreConstants.PROPERTY_MULTIPART_PARALLEL_RETRIES_MIN)
+   protected Integer minRetries;
+
+   /**
+    * milliseconds before the first retry of a part, doubled at each following retry
+    */
+   @VisibleForTesting
+   long retryDelay = 500;
+
+   private final PayloadSlicer slicer;
+   private final ListeningExecutorService userExecutor;
+
+   @Inject
+   public ParallelPutBlobInPartsStrategy(PayloadSlicer slicer,
+         @Named(Constants.PROPERTY_USER_THREADS) ListeningExecutorService userExecutor) {
+      this.slicer = checkNotNull(slicer, "slicer");
+      this.userExecutor = checkNotNull(userExecutor, "userExecutor");
+   }
+
+   /**
+    * @return the retries of a part, falling back on the deprecated retries of the former parallel strategies
+    */
+   @VisibleForTesting
+   int partRetries() {
+      if (partRetries != null)
+         return partRetries;
+      return minRetries != null ? minRetries : DEFAULT_PART_RETRIES;
+   }
+
+   @Override
+   public String execute(MultipartUploader uploader, String container, Blob blob) {
+      Payload payload = checkNotNull(blob.getPayload(), "payload");
+      Long length = payload.getContentMetadata().getContentLength();
+      checkNotNull(length,
+            "please invoke payload.getContentMetadata().setContentLength(length) prior to multipart upload");
+      long size = partSize(uploader, length);
+      if (length <= size)
+         return uploader.put(container, blob);
+
+      int parts = (int) ((length - 1) / size + 1);
+      String name = blob.getMetadata().getName();
+      String uploadId = uploader.initiate(container, blob, parts);
+      logger.debug(">> uploading %s/%s in %d parts of %d bytes, %d at a time (upload %s)", container, name, parts,
+            size, parallelDegree, uploadId);
+      long start = System.currentTimeMillis();
+
+      Semaphore slots = new Semaphore(parallelDegree);
+      AtomicBoolean failed = new AtomicBoolean();
+      SortedMap<Integer, String> etags = new ConcurrentSkipListMap<Integer, String>();
+      List<ListenableFuture<String>> uploads = Lists.newArrayListWithCapacity(parts);
+      Iterator<Payload> slices = payload.isRepeatable() ? null : slicer.slice(payload, size).iterator();
+      try {
+         for (int part = 1; part <= parts; part++) {
+            slots.acquire();
+            if (failed.get())
+               break;
+            long offset = (part - 1) * size;
+            Payload slice = slices != null ? slices.next() : slicer.slice(payload, offset,
+                  Math.min(size, length - offset));
+            ListenableFuture<String> upload = userExecutor.submit(new UploadPart(uploader, container, name, uploadId,
+                  part, slice, etags));
+            Futures.addCallback(upload, new ReleaseSlot(slots, failed), MoreExecutors.directExecutor());
+            uploads.add(upload);
+         }
+         Futures.allAsList(uploads).get();
+         String etag = uploader.complete(container, name, uploadId, etags);
+         logger.debug("<< uploaded %s/%s in %dms (upload %s)", container, name, System.currentTimeMillis() - start,
+               uploadId);
+         return etag;
+      } catch (InterruptedException e) {
+         Thread.currentThread().interrupt();
+         throw abort(uploader, container, name, uploadId, uploads, e);
+      } catch (ExecutionException e) {
+         throw abort(uploader, container, name, uploadId, uploads, e.getCause());
+      } catch (RuntimeException e) {
+         throw abort(uploader, container, name, uploadId, uploads, e);
+      }
+   }
+
+   /**
+    * @return the configured part size, within the limits of the provider and large enough for {@code length} to fit
+    *         in the maximum number of parts
+    */
+   @VisibleForTesting
+   long partSize(MultipartUploader uploader, long length) {
+      long size = Math.min(Math.max(partSize, uploader.getMinimumPartSize()), uploader.getMaximumPartSize());
+      int maxParts = uploader.getMaximumNumberOfParts();
+      if ((length - 1) / size + 1 > maxParts)
+         size = (length - 1) / maxParts + 1;
+      checkArgument(size <= uploader.getMaximumPartSize(), "%s bytes don't fit in %s parts of %s bytes", length,
+            maxParts, uploader.getMaximumPartSize());
+      return size;
+   }
+
+   private RuntimeException abort(MultipartUploader uploader, String container, String name, String uploadId,
+         List<ListenableFuture<String>> uploads, Throwable cause) {
+      for (ListenableFuture<String> upload : uploads)
+         upload.cancel(true);
+      logger.warn(cause, "<< aborting upload %s of %s/%s", uploadId, container, name);
+      try {
+         uploader.abort(container, name, uploadId);
+      } catch (RuntimeException e) {
+         logger.warn(e, "<< could not abort upload %s of %s/%s", uploadId, container, name);
+      }
+      throw propagate(cause);
+   }
+
+   private static final class ReleaseSlot implements FutureCallback<String> {
+      private final Semaphore slots;
+      private final AtomicBoolean failed;
+
+      private ReleaseSlot(Semaphore slots, AtomicBoolean failed) {
+         this.slots = slots;
+         this.failed = failed;
+      }
+
+      @Override
+      public void onSuccess(String etag) {
+         slots.release();
+      }
+
+      @Override
+      public void onFailure(Throwable t) {
+         failed.set(true);
+         slots.release();
+      }
+   }
+
+   private final class UploadPart implements Callable<String> {
+      private final MultipartUploader uploader;
+      private final String container;
+      private final String name;
+      private final String uploadId;
+      private final int part;
+      private final Payload slice;
+      private final SortedMap<Integer, String> etags;
+
+      private UploadPart(MultipartUploader uploader, String container, String name, String uploadId, int part,
+            Payload slice, SortedMap<Integer, String> etags) {
+         this.uploader = uploader;
+         this.container = container;
+         this.name = name;
+         this.uploadId = uploadId;
+         this.part = part;
+         this.slice = slice;
+         this.etags = etags;
+      }
+
+      @Override
+      public String call() throws InterruptedException {
+         for (int attempt = 0;; attempt++) {
+            try {
+               String etag = uploader.uploadPart(container, name, uploadId, part, slice);
+               etags.put(part, etag);
+               return etag;
+            } catch (RuntimeException e) {
+               if (attempt >= partRetries() || !slice.isRepeatable()
+                     || getFirstThrowableOfType(e, AuthorizationException.class) != null)
+                  throw e;
+               logger.debug("<< retrying part %d of %s/%s: %s", part, container, name, e.getMessage());
+               Thread.sleep(retryDelay << attempt);
+            }
+         }
+      }
+
+      @Override
+      public String toString() {
+         return "uploadPart(" + container + "/" + name + ", " + part + ")";
+      }
+   }
+}
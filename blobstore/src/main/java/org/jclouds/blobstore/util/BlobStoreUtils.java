@@ -18,8 +18,10 @@ package org.jclouds.blobstore.util;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.NavigableSet;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -30,8 +32,10 @@ import org.jclouds.blobstore.domain.internal.MutableBlobMetadataImpl;
 import org.jclouds.blobstore.functions.BlobName;
 import org.jclouds.http.HttpRequest;
 import org.jclouds.http.HttpRequestFilter;
+import org.jclouds.javax.annotation.Nullable;
 import org.jclouds.rest.internal.GeneratedHttpRequest;
 
+import com.google.common.collect.AbstractIterator;
 import com.google.common.collect.Maps;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
@@ -86,6 +90,43 @@ public class BlobStoreUtils {
       }
    }
    
+   /**
+    * Returns a view of the sorted {@code keys} which start with {@code prefix} and sort strictly after
+    * {@code marker}. Either may be null. Only the keys in the requested range are visited, so that a page of
+    * a large container can be listed in O(log n + page size) when {@code keys} is a tree or skip list.
+    */
+   public static Iterable<String> keysWithPrefixAfterMarker(NavigableSet<String> keys, @Nullable final String prefix,
+         @Nullable String marker) {
+      checkNotNull(keys, "keys");
+      final NavigableSet<String> tail;
+      if (marker != null && (prefix == null || marker.compareTo(prefix) >= 0))
+         tail = keys.tailSet(marker, false);
+      else if (prefix != null)
+         tail = keys.tailSet(prefix, true);
+      else
+         tail = keys;
+      if (prefix == null)
+         return tail;
+      return new Iterable<String>() {
+         @Override
+         public Iterator<String> iterator() {
+            final Iterator<String> delegate = tail.iterator();
+            return new AbstractIterator<String>() {
+               @Override
+               protected String computeNext() {
+                  if (delegate.hasNext()) {
+                     String key = delegate.next();
+                     // keys are sorted, so the first key without the prefix ends the range
+                     if (key.startsWith(prefix))
+                        return key;
+                  }
+                  return endOfData();
+               }
+            };
+         }
+      };
+   }
+
    public static MutableBlobMetadata copy(MutableBlobMetadata in) {
       MutableBlobMetadata metadata = new MutableBlobMetadataImpl(in);
       convertUserMetadataKeysToLowercase(metadata);
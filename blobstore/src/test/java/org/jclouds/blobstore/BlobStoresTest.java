@@ -18,16 +18,29 @@ package org.jclouds.blobstore;
 
 import static org.easymock.EasyMock.createMock;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
 
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.easymock.EasyMock;
 import org.jclouds.ContextBuilder;
 import org.jclouds.blobstore.domain.PageSet;
 import org.jclouds.blobstore.domain.StorageMetadata;
 import org.jclouds.blobstore.domain.internal.PageSetImpl;
+import org.jclouds.blobstore.internal.BlobRuntimeException;
 import org.jclouds.blobstore.options.ListAllOptions;
 import org.jclouds.blobstore.options.ListContainerOptions;
+import org.jclouds.concurrent.config.ExecutorServiceModule;
 import org.testng.annotations.Test;
 
 import com.google.common.base.Function;
@@ -35,6 +48,9 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Sets;
+import com.google.common.io.ByteStreams;
+import com.google.common.io.Files;
+import com.google.common.util.concurrent.MoreExecutors;
 
 @Test(singleThreaded = true, testName = "BlobStoresTest")
 public class BlobStoresTest {
@@ -158,4 +174,134 @@ public class BlobStoresTest {
       Iterable<StorageMetadata> iterable = BlobStores.listAll(blobStore, containerName, options);
       assertEquals(ImmutableList.copyOf(iterable), ImmutableList.of(v1, v2));
    }
+
+   @Test
+   public void testDownloadBlobFromTransientBlobStore() throws Exception {
+      byte[] content = content(1000);
+      BlobStoreContext context = blobStoreContext();
+      File file = File.createTempFile("BlobStoresTest", ".bin");
+      try {
+         BlobStore blobStore = context.getBlobStore();
+         blobStore.createContainerInLocation(null, containerName);
+         String etag = blobStore.putBlob(containerName, blobStore.blobBuilder("blob").payload(content).build());
+
+         assertEquals(BlobStores.downloadBlob(context, containerName, "blob", file, 64, 3), etag);
+         assertEquals(Files.toByteArray(file), content);
+      } finally {
+         file.delete();
+         context.close();
+      }
+   }
+
+   @Test
+   public void testStreamBlobFromTransientBlobStore() throws Exception {
+      byte[] content = content(1000);
+      BlobStoreContext context = blobStoreContext();
+      try {
+         BlobStore blobStore = context.getBlobStore();
+         blobStore.createContainerInLocation(null, containerName);
+         blobStore.putBlob(containerName, blobStore.blobBuilder("blob").payload(content).build());
+
+         InputStream in = BlobStores.streamBlob(context, containerName, "blob", 64, 3);
+         try {
+            assertEquals(ByteStreams.toByteArray(in), content);
+         } finally {
+            in.close();
+         }
+      } finally {
+         context.close();
+      }
+   }
+
+   @Test
+   public void testDownloadBlobFailsWhenBlobIsReplacedBetweenRanges() throws Exception {
+      ReplaceBlobBeforeSecondRange ioExecutor = new ReplaceBlobBeforeSecondRange(new byte[1000]);
+      BlobStoreContext context = blobStoreContext(ioExecutor);
+      File file = File.createTempFile("BlobStoresTest", ".bin");
+      try {
+         BlobStore blobStore = context.getBlobStore();
+         blobStore.createContainerInLocation(null, containerName);
+         blobStore.putBlob(containerName, blobStore.blobBuilder("blob").payload(content(1000)).build());
+         ioExecutor.blobStore = blobStore;
+
+         BlobStores.downloadBlob(context, containerName, "blob", file, 64, 2);
+         fail("expected the download to fail");
+      } catch (BlobRuntimeException e) {
+         assertTrue(e.getMessage().contains("changed during download"), e.getMessage());
+      } finally {
+         file.delete();
+         context.close();
+         ioExecutor.shutdownNow();
+      }
+   }
+
+   @Test
+   public void testStreamBlobFailsWhenBlobIsReplacedBetweenRanges() throws Exception {
+      ReplaceBlobBeforeSecondRange ioExecutor = new ReplaceBlobBeforeSecondRange(new byte[1000]);
+      BlobStoreContext context = blobStoreContext(ioExecutor);
+      try {
+         BlobStore blobStore = context.getBlobStore();
+         blobStore.createContainerInLocation(null, containerName);
+         blobStore.putBlob(containerName, blobStore.blobBuilder("blob").payload(content(1000)).build());
+         ioExecutor.blobStore = blobStore;
+
+         InputStream in = BlobStores.streamBlob(context, containerName, "blob", 64, 2);
+         try {
+            ByteStreams.toByteArray(in);
+            fail("expected the read to fail");
+         } catch (IOException e) {
+            assertTrue(e.getCause() instanceof BlobRuntimeException, String.valueOf(e.getCause()));
+         } finally {
+            in.close();
+         }
+      } finally {
+         context.close();
+         ioExecutor.shutdownNow();
+      }
+   }
+
+   @Test(expectedExceptions = KeyNotFoundException.class)
+   public void testStreamBlobForUnknownBlobFromTransientBlobStore() throws Exception {
+      BlobStoreContext context = blobStoreContext();
+      try {
+         context.getBlobStore().createContainerInLocation(null, containerName);
+         BlobStores.streamBlob(context, containerName, "missing", 64, 3);
+      } finally {
+         context.close();
+      }
+   }
+
+   private BlobStoreContext blobStoreContext(ExecutorService ioExecutor) {
+      return ContextBuilder.newBuilder("transient")
+            .modules(ImmutableSet.of(new ExecutorServiceModule(MoreExecutors.newDirectExecutorService(), ioExecutor)))
+            .build(BlobStoreContext.class);
+   }
+
+   /**
+    * Runs ranges one at a time, and replaces the blob with other content right before the second one.
+    */
+   private class ReplaceBlobBeforeSecondRange extends ThreadPoolExecutor {
+      private final byte[] replacement;
+      private final AtomicInteger ranges = new AtomicInteger();
+      private volatile BlobStore blobStore;
+
+      private ReplaceBlobBeforeSecondRange(byte[] replacement) {
+         super(1, 1, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<Runnable>());
+         this.replacement = replacement;
+      }
+
+      @Override
+      protected void beforeExecute(Thread thread, Runnable range) {
+         if (ranges.incrementAndGet() == 2)
+            blobStore.putBlob(containerName, blobStore.blobBuilder("blob").payload(replacement).build());
+      }
+   }
+
+   private static byte[] content(int length) {
+      byte[] content = new byte[length];
+      Arrays.fill(content, (byte) 'a');
+      for (int i = 0; i < length; i += 7)
+         content[i] = (byte) i;
+      return content;
+   }
 }
@@ -0,0 +1,232 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.blobstore.strategy.internal;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jclouds.blobstore.domain.Blob;
+import org.jclouds.blobstore.domain.internal.BlobBuilderImpl;
+import org.jclouds.blobstore.strategy.MultipartUploader;
+import org.jclouds.io.Payload;
+import org.jclouds.io.internal.BasePayloadSlicer;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import com.google.common.io.ByteStreams;
+import com.google.common.util.concurrent.MoreExecutors;
+
+@Test(groups = "unit", testName = "ParallelPutBlobInPartsStrategyTest")
+public class ParallelPutBlobInPartsStrategyTest {
+
+   private static final byte[] CONTENT = "abcdefghijklmnopqrstuvwxyz".getBytes();
+
+   private ExecutorService executor;
+
+   @BeforeClass
+   public void setUp() {
+      executor = Executors.newCachedThreadPool();
+   }
+
+   @AfterClass(alwaysRun = true)
+   public void tearDown() {
+      executor.shutdownNow();
+   }
+
+   private ParallelPutBlobInPartsStrategy strategy(long partSize, int parallelDegree) {
+      ParallelPutBlobInPartsStrategy strategy = new ParallelPutBlobInPartsStrategy(new BasePayloadSlicer(),
+            MoreExecutors.listeningDecorator(executor));
+      strategy.partSize = partSize;
+      strategy.parallelDegree = parallelDegree;
+      strategy.retryDelay = 1;
+      return strategy;
+   }
+
+   private static Blob blob(byte[] content) {
+      return new BlobBuilderImpl().name("blob").payload(content).contentLength(content.length).build();
+   }
+
+   private static Blob streamedBlob(byte[] content) {
+      return new BlobBuilderImpl().name("blob").payload(new ByteArrayInputStream(content))
+            .contentLength(content.length).build();
+   }
+
+   public void testPartsAreUploadedAndCompletedInOrder() {
+      FakeUploader uploader = new FakeUploader();
+
+      assertEquals(strategy(5, 3).execute(uploader, "container", blob(CONTENT)), "complete");
+
+      assertEquals(uploader.completed, CONTENT);
+      assertEquals(uploader.parts.size(), 6);
+   }
+
+   public void testStreamsAreSlicedSequentially() {
+      FakeUploader uploader = new FakeUploader();
+
+      strategy(5, 3).execute(uploader, "container", streamedBlob(CONTENT));
+
+      assertEquals(uploader.completed, CONTENT);
+   }
+
+   public void testBlobThatFitsInOnePartIsPut() {
+      FakeUploader uploader = new FakeUploader();
+
+      assertEquals(strategy(CONTENT.length, 3).execute(uploader, "container", blob(CONTENT)), "put");
+
+      assertEquals(uploader.initiated.get(), 0);
+   }
+
+   public void testPartsAreEnlargedToFitTheMaximumNumberOfParts() {
+      FakeUploader uploader = new FakeUploader();
+      uploader.maxParts = 2;
+
+      assertEquals(strategy(5, 3).partSize(uploader, CONTENT.length), 13);
+   }
+
+   public void testConcurrencyIsBounded() {
+      FakeUploader uploader = new FakeUploader();
+      uploader.delay = 20;
+
+      strategy(2, 2).execute(uploader, "container", blob(CONTENT));
+
+      assertEquals(uploader.completed, CONTENT);
+      assertTrue(uploader.maxRunning.get() <= 2, "ran " + uploader.maxRunning.get() + " at once");
+   }
+
+   public void testFailedPartIsRetried() {
+      FakeUploader uploader = new FakeUploader();
+      uploader.failures.put(2, new AtomicInteger(2));
+
+      strategy(5, 3).execute(uploader, "container", blob(CONTENT));
+
+      assertEquals(uploader.completed, CONTENT);
+      assertEquals(uploader.aborted.get(), 0);
+   }
+
+   public void testUploadIsAbortedWhenPartKeepsFailing() {
+      FakeUploader uploader = new FakeUploader();
+      uploader.failures.put(2, new AtomicInteger(ParallelPutBlobInPartsStrategy.DEFAULT_PART_RETRIES + 1));
+
+      try {
+         strategy(5, 3).execute(uploader, "container", blob(CONTENT));
+         fail("expected the upload to fail");
+      } catch (IllegalStateException e) {
+         assertEquals(e.getMessage(), "part 2 failed");
+      }
+      assertEquals(uploader.aborted.get(), 1);
+      assertEquals(uploader.completed, null);
+   }
+
+   public void testFormerMinRetriesStandInForPartRetries() {
+      ParallelPutBlobInPartsStrategy strategy = strategy(5, 3);
+      strategy.minRetries = 5;
+      assertEquals(strategy.partRetries(), 5);
+
+      strategy.partRetries = 1;
+      assertEquals(strategy.partRetries(), 1);
+   }
+
+   private static class FakeUploader implements MultipartUploader {
+      private final Map<Integer, byte[]> parts = new ConcurrentHashMap<Integer, byte[]>();
+      private final Map<Integer, AtomicInteger> failures = new ConcurrentHashMap<Integer, AtomicInteger>();
+      private final AtomicInteger initiated = new AtomicInteger();
+      private final AtomicInteger aborted = new AtomicInteger();
+      private final AtomicInteger running = new AtomicInteger();
+      private final AtomicInteger maxRunning = new AtomicInteger();
+      private int maxParts = 10000;
+      private long delay;
+      private byte[] completed;
+
+      @Override
+      public long getMinimumPartSize() {
+         return 1;
+      }
+
+      @Override
+      public long getMaximumPartSize() {
+         return 100;
+      }
+
+      @Override
+      public int getMaximumNumberOfParts() {
+         return maxParts;
+      }
+
+      @Override
+      public String put(String container, Blob blob) {
+         return "put";
+      }
+
+      @Override
+      public String initiate(String container, Blob blob, int parts) {
+         initiated.incrementAndGet();
+         return "upload";
+      }
+
+      @Override
+      public String uploadPart(String container, String name, String uploadId, int part, Payload payload) {
+         int now = running.incrementAndGet();
+         synchronized (maxRunning) {
+            maxRunning.set(Math.max(maxRunning.get(), now));
+         }
+         try {
+            AtomicInteger failuresLeft = failures.get(part);
+            if (failuresLeft != null && failuresLeft.getAndDecrement() > 0)
+               throw new IllegalStateException("part " + part + " failed");
+            Thread.sleep(delay);
+            parts.put(part, ByteStreams.toByteArray(payload.openStream()));
+            return "etag" + part;
+         } catch (IOException e) {
+            throw new RuntimeException(e);
+         } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+         } finally {
+            running.decrementAndGet();
+         }
+      }
+
+      @Override
+      public String complete(String container, String name, String uploadId, SortedMap<Integer, String> etags) {
+         assertEquals(etags.keySet(), parts.keySet());
+         ByteArrayOutputStream out = new ByteArrayOutputStream();
+         for (Integer part : etags.keySet()) {
+            assertEquals(etags.get(part), "etag" + part);
+            out.write(parts.get(part), 0, parts.get(part).length);
+         }
+         completed = out.toByteArray();
+         return "complete";
+      }
+
+      @Override
+      public void abort(String container, String name, String uploadId) {
+         aborted.incrementAndGet();
+      }
+   }
+}
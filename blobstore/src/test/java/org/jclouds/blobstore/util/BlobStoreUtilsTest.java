@@ -22,11 +22,13 @@ import static org.easymock.EasyMock.replay;
 import static org.easymock.EasyMock.verify;
 import static org.jclouds.blobstore.util.BlobStoreUtils.createParentIfNeededAsync;
 import static org.jclouds.blobstore.util.BlobStoreUtils.getNameFor;
+import static org.jclouds.blobstore.util.BlobStoreUtils.keysWithPrefixAfterMarker;
 import static org.jclouds.reflect.Reflection2.method;
 import static org.testng.Assert.assertEquals;
 
 import java.net.URI;
 import java.util.List;
+import java.util.NavigableSet;
 
 import org.jclouds.blobstore.AsyncBlobStore;
 import org.jclouds.blobstore.domain.Blob;
@@ -37,6 +39,7 @@ import org.testng.annotations.Test;
 
 import com.google.common.base.Throwables;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSortedSet;
 /**
  * Tests behavior of {@code BlobStoreUtils}
  */
@@ -119,6 +122,20 @@ public class BlobStoreUtilsTest {
       assertEquals(getNameFor(request), "four");
    }
 
+   public void testKeysWithPrefixAfterMarker() {
+      NavigableSet<String> keys = ImmutableSortedSet.of("a", "dir/a", "dir/b", "dir/c", "dirt", "z");
+      assertEquals(ImmutableList.copyOf(keysWithPrefixAfterMarker(keys, null, null)), ImmutableList.copyOf(keys));
+      assertEquals(ImmutableList.copyOf(keysWithPrefixAfterMarker(keys, null, "dir/c")),
+            ImmutableList.of("dirt", "z"));
+      assertEquals(ImmutableList.copyOf(keysWithPrefixAfterMarker(keys, "dir/", null)),
+            ImmutableList.of("dir/a", "dir/b", "dir/c"));
+      assertEquals(ImmutableList.copyOf(keysWithPrefixAfterMarker(keys, "dir/", "dir/a")),
+            ImmutableList.of("dir/b", "dir/c"));
+      assertEquals(ImmutableList.copyOf(keysWithPrefixAfterMarker(keys, "dir/", "a")),
+            ImmutableList.of("dir/a", "dir/b", "dir/c"));
+      assertEquals(ImmutableList.copyOf(keysWithPrefixAfterMarker(keys, "dir/", "dir/c")), ImmutableList.of());
+   }
+
    GeneratedHttpRequest requestForEndpointAndArgs(String endpoint, List<Object> args) {
       try {
          Invocation invocation = Invocation.create(method(String.class, "toString"), args);
@@ -17,6 +17,7 @@
 package org.jclouds.openstack.config;
 
 import static com.google.common.base.Suppliers.memoizeWithExpiration;
+import static org.jclouds.Constants.PROPERTY_USER_THREADS;
 import static org.jclouds.rest.config.BinderUtils.bindSyncToAsyncHttpApi;
 
 import java.util.Date;
@@ -25,6 +26,7 @@ import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 
 import javax.inject.Inject;
+import javax.inject.Named;
 import javax.inject.Singleton;
 
 import org.jclouds.date.TimeStamp;
@@ -38,11 +40,15 @@ import org.jclouds.openstack.handlers.RetryOnRenew;
 import org.jclouds.openstack.internal.Authentication;
 import org.jclouds.openstack.internal.OpenStackAuthAsyncClient;
 import org.jclouds.openstack.internal.OpenStackAuthClient;
+import org.jclouds.rest.internal.RenewingLoadingCache;
 
+import com.google.common.base.Function;
+import com.google.common.base.Functions;
 import com.google.common.base.Supplier;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
+import com.google.common.util.concurrent.ListeningExecutorService;
 import com.google.inject.AbstractModule;
 import com.google.inject.Provides;
 import com.google.inject.assistedinject.FactoryModuleBuilder;
@@ -96,11 +102,30 @@ public class OpenStackAuthenticationModule extends AbstractModule {
 
    }
 
+   /**
+    * The authentication response does not tell when its token expires, so it is only renewed once rejected, and the
+    * requests rejected with a token which was renewed since retry with the new one.
+    */
+   @Provides
+   @Singleton
+   protected RenewingLoadingCache<Credentials, AuthenticationResponse> provideRenewingAuthenticationResponseCache(
+         GetAuthenticationResponse getAuthenticationResponse,
+         @Named(PROPERTY_USER_THREADS) ListeningExecutorService userExecutor) {
+      return new RenewingLoadingCache<Credentials, AuthenticationResponse>(CacheBuilder.newBuilder()
+            .expireAfterWrite(23, TimeUnit.HOURS).build(getAuthenticationResponse), getAuthenticationResponse,
+            Functions.<Date> constant(null), new Function<AuthenticationResponse, String>() {
+               @Override
+               public String apply(AuthenticationResponse input) {
+                  return input.getAuthToken();
+               }
+            }, 0, 0, TimeUnit.SECONDS, userExecutor);
+   }
+
    @Provides
    @Singleton
    public LoadingCache<Credentials, AuthenticationResponse> provideAuthenticationResponseCache(
-         GetAuthenticationResponse getAuthenticationResponse) {
-      return CacheBuilder.newBuilder().expireAfterWrite(23, TimeUnit.HOURS).build(getAuthenticationResponse);
+         RenewingLoadingCache<Credentials, AuthenticationResponse> cache) {
+      return cache;
    }
 
    @Provides
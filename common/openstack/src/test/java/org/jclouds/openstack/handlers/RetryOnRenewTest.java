@@ -18,39 +18,67 @@ package org.jclouds.openstack.handlers;
 
 import static org.easymock.EasyMock.createMock;
 import static org.easymock.EasyMock.expect;
-import static org.easymock.EasyMock.expectLastCall;
 import static org.easymock.EasyMock.replay;
 import static org.easymock.EasyMock.verify;
+import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertFalse;
 import static org.testng.Assert.assertTrue;
 
+import java.net.URI;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import org.jclouds.domain.Credentials;
 import org.jclouds.http.HttpCommand;
 import org.jclouds.http.HttpRequest;
 import org.jclouds.http.HttpResponse;
 import org.jclouds.io.Payloads;
 import org.jclouds.openstack.domain.AuthenticationResponse;
+import org.jclouds.openstack.reference.AuthHeaders;
+import org.jclouds.rest.internal.RenewingLoadingCache;
 import org.testng.annotations.Test;
 
-import com.google.common.cache.LoadingCache;
+import com.google.common.base.Function;
+import com.google.common.base.Functions;
+import com.google.common.base.Suppliers;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.util.concurrent.MoreExecutors;
 
 /**
  * Tests behavior of {@code RetryOnRenew} handler
  */
 @Test(groups = "unit", testName = "RetryOnRenewTest")
 public class RetryOnRenewTest {
+   private static final Credentials CREDENTIALS = new Credentials("identity", "credential");
+
+   private static RenewingLoadingCache<Credentials, AuthenticationResponse> cache() {
+      final AtomicInteger logins = new AtomicInteger();
+      CacheLoader<Credentials, AuthenticationResponse> loader = new CacheLoader<Credentials, AuthenticationResponse>() {
+         @Override
+         public AuthenticationResponse load(Credentials input) {
+            return new AuthenticationResponse("token" + logins.incrementAndGet(), ImmutableMap.<String, URI> of());
+         }
+      };
+      return new RenewingLoadingCache<Credentials, AuthenticationResponse>(CacheBuilder.newBuilder().build(loader),
+            loader, Functions.<Date> constant(null), new Function<AuthenticationResponse, String>() {
+               @Override
+               public String apply(AuthenticationResponse input) {
+                  return input.getAuthToken();
+               }
+            }, 0, 0, TimeUnit.SECONDS, MoreExecutors.directExecutor());
+   }
+
    @Test
    public void test401ShouldRetry() {
       HttpCommand command = createMock(HttpCommand.class);
       HttpRequest request = createMock(HttpRequest.class);
       HttpResponse response = createMock(HttpResponse.class);
-      @SuppressWarnings("unchecked")
-      LoadingCache<Credentials, AuthenticationResponse> cache = createMock(LoadingCache.class);
+      RenewingLoadingCache<Credentials, AuthenticationResponse> cache = cache();
 
-      expect(command.getCurrentRequest()).andReturn(request);
-
-      cache.invalidateAll();
-      expectLastCall();
+      expect(command.getCurrentRequest()).andReturn(request).times(2);
 
       expect(response.getPayload()).andReturn(Payloads.newStringPayload(""))
             .anyTimes();
@@ -58,15 +86,14 @@ public class RetryOnRenewTest {
 
       replay(command);
       replay(response);
-      replay(cache);
 
-      RetryOnRenew retry = new RetryOnRenew(cache);
+      RetryOnRenew retry = new RetryOnRenew(cache, Suppliers.ofInstance(CREDENTIALS));
 
       assertTrue(retry.shouldRetryRequest(command, response));
+      assertEquals(cache.getRenewalCount(), 1);
 
       verify(command);
       verify(response);
-      verify(cache);
    }
 
    /**
@@ -90,22 +117,19 @@ public class RetryOnRenewTest {
       HttpRequest request = createMock(HttpRequest.class);
       HttpResponse response = createMock(HttpResponse.class);
 
-      @SuppressWarnings("unchecked")
-      LoadingCache<Credentials, AuthenticationResponse> cache = createMock(LoadingCache.class);
+      RenewingLoadingCache<Credentials, AuthenticationResponse> cache = cache();
 
       expect(command.getCurrentRequest()).andReturn(request).anyTimes();
       expect(request.getHeaders()).andStubReturn(null);
-
-      cache.invalidateAll();
-      expectLastCall().anyTimes();
+      expect(request.getFirstHeaderOrNull(AuthHeaders.AUTH_TOKEN)).andStubReturn(null);
 
       expect(response.getPayload()).andReturn(Payloads.newStringPayload(""))
             .anyTimes();
       expect(response.getStatusCode()).andReturn(401).anyTimes();
 
-      replay(command, request, response, cache);
+      replay(command, request, response);
 
-      RetryOnRenew retry = new RetryOnRenew(cache);
+      RetryOnRenew retry = new RetryOnRenew(cache, Suppliers.ofInstance(CREDENTIALS));
 
       for (int n = 0; n < RetryOnRenew.NUM_RETRIES - 1; n++) {
          assertTrue(retry.shouldRetryRequest(command, response),
@@ -115,6 +139,37 @@ public class RetryOnRenewTest {
       assertFalse(retry.shouldRetryRequest(command, response),
             "Expected retry to fail on attempt 5");
 
-      verify(command, response, cache);
+      assertEquals(cache.getRenewalCount(), RetryOnRenew.NUM_RETRIES - 1);
+
+      verify(command, response);
+   }
+
+   @Test
+   public void test401sShareTheRenewal() {
+      HttpCommand command = createMock(HttpCommand.class);
+      HttpCommand other = createMock(HttpCommand.class);
+      HttpRequest request = createMock(HttpRequest.class);
+      HttpResponse response = createMock(HttpResponse.class);
+      RenewingLoadingCache<Credentials, AuthenticationResponse> cache = cache();
+      String rejected = cache.getUnchecked(CREDENTIALS).getAuthToken();
+
+      expect(command.getCurrentRequest()).andReturn(request).anyTimes();
+      expect(other.getCurrentRequest()).andReturn(request).anyTimes();
+      expect(request.getHeaders()).andStubReturn(null);
+      // both requests were sent with the token which is renewed by the first one to be rejected
+      expect(request.getFirstHeaderOrNull(AuthHeaders.AUTH_TOKEN)).andStubReturn(rejected);
+      expect(response.getPayload()).andReturn(Payloads.newStringPayload("")).anyTimes();
+      expect(response.getStatusCode()).andReturn(401).anyTimes();
+
+      replay(command, other, request, response);
+
+      RetryOnRenew retry = new RetryOnRenew(cache, Suppliers.ofInstance(CREDENTIALS));
+
+      assertTrue(retry.shouldRetryRequest(command, response));
+      assertTrue(retry.shouldRetryRequest(other, response));
+      assertEquals(cache.getRenewalCount(), 1);
+      assertFalse(cache.getUnchecked(CREDENTIALS).getAuthToken().equals(rejected));
+
+      verify(command, other, response);
    }
 }
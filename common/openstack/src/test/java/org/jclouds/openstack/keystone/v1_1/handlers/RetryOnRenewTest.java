@@ -18,12 +18,16 @@ package org.jclouds.openstack.keystone.v1_1.handlers;
 
 import static org.easymock.EasyMock.createMock;
 import static org.easymock.EasyMock.expect;
-import static org.easymock.EasyMock.expectLastCall;
 import static org.easymock.EasyMock.replay;
 import static org.easymock.EasyMock.verify;
+import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertFalse;
 import static org.testng.Assert.assertTrue;
 
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import org.jclouds.domain.Credentials;
 import org.jclouds.http.HttpCommand;
 import org.jclouds.http.HttpRequest;
@@ -31,44 +35,72 @@ import org.jclouds.http.HttpResponse;
 import org.jclouds.http.handlers.BackoffLimitedRetryHandler;
 import org.jclouds.io.Payloads;
 import org.jclouds.openstack.keystone.v1_1.domain.Auth;
+import org.jclouds.openstack.keystone.v1_1.domain.Token;
+import org.jclouds.openstack.reference.AuthHeaders;
+import org.jclouds.rest.internal.RenewingLoadingCache;
 import org.testng.annotations.Test;
 
-import com.google.common.cache.LoadingCache;
+import com.google.common.base.Function;
+import com.google.common.base.Suppliers;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.util.concurrent.MoreExecutors;
 
 /**
  * Tests behavior of {@code RetryOnRenew} handler
  */
 @Test(groups = "unit", testName = "RetryOnRenewTest")
 public class RetryOnRenewTest {
+   private static final Credentials CREDENTIALS = new Credentials("identity", "credential");
+
+   private static RenewingLoadingCache<Credentials, Auth> cache() {
+      final AtomicInteger logins = new AtomicInteger();
+      CacheLoader<Credentials, Auth> loader = new CacheLoader<Credentials, Auth>() {
+         @Override
+         public Auth load(Credentials input) {
+            return Auth.builder().token(Token.builder().id("token" + logins.incrementAndGet())
+                  .expires(new Date(System.currentTimeMillis() + 3600000)).build()).build();
+         }
+      };
+      return new RenewingLoadingCache<Credentials, Auth>(CacheBuilder.newBuilder().build(loader), loader,
+            new Function<Auth, Date>() {
+               @Override
+               public Date apply(Auth input) {
+                  return input.getToken().getExpires();
+               }
+            }, new Function<Auth, String>() {
+               @Override
+               public String apply(Auth input) {
+                  return input.getToken().getId();
+               }
+            }, 0, 0, TimeUnit.SECONDS, MoreExecutors.directExecutor());
+   }
+
    @Test
    public void test401ShouldRetry() {
       HttpCommand command = createMock(HttpCommand.class);
       HttpRequest request = createMock(HttpRequest.class);
       HttpResponse response = createMock(HttpResponse.class);
-      @SuppressWarnings("unchecked")
-      LoadingCache<Credentials, Auth> cache = createMock(LoadingCache.class);
+      RenewingLoadingCache<Credentials, Auth> cache = cache();
       BackoffLimitedRetryHandler backoffHandler = createMock(BackoffLimitedRetryHandler.class);
 
-      expect(command.getCurrentRequest()).andReturn(request);
-
-      cache.invalidateAll();
-      expectLastCall();
+      expect(command.getCurrentRequest()).andReturn(request).times(2);
 
       expect(response.getPayload()).andReturn(Payloads.newStringPayload("token expired, please renew")).anyTimes();
       expect(response.getStatusCode()).andReturn(401).atLeastOnce();
 
       replay(command);
       replay(response);
-      replay(cache);
       replay(backoffHandler);
 
-      RetryOnRenew retry = new RetryOnRenew(cache, backoffHandler);
+      RetryOnRenew retry = new RetryOnRenew(cache, Suppliers.ofInstance(CREDENTIALS), backoffHandler);
 
       assertTrue(retry.shouldRetryRequest(command, response));
+      assertEquals(cache.getRenewalCount(), 1);
+      assertEquals(retry.getUnauthorizedRetryCount(), 1);
 
       verify(command);
       verify(response);
-      verify(cache);
       verify(backoffHandler);
    }
 
@@ -78,23 +110,20 @@ public class RetryOnRenewTest {
       HttpRequest request = createMock(HttpRequest.class);
       HttpResponse response = createMock(HttpResponse.class);
 
-      @SuppressWarnings("unchecked")
-      LoadingCache<Credentials, Auth> cache = createMock(LoadingCache.class);
+      RenewingLoadingCache<Credentials, Auth> cache = cache();
       BackoffLimitedRetryHandler backoffHandler = createMock(BackoffLimitedRetryHandler.class);
 
       expect(command.getCurrentRequest()).andReturn(request).anyTimes();
       expect(request.getHeaders()).andStubReturn(null);
-
-      cache.invalidateAll();
-      expectLastCall().anyTimes();
+      expect(request.getFirstHeaderOrNull(AuthHeaders.AUTH_TOKEN)).andStubReturn(null);
 
       expect(response.getPayload()).andReturn(Payloads.newStringPayload(""))
             .anyTimes();
       expect(response.getStatusCode()).andReturn(401).anyTimes();
 
-      replay(command, request, response, cache);
+      replay(command, request, response);
 
-      RetryOnRenew retry = new RetryOnRenew(cache, backoffHandler);
+      RetryOnRenew retry = new RetryOnRenew(cache, Suppliers.ofInstance(CREDENTIALS), backoffHandler);
 
       for (int i = 0; i < RetryOnRenew.NUM_RETRIES - 1; ++i) {
          assertTrue(retry.shouldRetryRequest(command, response),
@@ -104,7 +133,39 @@ public class RetryOnRenewTest {
       assertFalse(retry.shouldRetryRequest(command, response),
             "Expected retry to fail on attempt " + RetryOnRenew.NUM_RETRIES);
 
-      verify(command, response, cache);
+      assertEquals(cache.getRenewalCount(), RetryOnRenew.NUM_RETRIES - 1);
+
+      verify(command, response);
+   }
+
+   @Test
+   public void test401sShareTheRenewal() {
+      HttpCommand command = createMock(HttpCommand.class);
+      HttpCommand other = createMock(HttpCommand.class);
+      HttpRequest request = createMock(HttpRequest.class);
+      HttpResponse response = createMock(HttpResponse.class);
+      RenewingLoadingCache<Credentials, Auth> cache = cache();
+      BackoffLimitedRetryHandler backoffHandler = createMock(BackoffLimitedRetryHandler.class);
+      String rejected = cache.getUnchecked(CREDENTIALS).getToken().getId();
+
+      expect(command.getCurrentRequest()).andReturn(request).anyTimes();
+      expect(other.getCurrentRequest()).andReturn(request).anyTimes();
+      expect(request.getHeaders()).andStubReturn(null);
+      // both requests were sent with the token which is renewed by the first one to be rejected
+      expect(request.getFirstHeaderOrNull(AuthHeaders.AUTH_TOKEN)).andStubReturn(rejected);
+      expect(response.getPayload()).andReturn(Payloads.newStringPayload("")).anyTimes();
+      expect(response.getStatusCode()).andReturn(401).anyTimes();
+
+      replay(command, other, request, response);
+
+      RetryOnRenew retry = new RetryOnRenew(cache, Suppliers.ofInstance(CREDENTIALS), backoffHandler);
+
+      assertTrue(retry.shouldRetryRequest(command, response));
+      assertTrue(retry.shouldRetryRequest(other, response));
+      assertEquals(cache.getRenewalCount(), 1);
+      assertFalse(cache.getUnchecked(CREDENTIALS).getToken().getId().equals(rejected));
+
+      verify(command, other, response);
    }
 
    @Test
@@ -112,8 +173,7 @@ public class RetryOnRenewTest {
       HttpCommand command = createMock(HttpCommand.class);
       HttpRequest request = createMock(HttpRequest.class);
       HttpResponse response = createMock(HttpResponse.class);
-      @SuppressWarnings("unchecked")
-      LoadingCache<Credentials, Auth> cache = createMock(LoadingCache.class);
+      RenewingLoadingCache<Credentials, Auth> cache = cache();
       BackoffLimitedRetryHandler backoffHandler = createMock(BackoffLimitedRetryHandler.class);
 
       expect(response.getPayload()).andReturn(Payloads.newStringPayload(
@@ -123,16 +183,14 @@ public class RetryOnRenewTest {
 
       replay(command);
       replay(response);
-      replay(cache);
       replay(backoffHandler);
 
-      RetryOnRenew retry = new RetryOnRenew(cache, backoffHandler);
+      RetryOnRenew retry = new RetryOnRenew(cache, Suppliers.ofInstance(CREDENTIALS), backoffHandler);
 
       assertTrue(retry.shouldRetryRequest(command, response));
 
       verify(command);
       verify(response);
-      verify(cache);
       verify(backoffHandler);
    }
 
@@ -141,8 +199,7 @@ public class RetryOnRenewTest {
       HttpCommand command = createMock(HttpCommand.class);
       HttpRequest request = createMock(HttpRequest.class);
       HttpResponse response = createMock(HttpResponse.class);
-      @SuppressWarnings("unchecked")
-      LoadingCache<Credentials, Auth> cache = createMock(LoadingCache.class);
+      RenewingLoadingCache<Credentials, Auth> cache = cache();
       BackoffLimitedRetryHandler backoffHandler = createMock(BackoffLimitedRetryHandler.class);
 
       expect(response.getPayload()).andReturn(Payloads.newStringPayload("")).times(2);
@@ -150,16 +207,14 @@ public class RetryOnRenewTest {
 
       replay(command);
       replay(response);
-      replay(cache);
       replay(backoffHandler);
 
-      RetryOnRenew retry = new RetryOnRenew(cache, backoffHandler);
+      RetryOnRenew retry = new RetryOnRenew(cache, Suppliers.ofInstance(CREDENTIALS), backoffHandler);
 
       assertTrue(!retry.shouldRetryRequest(command, response));
 
       verify(command);
       verify(response);
-      verify(cache);
       verify(backoffHandler);
    }
 }
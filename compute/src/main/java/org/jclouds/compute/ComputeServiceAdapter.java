@@ -139,6 +139,49 @@ public interface ComputeServiceAdapter<N, H, I, L> {
 
    void suspendNode(String id);
 
+   /**
+    * Optionally implemented by adapters whose nodes are listed one region or zone at a time, so that
+    * {@link org.jclouds.compute.strategy.impl.AdaptingComputeServiceStrategies} can list them concurrently using
+    * {@link org.jclouds.compute.strategy.FanOut} when
+    * {@link org.jclouds.compute.config.ComputeServiceProperties#PARALLEL_LOCATION_LISTING} is set.
+    */
+   public interface ListsNodesByLocation<N> {
+
+      /**
+       * @return the ids of the regions or zones to list nodes in
+       */
+      Iterable<String> listNodeLocationIds();
+
+      /**
+       * @return a non-null iterable of the nodes in the given region or zone
+       */
+      Iterable<N> listNodesInLocation(String locationId);
+   }
+
+   /**
+    * Optionally implemented by adapters whose provider can select the nodes of a group, so that
+    * {@link org.jclouds.compute.strategy.impl.AdaptingComputeServiceStrategies} does not list every node to find the
+    * ones matching {@link org.jclouds.compute.predicates.NodePredicates#inGroup}.
+    */
+   public interface ListsNodesInGroup<N> {
+
+      /**
+       * @return a non-null iterable including at least the nodes in the group; the others are filtered out afterwards.
+       *         This includes the nodes whose group is only derived from their name, such as those created before the
+       *         provider recorded groups, or outside jclouds.
+       */
+      Iterable<N> listNodesInGroup(String group);
+   }
+
+   /**
+    * Optionally implemented by adapters whose {@link ComputeServiceAdapter#listNodesByIds} asks the provider for just
+    * those nodes, so that {@link org.jclouds.compute.strategy.impl.AdaptingComputeServiceStrategies} uses it to find
+    * the ones matching {@link org.jclouds.compute.predicates.NodePredicates#withIds} instead of listing every node.
+    * Ids which are not in the format of the provider must select no node rather than fail.
+    */
+   public interface SelectsNodesByIds {
+   }
+
    Iterable<N> listNodes();
 
    Iterable<N> listNodesByIds(Iterable<String> ids);
@@ -19,9 +19,11 @@ package org.jclouds.compute.callables;
 import static com.google.common.base.Preconditions.checkNotNull;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static org.jclouds.util.Predicates2.retry;
+import static org.jclouds.util.Predicates2.retryAsync;
 
 import java.util.concurrent.CancellationException;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 
@@ -42,6 +44,7 @@ import com.google.common.base.Predicates;
 import com.google.common.eventbus.EventBus;
 import com.google.common.primitives.Ints;
 import com.google.common.util.concurrent.AbstractFuture;
+import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.ListeningExecutorService;
 import com.google.inject.Inject;
 import com.google.inject.assistedinject.Assisted;
@@ -49,6 +52,9 @@ import com.google.inject.name.Named;
 
 /**
  * A future that works in tandem with a task that was invoked by {@link InitScript}
+ * <p>
+ * When the {@link Constants#PROPERTY_SCHEDULER_THREADS scheduler} is bound, the status of the script is polled without
+ * holding a user thread between checks.
  */
 public class BlockUntilInitScriptStatusIsZeroThenReturnOutput extends AbstractFuture<ExecResponse> implements Runnable {
 
@@ -64,6 +70,12 @@ public class BlockUntilInitScriptStatusIsZeroThenReturnOutput extends AbstractFu
    private final EventBus eventBus;
    private final SudoAwareInitManager commandRunner;
 
+   @Inject(optional = true)
+   @Named(Constants.PROPERTY_SCHEDULER_THREADS)
+   private ScheduledExecutorService scheduler;
+
+   private ComputeServiceConstants.InitStatusProperties initStatus;
+
    public SudoAwareInitManager getCommandRunner() {
       return commandRunner;
    }
@@ -75,6 +87,7 @@ public class BlockUntilInitScriptStatusIsZeroThenReturnOutput extends AbstractFu
             @Named(Constants.PROPERTY_USER_THREADS) ListeningExecutorService userExecutor, EventBus eventBus,
             ComputeServiceConstants.InitStatusProperties properties, @Assisted SudoAwareInitManager commandRunner) {
       this(userExecutor, eventBus, Predicates.<String> alwaysTrue(), commandRunner);
+      this.initStatus = properties;
       // this is mutable only until we can determine how to decouple "this" from here
       notRunningAnymore = loopUntilTrueOrThrowCancellationException(new ExitStatusOfCommandGreaterThanZero(
                commandRunner), properties.initStatusMaxPeriod, properties.initStatusInitialPeriod, this);
@@ -110,13 +123,18 @@ public class BlockUntilInitScriptStatusIsZeroThenReturnOutput extends AbstractFu
     */
    static Predicate<String> loopUntilTrueOrThrowCancellationException(Predicate<String> predicate, long period, long maxPeriod,
          final AbstractFuture<ExecResponse> futureWhichMightBeCancelled) {
-      return retry(Predicates.<String> and(predicate, new Predicate<String>() {
+      return retry(unlessCancelled(predicate, futureWhichMightBeCancelled), period, maxPeriod, MILLISECONDS);
+   }
+
+   private static Predicate<String> unlessCancelled(Predicate<String> predicate,
+         final AbstractFuture<ExecResponse> futureWhichMightBeCancelled) {
+      return Predicates.<String> and(predicate, new Predicate<String>() {
          public boolean apply(String in) {
             if (futureWhichMightBeCancelled.isCancelled())
                throw new CancellationException(futureWhichMightBeCancelled + " is cancelled");
             return true;
          }
-      }), period, maxPeriod, MILLISECONDS);
+      });
    }
 
    /**
@@ -124,29 +142,71 @@ public class BlockUntilInitScriptStatusIsZeroThenReturnOutput extends AbstractFu
     * place
     */
    public BlockUntilInitScriptStatusIsZeroThenReturnOutput init() {
-      userExecutor.submit(this);
+      if (scheduler != null && initStatus != null)
+         pollUntilNotRunning();
+      else
+         userExecutor.submit(this);
       return this;
    }
 
+   /**
+    * Like {@link #run()}, except the checks of the status are scheduled, and only the user thread that reads the output
+    * once it stopped running is held.
+    */
+   private void pollUntilNotRunning() {
+      final ListenableFuture<Boolean> notRunning = retryAsync(
+            unlessCancelled(new ExitStatusOfCommandGreaterThanZero(commandRunner), this),
+            "status", initStatus.initStatusMaxPeriod, initStatus.initStatusInitialPeriod,
+            initStatus.initStatusInitialPeriod * 10l, MILLISECONDS, scheduler, userExecutor);
+      notRunning.addListener(new Runnable() {
+
+         @Override
+         public void run() {
+            if (isCancelled())
+               return;
+            try {
+               notRunning.get();
+               ExecResponse exec = currentResponse();
+               if (!isCancelled() && exec.getExitStatus() == -1)
+                  pollUntilNotRunning();
+               else
+                  complete(exec);
+            } catch (ExecutionException e) {
+               setException(e.getCause());
+            } catch (Exception e) {
+               setException(e);
+            }
+         }
+      }, userExecutor);
+   }
+
    @Override
    public void run() {
       try {
          ExecResponse exec = null;
          do {
             notRunningAnymore.apply("status");
-            String stdout = commandRunner.runAction("stdout").getOutput();
-            String stderr = commandRunner.runAction("stderr").getOutput();
-            Integer exitStatus = Ints.tryParse(commandRunner.runAction("exitstatus").getOutput().trim());
-            exec = new ExecResponse(stdout, stderr, exitStatus == null ? -1 : exitStatus);
+            exec = currentResponse();
          } while (!isCancelled() && exec.getExitStatus() == -1);
-         logger.debug("<< complete(%s) status(%s)", commandRunner.getStatement().getInstanceName(), exec
-                  .getExitStatus());
-         set(exec);
+         complete(exec);
       } catch (Exception e) {
          setException(e);
       }
    }
 
+   private ExecResponse currentResponse() {
+      String stdout = commandRunner.runAction("stdout").getOutput();
+      String stderr = commandRunner.runAction("stderr").getOutput();
+      Integer exitStatus = Ints.tryParse(commandRunner.runAction("exitstatus").getOutput().trim());
+      return new ExecResponse(stdout, stderr, exitStatus == null ? -1 : exitStatus);
+   }
+
+   private void complete(ExecResponse exec) {
+      logger.debug("<< complete(%s) status(%s)", commandRunner.getStatement().getInstanceName(), exec
+               .getExitStatus());
+      set(exec);
+   }
+
    @Override
    protected boolean set(ExecResponse value) {
       eventBus.post(new StatementOnNodeCompletion(getCommandRunner().getStatement(), getCommandRunner().getNode(),
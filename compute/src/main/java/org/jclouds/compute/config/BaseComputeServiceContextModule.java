@@ -237,7 +237,9 @@ public abstract class BaseComputeServiceContextModule extends AbstractModule {
    protected Supplier<Set<? extends Image>> supplyImageCache(AtomicReference<AuthorizationException> authException, @Named(PROPERTY_SESSION_INTERVAL) long seconds,
          final Supplier<Set<? extends Image>> imageSupplier, Injector injector) {
       if (shouldEagerlyParseImages(injector)) {
-         return supplyImageCache(authException, seconds, imageSupplier);
+         return supplyImageCache(
+               injector.getInstance(MemoizedRetryOnTimeOutButNotOnAuthorizationExceptionSupplier.Factory.class), seconds,
+               imageSupplier);
       } else {
          return supplyNonParsingImageCache(authException, seconds, imageSupplier, injector);
       }
@@ -247,10 +249,10 @@ public abstract class BaseComputeServiceContextModule extends AbstractModule {
       return true;
    }
 
-   protected Supplier<Set<? extends Image>> supplyImageCache(AtomicReference<AuthorizationException> authException, @Named(PROPERTY_SESSION_INTERVAL) long seconds,
+   protected Supplier<Set<? extends Image>> supplyImageCache(MemoizedRetryOnTimeOutButNotOnAuthorizationExceptionSupplier.Factory memoizer,
+         @Named(PROPERTY_SESSION_INTERVAL) long seconds,
          final Supplier<Set<? extends Image>> imageSupplier) {
-      return MemoizedRetryOnTimeOutButNotOnAuthorizationExceptionSupplier.create(authException, imageSupplier, seconds,
-               TimeUnit.SECONDS);
+      return memoizer.create(imageSupplier, seconds, TimeUnit.SECONDS);
    }
 
    /**
@@ -258,7 +260,9 @@ public abstract class BaseComputeServiceContextModule extends AbstractModule {
     */
    protected Supplier<Set<? extends Image>> supplyNonParsingImageCache(AtomicReference<AuthorizationException> authException, @Named(PROPERTY_SESSION_INTERVAL) long seconds,
             final Supplier<Set<? extends Image>> imageSupplier, Injector injector) {
-      return supplyImageCache(authException, seconds, imageSupplier);
+      return supplyImageCache(
+            injector.getInstance(MemoizedRetryOnTimeOutButNotOnAuthorizationExceptionSupplier.Factory.class), seconds,
+            imageSupplier);
    }
 
    @Provides
@@ -284,10 +288,10 @@ public abstract class BaseComputeServiceContextModule extends AbstractModule {
    @Provides
    @Singleton
    @Memoized
-   protected Supplier<Set<? extends Hardware>> supplySizeCache(AtomicReference<AuthorizationException> authException, @Named(PROPERTY_SESSION_INTERVAL) long seconds,
+   protected Supplier<Set<? extends Hardware>> supplySizeCache(MemoizedRetryOnTimeOutButNotOnAuthorizationExceptionSupplier.Factory memoizer,
+         @Named(PROPERTY_SESSION_INTERVAL) long seconds,
          final Supplier<Set<? extends Hardware>> hardwareSupplier) {
-      return MemoizedRetryOnTimeOutButNotOnAuthorizationExceptionSupplier.create(authException, hardwareSupplier,
-               seconds, TimeUnit.SECONDS);
+      return memoizer.create(hardwareSupplier, seconds, TimeUnit.SECONDS);
    }
 
    @Provides
@@ -44,6 +44,15 @@ public final class ComputeServiceProperties {
     */
    public static final String POLL_MAX_PERIOD = "jclouds.compute.poll-status.max-period";
 
+   /**
+    * Time in milliseconds to gather the refreshes of nodes that are being waited on into one
+    * {@link org.jclouds.compute.strategy.ListNodesStrategy#listNodesByIds} call. 0 (default) refreshes each node with
+    * its own call.
+    * 
+    * @see org.jclouds.compute.strategy.impl.CoalescingGetNodeMetadataStrategy
+    */
+   public static final String POLL_BATCH_WINDOW = "jclouds.compute.poll-status.batch-window";
+
    /**
     * time in milliseconds to wait for an image to finish creating.
     * 
@@ -109,6 +118,19 @@ public final class ComputeServiceProperties {
     */
    public static final String SOCKET_FINDER_ALLOWED_INTERFACES = "jclouds.compute.socket-finder-allowed-interfaces";
 
+   /**
+    * maximum number of regions or zones listed at the same time by {@link org.jclouds.compute.strategy.FanOut}.
+    * Defaults to 10.
+    */
+   public static final String FAN_OUT_MAX_CONCURRENCY = "jclouds.compute.fan-out.max-concurrency";
+
+   /**
+    * true to list the nodes of each region or zone concurrently, when the adapter lists them one location at a time.
+    * Locations that fail are logged and skipped, so that the nodes in the others are still returned. Defaults to false,
+    * which lists all nodes with one call failing when any location does.
+    */
+   public static final String PARALLEL_LOCATION_LISTING = "jclouds.compute.parallel-location-listing";
+
    private ComputeServiceProperties() {
       throw new AssertionError("intentionally unimplemented");
    }
@@ -0,0 +1,126 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.compute.domain.internal;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.List;
+import java.util.SortedSet;
+
+import org.jclouds.compute.domain.Image;
+import org.jclouds.compute.domain.OperatingSystem;
+import org.jclouds.compute.domain.OsFamily;
+import org.jclouds.domain.Location;
+import org.jclouds.javax.annotation.Nullable;
+
+import com.google.common.base.Function;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableListMultimap;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+
+/**
+ * Index over an image catalogue, used by {@link TemplateBuilderImpl} to narrow the images it has to run its
+ * predicates against.
+ * <p>
+ * Images are bucketed by location, operating system family and 64-bit flag. Buckets hold positions into the
+ * catalogue, so candidates are always returned in the iteration order of the original set, which keeps image
+ * choosers that depend on ordering stable. Candidates are a superset of the matches; callers must still apply the
+ * full image predicate.
+ */
+public final class ImageIndex {
+
+   public static ImageIndex create(Iterable<? extends Image> images) {
+      return new ImageIndex(images);
+   }
+
+   private final List<Image> images;
+   private final ImmutableList<Integer> withoutLocation;
+   private final ImmutableListMultimap<Location, Integer> byLocation;
+   private final ImmutableListMultimap<OsFamily, Integer> byOsFamily;
+   private final ImmutableListMultimap<Boolean, Integer> byOs64Bit;
+
+   private ImageIndex(Iterable<? extends Image> images) {
+      this.images = ImmutableList.<Image> copyOf(checkNotNull(images, "images"));
+      ImmutableList.Builder<Integer> withoutLocation = ImmutableList.builder();
+      ImmutableListMultimap.Builder<Location, Integer> byLocation = ImmutableListMultimap.builder();
+      ImmutableListMultimap.Builder<OsFamily, Integer> byOsFamily = ImmutableListMultimap.builder();
+      ImmutableListMultimap.Builder<Boolean, Integer> byOs64Bit = ImmutableListMultimap.builder();
+      for (int i = 0; i < this.images.size(); i++) {
+         Image image = this.images.get(i);
+         if (image.getLocation() == null)
+            withoutLocation.add(i);
+         else
+            byLocation.put(image.getLocation(), i);
+         OperatingSystem os = image.getOperatingSystem();
+         if (os != null) {
+            if (os.getFamily() != null)
+               byOsFamily.put(os.getFamily(), i);
+            byOs64Bit.put(os.is64Bit(), i);
+         }
+      }
+      this.withoutLocation = withoutLocation.build();
+      this.byLocation = byLocation.build();
+      this.byOsFamily = byOsFamily.build();
+      this.byOs64Bit = byOs64Bit.build();
+   }
+
+   public int size() {
+      return images.size();
+   }
+
+   /**
+    * Returns the images that may match the given criteria, in catalogue order.
+    *
+    * @param location
+    *           images must be location-less, or in this location, its parent or its grandparent; null means any
+    * @param osFamily
+    *           images must be of this family; null means any
+    * @param os64Bit
+    *           images must have this 64-bit flag; null means any
+    */
+   public List<Image> candidates(@Nullable Location location, @Nullable OsFamily osFamily, @Nullable Boolean os64Bit) {
+      List<Integer> narrowest = null;
+      if (location != null) {
+         SortedSet<Integer> positions = Sets.newTreeSet(withoutLocation);
+         // mirrors NullEqualToIsParentOrIsGrandparentOfCurrentLocation, which looks at most two levels up
+         Location scope = location;
+         for (int level = 0; level < 3 && scope != null; level++, scope = scope.getParent())
+            positions.addAll(byLocation.get(scope));
+         narrowest = ImmutableList.copyOf(positions);
+      }
+      if (osFamily != null)
+         narrowest = narrower(narrowest, byOsFamily.get(osFamily));
+      if (os64Bit != null)
+         narrowest = narrower(narrowest, byOs64Bit.get(os64Bit));
+      if (narrowest == null)
+         return images;
+      return Lists.transform(narrowest, new Function<Integer, Image>() {
+
+         @Override
+         public Image apply(Integer input) {
+            return images.get(input);
+         }
+
+      });
+   }
+
+   private static List<Integer> narrower(@Nullable List<Integer> current, List<Integer> candidate) {
+      return current == null || candidate.size() < current.size() ? candidate : current;
+   }
+
+}
@@ -21,7 +21,6 @@ import static com.google.common.base.Preconditions.checkState;
 import static com.google.common.base.Predicates.and;
 import static com.google.common.collect.Iterables.filter;
 import static com.google.common.collect.Iterables.find;
-import static com.google.common.collect.Iterables.size;
 import static com.google.common.collect.Iterables.transform;
 import static com.google.common.collect.Iterables.tryFind;
 import static com.google.common.collect.Lists.newArrayList;
@@ -719,8 +718,10 @@ public class TemplateBuilderImpl implements TemplateBuilder {
 
    private Iterable<? extends Image> findSupportedImages(Set<? extends Image> images) {
       Predicate<Image> imagePredicate = buildImagePredicate();
-      Iterable<? extends Image> supportedImages = filter(images, imagePredicate);
-      if (size(supportedImages) == 0) {
+      // narrow down using the index, then evaluate the predicates only once, as the result is iterated several times
+      Iterable<? extends Image> candidates = indexImages(images).candidates(location, osFamily, os64Bit);
+      List<? extends Image> supportedImages = ImmutableList.copyOf(filter(candidates, imagePredicate));
+      if (supportedImages.isEmpty()) {
          throw throwNoSuchElementExceptionAfterLoggingImageIds(
                format("no image matched predicate: %s", imagePredicate), images);
       }
@@ -881,6 +882,13 @@ public class TemplateBuilderImpl implements TemplateBuilder {
       return images.get();
    }
 
+   /**
+    * Returns the index used to narrow {@link #getImages()} before the image predicates are applied.
+    */
+   protected ImageIndex indexImages(Set<? extends Image> images) {
+      return this.images.indexFor(images);
+   }
+
    private Predicate<Image> buildImagePredicate() {
       List<Predicate<Image>> predicates = newArrayList();
       if (location != null)
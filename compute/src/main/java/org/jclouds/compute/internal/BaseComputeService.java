@@ -16,7 +16,6 @@
  */
 package org.jclouds.compute.internal;
 import static com.google.common.base.Preconditions.checkNotNull;
-import static com.google.common.base.Predicates.and;
 import static com.google.common.base.Predicates.not;
 import static com.google.common.base.Predicates.notNull;
 import static com.google.common.base.Throwables.propagate;
@@ -28,7 +27,6 @@ import static org.jclouds.compute.config.ComputeServiceProperties.TIMEOUT_NODE_R
 import static org.jclouds.compute.config.ComputeServiceProperties.TIMEOUT_NODE_SUSPENDED;
 import static org.jclouds.compute.config.ComputeServiceProperties.TIMEOUT_NODE_TERMINATED;
 import static org.jclouds.compute.predicates.NodePredicates.TERMINATED;
-import static org.jclouds.compute.predicates.NodePredicates.all;
 import static org.jclouds.compute.util.ComputeServiceUtils.formatStatus;
 import static org.jclouds.concurrent.FutureIterables.awaitCompletion;
 import static org.jclouds.concurrent.FutureIterables.transformParallel;
@@ -310,8 +308,12 @@ public class BaseComputeService implements ComputeService {
       // no-op; to be overridden
    }
 
+   @SuppressWarnings("unchecked")
    Iterable<? extends NodeMetadata> nodesMatchingFilterAndNotTerminated(Predicate<NodeMetadata> filter) {
-      return filter(detailsOnAllNodes(), and(checkNotNull(filter, "filter"), not(TERMINATED)));
+      checkNotNull(filter, "filter");
+      // the strategy only applies the filter to node details, and pushes it down to the provider when it can
+      Predicate<ComputeMetadata> detailsFilter = (Predicate<ComputeMetadata>) (Predicate<?>) filter;
+      return filter(newLinkedHashSet(listNodesStrategy.listDetailsOnNodesMatching(detailsFilter)), not(TERMINATED));
    }
 
    /**
@@ -680,10 +682,6 @@ public class BaseComputeService implements ComputeService {
             userExecutor, null, logger, "initialize script runners"), notNull());
    }
 
-   private Set<? extends NodeMetadata> detailsOnAllNodes() {
-      return newLinkedHashSet(listNodesStrategy.listDetailsOnNodesMatching(all()));
-   }
-
    @Override
    public TemplateOptions templateOptions() {
       return templateOptionsProvider.get();
@@ -22,6 +22,7 @@ import javax.inject.Singleton;
 import org.jclouds.compute.domain.NodeMetadata.Status;
 import org.jclouds.compute.predicates.internal.RefreshNodeAndDoubleCheckOnFailUnlessStatusInvalid;
 import org.jclouds.compute.strategy.GetNodeMetadataStrategy;
+import org.jclouds.compute.strategy.impl.CoalescingGetNodeMetadataStrategy;
 
 import com.google.common.collect.ImmutableSet;
 
@@ -32,7 +33,15 @@ import com.google.common.collect.ImmutableSet;
 @Singleton
 public class AtomicNodeRunning extends RefreshNodeAndDoubleCheckOnFailUnlessStatusInvalid {
 
+   /**
+    * Refreshes the node through {@link CoalescingGetNodeMetadataStrategy}, so that concurrent polls are batched
+    * when {@link org.jclouds.compute.config.ComputeServiceProperties#POLL_BATCH_WINDOW} is set.
+    */
    @Inject
+   public AtomicNodeRunning(CoalescingGetNodeMetadataStrategy client) {
+      this((GetNodeMetadataStrategy) client);
+   }
+
    public AtomicNodeRunning(GetNodeMetadataStrategy client) {
       super(Status.RUNNING, ImmutableSet.of(Status.ERROR, Status.TERMINATED), client);
    }
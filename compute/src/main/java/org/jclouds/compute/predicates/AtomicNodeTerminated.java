@@ -22,6 +22,7 @@ import org.jclouds.compute.domain.NodeMetadata;
 import org.jclouds.compute.domain.NodeMetadata.Status;
 import org.jclouds.compute.predicates.internal.TrueIfNullOrDeletedRefreshAndDoubleCheckOnFalse;
 import org.jclouds.compute.strategy.GetNodeMetadataStrategy;
+import org.jclouds.compute.strategy.impl.CoalescingGetNodeMetadataStrategy;
 
 import com.google.inject.Inject;
 
@@ -29,7 +30,15 @@ public class AtomicNodeTerminated extends TrueIfNullOrDeletedRefreshAndDoubleChe
 
    private final GetNodeMetadataStrategy client;
 
+   /**
+    * Refreshes the node through {@link CoalescingGetNodeMetadataStrategy}, so that concurrent polls are batched
+    * when {@link org.jclouds.compute.config.ComputeServiceProperties#POLL_BATCH_WINDOW} is set.
+    */
    @Inject
+   public AtomicNodeTerminated(CoalescingGetNodeMetadataStrategy client) {
+      this((GetNodeMetadataStrategy) client);
+   }
+
    public AtomicNodeTerminated(GetNodeMetadataStrategy client) {
       super(Status.TERMINATED);
       this.client = checkNotNull(client, "client");
@@ -25,6 +25,7 @@ import org.jclouds.compute.domain.ComputeMetadata;
 import org.jclouds.compute.domain.NodeMetadata;
 import org.jclouds.compute.domain.NodeMetadata.Status;
 
+import com.google.common.base.Optional;
 import com.google.common.base.Predicate;
 import com.google.common.base.Predicates;
 import com.google.common.collect.ImmutableSet;
@@ -158,18 +159,25 @@ public class NodePredicates {
     */
    public static <T extends ComputeMetadata> Predicate<T> withIds(String... ids) {
       checkNotNull(ids, "ids must be defined");
-      final Set<String> search = ImmutableSet.copyOf(ids);
-      return new Predicate<T>() {
-         @Override
-         public boolean apply(T nodeMetadata) {
-            return search.contains(nodeMetadata.getId());
-         }
+      return new WithIds<T>(ImmutableSet.copyOf(ids));
+   }
 
-         @Override
-         public String toString() {
-            return "withIds(" + search + ")";
-         }
-      };
+   private static class WithIds<T extends ComputeMetadata> implements Predicate<T> {
+      private final Set<String> search;
+
+      private WithIds(Set<String> search) {
+         this.search = search;
+      }
+
+      @Override
+      public boolean apply(T nodeMetadata) {
+         return search.contains(nodeMetadata.getId());
+      }
+
+      @Override
+      public String toString() {
+         return "withIds(" + search + ")";
+      }
    }
 
    /**
@@ -188,19 +196,27 @@ public class NodePredicates {
     */
    public static Predicate<NodeMetadata> inGroup(final String group) {
       checkNotNull(emptyToNull(group), "group must be defined");
-      return new Predicate<NodeMetadata>() {
-         @Override
-         public boolean apply(NodeMetadata nodeMetadata) {
-            return group.equals(nodeMetadata.getGroup());
-         }
+      return new InGroup(group);
+   }
 
-         @Override
-         public String toString() {
-            return "inGroup(" + group + ")";
-         }
-      };
+   private static class InGroup implements Predicate<NodeMetadata> {
+      private final String group;
+
+      private InGroup(String group) {
+         this.group = group;
+      }
+
+      @Override
+      public boolean apply(NodeMetadata nodeMetadata) {
+         return group.equals(nodeMetadata.getGroup());
+      }
+
+      @Override
+      public String toString() {
+         return "inGroup(" + group + ")";
+      }
    }
-   
+
    /**
     * Return nodes who have a value for {@link NodeMetadata#getGroup}
     * 
@@ -228,17 +244,49 @@ public class NodePredicates {
     */
    public static Predicate<NodeMetadata> runningInGroup(final String group) {
       checkNotNull(emptyToNull(group), "group must be defined");
-      return new Predicate<NodeMetadata>() {
-         @Override
-         public boolean apply(NodeMetadata nodeMetadata) {
-            return group.equals(nodeMetadata.getGroup()) && nodeMetadata.getStatus() == Status.RUNNING;
-         }
+      return new RunningInGroup(group);
+   }
 
-         @Override
-         public String toString() {
-            return "runningInGroup(" + group + ")";
-         }
-      };
+   private static class RunningInGroup extends InGroup {
+
+      private RunningInGroup(String group) {
+         super(group);
+      }
+
+      @Override
+      public boolean apply(NodeMetadata nodeMetadata) {
+         return super.apply(nodeMetadata) && nodeMetadata.getStatus() == Status.RUNNING;
+      }
+
+      @Override
+      public String toString() {
+         return "runningInGroup(" + super.group + ")";
+      }
+   }
+
+   /**
+    * Lets a {@link org.jclouds.compute.strategy.ListNodesStrategy} have the provider select the nodes of a group,
+    * rather than list every node. The predicate must still be applied to the nodes the provider returns.
+    * 
+    * @return the group of a predicate built by {@link #inGroup} or {@link #runningInGroup}, or absent for any
+    *         other predicate
+    */
+   public static Optional<String> groupSelectedBy(Predicate<?> filter) {
+      if (!(filter instanceof InGroup))
+         return Optional.absent();
+      return Optional.of(((InGroup) filter).group);
+   }
+
+   /**
+    * Lets a {@link org.jclouds.compute.strategy.ListNodesStrategy} have the provider select the nodes with the given
+    * ids, rather than list every node. The predicate must still be applied to the nodes the provider returns.
+    * 
+    * @return the ids of a predicate built by {@link #withIds}, or absent for any other predicate
+    */
+   public static Optional<Set<String>> idsSelectedBy(Predicate<?> filter) {
+      if (!(filter instanceof WithIds))
+         return Optional.absent();
+      return Optional.of(((WithIds<?>) filter).search);
    }
 
    /**
@@ -0,0 +1,193 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.compute.strategy;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Throwables.propagate;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static org.jclouds.util.Throwables2.containsThrowable;
+import static org.jclouds.util.Throwables2.propagateAuthorizationOrOriginalException;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeoutException;
+
+import javax.annotation.Resource;
+import javax.inject.Named;
+import javax.inject.Singleton;
+
+import org.jclouds.Constants;
+import org.jclouds.compute.config.ComputeServiceProperties;
+import org.jclouds.compute.reference.ComputeServiceConstants;
+import org.jclouds.concurrent.TransformParallelException;
+import org.jclouds.javax.annotation.Nullable;
+import org.jclouds.logging.Logger;
+import org.jclouds.rest.AuthorizationException;
+
+import com.google.common.base.Function;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Maps;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListeningExecutorService;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.inject.Inject;
+
+/**
+ * Applies a function to each region or zone concurrently, typically to list the resources in each of them.
+ * <p>
+ * At most {@link ComputeServiceProperties#FAN_OUT_MAX_CONCURRENCY} calls run at once on the user executor, and each
+ * call is cancelled if it doesn't complete within {@link Constants#PROPERTY_REQUEST_TIMEOUT} of starting. Locations
+ * that fail or time out are logged and left out of the result, so that one slow or broken location doesn't hide the
+ * resources in the others. The failure is propagated if every location failed, or if any failed with an
+ * {@link AuthorizationException}, so that accounts are not locked out.
+ */
+@Singleton
+public class FanOut {
+
+   public static final int DEFAULT_MAX_CONCURRENCY = 10;
+
+   @Resource
+   @Named(ComputeServiceConstants.COMPUTE_LOGGER)
+   protected Logger logger = Logger.NULL;
+
+   @Inject(optional = true)
+   @Named(Constants.PROPERTY_REQUEST_TIMEOUT)
+   protected Long maxTime;
+
+   @Inject(optional = true)
+   @Named(ComputeServiceProperties.FAN_OUT_MAX_CONCURRENCY)
+   protected int maxConcurrency = DEFAULT_MAX_CONCURRENCY;
+
+   private final ListeningExecutorService userExecutor;
+
+   @Inject
+   public FanOut(@Named(Constants.PROPERTY_USER_THREADS) ListeningExecutorService userExecutor) {
+      this.userExecutor = checkNotNull(userExecutor, "userExecutor");
+   }
+
+   /**
+    * @return the non-null results of the locations that succeeded, in the order of {@code locations}
+    */
+   public <K, V> Map<K, V> transform(Iterable<K> locations, Function<? super K, V> function, String logPrefix) {
+      return transform(locations, function, userExecutor, maxTime, maxConcurrency, logger, logPrefix);
+   }
+
+   /**
+    * @see #transform(Iterable, Function, String)
+    */
+   public static <K, V> Map<K, V> transform(Iterable<K> locations, final Function<? super K, V> function,
+            ListeningExecutorService executor, @Nullable Long maxTime, int maxConcurrency, Logger logger,
+            String logPrefix) {
+      checkArgument(maxConcurrency > 0, "maxConcurrency must be positive");
+      Set<K> all = ImmutableSet.copyOf(locations);
+      Iterator<K> pending = all.iterator();
+      final BlockingQueue<K> completed = new LinkedBlockingQueue<K>();
+      Map<K, ListenableFuture<V>> running = Maps.newHashMap();
+      Map<K, Long> deadlines = Maps.newHashMap();
+      Map<K, V> results = Maps.newHashMap();
+      Map<K, Future<?>> successes = Maps.newLinkedHashMap();
+      Map<K, Exception> errors = Maps.newLinkedHashMap();
+      try {
+         while (pending.hasNext() || !running.isEmpty()) {
+            while (running.size() < maxConcurrency && pending.hasNext()) {
+               final K location = pending.next();
+               ListenableFuture<V> future = executor.submit(new Callable<V>() {
+
+                  @Override
+                  public V call() {
+                     return function.apply(location);
+                  }
+
+                  @Override
+                  public String toString() {
+                     return function + "(" + location + ")";
+                  }
+               });
+               future.addListener(new Runnable() {
+
+                  @Override
+                  public void run() {
+                     completed.add(location);
+                  }
+               }, MoreExecutors.directExecutor());
+               running.put(location, future);
+               if (maxTime != null)
+                  deadlines.put(location, System.nanoTime() + MILLISECONDS.toNanos(maxTime));
+            }
+
+            K done = maxTime == null ? completed.take() : completed.poll(
+                     Math.max(0, Collections.min(deadlines.values()) - System.nanoTime()), NANOSECONDS);
+            if (done != null) {
+               deadlines.remove(done);
+               // null when it was cancelled after timing out
+               ListenableFuture<V> future = running.remove(done);
+               if (future == null)
+                  continue;
+               try {
+                  V result = future.get();
+                  if (result != null)
+                     results.put(done, result);
+                  successes.put(done, future);
+               } catch (ExecutionException e) {
+                  errors.put(done, e);
+               }
+            } else {
+               long now = System.nanoTime();
+               for (Iterator<Entry<K, Long>> i = deadlines.entrySet().iterator(); i.hasNext();) {
+                  Entry<K, Long> deadline = i.next();
+                  if (deadline.getValue() - now <= 0) {
+                     running.remove(deadline.getKey()).cancel(true);
+                     errors.put(deadline.getKey(), new TimeoutException(String.format(
+                              "%s(%s) did not complete in %sms", function, deadline.getKey(), maxTime)));
+                     i.remove();
+                  }
+               }
+            }
+         }
+      } catch (InterruptedException e) {
+         for (Future<V> future : running.values())
+            future.cancel(true);
+         Thread.currentThread().interrupt();
+         throw propagate(e);
+      }
+
+      if (!errors.isEmpty()) {
+         TransformParallelException exception = new TransformParallelException(successes, errors, logPrefix);
+         if (errors.size() == all.size() || containsThrowable(AuthorizationException.class).apply(exception))
+            return propagateAuthorizationOrOriginalException(exception);
+         logger.warn(exception, "<< partial %s: %d/%d locations failed: %s", logPrefix, errors.size(), all.size(),
+                  errors.keySet());
+      }
+
+      Map<K, V> ordered = Maps.newLinkedHashMap();
+      for (K location : all) {
+         if (results.containsKey(location))
+            ordered.put(location, results.get(location));
+      }
+      return Collections.unmodifiableMap(ordered);
+   }
+}
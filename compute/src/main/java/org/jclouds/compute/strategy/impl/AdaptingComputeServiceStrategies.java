@@ -18,6 +18,7 @@ package org.jclouds.compute.strategy.impl;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.base.Preconditions.checkState;
+import static com.google.common.collect.Iterables.concat;
 import static com.google.common.collect.Iterables.filter;
 import static com.google.common.collect.Iterables.toArray;
 import static com.google.common.collect.Iterables.transform;
@@ -26,6 +27,7 @@ import static org.jclouds.compute.predicates.NodePredicates.withIds;
 import static org.jclouds.compute.util.ComputeServiceUtils.formatStatus;
 
 import java.util.Map;
+import java.util.Set;
 
 import javax.annotation.Resource;
 import javax.inject.Inject;
@@ -33,8 +35,12 @@ import javax.inject.Named;
 import javax.inject.Singleton;
 
 import org.jclouds.compute.ComputeServiceAdapter;
+import org.jclouds.compute.ComputeServiceAdapter.ListsNodesByLocation;
+import org.jclouds.compute.ComputeServiceAdapter.ListsNodesInGroup;
 import org.jclouds.compute.ComputeServiceAdapter.NodeAndInitialCredentials;
+import org.jclouds.compute.ComputeServiceAdapter.SelectsNodesByIds;
 import org.jclouds.compute.config.ComputeServiceAdapterContextModule.AddDefaultCredentialsToImage;
+import org.jclouds.compute.config.ComputeServiceProperties;
 import org.jclouds.compute.domain.ComputeMetadata;
 import org.jclouds.compute.domain.Image;
 import org.jclouds.compute.domain.NodeMetadata;
@@ -45,6 +51,7 @@ import org.jclouds.compute.predicates.NodePredicates;
 import org.jclouds.compute.reference.ComputeServiceConstants;
 import org.jclouds.compute.strategy.CreateNodeWithGroupEncodedIntoName;
 import org.jclouds.compute.strategy.DestroyNodeStrategy;
+import org.jclouds.compute.strategy.FanOut;
 import org.jclouds.compute.strategy.GetImageStrategy;
 import org.jclouds.compute.strategy.GetNodeMetadataStrategy;
 import org.jclouds.compute.strategy.ListNodesStrategy;
@@ -58,8 +65,10 @@ import org.jclouds.logging.Logger;
 
 import com.google.common.base.Function;
 import com.google.common.base.Functions;
+import com.google.common.base.Optional;
 import com.google.common.base.Predicate;
 import com.google.common.collect.FluentIterable;
+import com.google.common.collect.ImmutableList;
 
 @Singleton
 public class AdaptingComputeServiceStrategies<N, H, I, L> implements CreateNodeWithGroupEncodedIntoName,
@@ -70,18 +79,24 @@ public class AdaptingComputeServiceStrategies<N, H, I, L> implements CreateNodeW
    @Named(ComputeServiceConstants.COMPUTE_LOGGER)
    protected Logger logger = Logger.NULL;
 
+   @com.google.inject.Inject(optional = true)
+   @Named(ComputeServiceProperties.PARALLEL_LOCATION_LISTING)
+   protected boolean parallelLocationListing = false;
+
    private final Map<String, Credentials> credentialStore;
    private final PrioritizeCredentialsFromTemplate prioritizeCredentialsFromTemplate;
    private final ComputeServiceAdapter<N, H, I, L> client;
    private final Function<N, NodeMetadata> nodeMetadataAdapter;
    private final Function<I, Image> imageAdapter;
    private final AddDefaultCredentialsToImage addDefaultCredentialsToImage;
+   private final FanOut fanOut;
 
    @Inject
    public AdaptingComputeServiceStrategies(Map<String, Credentials> credentialStore,
             PrioritizeCredentialsFromTemplate prioritizeCredentialsFromTemplate,
             ComputeServiceAdapter<N, H, I, L> client, Function<N, NodeMetadata> nodeMetadataAdapter,
-            Function<I, Image> imageAdapter, AddDefaultCredentialsToImage addDefaultCredentialsToImage) {
+            Function<I, Image> imageAdapter, AddDefaultCredentialsToImage addDefaultCredentialsToImage,
+            FanOut fanOut) {
       this.credentialStore = checkNotNull(credentialStore, "credentialStore");
       this.prioritizeCredentialsFromTemplate = checkNotNull(prioritizeCredentialsFromTemplate,
                "prioritizeCredentialsFromTemplate");
@@ -90,6 +105,7 @@ public class AdaptingComputeServiceStrategies<N, H, I, L> implements CreateNodeW
                "nodeMetadataAdapter"));
       this.imageAdapter = checkNotNull(imageAdapter, "imageAdapter");
       this.addDefaultCredentialsToImage = checkNotNull(addDefaultCredentialsToImage, "addDefaultCredentialsToImage");
+      this.fanOut = checkNotNull(fanOut, "fanOut");
    }
 
    private final Function<NodeMetadata, NodeMetadata> addLoginCredentials = new Function<NodeMetadata, NodeMetadata>() {
@@ -119,7 +135,45 @@ public class AdaptingComputeServiceStrategies<N, H, I, L> implements CreateNodeW
 
    @Override
    public Iterable<? extends NodeMetadata> listDetailsOnNodesMatching(Predicate<ComputeMetadata> filter) {
-      return filter(transform(client.listNodes(), nodeMetadataAdapter), filter);
+      return filter(transform(listAdapterNodes(filter), nodeMetadataAdapter), filter);
+   }
+
+   /**
+    * Has the adapter select the nodes of the ids or group {@code filter} is built for, if it can.
+    */
+   @SuppressWarnings("unchecked")
+   private Iterable<N> listAdapterNodes(Predicate<ComputeMetadata> filter) {
+      Optional<Set<String>> ids = NodePredicates.idsSelectedBy(filter);
+      if (ids.isPresent() && client instanceof SelectsNodesByIds)
+         return client.listNodesByIds(ids.get());
+      Optional<String> group = NodePredicates.groupSelectedBy(filter);
+      if (group.isPresent() && client instanceof ListsNodesInGroup)
+         return ListsNodesInGroup.class.cast(client).listNodesInGroup(group.get());
+      return listAdapterNodes();
+   }
+
+   /**
+    * Lists the nodes of each region or zone concurrently when the adapter supports it and
+    * {@link ComputeServiceProperties#PARALLEL_LOCATION_LISTING} is set.
+    */
+   @SuppressWarnings("unchecked")
+   private Iterable<N> listAdapterNodes() {
+      if (!parallelLocationListing || !(client instanceof ListsNodesByLocation))
+         return client.listNodes();
+      final ListsNodesByLocation<N> byLocation = ListsNodesByLocation.class.cast(client);
+      return concat(fanOut.transform(byLocation.listNodeLocationIds(), new Function<String, Iterable<N>>() {
+
+         @Override
+         public Iterable<N> apply(String locationId) {
+            // materialize here, so that paging happens on the fan-out thread
+            return ImmutableList.copyOf(byLocation.listNodesInLocation(locationId));
+         }
+
+         @Override
+         public String toString() {
+            return "listNodesInLocation()";
+         }
+      }, "nodes").values());
    }
    
    @Override
@@ -0,0 +1,133 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.compute.strategy.impl;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Throwables.propagate;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.ExecutionException;
+
+import javax.annotation.Resource;
+import javax.inject.Named;
+import javax.inject.Singleton;
+
+import org.jclouds.compute.config.ComputeServiceProperties;
+import org.jclouds.compute.domain.NodeMetadata;
+import org.jclouds.compute.reference.ComputeServiceConstants;
+import org.jclouds.compute.strategy.GetNodeMetadataStrategy;
+import org.jclouds.compute.strategy.ListNodesStrategy;
+import org.jclouds.logging.Logger;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Maps;
+import com.google.common.util.concurrent.SettableFuture;
+import com.google.common.util.concurrent.Uninterruptibles;
+import com.google.inject.Inject;
+
+/**
+ * Refreshes the nodes polled by the status predicates, such as
+ * {@link org.jclouds.compute.predicates.AtomicNodeRunning}, in batches, so that waiting on many nodes doesn't issue a
+ * request per node and poll.
+ * <p>
+ * The first caller waits {@link ComputeServiceProperties#POLL_BATCH_WINDOW} for others to join, then looks all of
+ * them up with one {@link ListNodesStrategy#listNodesByIds} call. Only one such call is in flight at a time; callers
+ * arriving meanwhile join the next batch. Providers group the ids by location, for example one
+ * {@code DescribeInstances} per region in EC2. When the window is 0, the default, each call goes to the
+ * {@link GetNodeMetadataStrategy}.
+ * <p>
+ * The status predicates are always injected with this strategy, so setting the window is all it takes to batch their
+ * polls.
+ */
+@Singleton
+public class CoalescingGetNodeMetadataStrategy implements GetNodeMetadataStrategy {
+
+   @Resource
+   @Named(ComputeServiceConstants.COMPUTE_LOGGER)
+   protected Logger logger = Logger.NULL;
+
+   @Inject(optional = true)
+   @Named(ComputeServiceProperties.POLL_BATCH_WINDOW)
+   protected long window = 0;
+
+   private final GetNodeMetadataStrategy getNode;
+   private final ListNodesStrategy listNodes;
+   private final Object inFlight = new Object();
+   private Map<String, SettableFuture<NodeMetadata>> pending;
+
+   @Inject
+   public CoalescingGetNodeMetadataStrategy(GetNodeMetadataStrategy getNode, ListNodesStrategy listNodes) {
+      this.getNode = checkNotNull(getNode, "getNode");
+      this.listNodes = checkNotNull(listNodes, "listNodes");
+   }
+
+   @Override
+   public NodeMetadata getNode(String id) {
+      if (window <= 0)
+         return getNode.getNode(id);
+      Map<String, SettableFuture<NodeMetadata>> batch;
+      SettableFuture<NodeMetadata> node;
+      boolean first;
+      synchronized (this) {
+         first = pending == null;
+         if (first)
+            pending = Maps.newLinkedHashMap();
+         batch = pending;
+         node = batch.get(id);
+         if (node == null) {
+            node = SettableFuture.create();
+            batch.put(id, node);
+         }
+      }
+      if (first)
+         lookup(batch);
+      try {
+         return Uninterruptibles.getUninterruptibly(node);
+      } catch (ExecutionException e) {
+         throw propagate(e.getCause());
+      }
+   }
+
+   private void lookup(Map<String, SettableFuture<NodeMetadata>> batch) {
+      Uninterruptibles.sleepUninterruptibly(window, MILLISECONDS);
+      synchronized (inFlight) {
+         ImmutableSet<String> ids;
+         synchronized (this) {
+            pending = null;
+            ids = ImmutableSet.copyOf(batch.keySet());
+         }
+         try {
+            logger.trace(">> refreshing %d nodes", ids.size());
+            Map<String, NodeMetadata> found = Maps.newHashMap();
+            for (NodeMetadata node : listNodes.listNodesByIds(ids))
+               found.put(node.getId(), node);
+            logger.trace("<< refreshed %d/%d nodes", found.size(), ids.size());
+            for (Entry<String, SettableFuture<NodeMetadata>> entry : batch.entrySet())
+               entry.getValue().set(found.get(entry.getKey()));
+         } catch (RuntimeException e) {
+            for (SettableFuture<NodeMetadata> node : batch.values())
+               node.setException(e);
+         } catch (Error e) {
+            for (SettableFuture<NodeMetadata> node : batch.values())
+               node.setException(e);
+            throw e;
+         }
+      }
+   }
+}
@@ -32,6 +32,7 @@ import javax.inject.Provider;
 import javax.inject.Singleton;
 
 import org.jclouds.Constants;
+import org.jclouds.compute.ComputeServiceAdapter.SelectsNodesByIds;
 import org.jclouds.compute.JCloudsNativeComputeServiceAdapter;
 import org.jclouds.compute.domain.Hardware;
 import org.jclouds.compute.domain.Image;
@@ -62,7 +63,7 @@ import com.google.common.collect.Multimap;
 import com.google.common.util.concurrent.ListeningExecutorService;
 
 @Singleton
-public class StubComputeServiceAdapter implements JCloudsNativeComputeServiceAdapter {
+public class StubComputeServiceAdapter implements JCloudsNativeComputeServiceAdapter, SelectsNodesByIds {
    private final Supplier<Location> location;
    private final ConcurrentMap<String, NodeMetadata> nodes;
    private final Multimap<String, SecurityGroup> groupsForNodes;
@@ -22,13 +22,16 @@ import static org.jclouds.Constants.PROPERTY_SESSION_INTERVAL;
 
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import javax.inject.Named;
 import javax.inject.Singleton;
 
 import org.jclouds.compute.domain.Image;
+import org.jclouds.compute.domain.internal.ImageIndex;
 
 import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.ImmutableSet;
@@ -41,6 +44,10 @@ import com.google.inject.Inject;
  * needed. Once a new image is created by the {@link org.jclouds.compute.extensions.ImageExtension}, or discovered by
  * other means (see https://issues.apache.org/jira/browse/JCLOUDS-570) this supplier will allow the image to be appended
  * to the cached list, so it can be properly used normally.
+ * <p>
+ * The merged image set, and the {@link ImageIndex} built over it, are reused for as long as the underlying image cache
+ * returns the same set and no image has been registered or expired, so large catalogues are not copied and re-indexed
+ * on every template build.
  */
 @Singleton
 public class ImageCacheSupplier implements Supplier<Set<? extends Image>> {
@@ -49,6 +56,10 @@ public class ImageCacheSupplier implements Supplier<Set<? extends Image>> {
 
    private final Cache<String, Image> uncachedImages;
 
+   private final AtomicLong registrations = new AtomicLong();
+
+   private volatile Snapshot snapshot;
+
    @Inject
    public ImageCacheSupplier(@Named("imageCache") Supplier<Set<? extends Image>> imageCache,
          @Named(PROPERTY_SESSION_INTERVAL) long sessionIntervalSeconds) {
@@ -61,7 +72,34 @@ public class ImageCacheSupplier implements Supplier<Set<? extends Image>> {
 
    @Override
    public Set<? extends Image> get() {
-      return ImmutableSet.copyOf(concat(imageCache.get(), uncachedImages.asMap().values()));
+      return snapshot().images;
+   }
+
+   /**
+    * Returns an index over the given images. When they are the set last returned by {@link #get()}, the index is
+    * built once and shared; otherwise a new one is built.
+    */
+   public ImageIndex indexFor(Set<? extends Image> images) {
+      Snapshot current = snapshot;
+      if (current != null && current.images == images)
+         return current.index.get();
+      return ImageIndex.create(images);
+   }
+
+   private Snapshot snapshot() {
+      Set<? extends Image> cached = imageCache.get();
+      long registered = registrations.get();
+      // evicts expired registrations so that they are noticed through the size
+      uncachedImages.cleanUp();
+      long uncachedCount = uncachedImages.size();
+      Snapshot current = snapshot;
+      if (current == null || current.cached != cached || current.cachedCount != cached.size()
+            || current.registered != registered || current.uncachedCount != uncachedCount) {
+         current = new Snapshot(cached, registered, uncachedCount,
+               ImmutableSet.copyOf(concat(cached, uncachedImages.asMap().values())));
+         snapshot = current;
+      }
+      return current;
    }
 
    /**
@@ -79,6 +117,31 @@ public class ImageCacheSupplier implements Supplier<Set<? extends Image>> {
    public void registerImage(Image image) {
       checkNotNull(image, "image");
       uncachedImages.put(image.getId(), image);
+      registrations.incrementAndGet();
+   }
+
+   private static final class Snapshot {
+      private final Set<? extends Image> cached;
+      private final int cachedCount;
+      private final long registered;
+      private final long uncachedCount;
+      private final ImmutableSet<Image> images;
+      private final Supplier<ImageIndex> index;
+
+      private Snapshot(Set<? extends Image> cached, long registered, long uncachedCount,
+            final ImmutableSet<Image> images) {
+         this.cached = cached;
+         this.cachedCount = cached.size();
+         this.registered = registered;
+         this.uncachedCount = uncachedCount;
+         this.images = images;
+         this.index = Suppliers.memoize(new Supplier<ImageIndex>() {
+            @Override
+            public ImageIndex get() {
+               return ImageIndex.create(images);
+            }
+         });
+      }
    }
 
 }
@@ -16,12 +16,19 @@
  */
 package org.jclouds.compute.util;
 
+import static com.google.common.base.Throwables.getRootCause;
 import static com.google.common.collect.Maps.newLinkedHashMap;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.jclouds.util.Predicates2.retryAsync;
 
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.atomic.AtomicReference;
 
+import javax.annotation.Resource;
 import javax.inject.Inject;
 import javax.inject.Named;
 import javax.inject.Singleton;
@@ -29,24 +36,52 @@ import javax.inject.Singleton;
 import org.jclouds.Constants;
 import org.jclouds.compute.config.CustomizationResponse;
 import org.jclouds.compute.domain.NodeMetadata;
+import org.jclouds.compute.functions.PollNodeRunning;
 import org.jclouds.compute.options.TemplateOptions;
+import org.jclouds.compute.predicates.AtomicNodeRunning;
+import org.jclouds.compute.reference.ComputeServiceConstants;
+import org.jclouds.compute.reference.ComputeServiceConstants.PollPeriod;
+import org.jclouds.compute.reference.ComputeServiceConstants.Timeouts;
 import org.jclouds.compute.strategy.CustomizeNodeAndAddToGoodMapOrPutExceptionIntoBadMap;
+import org.jclouds.logging.Logger;
 
+import com.google.common.base.Predicate;
 import com.google.common.collect.Multimap;
 import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListenableFutureTask;
 import com.google.common.util.concurrent.ListeningExecutorService;
+import com.google.common.util.concurrent.MoreExecutors;
 
 @Singleton
 public class ComputeUtils {
+
+   @Resource
+   @Named(ComputeServiceConstants.COMPUTE_LOGGER)
+   protected Logger logger = Logger.NULL;
+
    private final CustomizeNodeAndAddToGoodMapOrPutExceptionIntoBadMap.Factory customizeNodeAndAddToGoodMapOrPutExceptionIntoBadMapFactory;
    private final ListeningExecutorService userExecutor;
+   private final AtomicNodeRunning nodeRunning;
+   private final Timeouts timeouts;
+   private final PollPeriod pollPeriod;
+
+   /**
+    * When bound, nodes are waited on without holding a user thread until they are running.
+    */
+   @com.google.inject.Inject(optional = true)
+   @Named(Constants.PROPERTY_SCHEDULER_THREADS)
+   protected ScheduledExecutorService scheduler;
 
    @Inject
    public ComputeUtils(
             CustomizeNodeAndAddToGoodMapOrPutExceptionIntoBadMap.Factory customizeNodeAndAddToGoodMapOrPutExceptionIntoBadMapFactory,
-            @Named(Constants.PROPERTY_USER_THREADS) ListeningExecutorService userExecutor) {
+            @Named(Constants.PROPERTY_USER_THREADS) ListeningExecutorService userExecutor,
+            AtomicNodeRunning nodeRunning, Timeouts timeouts, PollPeriod pollPeriod) {
       this.customizeNodeAndAddToGoodMapOrPutExceptionIntoBadMapFactory = customizeNodeAndAddToGoodMapOrPutExceptionIntoBadMapFactory;
       this.userExecutor = userExecutor;
+      this.nodeRunning = nodeRunning;
+      this.timeouts = timeouts;
+      this.pollPeriod = pollPeriod;
    }
 
    public Map<?, ListenableFuture<Void>> customizeNodesAndAddToGoodMapOrPutExceptionIntoBadMap(TemplateOptions options,
@@ -54,10 +89,77 @@ public class ComputeUtils {
             Multimap<NodeMetadata, CustomizationResponse> customizationResponses) {
       Map<NodeMetadata, ListenableFuture<Void>> responses = newLinkedHashMap();
       for (NodeMetadata node : runningNodes) {
-         responses.put(node, userExecutor.submit(customizeNodeAndAddToGoodMapOrPutExceptionIntoBadMapFactory.create(
-                  options, new AtomicReference<NodeMetadata>(node), goodNodes, badNodes, customizationResponses)));
+         AtomicReference<NodeMetadata> ref = new AtomicReference<NodeMetadata>(node);
+         Callable<Void> customize = customizeNodeAndAddToGoodMapOrPutExceptionIntoBadMapFactory.create(options, ref,
+                  goodNodes, badNodes, customizationResponses);
+         if (scheduler != null && options.shouldBlockUntilRunning() && timeouts.nodeRunning > 0)
+            responses.put(node, customizeOnceRunning(ref, customize, badNodes));
+         else
+            responses.put(node, userExecutor.submit(customize));
       }
       return responses;
    }
 
+   /**
+    * Polls the node on the scheduler until it is running, and only then submits its customization, whose own check of
+    * the status returns at once. If the node didn't start in time, it is checked one last time to report why.
+    */
+   private ListenableFuture<Void> customizeOnceRunning(final AtomicReference<NodeMetadata> node,
+            final Callable<Void> customize, final Map<NodeMetadata, Exception> badNodes) {
+      final NodeMetadata original = node.get();
+      final ListenableFuture<Boolean> running = retryAsync(new Predicate<AtomicReference<NodeMetadata>>() {
+
+         @Override
+         public boolean apply(AtomicReference<NodeMetadata> input) {
+            // keep polling the last node seen if the api returned null (issue #989)
+            if (input.get() == null)
+               input.set(original);
+            return nodeRunning.apply(input);
+         }
+
+         @Override
+         public String toString() {
+            return "nodeRunning(" + original.getId() + ")";
+         }
+      }, node, timeouts.nodeRunning, pollPeriod.pollInitialPeriod, pollPeriod.pollMaxPeriod, MILLISECONDS,
+               scheduler, userExecutor);
+      final ListenableFutureTask<Void> task = ListenableFutureTask.create(new Callable<Void>() {
+
+         @Override
+         public Void call() throws Exception {
+            if (!succeeded(running)) {
+               if (node.get() == null)
+                  node.set(original);
+               try {
+                  new PollNodeRunning(nodeRunning).apply(node);
+               } catch (Exception e) {
+                  logger.error(e, "<< problem customizing node(%s): ", original.getId(), getRootCause(e).getMessage());
+                  badNodes.put(node.get(), e);
+                  return null;
+               }
+            }
+            return customize.call();
+         }
+      });
+      running.addListener(task, userExecutor);
+      task.addListener(new Runnable() {
+
+         @Override
+         public void run() {
+            if (task.isCancelled())
+               running.cancel(true);
+         }
+      }, MoreExecutors.directExecutor());
+      return task;
+   }
+
+   private static boolean succeeded(ListenableFuture<Boolean> running) throws InterruptedException {
+      try {
+         return running.get();
+      } catch (ExecutionException e) {
+         // the last check reports the failure
+         return false;
+      }
+   }
+
 }
@@ -0,0 +1,76 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.compute.domain.internal;
+
+import static org.testng.Assert.assertEquals;
+
+import org.jclouds.compute.domain.Image;
+import org.jclouds.compute.domain.ImageBuilder;
+import org.jclouds.compute.domain.OperatingSystem;
+import org.jclouds.compute.domain.OsFamily;
+import org.jclouds.domain.Location;
+import org.jclouds.domain.LocationBuilder;
+import org.jclouds.domain.LocationScope;
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableList;
+
+@Test(groups = "unit", testName = "ImageIndexTest")
+public class ImageIndexTest {
+
+   private final Location provider = new LocationBuilder().scope(LocationScope.PROVIDER).id("aws-ec2")
+         .description("aws-ec2").build();
+   private final Location region = new LocationBuilder().scope(LocationScope.REGION).id("us-east-1")
+         .description("us-east-1").parent(provider).build();
+   private final Location zone = new LocationBuilder().scope(LocationScope.ZONE).id("us-east-1a")
+         .description("us-east-1a").parent(region).build();
+   private final Location region2 = new LocationBuilder().scope(LocationScope.REGION).id("us-west-1")
+         .description("us-west-1").parent(provider).build();
+
+   private final Image ubuntuInRegion = image("ubuntu-region", region, OsFamily.UBUNTU, true);
+   private final Image centosInRegion2 = image("centos-region2", region2, OsFamily.CENTOS, true);
+   private final Image ubuntuEverywhere = image("ubuntu-anywhere", null, OsFamily.UBUNTU, false);
+   private final Image centosInZone = image("centos-zone", zone, OsFamily.CENTOS, false);
+   private final Image ubuntuInProvider = image("ubuntu-provider", provider, OsFamily.UBUNTU, true);
+
+   private final ImageIndex index = ImageIndex.create(ImmutableList.of(ubuntuInRegion, centosInRegion2,
+         ubuntuEverywhere, centosInZone, ubuntuInProvider));
+
+   public void testNoCriteriaReturnsAllImages() {
+      assertEquals(index.candidates(null, null, null), ImmutableList.of(ubuntuInRegion, centosInRegion2,
+            ubuntuEverywhere, centosInZone, ubuntuInProvider));
+   }
+
+   public void testLocationIncludesParentsAndLocationlessImagesInOrder() {
+      assertEquals(index.candidates(zone, null, null), ImmutableList.of(ubuntuInRegion, ubuntuEverywhere,
+            centosInZone, ubuntuInProvider));
+      assertEquals(index.candidates(region2, null, null), ImmutableList.of(centosInRegion2, ubuntuEverywhere,
+            ubuntuInProvider));
+   }
+
+   public void testNarrowestBucketIsUsed() {
+      assertEquals(index.candidates(null, OsFamily.CENTOS, null), ImmutableList.of(centosInRegion2, centosInZone));
+      // candidates are a superset: the 64-bit bucket is smaller than the family one
+      assertEquals(index.candidates(null, OsFamily.UBUNTU, false), ImmutableList.of(ubuntuEverywhere, centosInZone));
+      assertEquals(index.candidates(null, OsFamily.WINDOWS, null), ImmutableList.of());
+   }
+
+   private static Image image(String id, Location location, OsFamily family, boolean is64Bit) {
+      OperatingSystem os = OperatingSystem.builder().family(family).description(id).is64Bit(is64Bit).build();
+      return new ImageBuilder().id(id).operatingSystem(os).status(Image.Status.AVAILABLE).location(location).build();
+   }
+}
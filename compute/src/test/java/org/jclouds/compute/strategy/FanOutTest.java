@@ -0,0 +1,126 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.compute.strategy;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jclouds.concurrent.TransformParallelException;
+import org.jclouds.rest.AuthorizationException;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import com.google.common.base.Function;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.util.concurrent.MoreExecutors;
+
+@Test(groups = "unit", testName = "FanOutTest")
+public class FanOutTest {
+
+   private ExecutorService executor;
+   private FanOut fanOut;
+
+   @BeforeClass
+   public void setUp() {
+      executor = Executors.newCachedThreadPool();
+      fanOut = new FanOut(MoreExecutors.listeningDecorator(executor));
+   }
+
+   @AfterClass(alwaysRun = true)
+   public void tearDown() {
+      executor.shutdownNow();
+   }
+
+   private static final Function<String, String> LIST_ZONE = new Function<String, String>() {
+      @Override
+      public String apply(String zone) {
+         if (zone.equals("broken"))
+            throw new RuntimeException("zone is broken");
+         if (zone.equals("unauthorized"))
+            throw new AuthorizationException("not authorized in zone");
+         if (zone.equals("slow"))
+            sleep(10000);
+         return "nodes in " + zone;
+      }
+   };
+
+   public void testResultsAreInLocationOrder() {
+      Map<String, String> results = fanOut.transform(ImmutableList.of("c", "a", "b"), LIST_ZONE, "zones");
+
+      assertEquals(ImmutableList.copyOf(results.keySet()), ImmutableList.of("c", "a", "b"));
+      assertEquals(results.get("a"), "nodes in a");
+   }
+
+   public void testConcurrencyIsBounded() {
+      final AtomicInteger running = new AtomicInteger();
+      final AtomicInteger maxRunning = new AtomicInteger();
+      FanOut twoAtATime = new FanOut(MoreExecutors.listeningDecorator(executor));
+      twoAtATime.maxConcurrency = 2;
+
+      Map<String, String> results = twoAtATime.transform(ImmutableList.of("a", "b", "c", "d", "e"),
+            new Function<String, String>() {
+               @Override
+               public String apply(String zone) {
+                  int now = running.incrementAndGet();
+                  synchronized (maxRunning) {
+                     maxRunning.set(Math.max(maxRunning.get(), now));
+                  }
+                  sleep(50);
+                  running.decrementAndGet();
+                  return zone;
+               }
+            }, "zones");
+
+      assertEquals(results.size(), 5);
+      assertTrue(maxRunning.get() <= 2, "ran " + maxRunning.get() + " at once");
+   }
+
+   public void testFailedAndTimedOutLocationsAreLeftOut() {
+      FanOut withTimeout = new FanOut(MoreExecutors.listeningDecorator(executor));
+      withTimeout.maxTime = 100L;
+
+      Map<String, String> results = withTimeout.transform(ImmutableList.of("a", "broken", "slow", "b"), LIST_ZONE,
+            "zones");
+
+      assertEquals(results, ImmutableMap.of("a", "nodes in a", "b", "nodes in b"));
+   }
+
+   @Test(expectedExceptions = AuthorizationException.class)
+   public void testAuthorizationExceptionIsPropagated() {
+      fanOut.transform(ImmutableList.of("a", "unauthorized"), LIST_ZONE, "zones");
+   }
+
+   @Test(expectedExceptions = TransformParallelException.class)
+   public void testFailsWhenAllLocationsFail() {
+      fanOut.transform(ImmutableList.of("broken"), LIST_ZONE, "zones");
+   }
+
+   private static void sleep(long millis) {
+      try {
+         Thread.sleep(millis);
+      } catch (InterruptedException e) {
+         Thread.currentThread().interrupt();
+      }
+   }
+}
@@ -0,0 +1,192 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.compute.strategy.impl;
+
+import static com.google.common.collect.Iterables.contains;
+import static org.jclouds.compute.predicates.NodePredicates.withIds;
+import static org.testng.Assert.assertEquals;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.Set;
+
+import org.jclouds.compute.ComputeServiceAdapter;
+import org.jclouds.compute.ComputeServiceAdapter.ListsNodesByLocation;
+import org.jclouds.compute.ComputeServiceAdapter.SelectsNodesByIds;
+import org.jclouds.compute.config.ComputeServiceAdapterContextModule.AddDefaultCredentialsToImage;
+import org.jclouds.compute.domain.ComputeMetadata;
+import org.jclouds.compute.domain.Image;
+import org.jclouds.compute.domain.NodeMetadata;
+import org.jclouds.compute.domain.NodeMetadata.Status;
+import org.jclouds.compute.domain.NodeMetadataBuilder;
+import org.jclouds.compute.domain.Template;
+import org.jclouds.compute.strategy.FanOut;
+import org.jclouds.compute.strategy.PrioritizeCredentialsFromTemplate;
+import org.jclouds.domain.Credentials;
+import org.jclouds.domain.LoginCredentials;
+import org.testng.annotations.Test;
+
+import com.google.common.base.Function;
+import com.google.common.base.Functions;
+import com.google.common.base.Predicate;
+import com.google.common.collect.FluentIterable;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.util.concurrent.MoreExecutors;
+
+@Test(groups = "unit", testName = "AdaptingComputeServiceStrategiesTest")
+public class AdaptingComputeServiceStrategiesTest {
+
+   /**
+    * A node of a provider whose ids are numbers.
+    */
+   private static class Guest {
+      private final long id;
+
+      private Guest(long id) {
+         this.id = id;
+      }
+   }
+
+   private static final Function<Guest, NodeMetadata> GUEST_TO_NODE = new Function<Guest, NodeMetadata>() {
+      @Override
+      public NodeMetadata apply(Guest input) {
+         return new NodeMetadataBuilder().id(String.valueOf(input.id)).status(Status.RUNNING).build();
+      }
+   };
+
+   /**
+    * Answers the node calls of an adapter over guests 1 to 3, recording the calls made.
+    */
+   private static class FakeGuests implements InvocationHandler {
+      private final List<Guest> guests = ImmutableList.of(new Guest(1), new Guest(2), new Guest(3));
+      private final List<String> calls = Lists.newArrayList();
+
+      @SuppressWarnings("unchecked")
+      private ComputeServiceAdapter<Guest, Object, Object, Object> adapter(Class<?>... interfaces) {
+         Class<?>[] all = ImmutableList.<Class<?>> builder().add(ComputeServiceAdapter.class).add(interfaces).build()
+               .toArray(new Class<?>[0]);
+         return (ComputeServiceAdapter<Guest, Object, Object, Object>) Proxy.newProxyInstance(
+               ComputeServiceAdapter.class.getClassLoader(), all, this);
+      }
+
+      @Override
+      @SuppressWarnings("unchecked")
+      public Object invoke(Object proxy, Method method, Object[] args) {
+         calls.add(method.getName());
+         if (method.getName().equals("listNodes")) {
+            return guests;
+         } else if (method.getName().equals("listNodeLocationIds")) {
+            return ImmutableList.of("odd", "even");
+         } else if (method.getName().equals("listNodesInLocation")) {
+            final boolean odd = args[0].equals("odd");
+            return FluentIterable.from(guests).filter(new Predicate<Guest>() {
+               @Override
+               public boolean apply(Guest guest) {
+                  return guest.id % 2 == 1 == odd;
+               }
+            }).toList();
+         } else if (method.getName().equals("listNodesByIds")) {
+            final Iterable<String> ids = (Iterable<String>) args[0];
+            return FluentIterable.from(guests).filter(new Predicate<Guest>() {
+               @Override
+               public boolean apply(Guest guest) {
+                  return contains(ids, String.valueOf(guest.id));
+               }
+            }).toList();
+         } else if (method.getName().equals("getNode")) {
+            for (Guest guest : guests) {
+               if (String.valueOf(guest.id).equals(args[0]))
+                  return guest;
+            }
+            return null;
+         } else if (method.getName().equals("destroyNode")) {
+            calls.add("destroyNode " + args[0]);
+            return null;
+         }
+         throw new UnsupportedOperationException(method.toString());
+      }
+   }
+
+   private static AdaptingComputeServiceStrategies<Guest, Object, Object, Object> strategies(
+         ComputeServiceAdapter<Guest, Object, Object, Object> adapter) {
+      return new AdaptingComputeServiceStrategies<Guest, Object, Object, Object>(
+            Maps.<String, Credentials> newHashMap(),
+            new PrioritizeCredentialsFromTemplate(Functions.forMap(ImmutableMap.<Template, LoginCredentials> of(),
+                  null)), adapter, GUEST_TO_NODE, Functions.forMap(ImmutableMap.<Object, Image> of(), null),
+            new AddDefaultCredentialsToImage(null), new FanOut(MoreExecutors.newDirectExecutorService()));
+   }
+
+   private static Set<String> ids(Iterable<? extends ComputeMetadata> nodes) {
+      return FluentIterable.from(nodes).transform(new Function<ComputeMetadata, String>() {
+         @Override
+         public String apply(ComputeMetadata input) {
+            return input.getId();
+         }
+      }).toSet();
+   }
+
+   /**
+    * Mirrors {@link org.jclouds.compute.internal.BaseComputeService#destroyNodesMatching}.
+    */
+   private static void destroyNodesMatching(AdaptingComputeServiceStrategies<?, ?, ?, ?> strategies, String... ids) {
+      for (NodeMetadata node : strategies.listDetailsOnNodesMatching(withIds(ids)))
+         strategies.destroyNode(node.getId());
+   }
+
+   public void testWithIdsIsFilteredInMemoryUnlessTheAdapterSelectsByIds() {
+      FakeGuests guests = new FakeGuests();
+
+      destroyNodesMatching(strategies(guests.adapter()), "2", "not-a-number");
+
+      assertEquals(guests.calls, ImmutableList.of("listNodes", "getNode", "destroyNode", "destroyNode 2"));
+   }
+
+   public void testAdapterListingByLocationListsAllNodesAtOnceByDefault() {
+      FakeGuests guests = new FakeGuests();
+
+      assertEquals(ids(strategies(guests.adapter(ListsNodesByLocation.class)).listNodes()),
+            ImmutableSet.of("1", "2", "3"));
+
+      assertEquals(guests.calls, ImmutableList.of("listNodes"));
+   }
+
+   public void testAdapterListingByLocationIsListedPerLocationWhenParallelListingIsSet() {
+      FakeGuests guests = new FakeGuests();
+      AdaptingComputeServiceStrategies<Guest, Object, Object, Object> strategies = strategies(guests
+            .adapter(ListsNodesByLocation.class));
+      strategies.parallelLocationListing = true;
+
+      assertEquals(ids(strategies.listNodes()), ImmutableSet.of("1", "2", "3"));
+
+      assertEquals(guests.calls, ImmutableList.of("listNodeLocationIds", "listNodesInLocation",
+            "listNodesInLocation"));
+   }
+
+   public void testAdapterSelectingByIdsIsAskedForThoseNodes() {
+      FakeGuests guests = new FakeGuests();
+
+      destroyNodesMatching(strategies(guests.adapter(SelectsNodesByIds.class)), "2", "not-a-number");
+
+      assertEquals(guests.calls, ImmutableList.of("listNodesByIds", "getNode", "destroyNode", "destroyNode 2"));
+   }
+}
@@ -0,0 +1,191 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.compute.strategy.impl;
+
+import static org.easymock.EasyMock.createMock;
+import static org.easymock.EasyMock.expect;
+import static org.easymock.EasyMock.replay;
+import static org.easymock.EasyMock.verify;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.jclouds.compute.config.ComputeServiceProperties;
+import org.jclouds.compute.domain.ComputeMetadata;
+import org.jclouds.compute.domain.NodeMetadata;
+import org.jclouds.compute.domain.NodeMetadata.Status;
+import org.jclouds.compute.domain.NodeMetadataBuilder;
+import org.jclouds.compute.predicates.AtomicNodeSuspended;
+import org.jclouds.compute.predicates.AtomicNodeTerminated;
+import org.jclouds.compute.strategy.GetNodeMetadataStrategy;
+import org.jclouds.compute.strategy.ListNodesStrategy;
+import org.jclouds.rest.AuthorizationException;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import com.google.common.base.Predicate;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+import com.google.inject.AbstractModule;
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import com.google.inject.name.Names;
+
+@Test(groups = "unit", testName = "CoalescingGetNodeMetadataStrategyTest")
+public class CoalescingGetNodeMetadataStrategyTest {
+
+   private ExecutorService executor;
+
+   @BeforeClass
+   public void setUp() {
+      executor = Executors.newCachedThreadPool();
+   }
+
+   @AfterClass(alwaysRun = true)
+   public void tearDown() {
+      executor.shutdownNow();
+   }
+
+   public void testWithoutWindowEachNodeIsLookedUp() {
+      NodeMetadata node = running("1");
+      GetNodeMetadataStrategy getNode = createMock(GetNodeMetadataStrategy.class);
+      expect(getNode.getNode("1")).andReturn(node);
+      replay(getNode);
+
+      assertEquals(new CoalescingGetNodeMetadataStrategy(getNode, new CountingListNodes(null)).getNode("1"), node);
+      verify(getNode);
+   }
+
+   public void testConcurrentLookupsShareOneList() throws Exception {
+      CountingListNodes listNodes = new CountingListNodes(null);
+      final CoalescingGetNodeMetadataStrategy strategy = coalescing(listNodes);
+
+      List<Future<NodeMetadata>> nodes = Lists.newArrayList();
+      for (int i = 0; i < 50; i++) {
+         final String id = i == 49 ? "missing" : Integer.toString(i);
+         nodes.add(executor.submit(new Callable<NodeMetadata>() {
+            public NodeMetadata call() {
+               return strategy.getNode(id);
+            }
+         }));
+      }
+
+      for (int i = 0; i < 49; i++)
+         assertEquals(nodes.get(i).get().getId(), Integer.toString(i));
+      assertNull(nodes.get(49).get());
+      assertTrue(listNodes.calls <= 2, "listed " + listNodes.calls + " times");
+   }
+
+   public void testFailureIsPropagatedToEveryCaller() throws Exception {
+      final CoalescingGetNodeMetadataStrategy strategy = coalescing(new CountingListNodes(
+            new AuthorizationException()));
+
+      List<Future<NodeMetadata>> nodes = Lists.newArrayList();
+      for (final String id : ImmutableList.of("1", "2")) {
+         nodes.add(executor.submit(new Callable<NodeMetadata>() {
+            public NodeMetadata call() {
+               return strategy.getNode(id);
+            }
+         }));
+      }
+
+      for (Future<NodeMetadata> node : nodes) {
+         try {
+            node.get();
+            throw new AssertionError("expected an AuthorizationException");
+         } catch (ExecutionException e) {
+            assertEquals(e.getCause().getClass(), AuthorizationException.class);
+         }
+      }
+   }
+
+   public void testStatusPredicatesRefreshThroughTheBatches() {
+      final CountingListNodes listNodes = new CountingListNodes(null);
+      final GetNodeMetadataStrategy getNode = createMock(GetNodeMetadataStrategy.class);
+      replay(getNode);
+      Injector injector = Guice.createInjector(new AbstractModule() {
+         @Override
+         protected void configure() {
+            bindConstant().annotatedWith(Names.named(ComputeServiceProperties.POLL_BATCH_WINDOW)).to(1L);
+            bind(GetNodeMetadataStrategy.class).toInstance(getNode);
+            bind(ListNodesStrategy.class).toInstance(listNodes);
+         }
+      });
+
+      assertFalse(injector.getInstance(AtomicNodeTerminated.class).apply(
+            new AtomicReference<NodeMetadata>(running("1"))));
+      assertFalse(injector.getInstance(AtomicNodeSuspended.class).apply(
+            new AtomicReference<NodeMetadata>(running("2"))));
+
+      verify(getNode);
+      assertEquals(listNodes.calls, 2);
+   }
+
+   private static CoalescingGetNodeMetadataStrategy coalescing(ListNodesStrategy listNodes) {
+      CoalescingGetNodeMetadataStrategy strategy = new CoalescingGetNodeMetadataStrategy(
+            createMock(GetNodeMetadataStrategy.class), listNodes);
+      strategy.window = 100;
+      return strategy;
+   }
+
+   private static NodeMetadata running(String id) {
+      return new NodeMetadataBuilder().id(id).status(Status.RUNNING).build();
+   }
+
+   private static class CountingListNodes implements ListNodesStrategy {
+      private final RuntimeException failure;
+      private volatile int calls;
+
+      private CountingListNodes(RuntimeException failure) {
+         this.failure = failure;
+      }
+
+      @Override
+      public Iterable<? extends NodeMetadata> listNodesByIds(Iterable<String> ids) {
+         calls++;
+         if (failure != null)
+            throw failure;
+         ImmutableSet.Builder<NodeMetadata> nodes = ImmutableSet.builder();
+         for (String id : ids) {
+            if (!id.equals("missing"))
+               nodes.add(running(id));
+         }
+         return nodes.build();
+      }
+
+      @Override
+      public Iterable<? extends ComputeMetadata> listNodes() {
+         throw new UnsupportedOperationException();
+      }
+
+      @Override
+      public Iterable<? extends NodeMetadata> listDetailsOnNodesMatching(Predicate<ComputeMetadata> filter) {
+         throw new UnsupportedOperationException();
+      }
+   }
+}
@@ -17,6 +17,8 @@
 package org.jclouds.compute.suppliers;
 
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertSame;
 
 import java.util.Set;
 
@@ -74,4 +76,18 @@ public class ImageCacheSupplierTest {
 
       assertEquals(imageCache.get().size(), 2);
    }
+
+   @Test
+   public void testImagesAndIndexAreReusedUntilAnImageIsRegistered() {
+      ImageCacheSupplier imageCache = new ImageCacheSupplier(Suppliers.<Set<? extends Image>> ofInstance(images), 60);
+      Set<? extends Image> first = imageCache.get();
+      assertSame(imageCache.get(), first);
+      assertSame(imageCache.indexFor(first), imageCache.indexFor(first));
+
+      imageCache.registerImage(ImageBuilder.fromImage(image).id("newimage").build());
+
+      Set<? extends Image> second = imageCache.get();
+      assertNotSame(second, first);
+      assertEquals(imageCache.indexFor(second).size(), 2);
+   }
 }
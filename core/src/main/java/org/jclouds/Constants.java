@@ -94,6 +94,16 @@ public final class Constants {
     */
    public static final String PROPERTY_SESSION_INTERVAL = "jclouds.session-interval";
 
+   /**
+    * Long property. default (0)
+    * <p/>
+    * When greater than {@link #PROPERTY_SESSION_INTERVAL}, session-scoped data such as locations, images and hardware
+    * is refreshed in the background once the session interval has passed, and the previous value is served until the
+    * new one is loaded. Values older than this many seconds are discarded and reloaded while the caller waits. 0 means
+    * callers wait for the reload as soon as the session interval has passed.
+    */
+   public static final String PROPERTY_SESSION_MAX_STALENESS = "jclouds.session-max-staleness";
+
    /**
     * Boolean property.
     * <p/>
@@ -298,6 +308,36 @@ public final class Constants {
     */
    public static final String PROPERTY_STRIP_EXPECT_HEADER = "jclouds.strip-expect-header";
 
+   /**
+    * Integer property. Default (8196).
+    * <p/>
+    * The size, in bytes, of the chunks written when streaming a payload with chunked transfer encoding.
+    */
+   public static final String PROPERTY_CHUNKED_STREAMING_SIZE = "jclouds.chunked-streaming-size";
+
+   /**
+    * Boolean property. Default (false).
+    * <p/>
+    * When true, payloads are logged to the {@link #LOGGER_HTTP_WIRE wire log} as their consumer reads them, instead of
+    * being copied and logged before the consumer sees any data.
+    */
+   public static final String PROPERTY_WIRE_LOG_STREAMING = "jclouds.wire-log.streaming";
+
+   /**
+    * Long property. Default (-1, unlimited).
+    * <p/>
+    * The maximum number of bytes of each payload written to the {@link #LOGGER_HTTP_WIRE wire log}.
+    */
+   public static final String PROPERTY_WIRE_LOG_MAX_BYTES = "jclouds.wire-log.max-bytes";
+
+   /**
+    * Integer property. Default (0, disabled).
+    * <p/>
+    * The number of pages of a paged listing to request ahead of the one being consumed, on the
+    * {@link #PROPERTY_USER_THREADS user executor}.
+    */
+   public static final String PROPERTY_PREFETCH_PAGES = "jclouds.prefetch-pages";
+
    /**
     * The maximum number of blob deletes happening in parallel at any point in time.
     */
@@ -16,16 +16,32 @@
  */
 package org.jclouds.collect;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import java.io.Closeable;
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
 import com.google.common.annotations.Beta;
 import com.google.common.base.Function;
 import com.google.common.base.MoreObjects;
 import com.google.common.base.Objects;
+import com.google.common.base.Throwables;
 import com.google.common.collect.AbstractIterator;
+import com.google.common.collect.FluentIterable;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.AsyncFunction;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListeningExecutorService;
+import com.google.common.util.concurrent.MoreExecutors;
 
 /**
  * Utilities for using {@link PagedIterable}s.
@@ -74,6 +90,131 @@ public class PagedIterables {
       };
    }
 
+   /**
+    * Like {@link #advance(IterableWithMarker, Function)}, but requests the following pages on {@code executor} while
+    * the current one is consumed, so that iterating doesn't wait a round trip per page.
+    * <p>
+    * At most {@code depth} pages are requested ahead of the one returned last. Closing the iterator, which implements
+    * {@link Closeable}, cancels them when iteration stops early and interrupts their requests; otherwise they are left
+    * to complete. Iterating through {@link PagedIterable#concat()} or other {@link FluentIterable} methods never closes
+    * the iterator: when such an iteration stops early, as {@code firstMatch} does, nothing cancels the pages requested
+    * ahead, which are fetched in the background and discarded.
+    *
+    * @param depth
+    *           the number of pages to request ahead, at least 1
+    */
+   public static <T> PagedIterable<T> advance(final IterableWithMarker<T> initial,
+         final Function<Object, IterableWithMarker<T>> markerToNext, final ListeningExecutorService executor,
+         final int depth) {
+      checkNotNull(initial, "initial iterable");
+      checkNotNull(markerToNext, "marker to next iterable");
+      checkNotNull(executor, "executor");
+      checkArgument(depth > 0, "depth must be positive");
+      return new PagedIterable<T>() {
+         public Iterator<IterableWithMarker<T>> iterator() {
+            if (!initial.nextMarker().isPresent())
+               return ImmutableSet.of(initial).iterator();
+            return new PrefetchingIterator<T>(initial, markerToNext, executor, depth);
+         }
+      };
+   }
+
+   private static class PrefetchingIterator<T> extends AbstractIterator<IterableWithMarker<T>> implements Closeable {
+
+      private final AsyncFunction<IterableWithMarker<T>, IterableWithMarker<T>> fetchNext;
+      // pages requested but not returned yet; a null page ends the sequence
+      private final Deque<ListenableFuture<IterableWithMarker<T>>> ahead;
+      // requests running on the executor, which cancelling the pages ahead doesn't reach in every guava version
+      private final Set<Future<?>> fetching = Sets.newConcurrentHashSet();
+      private volatile boolean closed;
+      private IterableWithMarker<T> initial;
+
+      private PrefetchingIterator(IterableWithMarker<T> initial,
+            final Function<Object, IterableWithMarker<T>> markerToNext, final ListeningExecutorService executor,
+            int depth) {
+         this.initial = initial;
+         this.ahead = new ArrayDeque<ListenableFuture<IterableWithMarker<T>>>(depth);
+         this.fetchNext = new AsyncFunction<IterableWithMarker<T>, IterableWithMarker<T>>() {
+            @Override
+            public ListenableFuture<IterableWithMarker<T>> apply(final IterableWithMarker<T> page) {
+               if (page == null || !page.nextMarker().isPresent())
+                  return Futures.immediateFuture(null);
+               if (closed)
+                  return Futures.immediateCancelledFuture();
+               final ListenableFuture<IterableWithMarker<T>> fetch = executor.submit(
+                     new Callable<IterableWithMarker<T>>() {
+                        @Override
+                        public IterableWithMarker<T> call() {
+                           return markerToNext.apply(page.nextMarker().get());
+                        }
+                     });
+               fetching.add(fetch);
+               fetch.addListener(new Runnable() {
+                  @Override
+                  public void run() {
+                     fetching.remove(fetch);
+                  }
+               }, MoreExecutors.directExecutor());
+               // closed while submitting
+               if (closed)
+                  fetch.cancel(true);
+               return fetch;
+            }
+         };
+         ListenableFuture<IterableWithMarker<T>> last = Futures.immediateFuture(initial);
+         for (int i = 0; i < depth; i++)
+            ahead.add(last = Futures.transform(last, fetchNext));
+      }
+
+      @Override
+      protected IterableWithMarker<T> computeNext() {
+         if (initial != null)
+            try {
+               return initial;
+            } finally {
+               initial = null;
+            }
+         ListenableFuture<IterableWithMarker<T>> next = ahead.poll();
+         if (next == null)
+            return endOfData();
+         ahead.add(Futures.transform(ahead.isEmpty() ? next : ahead.peekLast(), fetchNext));
+         IterableWithMarker<T> page;
+         try {
+            page = next.get();
+         } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            close();
+            throw Throwables.propagate(e);
+         } catch (ExecutionException e) {
+            close();
+            throw Throwables.propagate(e.getCause());
+         }
+         if (page == null) {
+            close();
+            return endOfData();
+         }
+         return page;
+      }
+
+      /**
+       * Cancels the pages requested ahead, and interrupts their requests.
+       */
+      @Override
+      public void close() {
+         closed = true;
+         for (ListenableFuture<IterableWithMarker<T>> future : ahead)
+            future.cancel(true);
+         ahead.clear();
+         for (Future<?> fetch : fetching)
+            fetch.cancel(true);
+      }
+
+      @Override
+      public String toString() {
+         return MoreObjects.toStringHelper("").add("initial", initial).add("ahead", ahead.size()).toString();
+      }
+   }
+
    private static class AdvancingIterator<T> extends AbstractIterator<IterableWithMarker<T>> {
 
       private final Function<Object, IterableWithMarker<T>> markerToNext;
@@ -0,0 +1,423 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.date.internal;
+
+import java.util.Date;
+
+import javax.inject.Singleton;
+
+import org.jclouds.date.DateService;
+
+/**
+ * Parses and formats dates by hand, in GMT, without locks or regular expressions, so that it can be shared by any
+ * number of threads.
+ * <p>
+ * Parsing accepts what {@link SimpleDateFormatDateService} accepts for the formats seen in responses: ISO 8601 with
+ * a {@code T} or space separator, any number of fraction digits and a {@code Z}, {@code UTC}, {@code +/-hh},
+ * {@code +/-hhmm} or {@code +/-hh:mm} zone (GMT if absent), and RFC 822/1123 and C dates with or without a day name and
+ * with a {@code GMT}, {@code UTC} or {@code +/-hhmm} zone.
+ */
+@Singleton
+public class LockFreeDateService implements DateService {
+
+   private static final String[] DAY_NAMES = { "Thu", "Fri", "Sat", "Sun", "Mon", "Tue", "Wed" };
+   private static final String[] MONTH_NAMES = { "Jan", "Feb", "Mar", "Apr", "May", "Jun", "Jul", "Aug", "Sep",
+         "Oct", "Nov", "Dec" };
+   private static final long MILLIS_PER_DAY = 24 * 60 * 60 * 1000L;
+
+   private enum Fraction {
+      REQUIRED, OPTIONAL, FORBIDDEN;
+   }
+
+   @Override
+   public final String cDateFormat(Date date) {
+      Fields f = new Fields(date.getTime());
+      StringBuilder builder = new StringBuilder(30);
+      builder.append(DAY_NAMES[f.dayOfWeek]).append(' ').append(MONTH_NAMES[f.month - 1]).append(' ');
+      appendPadded(builder, f.day, 2).append(' ');
+      appendTime(builder, f).append(" +0000 ");
+      return appendPadded(builder, f.year, 4).toString();
+   }
+
+   @Override
+   public final String cDateFormat() {
+      return cDateFormat(new Date());
+   }
+
+   @Override
+   public final Date cDateParse(String toParse) {
+      Cursor c = new Cursor(toParse);
+      c.dayName();
+      c.spaces();
+      int month = c.monthName();
+      c.spaces();
+      int day = c.digits(1, 2);
+      c.spaces();
+      int hour = c.digits(2, 2);
+      c.expect(':');
+      int minute = c.digits(2, 2);
+      c.expect(':');
+      int second = c.digits(2, 2);
+      c.spaces();
+      int offset = c.zone();
+      c.spaces();
+      int year = c.digits(4, 9);
+      c.end();
+      return toDate(c, year, month, day, hour, minute, second, 0, offset);
+   }
+
+   @Override
+   public final String rfc822DateFormat(Date date) {
+      return httpDateFormat(date);
+   }
+
+   @Override
+   public final String rfc822DateFormat() {
+      return rfc822DateFormat(new Date());
+   }
+
+   @Override
+   public final Date rfc822DateParse(String toParse) {
+      return httpDateParse(toParse);
+   }
+
+   @Override
+   public final String rfc1123DateFormat(Date date) {
+      return httpDateFormat(date);
+   }
+
+   @Override
+   public final String rfc1123DateFormat() {
+      return rfc1123DateFormat(new Date());
+   }
+
+   @Override
+   public final Date rfc1123DateParse(String toParse) {
+      return httpDateParse(toParse);
+   }
+
+   @Override
+   public final String iso8601DateFormat(Date date) {
+      Fields f = new Fields(date.getTime());
+      StringBuilder builder = new StringBuilder(24);
+      appendDateAndTime(builder, f).append('.');
+      return appendPadded(builder, f.millis, 3).append('Z').toString();
+   }
+
+   @Override
+   public final String iso8601DateFormat() {
+      return iso8601DateFormat(new Date());
+   }
+
+   @Override
+   public final String iso8601SecondsDateFormat(Date date) {
+      StringBuilder builder = new StringBuilder(20);
+      return appendDateAndTime(builder, new Fields(date.getTime())).append('Z').toString();
+   }
+
+   @Override
+   public final String iso8601SecondsDateFormat() {
+      return iso8601SecondsDateFormat(new Date());
+   }
+
+   @Override
+   public final Date iso8601DateParse(String toParse) {
+      return iso8601Parse(toParse, Fraction.REQUIRED);
+   }
+
+   @Override
+   public final Date iso8601SecondsDateParse(String toParse) {
+      return iso8601Parse(toParse, Fraction.FORBIDDEN);
+   }
+
+   @Override
+   public final Date iso8601DateOrSecondsDateParse(String toParse) {
+      return iso8601Parse(toParse, Fraction.OPTIONAL);
+   }
+
+   private static Date iso8601Parse(String toParse, Fraction fraction) {
+      Cursor c = new Cursor(toParse);
+      int year = c.digits(4, 4);
+      c.expect('-');
+      int month = c.digits(2, 2);
+      c.expect('-');
+      int day = c.digits(2, 2);
+      if (!c.consume('T') && !c.consume(' '))
+         throw c.error();
+      int hour = c.digits(2, 2);
+      c.expect(':');
+      int minute = c.digits(2, 2);
+      c.expect(':');
+      int second = c.digits(2, 2);
+      int millis = 0;
+      if (fraction != Fraction.FORBIDDEN && c.consume('.'))
+         millis = c.fractionMillis();
+      else if (fraction == Fraction.REQUIRED)
+         throw c.error();
+      int offset = c.atEnd() ? 0 : c.zone();
+      c.end();
+      return toDate(c, year, month, day, hour, minute, second, millis, offset);
+   }
+
+   private static String httpDateFormat(Date date) {
+      Fields f = new Fields(date.getTime());
+      StringBuilder builder = new StringBuilder(29);
+      builder.append(DAY_NAMES[f.dayOfWeek]).append(", ");
+      appendPadded(builder, f.day, 2).append(' ').append(MONTH_NAMES[f.month - 1]).append(' ');
+      appendPadded(builder, f.year, 4).append(' ');
+      return appendTime(builder, f).append(" GMT").toString();
+   }
+
+   private static Date httpDateParse(String toParse) {
+      Cursor c = new Cursor(toParse);
+      if (c.dayName()) {
+         c.consume(',');
+         c.spaces();
+      }
+      int day = c.digits(1, 2);
+      c.spaces();
+      int month = c.monthName();
+      c.spaces();
+      int year = c.digits(4, 9);
+      c.spaces();
+      int hour = c.digits(2, 2);
+      c.expect(':');
+      int minute = c.digits(2, 2);
+      c.expect(':');
+      int second = c.digits(2, 2);
+      c.spaces();
+      int offset = c.zone();
+      c.end();
+      return toDate(c, year, month, day, hour, minute, second, 0, offset);
+   }
+
+   private static StringBuilder appendDateAndTime(StringBuilder builder, Fields f) {
+      appendPadded(builder, f.year, 4).append('-');
+      appendPadded(builder, f.month, 2).append('-');
+      appendPadded(builder, f.day, 2).append('T');
+      return appendTime(builder, f);
+   }
+
+   private static StringBuilder appendTime(StringBuilder builder, Fields f) {
+      appendPadded(builder, f.hour, 2).append(':');
+      appendPadded(builder, f.minute, 2).append(':');
+      return appendPadded(builder, f.second, 2);
+   }
+
+   private static StringBuilder appendPadded(StringBuilder builder, int value, int width) {
+      for (int limit = 10, i = 1; i < width; i++, limit *= 10) {
+         if (value < limit)
+            builder.append('0');
+      }
+      return builder.append(value);
+   }
+
+   /**
+    * @param offset
+    *           minutes east of GMT
+    */
+   private static Date toDate(Cursor c, int year, int month, int day, int hour, int minute, int second, int millis,
+         int offset) {
+      if (month < 1 || month > 12 || day < 1 || day > 31 || hour > 23 || minute > 59 || second > 60)
+         throw c.error();
+      long days = daysFromCivil(year, month, day);
+      long seconds = days * 86400 + hour * 3600 + minute * 60 + second - offset * 60L;
+      return new Date(seconds * 1000 + millis);
+   }
+
+   /**
+    * Days since 1970-01-01 in the proleptic Gregorian calendar.
+    *
+    * @see <a href="http://howardhinnant.github.io/date_algorithms.html">chrono-compatible date algorithms</a>
+    */
+   private static long daysFromCivil(long year, int month, int day) {
+      year -= month <= 2 ? 1 : 0;
+      long era = (year >= 0 ? year : year - 399) / 400;
+      long yearOfEra = year - era * 400;
+      long dayOfYear = (153 * (month + (month > 2 ? -3 : 9)) + 2) / 5 + day - 1;
+      long dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+      return era * 146097 + dayOfEra - 719468;
+   }
+
+   /**
+    * The GMT calendar fields of an instant.
+    */
+   private static final class Fields {
+      private final int year;
+      private final int month;
+      private final int day;
+      private final int dayOfWeek;
+      private final int hour;
+      private final int minute;
+      private final int second;
+      private final int millis;
+
+      private Fields(long time) {
+         long days = time / MILLIS_PER_DAY;
+         long millisOfDay = time % MILLIS_PER_DAY;
+         if (millisOfDay < 0) {
+            millisOfDay += MILLIS_PER_DAY;
+            days--;
+         }
+         dayOfWeek = (int) (((days % 7) + 7) % 7);
+         hour = (int) (millisOfDay / 3600000);
+         minute = (int) (millisOfDay / 60000 % 60);
+         second = (int) (millisOfDay / 1000 % 60);
+         millis = (int) (millisOfDay % 1000);
+
+         // inverse of daysFromCivil
+         long shifted = days + 719468;
+         long era = (shifted >= 0 ? shifted : shifted - 146096) / 146097;
+         long dayOfEra = shifted - era * 146097;
+         long yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+         long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+         long shiftedMonth = (5 * dayOfYear + 2) / 153;
+         day = (int) (dayOfYear - (153 * shiftedMonth + 2) / 5 + 1);
+         month = (int) (shiftedMonth < 10 ? shiftedMonth + 3 : shiftedMonth - 9);
+         year = (int) (yearOfEra + era * 400 + (month <= 2 ? 1 : 0));
+      }
+   }
+
+   private static final class Cursor {
+      private final String input;
+      private int pos;
+
+      private Cursor(String input) {
+         this.input = input;
+      }
+
+      private IllegalArgumentException error() {
+         return new IllegalArgumentException("Error parsing data at " + pos + ": " + input);
+      }
+
+      private boolean atEnd() {
+         return pos >= input.length();
+      }
+
+      private void end() {
+         if (!atEnd())
+            throw error();
+      }
+
+      private boolean consume(char expected) {
+         if (!atEnd() && input.charAt(pos) == expected) {
+            pos++;
+            return true;
+         }
+         return false;
+      }
+
+      private void expect(char expected) {
+         if (!consume(expected))
+            throw error();
+      }
+
+      private void spaces() {
+         if (!consume(' '))
+            throw error();
+         while (consume(' '))
+            ;
+      }
+
+      private boolean consumeIgnoreCase(String expected) {
+         if (input.regionMatches(true, pos, expected, 0, expected.length())) {
+            pos += expected.length();
+            return true;
+         }
+         return false;
+      }
+
+      private int digits(int min, int max) {
+         int value = 0;
+         int start = pos;
+         while (!atEnd() && pos - start < max) {
+            char ch = input.charAt(pos);
+            if (ch < '0' || ch > '9')
+               break;
+            value = value * 10 + ch - '0';
+            pos++;
+         }
+         if (pos - start < min)
+            throw error();
+         return value;
+      }
+
+      /**
+       * Reads any number of fraction digits, keeping the milliseconds.
+       */
+      private int fractionMillis() {
+         int millis = 0;
+         int start = pos;
+         while (!atEnd()) {
+            char ch = input.charAt(pos);
+            if (ch < '0' || ch > '9')
+               break;
+            if (pos - start < 3)
+               millis = millis * 10 + ch - '0';
+            pos++;
+         }
+         int count = pos - start;
+         if (count == 0)
+            throw error();
+         for (; count < 3; count++)
+            millis *= 10;
+         return millis;
+      }
+
+      /**
+       * Skips a day name, if present; it is redundant with the date.
+       */
+      private boolean dayName() {
+         for (String name : DAY_NAMES) {
+            if (consumeIgnoreCase(name))
+               return true;
+         }
+         return false;
+      }
+
+      private int monthName() {
+         for (int i = 0; i < MONTH_NAMES.length; i++) {
+            if (consumeIgnoreCase(MONTH_NAMES[i]))
+               return i + 1;
+         }
+         throw error();
+      }
+
+      /**
+       * @return the offset of the zone, in minutes east of GMT
+       */
+      private int zone() {
+         if (consume('Z'))
+            return 0;
+         if (consumeIgnoreCase("GMT") || consumeIgnoreCase("UTC") || consumeIgnoreCase("UT")) {
+            if (atEnd() || input.charAt(pos) == ' ')
+               return 0;
+         }
+         int sign;
+         if (consume('+'))
+            sign = 1;
+         else if (consume('-'))
+            sign = -1;
+         else
+            throw error();
+         int hours = digits(2, 2);
+         consume(':');
+         int minutes = atEnd() || input.charAt(pos) == ' ' ? 0 : digits(2, 2);
+         return sign * (hours * 60 + minutes);
+      }
+   }
+}
@@ -0,0 +1,42 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.http;
+
+/**
+ * Receives the {@link HttpCommandMetrics} of each command once the executor is done with it, for example to publish
+ * per-call latency to a metrics system.
+ * <p>
+ * Nothing is notified unless a listener is bound in a context module. As listeners are called on the io threads, they
+ * should not block. Listeners needing the provider or api id can inject them, as they are bound per context.
+ */
+public interface HttpCommandListener {
+
+   HttpCommandListener NONE = new HttpCommandListener() {
+      public void commandCompleted(HttpCommand command, HttpCommandMetrics metrics) {
+      }
+
+      @Override
+      public String toString() {
+         return "NONE";
+      }
+   };
+
+   /**
+    * Called once per command, after its final attempt, whether it succeeded or not.
+    */
+   void commandCompleted(HttpCommand command, HttpCommandMetrics metrics);
+}
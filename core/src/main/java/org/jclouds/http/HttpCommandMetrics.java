@@ -0,0 +1,185 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.http;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import org.jclouds.javax.annotation.Nullable;
+import org.jclouds.reflect.Invocation;
+import org.jclouds.rest.RequestSigner;
+import org.jclouds.rest.internal.GeneratedHttpRequest;
+
+import com.google.common.base.MoreObjects;
+
+/**
+ * Timings and sizes of an {@link HttpCommand}, summed over all of its attempts.
+ * <p>
+ * Time spent connecting is counted in whichever phase first writes to the connection: {@link #getSendNanos()} for
+ * requests with a payload, otherwise {@link #getFirstByteNanos()}. Sizes are the declared content lengths, or -1 when
+ * unknown, as the response payload is only read after the command completes.
+ */
+public final class HttpCommandMetrics {
+
+   public static Builder builder() {
+      return new Builder();
+   }
+
+   public static final class Builder {
+      private int attempts;
+      private long filterNanos;
+      private long signNanos;
+      private long sendNanos;
+      private long firstByteNanos;
+      private long bytesOut = -1;
+      private long bytesIn = -1;
+      private int statusCode = -1;
+
+      public Builder attempt() {
+         attempts++;
+         return this;
+      }
+
+      /**
+       * Time spent in a filter; filters which are {@link RequestSigner}s are counted as signing.
+       */
+      public Builder filtered(HttpRequestFilter filter, long nanos) {
+         if (filter instanceof RequestSigner)
+            signNanos += nanos;
+         else
+            filterNanos += nanos;
+         return this;
+      }
+
+      public Builder sent(HttpRequest request, long nanos) {
+         sendNanos += nanos;
+         bytesOut = contentLength(request);
+         return this;
+      }
+
+      public Builder received(HttpResponse response, long nanos) {
+         firstByteNanos += nanos;
+         statusCode = response.getStatusCode();
+         bytesIn = contentLength(response);
+         return this;
+      }
+
+      private static long contentLength(HttpMessage message) {
+         if (message.getPayload() == null)
+            return 0;
+         Long length = message.getPayload().getContentMetadata().getContentLength();
+         return length != null ? length : -1;
+      }
+
+      public HttpCommandMetrics build(HttpCommand command, long totalNanos) {
+         HttpRequest request = checkNotNull(command, "command").getCurrentRequest();
+         Invocation invocation = request instanceof GeneratedHttpRequest ? GeneratedHttpRequest.class.cast(request)
+               .getInvocation() : null;
+         return new HttpCommandMetrics(invocation, attempts, totalNanos, filterNanos, signNanos, sendNanos,
+               firstByteNanos, bytesOut, bytesIn, statusCode, command.getException());
+      }
+   }
+
+   private final Invocation invocation;
+   private final int attempts;
+   private final long totalNanos;
+   private final long filterNanos;
+   private final long signNanos;
+   private final long sendNanos;
+   private final long firstByteNanos;
+   private final long bytesOut;
+   private final long bytesIn;
+   private final int statusCode;
+   private final Exception exception;
+
+   private HttpCommandMetrics(@Nullable Invocation invocation, int attempts, long totalNanos, long filterNanos,
+         long signNanos, long sendNanos, long firstByteNanos, long bytesOut, long bytesIn, int statusCode,
+         @Nullable Exception exception) {
+      this.invocation = invocation;
+      this.attempts = attempts;
+      this.totalNanos = totalNanos;
+      this.filterNanos = filterNanos;
+      this.signNanos = signNanos;
+      this.sendNanos = sendNanos;
+      this.firstByteNanos = firstByteNanos;
+      this.bytesOut = bytesOut;
+      this.bytesIn = bytesIn;
+      this.statusCode = statusCode;
+      this.exception = exception;
+   }
+
+   /**
+    * @return the api method that created the request, or null if it was not created by an api
+    */
+   @Nullable
+   public Invocation getInvocation() {
+      return invocation;
+   }
+
+   public int getRetries() {
+      return Math.max(0, attempts - 1);
+   }
+
+   public long getTotalNanos() {
+      return totalNanos;
+   }
+
+   public long getFilterNanos() {
+      return filterNanos;
+   }
+
+   public long getSignNanos() {
+      return signNanos;
+   }
+
+   public long getSendNanos() {
+      return sendNanos;
+   }
+
+   public long getFirstByteNanos() {
+      return firstByteNanos;
+   }
+
+   public long getBytesOut() {
+      return bytesOut;
+   }
+
+   public long getBytesIn() {
+      return bytesIn;
+   }
+
+   /**
+    * @return the status of the last response received, or -1 if none was
+    */
+   public int getStatusCode() {
+      return statusCode;
+   }
+
+   @Nullable
+   public Exception getException() {
+      return exception;
+   }
+
+   @Override
+   public String toString() {
+      return MoreObjects.toStringHelper(this).omitNullValues()
+            .add("method", invocation != null ? invocation.getInvokable().getOwnerType().getRawType().getSimpleName()
+                  + "." + invocation.getInvokable().getName() : null).add("retries", getRetries())
+            .add("totalNanos", totalNanos).add("filterNanos", filterNanos).add("signNanos", signNanos)
+            .add("sendNanos", sendNanos).add("firstByteNanos", firstByteNanos).add("bytesOut", bytesOut)
+            .add("bytesIn", bytesIn).add("statusCode", statusCode).add("exception", exception).toString();
+   }
+}
@@ -32,6 +32,7 @@ import org.jclouds.json.internal.GsonWrapper;
 import org.jclouds.logging.Logger;
 import org.jclouds.util.Closeables2;
 
+import com.google.common.base.Charsets;
 import com.google.common.base.Function;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
@@ -66,7 +67,7 @@ public class ParseFirstJsonValueNamed<T> implements Function<HttpResponse, T> {
          return nothing();
       JsonReader reader = null;
       try {
-         reader = new JsonReader(new InputStreamReader(arg0.getPayload().getInput()));
+         reader = new JsonReader(new InputStreamReader(arg0.getPayload().getInput(), Charsets.UTF_8));
          // in case keys are not in quotes
          reader.setLenient(true);
          AtomicReference<String> name = Atomics.newReference();
@@ -20,6 +20,7 @@ import static org.jclouds.http.HttpUtils.releasePayload;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.lang.reflect.Type;
 
 import javax.annotation.Resource;
@@ -30,8 +31,8 @@ import org.jclouds.http.HttpResponse;
 import org.jclouds.http.HttpResponseException;
 import org.jclouds.json.Json;
 import org.jclouds.logging.Logger;
-import org.jclouds.util.Strings2;
 
+import com.google.common.base.Charsets;
 import com.google.common.base.Function;
 import com.google.inject.TypeLiteral;
 
@@ -79,7 +80,7 @@ public class ParseJson<T> implements Function<HttpResponse, T> {
    @SuppressWarnings("unchecked")
    public <V> V apply(InputStream stream, Type type) throws IOException {
       try {
-         return (V) json.fromJson(Strings2.toStringAndClose(stream), type);
+         return (V) json.fromJson(new InputStreamReader(stream, Charsets.UTF_8), type);
       } finally {
          if (stream != null)
             stream.close();
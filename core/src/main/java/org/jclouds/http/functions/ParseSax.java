@@ -18,9 +18,10 @@ package org.jclouds.http.functions;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
-import static org.jclouds.http.HttpUtils.closeClientButKeepContentStream;
+import static com.google.common.base.Charsets.UTF_8;
 import static org.jclouds.util.Closeables2.closeQuietly;
 
+import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.StringReader;
@@ -52,7 +53,12 @@ public class ParseSax<T> implements Function<HttpResponse, T>, InvocationContext
    @Resource
    private Logger logger = Logger.NULL;
 
-   private final XMLReader parser;
+   /**
+    * How much of an error or traced response body is kept to describe parse failures.
+    */
+   static final int MAX_SOURCE_LENGTH = 8192;
+
+   private final XMLReaderPool parsers;
    private final HandlerWithResult<T> handler;
    private HttpRequest request;
 
@@ -60,8 +66,32 @@ public class ParseSax<T> implements Function<HttpResponse, T>, InvocationContext
       <T> ParseSax<T> create(HandlerWithResult<T> handler);
    }
 
-   public ParseSax(XMLReader parser, HandlerWithResult<T> handler) {
-      this.parser = checkNotNull(parser, "parser");
+   /**
+    * Supplies the parsers used by {@link ParseSax}. A reader is released once the document it was acquired for has
+    * been parsed successfully, so implementations may hand it out again.
+    */
+   public interface XMLReaderPool {
+      XMLReader acquire();
+
+      void release(XMLReader parser);
+   }
+
+   public ParseSax(final XMLReader parser, HandlerWithResult<T> handler) {
+      this(new XMLReaderPool() {
+         @Override
+         public XMLReader acquire() {
+            return parser;
+         }
+
+         @Override
+         public void release(XMLReader parser) {
+         }
+      }, handler);
+      checkNotNull(parser, "parser");
+   }
+
+   public ParseSax(XMLReaderPool parsers, HandlerWithResult<T> handler) {
+      this.parsers = checkNotNull(parsers, "parsers");
       this.handler = checkNotNull(handler, "handler");
    }
 
@@ -77,7 +107,7 @@ public class ParseSax<T> implements Function<HttpResponse, T>, InvocationContext
          // debug is more normally set, so trace is more appropriate for
          // something heavy like this
          if (from.getStatusCode() >= 300 || logger.isTraceEnabled())
-            return convertStreamToStringAndParse(from);
+            return parseKeepingSource(from);
          is = from.getPayload().getInput();
          return parse(new InputSource(is));
       } catch (RuntimeException e) {
@@ -88,14 +118,19 @@ public class ParseSax<T> implements Function<HttpResponse, T>, InvocationContext
       }
    }
 
-   private T convertStreamToStringAndParse(HttpResponse response) {
-      String from = null;
+   /**
+    * Parses the response as it streams in, keeping only the first {@link #MAX_SOURCE_LENGTH} bytes to describe a
+    * failure, rather than buffering the whole body.
+    */
+   private T parseKeepingSource(HttpResponse response) {
+      SourceKeepingInputStream source = null;
       try {
-         from = new String(closeClientButKeepContentStream(response));
-         validateXml(from);
-         return doParse(new InputSource(new StringReader(from)));
+         source = new SourceKeepingInputStream(response.getPayload().openStream(), MAX_SOURCE_LENGTH);
+         return doParse(new InputSource(source));
       } catch (Exception e) {
-         return addDetailsAndPropagate(response, e, from);
+         return addDetailsAndPropagate(response, e, source != null ? source.getSource() : null);
+      } finally {
+         closeQuietly(source);
       }
    }
 
@@ -132,9 +167,12 @@ public class ParseSax<T> implements Function<HttpResponse, T>, InvocationContext
    protected T doParse(InputSource from) throws IOException, SAXException {
       checkNotNull(from, "xml inputsource");
       from.setEncoding("UTF-8");
+      XMLReader parser = parsers.acquire();
       parser.setContentHandler(getHandler());
       // This method should accept documents with a BOM (Byte-order mark)
       parser.parse(from);
+      // readers that failed are dropped, as their state is unknown
+      parsers.release(parser);
       return getHandler().getResult();
    }
 
@@ -220,4 +258,65 @@ public class ParseSax<T> implements Function<HttpResponse, T>, InvocationContext
       this.request = request;
       return this;
    }
+
+   /**
+    * Keeps a bounded prefix of what has been read, so that it can be reported when parsing fails.
+    */
+   static class SourceKeepingInputStream extends FilterInputStream {
+      private final byte[] source;
+      private int length;
+      private boolean truncated;
+
+      SourceKeepingInputStream(InputStream in, int maxSourceLength) {
+         super(checkNotNull(in, "input"));
+         this.source = new byte[maxSourceLength];
+      }
+
+      @Override
+      public int read() throws IOException {
+         int b = in.read();
+         if (b != -1)
+            keep(new byte[] { (byte) b }, 0, 1);
+         return b;
+      }
+
+      @Override
+      public int read(byte[] b, int off, int len) throws IOException {
+         int read = in.read(b, off, len);
+         if (read > 0)
+            keep(b, off, read);
+         return read;
+      }
+
+      @Override
+      public boolean markSupported() {
+         return false;
+      }
+
+      private void keep(byte[] b, int off, int len) {
+         int kept = Math.min(len, source.length - length);
+         System.arraycopy(b, off, source, length, kept);
+         length += kept;
+         truncated |= kept < len;
+      }
+
+      /**
+       * Returns the kept prefix, first reading what the parser left unread, up to the limit.
+       */
+      String getSource() {
+         try {
+            while (length < source.length) {
+               int read = in.read(source, length, source.length - length);
+               if (read == -1)
+                  break;
+               length += read;
+            }
+            if (!truncated && length == source.length && in.read() != -1)
+               truncated = true;
+         } catch (IOException e) {
+            // keep what we have
+         }
+         return new String(source, 0, length, UTF_8) + (truncated ? "..." : "");
+      }
+   }
 }
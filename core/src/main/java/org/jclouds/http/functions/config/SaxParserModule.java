@@ -16,14 +16,17 @@
  */
 package org.jclouds.http.functions.config;
 
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
 import javax.inject.Inject;
 import javax.inject.Singleton;
-import javax.xml.parsers.SAXParser;
 import javax.xml.parsers.SAXParserFactory;
 
 import org.jclouds.http.functions.ParseSax;
 import org.jclouds.http.functions.ParseSax.HandlerWithResult;
 import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.DefaultHandler;
 
 import com.google.common.base.Throwables;
 import com.google.inject.AbstractModule;
@@ -41,28 +44,54 @@ public class SaxParserModule extends AbstractModule {
    }
 
    static class Factory implements ParseSax.Factory {
-      private final SAXParserFactory factory;
       private final Injector i;
+      private final ParseSax.XMLReaderPool parsers;
 
       @Inject
       Factory(SAXParserFactory factory, Injector i) {
-         this.factory = factory;
          this.i = i;
+         this.parsers = new XMLReaderPool(factory);
       }
 
       public <T> ParseSax<T> create(HandlerWithResult<T> handler) {
-         SAXParser saxParser;
+         // TODO: switch to @AssistedInject
+         ParseSax<T> returnVal = new ParseSax<T>(parsers, handler);
+         i.injectMembers(returnVal);
+         return returnVal;
+      }
+   }
+
+   /**
+    * Reuses idle readers instead of creating a parser per response. At most {@link #MAX_IDLE} readers are kept.
+    */
+   static class XMLReaderPool implements ParseSax.XMLReaderPool {
+      static final int MAX_IDLE = 32;
+      private static final DefaultHandler NO_OP_HANDLER = new DefaultHandler();
+
+      private final SAXParserFactory factory;
+      private final BlockingQueue<XMLReader> idle = new ArrayBlockingQueue<XMLReader>(MAX_IDLE);
+
+      XMLReaderPool(SAXParserFactory factory) {
+         this.factory = factory;
+      }
+
+      @Override
+      public XMLReader acquire() {
+         XMLReader parser = idle.poll();
+         if (parser != null)
+            return parser;
          try {
-            saxParser = factory.newSAXParser();
-            XMLReader parser = saxParser.getXMLReader();
-            // TODO: switch to @AssistedInject
-            ParseSax<T> returnVal = new ParseSax<T>(parser, handler);
-            i.injectMembers(returnVal);
-            return returnVal;
+            return factory.newSAXParser().getXMLReader();
          } catch (Exception e) {
             throw Throwables.propagate(e);
          }
+      }
 
+      @Override
+      public void release(XMLReader parser) {
+         // don't hold on to the last handler and its result
+         parser.setContentHandler(NO_OP_HANDLER);
+         idle.offer(parser);
       }
    }
 
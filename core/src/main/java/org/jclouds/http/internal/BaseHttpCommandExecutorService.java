@@ -32,6 +32,8 @@ import javax.inject.Named;
 import org.jclouds.Constants;
 import org.jclouds.http.HttpCommand;
 import org.jclouds.http.HttpCommandExecutorService;
+import org.jclouds.http.HttpCommandListener;
+import org.jclouds.http.HttpCommandMetrics;
 import org.jclouds.http.HttpRequest;
 import org.jclouds.http.HttpRequestFilter;
 import org.jclouds.http.HttpResponse;
@@ -63,6 +65,9 @@ public abstract class BaseHttpCommandExecutorService<Q> implements HttpCommandEx
 
    protected final HttpWire wire;
 
+   @com.google.inject.Inject(optional = true)
+   protected HttpCommandListener listener = HttpCommandListener.NONE;
+
    @Inject
    protected BaseHttpCommandExecutorService(HttpUtils utils, ContentMetadataCodec contentMetadataCodec,
          @Named(Constants.PROPERTY_IO_WORKER_THREADS) ListeningExecutorService ioExecutor,
@@ -80,20 +85,34 @@ public abstract class BaseHttpCommandExecutorService<Q> implements HttpCommandEx
    @Override
    public HttpResponse invoke(HttpCommand command) {
       HttpResponse response = null;
+      // metrics are only recorded for a listener
+      HttpCommandMetrics.Builder metrics = listener != HttpCommandListener.NONE ? HttpCommandMetrics.builder() : null;
+      long started = metrics != null ? System.nanoTime() : 0;
       for (;;) {
          HttpRequest request = command.getCurrentRequest();
          Q nativeRequest = null;
+         if (metrics != null)
+            metrics.attempt();
          try {
             for (HttpRequestFilter filter : request.getFilters()) {
+               long filterStarted = metrics != null ? System.nanoTime() : 0;
                request = filter.filter(request);
+               if (metrics != null)
+                  metrics.filtered(filter, System.nanoTime() - filterStarted);
             }
             checkRequestHasContentLengthOrChunkedEncoding(request,
                   "After filtering, the request has neither chunked encoding nor content length: " + request);
             logger.debug("Sending request %s: %s", request.hashCode(), request.getRequestLine());
             wirePayloadIfEnabled(wire, request);
             utils.logRequest(headerLog, request, ">>");
+            long sendStarted = metrics != null ? System.nanoTime() : 0;
             nativeRequest = convert(request);
+            long sent = metrics != null ? System.nanoTime() : 0;
+            if (metrics != null)
+               metrics.sent(request, sent - sendStarted);
             response = invoke(nativeRequest);
+            if (metrics != null)
+               metrics.received(response, System.nanoTime() - sent);
 
             logger.debug("Receiving response %s: %s", request.hashCode(), response.getStatusLine());
             utils.logResponse(headerLog, response, "<<");
@@ -122,11 +141,21 @@ public abstract class BaseHttpCommandExecutorService<Q> implements HttpCommandEx
             cleanup(nativeRequest);
          }
       }
+      if (metrics != null)
+         notifyListener(command, metrics, System.nanoTime() - started);
       if (command.getException() != null)
          throw propagate(command.getException());
       return response;
    }
 
+   private void notifyListener(HttpCommand command, HttpCommandMetrics.Builder metrics, long totalNanos) {
+      try {
+         listener.commandCompleted(command, metrics.build(command, totalNanos));
+      } catch (RuntimeException e) {
+         logger.warn(e, "error notifying %s of the completion of %s", listener, command);
+      }
+   }
+
    private boolean shouldContinue(HttpCommand command, HttpResponse response) {
       boolean shouldContinue = false;
       if (retryHandler.shouldRetryRequest(command, response)) {
@@ -0,0 +1,184 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.http.internal;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.net.URI;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.inject.Singleton;
+import javax.net.ssl.HandshakeCompletedEvent;
+import javax.net.ssl.HandshakeCompletedListener;
+import javax.net.ssl.SSLSocket;
+import javax.net.ssl.SSLSocketFactory;
+
+import com.google.common.base.MoreObjects;
+
+/**
+ * Per-host counters of the requests sent by {@link JavaUrlHttpCommandExecutorService}, keyed by {@code host:port}.
+ * <p>
+ * New connections, and the time spent connecting and completing the TLS handshake, can only be observed for HTTPS
+ * endpoints, through the socket factories returned by {@link #track(SSLSocketFactory)}. Requests that didn't open a
+ * connection were served from the JDK keep-alive cache.
+ */
+@Singleton
+public class HttpConnectionStats {
+
+   public static final class HostStats {
+      private final AtomicLong requests = new AtomicLong();
+      private final AtomicLong connectionsOpened = new AtomicLong();
+      private final AtomicLong handshakeNanos = new AtomicLong();
+
+      public long getRequests() {
+         return requests.get();
+      }
+
+      public long getConnectionsOpened() {
+         return connectionsOpened.get();
+      }
+
+      public long getConnectionsReused() {
+         return Math.max(0, requests.get() - connectionsOpened.get());
+      }
+
+      public long getHandshakeTime(TimeUnit unit) {
+         return unit.convert(handshakeNanos.get(), TimeUnit.NANOSECONDS);
+      }
+
+      @Override
+      public String toString() {
+         return MoreObjects.toStringHelper(this).add("requests", getRequests())
+               .add("connectionsOpened", getConnectionsOpened()).add("connectionsReused", getConnectionsReused())
+               .add("handshakeMillis", getHandshakeTime(TimeUnit.MILLISECONDS)).toString();
+      }
+   }
+
+   private final ConcurrentMap<String, HostStats> hosts = new ConcurrentHashMap<String, HostStats>();
+
+   /**
+    * @return a live view of the counters of every host a request was sent to
+    */
+   public Map<String, HostStats> asMap() {
+      return Collections.unmodifiableMap(hosts);
+   }
+
+   void requestSent(URI endpoint) {
+      int port = endpoint.getPort();
+      if (port == -1)
+         port = "https".equalsIgnoreCase(endpoint.getScheme()) ? 443 : 80;
+      forHost(endpoint.getHost() + ":" + port).requests.incrementAndGet();
+   }
+
+   void connectionOpened(String host, int port, long handshakeNanos) {
+      HostStats stats = forHost(host + ":" + port);
+      stats.connectionsOpened.incrementAndGet();
+      stats.handshakeNanos.addAndGet(handshakeNanos);
+   }
+
+   private HostStats forHost(String host) {
+      HostStats stats = hosts.get(host);
+      if (stats == null) {
+         HostStats created = new HostStats();
+         stats = hosts.putIfAbsent(host, created);
+         if (stats == null)
+            stats = created;
+      }
+      return stats;
+   }
+
+   /**
+    * Wraps the factory so that the connections it opens are counted. Callers must reuse the returned factory: the
+    * JDK only hands out a kept-alive HTTPS connection to a request using the same socket factory instance.
+    */
+   public SSLSocketFactory track(SSLSocketFactory delegate) {
+      return new CountingSSLSocketFactory(checkNotNull(delegate, "delegate"));
+   }
+
+   private final class CountingSSLSocketFactory extends SSLSocketFactory {
+      private final SSLSocketFactory delegate;
+
+      private CountingSSLSocketFactory(SSLSocketFactory delegate) {
+         this.delegate = delegate;
+      }
+
+      private Socket counted(Socket socket) {
+         if (socket instanceof SSLSocket) {
+            final long start = System.nanoTime();
+            ((SSLSocket) socket).addHandshakeCompletedListener(new HandshakeCompletedListener() {
+
+               @Override
+               public void handshakeCompleted(HandshakeCompletedEvent event) {
+                  event.getSocket().removeHandshakeCompletedListener(this);
+                  connectionOpened(event.getSession().getPeerHost(), event.getSession().getPeerPort(),
+                        System.nanoTime() - start);
+               }
+            });
+         }
+         return socket;
+      }
+
+      @Override
+      public String[] getDefaultCipherSuites() {
+         return delegate.getDefaultCipherSuites();
+      }
+
+      @Override
+      public String[] getSupportedCipherSuites() {
+         return delegate.getSupportedCipherSuites();
+      }
+
+      @Override
+      public Socket createSocket() throws IOException {
+         return counted(delegate.createSocket());
+      }
+
+      @Override
+      public Socket createSocket(Socket s, String host, int port, boolean autoClose) throws IOException {
+         return counted(delegate.createSocket(s, host, port, autoClose));
+      }
+
+      @Override
+      public Socket createSocket(String host, int port) throws IOException {
+         return counted(delegate.createSocket(host, port));
+      }
+
+      @Override
+      public Socket createSocket(String host, int port, InetAddress localHost, int localPort) throws IOException {
+         return counted(delegate.createSocket(host, port, localHost, localPort));
+      }
+
+      @Override
+      public Socket createSocket(InetAddress host, int port) throws IOException {
+         return counted(delegate.createSocket(host, port));
+      }
+
+      @Override
+      public Socket createSocket(InetAddress address, int port, InetAddress localAddress, int localPort)
+            throws IOException {
+         return counted(delegate.createSocket(address, port, localAddress, localPort));
+      }
+   }
+}
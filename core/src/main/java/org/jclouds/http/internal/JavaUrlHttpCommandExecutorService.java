@@ -42,6 +42,7 @@ import javax.inject.Singleton;
 import javax.net.ssl.HostnameVerifier;
 import javax.net.ssl.HttpsURLConnection;
 import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLSocketFactory;
 
 import org.jclouds.Constants;
 import org.jclouds.JcloudsVersion;
@@ -57,6 +58,9 @@ import org.jclouds.io.Payload;
 
 import com.google.common.base.Function;
 import com.google.common.base.Supplier;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
 import com.google.common.collect.ImmutableMultimap;
 import com.google.common.collect.ImmutableMultimap.Builder;
 import com.google.common.io.ByteStreams;
@@ -74,11 +78,32 @@ public class JavaUrlHttpCommandExecutorService extends BaseHttpCommandExecutorSe
    public static final String DEFAULT_USER_AGENT = String.format("jclouds/%s java/%s", JcloudsVersion.get(), System
             .getProperty("java.version"));
 
+   public static final int DEFAULT_CHUNKED_STREAMING_SIZE = 8196;
+
    protected final Supplier<SSLContext> untrustedSSLContextProvider;
    protected final Function<URI, Proxy> proxyForURI;
    protected final HostnameVerifier verifier;
    @Inject(optional = true)
    protected Supplier<SSLContext> sslContextSupplier;
+   @Inject(optional = true)
+   @Named(Constants.PROPERTY_CHUNKED_STREAMING_SIZE)
+   protected int chunkedStreamingSize = DEFAULT_CHUNKED_STREAMING_SIZE;
+   @Inject(optional = true)
+   protected HttpConnectionStats connectionStats = new HttpConnectionStats();
+
+   /**
+    * The JDK only reuses a kept-alive HTTPS connection for a request with the same socket factory instance, and
+    * {@link SSLContext#getSocketFactory()} returns a new one on each call, so they are cached per context (or per
+    * default factory).
+    */
+   private final LoadingCache<Object, SSLSocketFactory> socketFactories = CacheBuilder.newBuilder().weakKeys()
+         .build(new CacheLoader<Object, SSLSocketFactory>() {
+            @Override
+            public SSLSocketFactory load(Object key) {
+               return connectionStats.track(key instanceof SSLContext ? SSLContext.class.cast(key)
+                     .getSocketFactory() : SSLSocketFactory.class.cast(key));
+            }
+         });
 
    @Inject
    public JavaUrlHttpCommandExecutorService(HttpUtils utils, ContentMetadataCodec contentMetadataCodec,
@@ -150,6 +175,7 @@ public class JavaUrlHttpCommandExecutorService extends BaseHttpCommandExecutorSe
       boolean chunked = "chunked".equals(request.getFirstHeaderOrNull("Transfer-Encoding"));
 
       HttpURLConnection connection = initConnection(request);
+      connectionStats.requestSent(request.getEndpoint());
       connection.setConnectTimeout(utils.getConnectionTimeout());
       connection.setReadTimeout(utils.getSocketOpenTimeout());
       connection.setAllowUserInteraction(false);
@@ -176,7 +202,7 @@ public class JavaUrlHttpCommandExecutorService extends BaseHttpCommandExecutorSe
             connection.setRequestProperty(entry.getKey(), entry.getValue());
          }
          if (chunked) {
-            connection.setChunkedStreamingMode(8196);
+            connection.setChunkedStreamingMode(chunkedStreamingSize);
             writePayloadToConnection(payload, "streaming", connection);
          } else {
             long length = checkNotNull(md.getContentLength(), "payload.getContentLength");
@@ -207,9 +233,11 @@ public class JavaUrlHttpCommandExecutorService extends BaseHttpCommandExecutorSe
          if (sslContextSupplier != null) {
              // used for providers which e.g. use certs for authentication (like FGCP)
              // Provider provides SSLContext impl (which inits context with key manager)
-             sslCon.setSSLSocketFactory(sslContextSupplier.get().getSocketFactory());
+             sslCon.setSSLSocketFactory(socketFactories.getUnchecked(sslContextSupplier.get()));
          } else if (utils.trustAllCerts()) {
-             sslCon.setSSLSocketFactory(untrustedSSLContextProvider.get().getSocketFactory());
+             sslCon.setSSLSocketFactory(socketFactories.getUnchecked(untrustedSSLContextProvider.get()));
+         } else {
+             sslCon.setSSLSocketFactory(socketFactories.getUnchecked(sslCon.getSSLSocketFactory()));
          }
       }
       return connection;
@@ -308,6 +336,10 @@ public class JavaUrlHttpCommandExecutorService extends BaseHttpCommandExecutorSe
       }
    }
 
+   /**
+    * Only called when the exchange failed, in which case the state of the connection is unknown. Successful responses
+    * return their connection to the JDK keep-alive cache when the payload is closed.
+    */
    @Override
    protected void cleanup(HttpURLConnection connection) {
       if (connection != null)
@@ -16,6 +16,7 @@
  */
 package org.jclouds.json;
 
+import java.io.Reader;
 import java.lang.reflect.Type;
 
 public interface Json {
@@ -43,4 +44,10 @@ public interface Json {
     */
    <T> T fromJson(String json, Class<T> classOfT);
 
+   /**
+    * Deserialize the generic object from json read from the stream, without buffering the whole document. The
+    * reader is not closed.
+    */
+   <T> T fromJson(Reader json, Type type);
+
 }
@@ -23,7 +23,6 @@ import java.net.URI;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicReference;
 
 import javax.inject.Named;
 import javax.inject.Singleton;
@@ -47,9 +46,8 @@ import org.jclouds.location.suppliers.RegionIdsSupplier;
 import org.jclouds.location.suppliers.ZoneIdToURISupplier;
 import org.jclouds.location.suppliers.ZoneIdsSupplier;
 import org.jclouds.reflect.InvocationSuccess;
-import org.jclouds.rest.AuthorizationException;
 import org.jclouds.rest.functions.ImplicitOptionalConverter;
-import org.jclouds.rest.suppliers.MemoizedRetryOnTimeOutButNotOnAuthorizationExceptionSupplier;
+import org.jclouds.rest.suppliers.MemoizedRetryOnTimeOutButNotOnAuthorizationExceptionSupplier.Factory;
 
 import com.google.common.base.Function;
 import com.google.common.base.Optional;
@@ -76,27 +74,24 @@ public class LocationModule extends AbstractModule {
    @Singleton
    @Iso3166
    protected Supplier<Map<String, Supplier<Set<String>>>> isoCodesSupplier(
-            AtomicReference<AuthorizationException> authException, @Named(PROPERTY_SESSION_INTERVAL) long seconds,
+            Factory memoizer, @Named(PROPERTY_SESSION_INTERVAL) long seconds,
             LocationIdToIso3166CodesSupplier uncached) {
-      return MemoizedRetryOnTimeOutButNotOnAuthorizationExceptionSupplier.create(authException, uncached, seconds,
-               TimeUnit.SECONDS);
+      return memoizer.create(uncached, seconds, TimeUnit.SECONDS);
    }
 
    @Provides
    @Singleton
    @Provider
-   protected Supplier<URI> provideProvider(AtomicReference<AuthorizationException> authException,
+   protected Supplier<URI> provideProvider(Factory memoizer,
             @Named(PROPERTY_SESSION_INTERVAL) long seconds, ProviderURISupplier uncached) {
-      return MemoizedRetryOnTimeOutButNotOnAuthorizationExceptionSupplier.create(authException, uncached, seconds,
-               TimeUnit.SECONDS);
+      return memoizer.create(uncached, seconds, TimeUnit.SECONDS);
    }
 
    @Provides
    @Singleton
-   protected Supplier<Location> implicitLocationSupplier(AtomicReference<AuthorizationException> authException,
+   protected Supplier<Location> implicitLocationSupplier(Factory memoizer,
             @Named(PROPERTY_SESSION_INTERVAL) long seconds, ImplicitLocationSupplier uncached) {
-      return MemoizedRetryOnTimeOutButNotOnAuthorizationExceptionSupplier.create(authException, uncached, seconds,
-               TimeUnit.SECONDS);
+      return memoizer.create(uncached, seconds, TimeUnit.SECONDS);
    }
 
    @Provides
@@ -104,29 +99,26 @@ public class LocationModule extends AbstractModule {
    // TODO: we should eventually get rid of memoized as an annotation, as it is confusing
    @Memoized
    protected Supplier<Set<? extends Location>> memoizedLocationsSupplier(
-            AtomicReference<AuthorizationException> authException, @Named(PROPERTY_SESSION_INTERVAL) long seconds,
+            Factory memoizer, @Named(PROPERTY_SESSION_INTERVAL) long seconds,
             LocationsSupplier uncached) {
-      return MemoizedRetryOnTimeOutButNotOnAuthorizationExceptionSupplier.create(authException, uncached, seconds,
-               TimeUnit.SECONDS);
+      return memoizer.create(uncached, seconds, TimeUnit.SECONDS);
    }
 
    @Provides
    @Singleton
    @Region
-   protected Supplier<Set<String>> regionIdsSupplier(AtomicReference<AuthorizationException> authException,
+   protected Supplier<Set<String>> regionIdsSupplier(Factory memoizer,
             @Named(PROPERTY_SESSION_INTERVAL) long seconds, RegionIdFilter filter, RegionIdsSupplier uncached) {
-      return MemoizedRetryOnTimeOutButNotOnAuthorizationExceptionSupplier.create(authException,
-               Suppliers.compose(new FilterStrings(filter), uncached), seconds, TimeUnit.SECONDS);
+      return memoizer.create(Suppliers.compose(new FilterStrings(filter), uncached), seconds, TimeUnit.SECONDS);
    }
    
    @Provides
    @Singleton
    @Zone
    protected Supplier<Set<String>> zoneIdsSupplier(
-            AtomicReference<AuthorizationException> authException, @Named(PROPERTY_SESSION_INTERVAL) long seconds,
+            Factory memoizer, @Named(PROPERTY_SESSION_INTERVAL) long seconds,
             ZoneIdFilter filter, ZoneIdsSupplier uncached) {
-      return MemoizedRetryOnTimeOutButNotOnAuthorizationExceptionSupplier.create(authException,
-               Suppliers.compose(new FilterStrings(filter), uncached), seconds, TimeUnit.SECONDS);
+      return memoizer.create(Suppliers.compose(new FilterStrings(filter), uncached), seconds, TimeUnit.SECONDS);
    }
 
    static class FilterStrings implements Function<Set<String>, Set<String>> {
@@ -153,19 +145,17 @@ public class LocationModule extends AbstractModule {
    @Singleton
    @Region
    protected Supplier<Map<String, Supplier<URI>>> regionIdToURISupplier(
-            AtomicReference<AuthorizationException> authException, @Named(PROPERTY_SESSION_INTERVAL) long seconds,
+            Factory memoizer, @Named(PROPERTY_SESSION_INTERVAL) long seconds,
             RegionIdToURISupplier uncached) {
-      return MemoizedRetryOnTimeOutButNotOnAuthorizationExceptionSupplier.create(authException, uncached, seconds,
-               TimeUnit.SECONDS);
+      return memoizer.create(uncached, seconds, TimeUnit.SECONDS);
    }
 
    @Provides
    @Singleton
    @Region
-   protected Supplier<String> implicitRegionIdSupplier(AtomicReference<AuthorizationException> authException,
+   protected Supplier<String> implicitRegionIdSupplier(Factory memoizer,
             @Named(PROPERTY_SESSION_INTERVAL) long seconds, ImplicitRegionIdSupplier uncached) {
-      return MemoizedRetryOnTimeOutButNotOnAuthorizationExceptionSupplier.create(authException, uncached, seconds,
-               TimeUnit.SECONDS);
+      return memoizer.create(uncached, seconds, TimeUnit.SECONDS);
    }
 
 
@@ -173,19 +163,17 @@ public class LocationModule extends AbstractModule {
    @Singleton
    @Zone
    protected Supplier<Map<String, Supplier<Set<String>>>> regionIdToZoneIdsSupplier(
-            AtomicReference<AuthorizationException> authException, @Named(PROPERTY_SESSION_INTERVAL) long seconds,
+            Factory memoizer, @Named(PROPERTY_SESSION_INTERVAL) long seconds,
             RegionIdToZoneIdsSupplier uncached) {
-      return MemoizedRetryOnTimeOutButNotOnAuthorizationExceptionSupplier.create(authException, uncached, seconds,
-               TimeUnit.SECONDS);
+      return memoizer.create(uncached, seconds, TimeUnit.SECONDS);
    }
 
    @Provides
    @Singleton
    @Zone
    protected Supplier<Map<String, Supplier<URI>>> zoneIdToURISupplier(
-            AtomicReference<AuthorizationException> authException, @Named(PROPERTY_SESSION_INTERVAL) long seconds,
+            Factory memoizer, @Named(PROPERTY_SESSION_INTERVAL) long seconds,
             ZoneIdToURISupplier uncached) {
-      return MemoizedRetryOnTimeOutButNotOnAuthorizationExceptionSupplier.create(authException, uncached, seconds,
-               TimeUnit.SECONDS);
+      return memoizer.create(uncached, seconds, TimeUnit.SECONDS);
    }
 }
@@ -29,6 +29,9 @@ import java.io.IOException;
 import java.io.InputStream;
 
 import javax.annotation.Resource;
+import javax.inject.Named;
+
+import org.jclouds.Constants;
 
 import org.jclouds.io.MutableContentMetadata;
 import org.jclouds.io.Payload;
@@ -37,30 +40,57 @@ import org.jclouds.logging.Logger;
 
 import com.google.common.io.ByteStreams;
 import com.google.common.io.FileBackedOutputStream;
+import com.google.inject.Inject;
 
 /**
  * Logs data to the wire LOG, similar to {@code org.apache.HttpWire.impl.conn.Wire}
+ * <p>
+ * Streams are copied and logged before being handed back, unless {@link Constants#PROPERTY_WIRE_LOG_STREAMING} is
+ * set, in which case they are logged as they are read. {@link Constants#PROPERTY_WIRE_LOG_MAX_BYTES} bounds how much
+ * of each message is logged.
  */
 public abstract class Wire {
 
    @Resource
    protected Logger logger = Logger.NULL;
 
+   @Inject(optional = true)
+   @Named(Constants.PROPERTY_WIRE_LOG_STREAMING)
+   protected boolean streaming;
+
+   @Inject(optional = true)
+   @Named(Constants.PROPERTY_WIRE_LOG_MAX_BYTES)
+   protected long maxBytes = -1;
+
    protected abstract Logger getWireLog();
 
-   private void wire(String header, InputStream instream) {
-      StringBuilder buffer = new StringBuilder();
-      int ch;
-      try {
-         while ((ch = instream.read()) != -1) {
+   /**
+    * Formats the bytes of one message into wire log lines, as they are written to it.
+    */
+   private final class Tap {
+      private final String header;
+      private final StringBuilder buffer = new StringBuilder();
+      private long logged;
+      private boolean truncated;
+
+      private Tap(String header) {
+         this.header = header;
+      }
+
+      private void write(byte[] bytes, int off, int len) {
+         if (truncated)
+            return;
+         if (maxBytes >= 0 && logged + len > maxBytes) {
+            len = (int) (maxBytes - logged);
+            truncated = true;
+         }
+         for (int i = off; i < off + len; i++) {
+            int ch = bytes[i] & 0xff;
             if (ch == 13) {
                buffer.append("[\\r]");
             } else if (ch == 10) {
-               buffer.append("[\\n]\"");
-               buffer.insert(0, "\"");
-               buffer.insert(0, header);
-               getWireLog().debug(buffer.toString());
-               buffer.setLength(0);
+               buffer.append("[\\n]");
+               log();
             } else if ((ch < 32) || (ch > 127)) {
                buffer.append("[0x");
                buffer.append(Integer.toHexString(ch));
@@ -69,12 +99,76 @@ public abstract class Wire {
                buffer.append((char) ch);
             }
          }
-         if (buffer.length() > 0) {
-            buffer.append('\"');
-            buffer.insert(0, '\"');
-            buffer.insert(0, header);
-            getWireLog().debug(buffer.toString());
+         logged += len;
+         if (truncated) {
+            buffer.append("...");
+            close();
          }
+      }
+
+      private void close() {
+         if (buffer.length() > 0)
+            log();
+      }
+
+      private void log() {
+         buffer.append('\"');
+         buffer.insert(0, '\"');
+         buffer.insert(0, header);
+         getWireLog().debug(buffer.toString());
+         buffer.setLength(0);
+      }
+   }
+
+   /**
+    * Logs the bytes read through it, so that the consumer doesn't wait for the whole message to be logged.
+    */
+   private static final class TapInputStream extends FilterInputStream {
+      private final Tap tap;
+      private final byte[] single = new byte[1];
+
+      private TapInputStream(InputStream in, Tap tap) {
+         super(in);
+         this.tap = tap;
+      }
+
+      @Override
+      public int read() throws IOException {
+         int ch = in.read();
+         if (ch != -1) {
+            single[0] = (byte) ch;
+            tap.write(single, 0, 1);
+         }
+         return ch;
+      }
+
+      @Override
+      public int read(byte[] b, int off, int len) throws IOException {
+         int read = in.read(b, off, len);
+         if (read > 0)
+            tap.write(b, off, read);
+         return read;
+      }
+
+      @Override
+      public boolean markSupported() {
+         return false;
+      }
+
+      @Override
+      public void close() throws IOException {
+         tap.close();
+         super.close();
+      }
+   }
+
+   private void wire(String header, InputStream instream) {
+      Tap tap = new Tap(header);
+      byte[] buffer = new byte[8192];
+      try {
+         for (int read; !tap.truncated && (read = instream.read(buffer)) != -1;)
+            tap.write(buffer, 0, read);
+         tap.close();
       } catch (IOException e) {
          logger.error(e, "Error tapping line");
       }
@@ -85,6 +179,8 @@ public abstract class Wire {
    }
 
    public InputStream copy(final String header, InputStream instream) {
+      if (streaming)
+         return new TapInputStream(instream, new Tap(header));
       int limit = 256 * 1024;
       final FileBackedOutputStream out = new FileBackedOutputStream(limit);
       try {
@@ -0,0 +1,193 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.rest.internal;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.Date;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.jclouds.javax.annotation.Nullable;
+
+import com.google.common.base.Function;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.ForwardingLoadingCache;
+import com.google.common.cache.LoadingCache;
+import com.google.common.collect.Maps;
+import com.google.common.util.concurrent.ListenableFutureTask;
+import com.google.common.util.concurrent.Uninterruptibles;
+
+/**
+ * A cache of authentications, such as session tokens, which renews them instead of letting callers reload them on
+ * their own. Reading a value which expires soon renews it on the executor while the caller keeps the current one.
+ * Callers whose token was rejected {@link #renew} it and wait for the new one.
+ * <p>
+ * Renewals of a key are single flight: callers asking while one runs share its result, and callers rejected with a
+ * token which was renewed since get the current one, so a burst of requests failing at once calls the authentication
+ * service once. Renewals ahead of expiry are at least {@code minInterval} apart, so a clock running ahead of the
+ * authentication service does not make every read log in again.
+ */
+public class RenewingLoadingCache<K, V> extends ForwardingLoadingCache<K, V> {
+
+   private static final class Renewal<V> {
+      private final ListenableFutureTask<V> task;
+      private final long started = System.nanoTime();
+      private final AtomicBoolean submitted = new AtomicBoolean();
+
+      private Renewal(ListenableFutureTask<V> task) {
+         this.task = task;
+      }
+   }
+
+   private final LoadingCache<K, V> delegate;
+   private final CacheLoader<K, V> loader;
+   private final Function<? super V, Date> expires;
+   private final Function<? super V, String> token;
+   private final long renewBeforeMillis;
+   private final long minIntervalNanos;
+   private final Executor executor;
+   private final ConcurrentMap<K, Renewal<V>> renewals = Maps.newConcurrentMap();
+   private final AtomicLong renewalCount = new AtomicLong();
+   private final ThreadLocal<Boolean> renewing = new ThreadLocal<Boolean>();
+
+   /**
+    * @param delegate
+    *           cache built from {@code loader}
+    * @param expires
+    *           expiry of a value, or null when it does not expire
+    * @param token
+    *           token of a value, as sent by the requests it authenticates
+    * @param renewBefore
+    *           how long before its expiry a value is renewed
+    * @param minInterval
+    *           how long after a renewal started the next one ahead of expiry may start
+    * @param executor
+    *           runs the renewals ahead of expiry
+    */
+   public RenewingLoadingCache(LoadingCache<K, V> delegate, CacheLoader<K, V> loader,
+         Function<? super V, Date> expires, Function<? super V, String> token, long renewBefore, long minInterval,
+         TimeUnit unit, Executor executor) {
+      this.delegate = checkNotNull(delegate, "delegate");
+      this.loader = checkNotNull(loader, "loader");
+      this.expires = checkNotNull(expires, "expires");
+      this.token = checkNotNull(token, "token");
+      this.renewBeforeMillis = unit.toMillis(renewBefore);
+      this.minIntervalNanos = unit.toNanos(minInterval);
+      this.executor = checkNotNull(executor, "executor");
+   }
+
+   @Override
+   protected LoadingCache<K, V> delegate() {
+      return delegate;
+   }
+
+   @Override
+   public V get(K key) throws ExecutionException {
+      return renewIfExpiring(key, delegate.get(key));
+   }
+
+   @Override
+   public V getUnchecked(K key) {
+      return renewIfExpiring(key, delegate.getUnchecked(key));
+   }
+
+   @Override
+   public V apply(K key) {
+      return getUnchecked(key);
+   }
+
+   /**
+    * Renews the value of {@code key}, or joins the renewal of another caller, and waits for it. Nothing is renewed when
+    * the value was renewed since it issued {@code rejected}, as happens to requests rejected while another one renewed.
+    *
+    * @param rejected
+    *           token the request was rejected with, or null to renew anyway
+    * @throws ExecutionException
+    *            when the renewal failed
+    */
+   public V renew(K key, @Nullable String rejected) throws ExecutionException {
+      if (rejected != null) {
+         V current = delegate.getIfPresent(key);
+         if (current != null && !rejected.equals(token.apply(current)))
+            return current;
+      }
+      ListenableFutureTask<V> task = renewal(key, 0).task;
+      // runs the renewal here unless a thread runs it already, so callers never wait on a queued renewal
+      task.run();
+      return Uninterruptibles.getUninterruptibly(task);
+   }
+
+   /**
+    * @return true when called from a renewal, for instance by the error handlers of the authentication request, which
+    *         must not wait for the renewal they are part of
+    */
+   public boolean isRenewing() {
+      return renewing.get() != null;
+   }
+
+   /**
+    * @return how many times values were renewed
+    */
+   public long getRenewalCount() {
+      return renewalCount.get();
+   }
+
+   private V renewIfExpiring(K key, V value) {
+      Date expiry = expires.apply(value);
+      if (expiry != null && expiry.getTime() - System.currentTimeMillis() <= renewBeforeMillis) {
+         Renewal<V> renewal = renewal(key, minIntervalNanos);
+         if (renewal.submitted.compareAndSet(false, true))
+            executor.execute(renewal.task);
+      }
+      return value;
+   }
+
+   /**
+    * @return the running renewal of {@code key}, or the last one when it started less than {@code intervalNanos} ago,
+    *         or else a new one
+    */
+   private Renewal<V> renewal(final K key, long intervalNanos) {
+      for (;;) {
+         Renewal<V> current = renewals.get(key);
+         if (current != null && (!current.task.isDone() || System.nanoTime() - current.started < intervalNanos))
+            return current;
+         Renewal<V> next = new Renewal<V>(ListenableFutureTask.create(new Callable<V>() {
+            @Override
+            public V call() throws Exception {
+               renewing.set(Boolean.TRUE);
+               try {
+                  V value = loader.load(key);
+                  delegate.put(key, value);
+                  renewalCount.incrementAndGet();
+                  return value;
+               } finally {
+                  renewing.remove();
+               }
+            }
+         }));
+         // the finished renewal is kept to space out the renewals ahead of expiry
+         if (current == null ? renewals.putIfAbsent(key, next) == null : renewals.replace(key, current, next))
+            return next;
+      }
+   }
+}
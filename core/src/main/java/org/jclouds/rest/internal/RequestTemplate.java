@@ -0,0 +1,271 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.rest.internal;
+
+import static com.google.common.base.Throwables.propagate;
+import static org.jclouds.http.HttpUtils.tryFindHttpMethod;
+import static org.jclouds.reflect.Reflection2.getInvokableParameters;
+
+import java.lang.annotation.Annotation;
+import java.util.List;
+import java.util.Set;
+
+import javax.ws.rs.FormParam;
+import javax.ws.rs.HeaderParam;
+import javax.ws.rs.Path;
+import javax.ws.rs.PathParam;
+import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
+
+import org.jclouds.http.HttpRequestFilter;
+import org.jclouds.http.options.HttpRequestOptions;
+import org.jclouds.javax.annotation.Nullable;
+import org.jclouds.rest.Binder;
+import org.jclouds.rest.annotations.BinderParam;
+import org.jclouds.rest.annotations.Endpoint;
+import org.jclouds.rest.annotations.EndpointParam;
+import org.jclouds.rest.annotations.FormParams;
+import org.jclouds.rest.annotations.Headers;
+import org.jclouds.rest.annotations.MapBinder;
+import org.jclouds.rest.annotations.OverrideRequestFilters;
+import org.jclouds.rest.annotations.ParamParser;
+import org.jclouds.rest.annotations.PartParam;
+import org.jclouds.rest.annotations.Payload;
+import org.jclouds.rest.annotations.PayloadParam;
+import org.jclouds.rest.annotations.PayloadParams;
+import org.jclouds.rest.annotations.QueryParams;
+import org.jclouds.rest.annotations.RequestFilters;
+import org.jclouds.rest.annotations.SkipEncoding;
+import org.jclouds.rest.annotations.VirtualHost;
+import org.jclouds.rest.annotations.WrapWith;
+
+import com.google.common.base.Function;
+import com.google.common.base.Functions;
+import com.google.common.base.Optional;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.primitives.Chars;
+import com.google.common.reflect.Invokable;
+import com.google.common.reflect.Parameter;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+
+/**
+ * What {@link RestAnnotationProcessor} reads from the annotations of a method and of its owner type, read once per
+ * method, so that building a request only binds the arguments of the invocation.
+ */
+final class RequestTemplate {
+
+   private static final LoadingCache<Invokable<?, ?>, RequestTemplate> templates = CacheBuilder.newBuilder().build(
+         new CacheLoader<Invokable<?, ?>, RequestTemplate>() {
+            @Override
+            public RequestTemplate load(Invokable<?, ?> invokable) {
+               return new RequestTemplate(invokable);
+            }
+         });
+
+   static RequestTemplate of(Invokable<?, ?> invokable) {
+      try {
+         return templates.getUnchecked(invokable);
+      } catch (UncheckedExecutionException e) {
+         throw propagate(e.getCause());
+      }
+   }
+
+   /**
+    * A parameter bound to a key, such as a {@link PathParam}.
+    */
+   static final class KeyedParameter {
+      final String key;
+      final int index;
+      @Nullable
+      final Class<? extends Function<Object, String>> parser;
+      final boolean nullable;
+
+      private KeyedParameter(String key, Parameter parameter) {
+         this.key = key;
+         this.index = parameter.hashCode(); // guava issue 1243
+         ParamParser paramParser = parameter.getAnnotation(ParamParser.class);
+         this.parser = paramParser != null ? paramParser.value() : null;
+         this.nullable = parameter.isAnnotationPresent(Nullable.class);
+      }
+   }
+
+   /**
+    * A parameter bound to the request by a {@link BinderParam} or a {@link WrapWith}.
+    */
+   static final class BoundParameter {
+      final int index;
+      @Nullable
+      final Class<? extends Binder> binder;
+      @Nullable
+      final String wrapWith;
+      final Class<?> type;
+      final boolean array;
+      final boolean nullable;
+
+      private BoundParameter(Parameter parameter) {
+         this.index = parameter.hashCode();
+         BinderParam binderParam = parameter.getAnnotation(BinderParam.class);
+         this.binder = binderParam != null ? binderParam.value() : null;
+         this.wrapWith = binderParam != null ? null : parameter.getAnnotation(WrapWith.class).value();
+         this.type = parameter.getType().getRawType();
+         this.array = parameter.getType().isArray();
+         this.nullable = parameter.isAnnotationPresent(Nullable.class);
+      }
+   }
+
+   final List<Parameter> parameters;
+   final Optional<String> httpMethod;
+   final List<String> paths;
+   final Optional<List<Character>> skipPathEncoding;
+   final List<FormParams> formParams;
+   final List<QueryParams> queryParams;
+   final List<Headers> headers;
+   final Optional<List<String>> produces;
+   final boolean virtualHost;
+   final Optional<Endpoint> endpoint;
+   final List<Class<? extends HttpRequestFilter>> filters;
+   final Optional<Class<? extends org.jclouds.rest.MapBinder>> mapBinder;
+   final boolean payload;
+   final Optional<String> wrapWith;
+   final Optional<PayloadParams> payloadParams;
+   final Set<Integer> indexesOfOptions;
+   final List<Parameter> endpointParams;
+   final List<KeyedParameter> pathParams;
+   final List<KeyedParameter> formParamParams;
+   final List<KeyedParameter> queryParamParams;
+   final List<KeyedParameter> payloadParamParams;
+   final List<KeyedParameter> headerParams;
+   final List<Parameter> partParams;
+   final List<BoundParameter> boundParams;
+
+   private RequestTemplate(Invokable<?, ?> invokable) {
+      Class<?> owner = invokable.getOwnerType().getRawType();
+      this.parameters = getInvokableParameters(invokable);
+      this.httpMethod = tryFindHttpMethod(invokable);
+      this.paths = onOwnerThenMethod(owner, invokable, Path.class, new Function<Path, String>() {
+         @Override
+         public String apply(Path input) {
+            return input.value();
+         }
+      });
+      // the encoding of the method replaces that of its owner
+      List<List<Character>> skipPathEncoding = onOwnerThenMethod(owner, invokable, SkipEncoding.class,
+            new Function<SkipEncoding, List<Character>>() {
+               @Override
+               public List<Character> apply(SkipEncoding input) {
+                  return ImmutableList.copyOf(Chars.asList(input.value()));
+               }
+            });
+      this.skipPathEncoding = last(skipPathEncoding);
+      this.formParams = onOwnerThenMethod(owner, invokable, FormParams.class, Functions.<FormParams> identity());
+      this.queryParams = onOwnerThenMethod(owner, invokable, QueryParams.class, Functions.<QueryParams> identity());
+      this.headers = onOwnerThenMethod(owner, invokable, Headers.class, Functions.<Headers> identity());
+      // the content type of the method replaces that of its owner
+      this.produces = last(onOwnerThenMethod(owner, invokable, Produces.class,
+            new Function<Produces, List<String>>() {
+               @Override
+               public List<String> apply(Produces input) {
+                  return ImmutableList.copyOf(input.value());
+               }
+            }));
+      this.virtualHost = owner.isAnnotationPresent(VirtualHost.class)
+            || invokable.isAnnotationPresent(VirtualHost.class);
+      this.endpoint = Optional.fromNullable(invokable.getAnnotation(Endpoint.class)).or(
+            Optional.fromNullable(owner.getAnnotation(Endpoint.class)));
+      this.filters = filters(owner, invokable);
+      this.mapBinder = invokable.isAnnotationPresent(MapBinder.class) ? Optional
+            .<Class<? extends org.jclouds.rest.MapBinder>> of(invokable.getAnnotation(MapBinder.class).value())
+            : Optional.<Class<? extends org.jclouds.rest.MapBinder>> absent();
+      this.payload = invokable.isAnnotationPresent(Payload.class);
+      this.wrapWith = invokable.isAnnotationPresent(WrapWith.class) ? Optional.of(invokable.getAnnotation(
+            WrapWith.class).value()) : Optional.<String> absent();
+      this.payloadParams = Optional.fromNullable(invokable.getAnnotation(PayloadParams.class));
+
+      ImmutableSet.Builder<Integer> indexesOfOptions = ImmutableSet.builder();
+      ImmutableList.Builder<Parameter> endpointParams = ImmutableList.builder();
+      ImmutableList.Builder<KeyedParameter> pathParams = ImmutableList.builder();
+      ImmutableList.Builder<KeyedParameter> formParamParams = ImmutableList.builder();
+      ImmutableList.Builder<KeyedParameter> queryParamParams = ImmutableList.builder();
+      ImmutableList.Builder<KeyedParameter> payloadParamParams = ImmutableList.builder();
+      ImmutableList.Builder<KeyedParameter> headerParams = ImmutableList.builder();
+      ImmutableList.Builder<Parameter> partParams = ImmutableList.builder();
+      ImmutableList.Builder<BoundParameter> binderParams = ImmutableList.builder();
+      ImmutableList.Builder<BoundParameter> wrapWithParams = ImmutableList.builder();
+      for (Parameter param : parameters) {
+         Class<?> type = param.getType().getRawType();
+         if (HttpRequestOptions.class.isAssignableFrom(type) || HttpRequestOptions[].class.isAssignableFrom(type))
+            indexesOfOptions.add(param.hashCode());
+         if (param.isAnnotationPresent(EndpointParam.class))
+            endpointParams.add(param);
+         if (param.isAnnotationPresent(PathParam.class))
+            pathParams.add(new KeyedParameter(param.getAnnotation(PathParam.class).value(), param));
+         if (param.isAnnotationPresent(FormParam.class))
+            formParamParams.add(new KeyedParameter(param.getAnnotation(FormParam.class).value(), param));
+         if (param.isAnnotationPresent(QueryParam.class))
+            queryParamParams.add(new KeyedParameter(param.getAnnotation(QueryParam.class).value(), param));
+         if (param.isAnnotationPresent(PayloadParam.class))
+            payloadParamParams.add(new KeyedParameter(param.getAnnotation(PayloadParam.class).value(), param));
+         if (param.isAnnotationPresent(HeaderParam.class))
+            headerParams.add(new KeyedParameter(param.getAnnotation(HeaderParam.class).value(), param));
+         if (param.isAnnotationPresent(PartParam.class))
+            partParams.add(param);
+         if (param.isAnnotationPresent(BinderParam.class))
+            binderParams.add(new BoundParameter(param));
+         else if (param.isAnnotationPresent(WrapWith.class))
+            wrapWithParams.add(new BoundParameter(param));
+      }
+      this.indexesOfOptions = indexesOfOptions.build();
+      this.endpointParams = endpointParams.build();
+      this.pathParams = pathParams.build();
+      this.formParamParams = formParamParams.build();
+      this.queryParamParams = queryParamParams.build();
+      this.payloadParamParams = payloadParamParams.build();
+      this.headerParams = headerParams.build();
+      this.partParams = partParams.build();
+      // binders are applied before the parameters wrapped into json
+      this.boundParams = ImmutableList.<BoundParameter> builder().addAll(binderParams.build())
+            .addAll(wrapWithParams.build()).build();
+   }
+
+   private static <A extends Annotation, T> List<T> onOwnerThenMethod(Class<?> owner, Invokable<?, ?> invokable,
+         Class<A> annotationType, Function<A, T> value) {
+      ImmutableList.Builder<T> values = ImmutableList.builder();
+      if (owner.isAnnotationPresent(annotationType))
+         values.add(value.apply(owner.getAnnotation(annotationType)));
+      if (invokable.isAnnotationPresent(annotationType))
+         values.add(value.apply(invokable.getAnnotation(annotationType)));
+      return values.build();
+   }
+
+   private static <T> Optional<T> last(List<T> values) {
+      return values.isEmpty() ? Optional.<T> absent() : Optional.of(values.get(values.size() - 1));
+   }
+
+   private static List<Class<? extends HttpRequestFilter>> filters(Class<?> owner, Invokable<?, ?> invokable) {
+      ImmutableList.Builder<Class<? extends HttpRequestFilter>> filters = ImmutableList.builder();
+      if (owner.isAnnotationPresent(RequestFilters.class) && !(invokable.isAnnotationPresent(RequestFilters.class)
+            && invokable.isAnnotationPresent(OverrideRequestFilters.class)))
+         filters.add(owner.getAnnotation(RequestFilters.class).value());
+      if (invokable.isAnnotationPresent(RequestFilters.class))
+         filters.add(invokable.getAnnotation(RequestFilters.class).value());
+      return filters.build();
+   }
+}
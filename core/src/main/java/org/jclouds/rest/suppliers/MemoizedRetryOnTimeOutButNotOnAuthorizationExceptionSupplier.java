@@ -21,9 +21,15 @@ import static com.google.common.base.Throwables.propagate;
 import static org.jclouds.util.Throwables2.getFirstThrowableOfType;
 
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
 
+import javax.inject.Named;
+import javax.inject.Singleton;
+
+import org.jclouds.Constants;
+import org.jclouds.javax.annotation.Nullable;
 import org.jclouds.rest.AuthorizationException;
 
 import com.google.common.base.MoreObjects;
@@ -31,9 +37,12 @@ import com.google.common.base.Optional;
 import com.google.common.base.Supplier;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
+import com.google.common.cache.CacheStats;
 import com.google.common.cache.LoadingCache;
 import com.google.common.collect.ForwardingObject;
+import com.google.common.util.concurrent.ListeningExecutorService;
 import com.google.common.util.concurrent.UncheckedExecutionException;
+import com.google.inject.Inject;
 
 /**
  * This will retry the supplier if it encounters a timeout exception, but not if it encounters an
@@ -50,6 +59,10 @@ import com.google.common.util.concurrent.UncheckedExecutionException;
  * 
  * Note this implementation is folded into the same class, vs being decorated as stacktraces are exceptionally long and
  * difficult to grok otherwise. We use {@link LoadingCache} to deal with concurrency issues related to the supplier.
+ * <p/>
+ * When created with a maximum staleness and a refresh executor, the value is reloaded on the executor once
+ * {@code duration} has passed, and the previous value is served until the reload completes. Only values older than
+ * the maximum staleness make callers wait for a reload.
  */
 public class MemoizedRetryOnTimeOutButNotOnAuthorizationExceptionSupplier<T> extends ForwardingObject implements
       Supplier<T> {
@@ -88,24 +101,74 @@ public class MemoizedRetryOnTimeOutButNotOnAuthorizationExceptionSupplier<T> ext
 
    }
 
+   /**
+    * Creates suppliers that refresh in the background on the user executor when
+    * {@link Constants#PROPERTY_SESSION_MAX_STALENESS} is greater than the duration they are memoized for.
+    */
+   @Singleton
+   public static class Factory {
+      private final AtomicReference<AuthorizationException> authException;
+      private final ListeningExecutorService userExecutor;
+
+      @Inject(optional = true)
+      @Named(Constants.PROPERTY_SESSION_MAX_STALENESS)
+      private long maxStalenessSeconds = 0;
+
+      @Inject
+      Factory(AtomicReference<AuthorizationException> authException,
+            @Named(Constants.PROPERTY_USER_THREADS) ListeningExecutorService userExecutor) {
+         this.authException = checkNotNull(authException, "authException");
+         this.userExecutor = checkNotNull(userExecutor, "userExecutor");
+      }
+
+      public <T> MemoizedRetryOnTimeOutButNotOnAuthorizationExceptionSupplier<T> create(Supplier<T> delegate,
+            long duration, TimeUnit unit) {
+         return MemoizedRetryOnTimeOutButNotOnAuthorizationExceptionSupplier.create(authException, delegate, duration,
+               unit, unit.convert(maxStalenessSeconds, TimeUnit.SECONDS), userExecutor);
+      }
+   }
+
    private final Supplier<T> delegate;
    private final long duration;
    private final TimeUnit unit;
+   private final long maxStaleness;
    private final LoadingCache<String, Optional<T>> cache;
 
    public static <T> MemoizedRetryOnTimeOutButNotOnAuthorizationExceptionSupplier<T> create(
          AtomicReference<AuthorizationException> authException, Supplier<T> delegate, long duration, TimeUnit unit) {
       return new MemoizedRetryOnTimeOutButNotOnAuthorizationExceptionSupplier<T>(authException, delegate, duration,
-            unit);
+            unit, 0, null);
+   }
+
+   /**
+    * @param maxStaleness
+    *           how long a value may be served while it is refreshed in the background; ignored unless greater than
+    *           {@code duration}
+    * @param refreshExecutor
+    *           where to reload the value, or null to make callers wait for the reload
+    */
+   public static <T> MemoizedRetryOnTimeOutButNotOnAuthorizationExceptionSupplier<T> create(
+         AtomicReference<AuthorizationException> authException, Supplier<T> delegate, long duration, TimeUnit unit,
+         long maxStaleness, @Nullable Executor refreshExecutor) {
+      return new MemoizedRetryOnTimeOutButNotOnAuthorizationExceptionSupplier<T>(authException, delegate, duration,
+            unit, maxStaleness, refreshExecutor);
    }
 
    MemoizedRetryOnTimeOutButNotOnAuthorizationExceptionSupplier(AtomicReference<AuthorizationException> authException,
-         Supplier<T> delegate, long duration, TimeUnit unit) {
+         Supplier<T> delegate, long duration, TimeUnit unit, long maxStaleness, @Nullable Executor refreshExecutor) {
       this.delegate = delegate;
       this.duration = duration;
       this.unit = unit;
-      this.cache = CacheBuilder.newBuilder().expireAfterWrite(duration, unit)
-            .build(new SetAndThrowAuthorizationExceptionSupplierBackedLoader<T>(delegate, authException));
+      CacheLoader<String, Optional<T>> loader = new SetAndThrowAuthorizationExceptionSupplierBackedLoader<T>(delegate,
+            authException);
+      if (refreshExecutor != null && maxStaleness > duration) {
+         this.maxStaleness = maxStaleness;
+         this.cache = CacheBuilder.newBuilder().refreshAfterWrite(duration, unit).expireAfterWrite(maxStaleness, unit)
+               .recordStats().build(CacheLoader.asyncReloading(loader, refreshExecutor));
+      } else {
+         this.maxStaleness = duration;
+         this.cache = CacheBuilder.newBuilder().expireAfterWrite(duration, unit).recordStats().build(loader);
+      }
    }
 
    @Override
@@ -124,10 +187,17 @@ public class MemoizedRetryOnTimeOutButNotOnAuthorizationExceptionSupplier<T> ext
       }
    }
 
+   /**
+    * @return load and refresh counts, failures and time spent loading, including background refreshes
+    */
+   public CacheStats stats() {
+      return cache.stats();
+   }
+
    @Override
    public String toString() {
-      return MoreObjects.toStringHelper(this).add("delegate", delegate).add("duration", duration).add("unit", unit)
-            .toString();
+      return MoreObjects.toStringHelper(this).add("delegate", delegate).add("duration", duration)
+            .add("maxStaleness", maxStaleness).add("unit", unit).toString();
    }
 
 }
@@ -22,6 +22,9 @@ import static org.jclouds.util.Throwables2.getFirstThrowableOfType;
 import java.util.Date;
 import java.util.concurrent.CancellationException;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 
@@ -30,6 +33,8 @@ import javax.annotation.Resource;
 import org.jclouds.logging.Logger;
 
 import com.google.common.base.Predicate;
+import com.google.common.util.concurrent.AbstractFuture;
+import com.google.common.util.concurrent.ListenableFuture;
 
 public class Predicates2 {
    /** Returns a predicate that evaluates to true if the String being tested starts with a prefix. */
@@ -86,6 +91,52 @@ public class Predicates2 {
       return retry(findOrBreak, timeout, DEFAULT_PERIOD, DEFAULT_MAX_PERIOD, MILLISECONDS);
    }
 
+   /**
+    * Like {@link #retry(Predicate, long, long, long, TimeUnit)}, but doesn't block the caller: the predicate is
+    * applied on {@code executor}, and the waits between attempts are scheduled on {@code scheduler}, so that a pending
+    * retry holds no thread. The future has the value the retrying predicate would have returned, and cancelling it
+    * stops the retries.
+    */
+   public static <T> ListenableFuture<Boolean> retryAsync(Predicate<T> findOrBreak, T input, long timeout,
+         long period, long maxPeriod, TimeUnit unit, ScheduledExecutorService scheduler, Executor executor) {
+      AsyncRetry<T> retry = new AsyncRetry<T>(findOrBreak, input, timeout, period, maxPeriod, unit, scheduler,
+            executor);
+      retry.submit();
+      return retry;
+   }
+
+   /**
+    * Calculates the time interval to a retry attempt.<p>
+    * The interval increases exponentially with each attempt, at a rate of nextInterval *= 1.5
+    * (where 1.5 is the backoff factor), to the maximum interval.
+    * 
+    * @param attempt number of this attempt (starting at 1 for the first retry)
+    */
+   private static long backoff(long period, long maxPeriod, long attempt) {
+      long interval = (long) (period * Math.pow(1.5, attempt - 1));
+      return interval > maxPeriod ? maxPeriod : interval;
+   }
+
+   /**
+    * @return true if the exception means the predicate should evaluate to false rather than propagate it
+    */
+   private static boolean loggedAsFalse(Logger logger, RuntimeException e, Object input, Predicate<?> findOrBreak) {
+      if (getFirstThrowableOfType(e, ExecutionException.class) != null) {
+         logger.warn(e, "predicate %s on %s errored [%s], returning false", input, findOrBreak, e.getMessage());
+         return true;
+      } else if (getFirstThrowableOfType(e, IllegalStateException.class) != null) {
+         logger.warn(e, "predicate %s on %s illegal state [%s], returning false", input, findOrBreak, e.getMessage());
+         return true;
+      } else if (getFirstThrowableOfType(e, CancellationException.class) != null) {
+         logger.warn(e, "predicate %s on %s cancelled [%s], returning false", input, findOrBreak, e.getMessage());
+         return true;
+      } else if (getFirstThrowableOfType(e, TimeoutException.class) != null) {
+         logger.warn(e, "predicate %s on %s timed out [%s], returning false", input, findOrBreak, e.getMessage());
+         return true;
+      }
+      return false;
+   }
+
    private static class RetryablePredicate<T> implements Predicate<T> {
       private final long timeout;
       private final long period;
@@ -118,20 +169,9 @@ public class Predicates2 {
             logger.warn(e, "predicate %s on %s interrupted, returning false", input, findOrBreak);
             Thread.currentThread().interrupt();
          } catch (RuntimeException e) {
-            if (getFirstThrowableOfType(e, ExecutionException.class) != null) {
-               logger.warn(e, "predicate %s on %s errored [%s], returning false", input, findOrBreak, e.getMessage());
-               return false;
-            } else if (getFirstThrowableOfType(e, IllegalStateException.class) != null) {
-               logger.warn(e, "predicate %s on %s illegal state [%s], returning false", input, findOrBreak, e.getMessage());
+            if (loggedAsFalse(logger, e, input, findOrBreak))
                return false;
-            } else if (getFirstThrowableOfType(e, CancellationException.class) != null) {
-               logger.warn(e, "predicate %s on %s cancelled [%s], returning false", input, findOrBreak, e.getMessage());
-               return false;
-            } else if (getFirstThrowableOfType(e, TimeoutException.class) != null) {
-               logger.warn(e, "predicate %s on %s timed out [%s], returning false", input, findOrBreak, e.getMessage());
-               return false;
-            } else
-               throw e;
+            throw e;
          }
          return false;
       }
@@ -147,8 +187,7 @@ public class Predicates2 {
        * since the specified timeout
        */
       protected long nextMaxInterval(long attempt, Date end) {
-         long interval = (long) (period * Math.pow(1.5, attempt - 1));
-         interval = interval > maxPeriod ? maxPeriod : interval;
+         long interval = backoff(period, maxPeriod, attempt);
          long max = end.getTime() - System.currentTimeMillis();
          return (interval > max) ? max : interval;
       }
@@ -160,5 +199,91 @@ public class Predicates2 {
       protected boolean atOrAfter(Date end) {
          return new Date().compareTo(end) >= 0;
       }
-   }   
+   }
+
+   private static class AsyncRetry<T> extends AbstractFuture<Boolean> implements Runnable {
+      private final Predicate<T> findOrBreak;
+      private final T input;
+      private final long end;
+      private final long period;
+      private final long maxPeriod;
+      private final ScheduledExecutorService scheduler;
+      private final Executor executor;
+      private long attempt = 1l;
+      private volatile Future<?> next;
+
+      @Resource
+      protected Logger logger = Logger.NULL;
+
+      private AsyncRetry(Predicate<T> findOrBreak, T input, long timeout, long period, long maxPeriod,
+            TimeUnit unit, ScheduledExecutorService scheduler, Executor executor) {
+         this.findOrBreak = findOrBreak;
+         this.input = input;
+         this.end = System.nanoTime() + unit.toNanos(timeout);
+         this.period = unit.toMillis(period);
+         this.maxPeriod = unit.toMillis(maxPeriod);
+         this.scheduler = scheduler;
+         this.executor = executor;
+      }
+
+      private void submit() {
+         try {
+            executor.execute(this);
+         } catch (RuntimeException e) {
+            setException(e);
+         }
+      }
+
+      @Override
+      public void run() {
+         if (isDone())
+            return;
+         try {
+            if (findOrBreak.apply(input)) {
+               set(true);
+               return;
+            }
+         } catch (RuntimeException e) {
+            if (loggedAsFalse(logger, e, input, findOrBreak))
+               set(false);
+            else
+               setException(e);
+            return;
+         } catch (Error e) {
+            setException(e);
+            throw e;
+         }
+         long remaining = MILLISECONDS.convert(end - System.nanoTime(), TimeUnit.NANOSECONDS);
+         if (remaining <= 0) {
+            set(false);
+            return;
+         }
+         long interval = Math.min(backoff(period, maxPeriod, attempt++), remaining);
+         try {
+            next = scheduler.schedule(new Runnable() {
+               @Override
+               public void run() {
+                  submit();
+               }
+            }, interval, MILLISECONDS);
+         } catch (RuntimeException e) {
+            setException(e);
+         }
+      }
+
+      @Override
+      public boolean cancel(boolean mayInterruptIfRunning) {
+         if (!super.cancel(mayInterruptIfRunning))
+            return false;
+         Future<?> scheduled = next;
+         if (scheduled != null)
+            scheduled.cancel(false);
+         return true;
+      }
+
+      @Override
+      public String toString() {
+         return "retryAsync(" + findOrBreak + ")";
+      }
+   }
 }
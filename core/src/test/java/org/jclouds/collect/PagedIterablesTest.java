@@ -19,12 +19,21 @@ package org.jclouds.collect;
 import static org.easymock.EasyMock.createMock;
 import static org.easymock.EasyMock.expect;
 
+import java.io.Closeable;
+import java.util.Iterator;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import org.easymock.EasyMock;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
 import com.google.common.base.Function;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.util.concurrent.MoreExecutors;
 
 /**
  * Tests behavior of {@code IterableWithMarkers}.
@@ -70,4 +79,84 @@ public class PagedIterablesTest {
       EasyMock.verify(markerToNext);
 
    }
+
+   @Test
+   public void testPrefetchReturnsPagesInOrder() throws Exception {
+      ExecutorService executor = Executors.newCachedThreadPool();
+      try {
+         PagedIterable<String> iterable = PagedIterables.advance(IterableWithMarkers.from(ImmutableSet.of("0"), "1"),
+               new Function<Object, IterableWithMarker<String>>() {
+                  public IterableWithMarker<String> apply(Object marker) {
+                     int page = Integer.parseInt(marker.toString());
+                     return IterableWithMarkers.from(ImmutableSet.of(marker.toString()), page < 9 ? String
+                           .valueOf(page + 1) : null);
+                  }
+               }, MoreExecutors.listeningDecorator(executor), 3);
+
+         Assert.assertEquals(iterable.concat().toList().toString(), "[0, 1, 2, 3, 4, 5, 6, 7, 8, 9]");
+      } finally {
+         executor.shutdownNow();
+      }
+   }
+
+   @Test
+   public void testPrefetchIsBoundedAndCancelledOnClose() throws Exception {
+      ExecutorService executor = Executors.newCachedThreadPool();
+      final AtomicInteger fetched = new AtomicInteger();
+      final CountDownLatch twoFetched = new CountDownLatch(2);
+      try {
+         PagedIterable<String> iterable = PagedIterables.advance(IterableWithMarkers.from(ImmutableSet.of("0"), "1"),
+               new Function<Object, IterableWithMarker<String>>() {
+                  public IterableWithMarker<String> apply(Object marker) {
+                     fetched.incrementAndGet();
+                     twoFetched.countDown();
+                     return IterableWithMarkers.from(ImmutableSet.of(marker.toString()), marker + "+");
+                  }
+               }, MoreExecutors.listeningDecorator(executor), 2);
+
+         Iterator<IterableWithMarker<String>> pages = iterable.iterator();
+         Assert.assertEquals(pages.next().toString(), "[0]");
+         Assert.assertTrue(twoFetched.await(5, TimeUnit.SECONDS));
+         Thread.sleep(100);
+         Assert.assertEquals(fetched.get(), 2);
+
+         Assert.assertEquals(pages.next().toString(), "[1]");
+         ((Closeable) pages).close();
+         Thread.sleep(100);
+         Assert.assertTrue(fetched.get() <= 3, "fetched " + fetched.get());
+      } finally {
+         executor.shutdownNow();
+      }
+   }
+
+   @Test
+   public void testCloseInterruptsThePageBeingFetched() throws Exception {
+      ExecutorService executor = Executors.newCachedThreadPool();
+      final CountDownLatch fetching = new CountDownLatch(1);
+      final CountDownLatch interrupted = new CountDownLatch(1);
+      try {
+         PagedIterable<String> iterable = PagedIterables.advance(IterableWithMarkers.from(ImmutableSet.of("0"), "1"),
+               new Function<Object, IterableWithMarker<String>>() {
+                  public IterableWithMarker<String> apply(Object marker) {
+                     fetching.countDown();
+                     try {
+                        // a response which never arrives
+                        new CountDownLatch(1).await();
+                     } catch (InterruptedException e) {
+                        interrupted.countDown();
+                     }
+                     return IterableWithMarkers.from(ImmutableSet.<String> of());
+                  }
+               }, MoreExecutors.listeningDecorator(executor), 1);
+
+         Iterator<IterableWithMarker<String>> pages = iterable.iterator();
+         Assert.assertEquals(pages.next().toString(), "[0]");
+         Assert.assertTrue(fetching.await(5, TimeUnit.SECONDS));
+
+         ((Closeable) pages).close();
+         Assert.assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+      } finally {
+         executor.shutdownNow();
+      }
+   }
 }
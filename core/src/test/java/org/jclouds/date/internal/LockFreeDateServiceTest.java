@@ -0,0 +1,105 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.date.internal;
+
+import static org.testng.Assert.assertEquals;
+
+import java.util.Date;
+import java.util.Random;
+
+import org.jclouds.date.DateService;
+import org.jclouds.date.DateServiceTest;
+import org.jclouds.date.config.LockFreeDateServiceModule;
+import org.testng.annotations.BeforeTest;
+import org.testng.annotations.Test;
+
+import com.google.inject.Guice;
+
+/**
+ * Runs the {@link DateServiceTest} comparisons against {@link LockFreeDateService}, and checks that it agrees with
+ * {@link SimpleDateFormatDateService}.
+ */
+// NOTE:without testName, this will fail w/NPE during surefire
+@Test(groups = "performance", singleThreaded = true, timeOut = 2 * 60 * 1000, testName = "LockFreeDateServiceTest")
+public class LockFreeDateServiceTest extends DateServiceTest {
+   private final DateService simpleDateFormat = new SimpleDateFormatDateService();
+
+   @Override
+   @BeforeTest
+   protected void createDateService() {
+      dateService = Guice.createInjector(new LockFreeDateServiceModule()).getInstance(DateService.class);
+      assert dateService instanceof LockFreeDateService;
+   }
+
+   @Test
+   public void testAgreesWithSimpleDateFormat() {
+      Random random = new Random(1);
+      for (int i = 0; i < 10000; i++) {
+         // 1900 to 2100
+         Date date = new Date(-2208988800000L + (long) (random.nextDouble() * 6311433600000L));
+         String iso8601 = simpleDateFormat.iso8601DateFormat(date);
+         String iso8601Seconds = simpleDateFormat.iso8601SecondsDateFormat(date);
+         String rfc822 = simpleDateFormat.rfc822DateFormat(date);
+         String cDate = simpleDateFormat.cDateFormat(date);
+
+         assertEquals(dateService.iso8601DateFormat(date), iso8601);
+         assertEquals(dateService.iso8601SecondsDateFormat(date), iso8601Seconds);
+         assertEquals(dateService.rfc822DateFormat(date), rfc822);
+         assertEquals(dateService.cDateFormat(date), cDate);
+
+         assertEquals(dateService.iso8601DateParse(iso8601), simpleDateFormat.iso8601DateParse(iso8601));
+         assertEquals(dateService.iso8601SecondsDateParse(iso8601Seconds),
+               simpleDateFormat.iso8601SecondsDateParse(iso8601Seconds));
+         assertEquals(dateService.rfc822DateParse(rfc822), simpleDateFormat.rfc822DateParse(rfc822));
+         assertEquals(dateService.cDateParse(cDate), simpleDateFormat.cDateParse(cDate));
+      }
+   }
+
+   @Test
+   public void testRfc1123() {
+      assertEquals(dateService.rfc1123DateFormat(testData[0].date), testData[0].rfc822DateString);
+      assertEquals(dateService.rfc1123DateParse("Thu, 12 Mar 2009 02:00:07 +0000"), testData[0].date);
+      assertEquals(dateService.rfc1123DateParse("Thu, 12 Mar 2009 04:00:07 +0200"), testData[0].date);
+   }
+
+   @Test
+   public void testIso8601Variants() {
+      long expected = 1306339941656L;
+      assertEquals(dateService.iso8601DateParse("2011-05-25T16:12:21.656Z").getTime(), expected);
+      assertEquals(dateService.iso8601DateParse("2011-05-25T16:12:21.656").getTime(), expected);
+      assertEquals(dateService.iso8601DateParse("2011-05-25T16:12:21.656278Z").getTime(), expected);
+      assertEquals(dateService.iso8601DateParse("2011-05-25T18:12:21.656+02").getTime(), expected);
+      assertEquals(dateService.iso8601DateParse("2011-05-25T18:12:21.656+02:00").getTime(), expected);
+      assertEquals(dateService.iso8601DateParse("2011-05-25T16:12:21.656UTC").getTime(), expected);
+      assertEquals(dateService.iso8601DateOrSecondsDateParse("2011-05-25T16:12:21Z").getTime(), expected - 656);
+   }
+
+   @Test(expectedExceptions = IllegalArgumentException.class)
+   public void testIso8601DateParseRequiresFraction() {
+      dateService.iso8601DateParse("2011-05-25T16:12:21Z");
+   }
+
+   @Test(expectedExceptions = IllegalArgumentException.class)
+   public void testIso8601SecondsDateParseRejectsFraction() {
+      dateService.iso8601SecondsDateParse("2011-05-25T16:12:21.656Z");
+   }
+
+   @Test(expectedExceptions = IllegalArgumentException.class)
+   public void testInvalidMonth() {
+      dateService.iso8601SecondsDateParse("2011-13-25T16:12:21Z");
+   }
+}
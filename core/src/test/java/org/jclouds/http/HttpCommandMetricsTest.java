@@ -0,0 +1,84 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.http;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+
+import org.jclouds.rest.RequestSigner;
+import org.testng.annotations.Test;
+
+@Test(groups = "unit", testName = "HttpCommandMetricsTest")
+public class HttpCommandMetricsTest {
+
+   private static class Signer implements HttpRequestFilter, RequestSigner {
+      public HttpRequest filter(HttpRequest request) {
+         return request;
+      }
+
+      public String createStringToSign(HttpRequest input) {
+         return "";
+      }
+
+      public String sign(String toSign) {
+         return toSign;
+      }
+   }
+
+   private static class Filter implements HttpRequestFilter {
+      public HttpRequest filter(HttpRequest request) {
+         return request;
+      }
+   }
+
+   public void testAttemptsAreSummed() {
+      HttpRequest request = HttpRequest.builder().method("PUT").endpoint("http://localhost/key")
+            .payload("hello").build();
+      HttpCommand command = new HttpCommand(request);
+
+      HttpCommandMetrics metrics = HttpCommandMetrics.builder()
+            .attempt().filtered(new Filter(), 1).filtered(new Signer(), 10).sent(request, 100)
+            .received(HttpResponse.builder().statusCode(503).build(), 1000)
+            .attempt().filtered(new Filter(), 2).filtered(new Signer(), 20).sent(request, 200)
+            .received(HttpResponse.builder().statusCode(200).payload("world!").build(), 2000)
+            .build(command, 5000);
+
+      assertEquals(metrics.getRetries(), 1);
+      assertEquals(metrics.getFilterNanos(), 3);
+      assertEquals(metrics.getSignNanos(), 30);
+      assertEquals(metrics.getSendNanos(), 300);
+      assertEquals(metrics.getFirstByteNanos(), 3000);
+      assertEquals(metrics.getTotalNanos(), 5000);
+      assertEquals(metrics.getBytesOut(), 5);
+      assertEquals(metrics.getBytesIn(), 6);
+      assertEquals(metrics.getStatusCode(), 200);
+      assertNull(metrics.getInvocation());
+      assertNull(metrics.getException());
+   }
+
+   public void testNoResponse() {
+      HttpRequest request = HttpRequest.builder().method("GET").endpoint("http://localhost/key").build();
+      HttpCommand command = new HttpCommand(request);
+
+      HttpCommandMetrics metrics = HttpCommandMetrics.builder().attempt().sent(request, 100).build(command, 100);
+
+      assertEquals(metrics.getRetries(), 0);
+      assertEquals(metrics.getBytesOut(), 0);
+      assertEquals(metrics.getBytesIn(), -1);
+      assertEquals(metrics.getStatusCode(), -1);
+   }
+}
@@ -21,6 +21,7 @@ import static org.easymock.EasyMock.expect;
 import static org.easymock.EasyMock.replay;
 import static org.easymock.EasyMock.verify;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
 
 import java.io.IOException;
 import java.util.concurrent.ExecutionException;
@@ -32,6 +33,8 @@ import org.testng.annotations.Test;
 import org.xml.sax.Locator;
 import org.xml.sax.SAXParseException;
 
+import com.google.common.base.Strings;
+
 /**
  * Tests behavior of {@code ParseSax}
  */
@@ -138,4 +141,30 @@ public class ParseSaxTest extends BaseHandlerTest {
          assertEquals(e.getCause(), input);
       }
    }
+
+   @Test
+   public void testErrorResponseIsParsedFromTheStream() {
+      ParseSax<String> parser = createParser();
+      HttpResponse response = HttpResponse.builder().statusCode(404).message("Not Found")
+            .payload("<Error><Code>NoSuchKey</Code></Error>").build();
+      assertEquals(parser.apply(response), "");
+      // the same factory hands out a pooled reader again
+      assertEquals(createParser().parse("<Error><Code>NoSuchKey</Code></Error>"), "");
+   }
+
+   @Test
+   public void testErrorResponseReportsBoundedSource() {
+      ParseSax<String> parser = createParser();
+      String body = Strings.repeat("not xml ", ParseSax.MAX_SOURCE_LENGTH);
+      HttpResponse response = HttpResponse.builder().statusCode(500).message("Internal Server Error").payload(body)
+            .build();
+      try {
+         parser.apply(response);
+      } catch (RuntimeException e) {
+         String source = body.substring(0, ParseSax.MAX_SOURCE_LENGTH) + "...";
+         assertTrue(e.getMessage().contains("; source:\n" + source + "; cause: "), e.getMessage());
+         return;
+      }
+      throw new AssertionError("expected a parse failure");
+   }
 }
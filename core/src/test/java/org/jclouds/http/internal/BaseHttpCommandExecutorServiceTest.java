@@ -0,0 +1,202 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.http.internal;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+
+import org.jclouds.Constants;
+import org.jclouds.http.HttpCommand;
+import org.jclouds.http.HttpCommandListener;
+import org.jclouds.http.HttpCommandMetrics;
+import org.jclouds.http.HttpRequest;
+import org.jclouds.http.HttpRequestFilter;
+import org.jclouds.http.HttpResponse;
+import org.jclouds.http.HttpResponseException;
+import org.jclouds.http.HttpRetryHandler;
+import org.jclouds.http.HttpUtils;
+import org.jclouds.http.IOExceptionRetryHandler;
+import org.jclouds.http.annotation.ServerError;
+import org.jclouds.http.handlers.DelegatingErrorHandler;
+import org.jclouds.http.handlers.DelegatingRetryHandler;
+import org.jclouds.io.ContentMetadataCodec;
+import org.jclouds.rest.RequestSigner;
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.ListeningExecutorService;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.Uninterruptibles;
+import com.google.inject.AbstractModule;
+import com.google.inject.Guice;
+import com.google.inject.name.Names;
+
+@Test(groups = "unit", testName = "BaseHttpCommandExecutorServiceTest")
+public class BaseHttpCommandExecutorServiceTest {
+
+   /**
+    * Takes a millisecond in each phase, so that every timing is measurable.
+    */
+   private static class Signer implements HttpRequestFilter, RequestSigner {
+      public HttpRequest filter(HttpRequest request) {
+         Uninterruptibles.sleepUninterruptibly(1, TimeUnit.MILLISECONDS);
+         return request;
+      }
+
+      public String createStringToSign(HttpRequest input) {
+         return "";
+      }
+
+      public String sign(String toSign) {
+         return toSign;
+      }
+   }
+
+   private static class Filter implements HttpRequestFilter {
+      public HttpRequest filter(HttpRequest request) {
+         Uninterruptibles.sleepUninterruptibly(1, TimeUnit.MILLISECONDS);
+         return request;
+      }
+   }
+
+   /**
+    * Answers each request with the next of the given responses.
+    */
+   private static class FakeHttpCommandExecutorService extends BaseHttpCommandExecutorService<HttpRequest> {
+      private final Deque<HttpResponse> responses = Lists.newLinkedList();
+
+      @Inject
+      FakeHttpCommandExecutorService(HttpUtils utils, ContentMetadataCodec contentMetadataCodec,
+            @Named(Constants.PROPERTY_IO_WORKER_THREADS) ListeningExecutorService ioExecutor,
+            DelegatingRetryHandler retryHandler, IOExceptionRetryHandler ioRetryHandler,
+            DelegatingErrorHandler errorHandler, HttpWire wire) {
+         super(utils, contentMetadataCodec, ioExecutor, retryHandler, ioRetryHandler, errorHandler, wire);
+      }
+
+      @Override
+      protected HttpRequest convert(HttpRequest request) {
+         Uninterruptibles.sleepUninterruptibly(1, TimeUnit.MILLISECONDS);
+         return request;
+      }
+
+      @Override
+      protected HttpResponse invoke(HttpRequest nativeRequest) {
+         Uninterruptibles.sleepUninterruptibly(1, TimeUnit.MILLISECONDS);
+         return responses.remove();
+      }
+
+      @Override
+      protected void cleanup(HttpRequest nativeResponse) {
+      }
+   }
+
+   private static class RecordingListener implements HttpCommandListener {
+      private final List<HttpCommandMetrics> metrics = Lists.newArrayList();
+
+      public void commandCompleted(HttpCommand command, HttpCommandMetrics metrics) {
+         this.metrics.add(metrics);
+      }
+   }
+
+   private static FakeHttpCommandExecutorService executor(final HttpCommandListener listener,
+         HttpResponse... responses) {
+      FakeHttpCommandExecutorService executor = Guice.createInjector(new AbstractModule() {
+         @Override
+         protected void configure() {
+            bindConstant().annotatedWith(Names.named(Constants.PROPERTY_CONNECTION_TIMEOUT)).to(60000);
+            bindConstant().annotatedWith(Names.named(Constants.PROPERTY_SO_TIMEOUT)).to(60000);
+            bindConstant().annotatedWith(Names.named(Constants.PROPERTY_MAX_CONNECTIONS_PER_CONTEXT)).to(20);
+            bindConstant().annotatedWith(Names.named(Constants.PROPERTY_MAX_CONNECTIONS_PER_HOST)).to(0);
+            bind(ListeningExecutorService.class).annotatedWith(Names.named(Constants.PROPERTY_IO_WORKER_THREADS))
+                  .toInstance(MoreExecutors.newDirectExecutorService());
+            bind(IOExceptionRetryHandler.class).toInstance(IOExceptionRetryHandler.NEVER_RETRY);
+            // retries the first server error only, without backing off
+            bind(HttpRetryHandler.class).annotatedWith(ServerError.class).toInstance(new HttpRetryHandler() {
+               public boolean shouldRetryRequest(HttpCommand command, HttpResponse response) {
+                  return command.incrementFailureCount() == 1;
+               }
+            });
+            if (listener != null)
+               bind(HttpCommandListener.class).toInstance(listener);
+         }
+      }).getInstance(FakeHttpCommandExecutorService.class);
+      executor.responses.addAll(ImmutableList.copyOf(responses));
+      return executor;
+   }
+
+   private static HttpCommand command() {
+      return new HttpCommand(HttpRequest.builder().method("PUT").endpoint("http://localhost/key").payload("hello")
+            .filters(ImmutableList.<HttpRequestFilter> of(new Filter(), new Signer())).build());
+   }
+
+   public void testRetriedCommandIsReportedOnce() {
+      RecordingListener listener = new RecordingListener();
+      FakeHttpCommandExecutorService executor = executor(listener, HttpResponse.builder().statusCode(503).build(),
+            HttpResponse.builder().statusCode(200).payload("world!").build());
+
+      executor.invoke(command());
+
+      assertEquals(listener.metrics.size(), 1);
+      HttpCommandMetrics metrics = listener.metrics.get(0);
+      assertEquals(metrics.getRetries(), 1);
+      assertEquals(metrics.getStatusCode(), 200);
+      assertEquals(metrics.getBytesOut(), 5);
+      assertEquals(metrics.getBytesIn(), 6);
+      // both attempts ran the filter, the signer, and the send, each taking at least a millisecond
+      assertTrue(metrics.getFilterNanos() >= TimeUnit.MILLISECONDS.toNanos(2), metrics.toString());
+      assertTrue(metrics.getSignNanos() >= TimeUnit.MILLISECONDS.toNanos(2), metrics.toString());
+      assertTrue(metrics.getSendNanos() >= TimeUnit.MILLISECONDS.toNanos(2), metrics.toString());
+      assertTrue(metrics.getFirstByteNanos() >= TimeUnit.MILLISECONDS.toNanos(2), metrics.toString());
+      assertTrue(metrics.getTotalNanos() >= metrics.getFilterNanos() + metrics.getSignNanos()
+            + metrics.getSendNanos() + metrics.getFirstByteNanos(), metrics.toString());
+      assertNull(metrics.getException());
+   }
+
+   public void testFailedCommandIsReportedWithItsException() {
+      RecordingListener listener = new RecordingListener();
+      FakeHttpCommandExecutorService executor = executor(listener, HttpResponse.builder().statusCode(503).build(),
+            HttpResponse.builder().statusCode(500).build());
+
+      try {
+         executor.invoke(command());
+         fail("expected the command to fail");
+      } catch (HttpResponseException e) {
+         assertEquals(listener.metrics.size(), 1);
+         HttpCommandMetrics metrics = listener.metrics.get(0);
+         assertEquals(metrics.getRetries(), 1);
+         assertEquals(metrics.getStatusCode(), 500);
+         assertEquals(metrics.getException(), e);
+      }
+   }
+
+   public void testCommandIsSentWithoutListener() {
+      FakeHttpCommandExecutorService executor = executor(null, HttpResponse.builder().statusCode(200).build());
+
+      assertEquals(executor.invoke(command()).getStatusCode(), 200);
+      assertEquals(executor.listener, HttpCommandListener.NONE);
+   }
+}
@@ -0,0 +1,55 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.http.internal;
+
+import static org.testng.Assert.assertEquals;
+
+import java.net.URI;
+import java.util.concurrent.TimeUnit;
+
+import org.jclouds.http.internal.HttpConnectionStats.HostStats;
+import org.testng.annotations.Test;
+
+@Test(groups = "unit", testName = "HttpConnectionStatsTest")
+public class HttpConnectionStatsTest {
+
+   public void testRequestsAreKeyedByHostAndDefaultPort() {
+      HttpConnectionStats stats = new HttpConnectionStats();
+      stats.requestSent(URI.create("https://s3.amazonaws.com/bucket"));
+      stats.requestSent(URI.create("https://s3.amazonaws.com:443/bucket/key"));
+      stats.requestSent(URI.create("http://localhost/"));
+      stats.requestSent(URI.create("http://localhost:8080/"));
+
+      assertEquals(stats.asMap().keySet().size(), 3);
+      assertEquals(stats.asMap().get("s3.amazonaws.com:443").getRequests(), 2);
+      assertEquals(stats.asMap().get("localhost:80").getRequests(), 1);
+      assertEquals(stats.asMap().get("localhost:8080").getRequests(), 1);
+   }
+
+   public void testRequestsWithoutNewConnectionsAreReused() {
+      HttpConnectionStats stats = new HttpConnectionStats();
+      for (int i = 0; i < 5; i++)
+         stats.requestSent(URI.create("https://s3.amazonaws.com/bucket"));
+      stats.connectionOpened("s3.amazonaws.com", 443, TimeUnit.MILLISECONDS.toNanos(40));
+      stats.connectionOpened("s3.amazonaws.com", 443, TimeUnit.MILLISECONDS.toNanos(60));
+
+      HostStats host = stats.asMap().get("s3.amazonaws.com:443");
+      assertEquals(host.getConnectionsOpened(), 2);
+      assertEquals(host.getConnectionsReused(), 3);
+      assertEquals(host.getHandshakeTime(TimeUnit.MILLISECONDS), 100);
+   }
+}
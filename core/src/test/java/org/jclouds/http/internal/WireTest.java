@@ -119,6 +119,33 @@ public class WireTest {
       assertEquals(((BufferLogger) wire.getWireLog()).buff.toString(), ">> \"foo\"");
    }
 
+   public void testInputInputStreamStreaming() throws Exception {
+      HttpWire wire = new HttpWire() {
+         {
+            streaming = true;
+         }
+      };
+      wire.wireLog = new BufferLogger();
+      InputStream in = wire.input(new ByteArrayInputStream("foo\nbar".getBytes()));
+      assertEquals(((BufferLogger) wire.getWireLog()).buff.toString(), "");
+      String compare = Strings2.toStringAndClose(in);
+      assertEquals(compare, "foo\nbar");
+      assertEquals(((BufferLogger) wire.getWireLog()).buff.toString(), "<< \"foo[\\n]\"<< \"bar\"");
+   }
+
+   public void testMaxBytesTruncatesLogNotData() throws Exception {
+      HttpWire wire = new HttpWire() {
+         {
+            maxBytes = 2;
+         }
+      };
+      wire.wireLog = new BufferLogger();
+      InputStream in = wire.input(new ByteArrayInputStream("foo".getBytes()));
+      String compare = Strings2.toStringAndClose(in);
+      assertEquals(compare, "foo");
+      assertEquals(((BufferLogger) wire.getWireLog()).buff.toString(), "<< \"fo...\"");
+   }
+
    public void testOutputBytes() throws Exception {
       HttpWire wire = setUp();
       wire.output("foo".getBytes());
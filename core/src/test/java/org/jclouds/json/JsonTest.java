@@ -19,7 +19,9 @@ package org.jclouds.json;
 import static com.google.common.io.BaseEncoding.base16;
 import static com.google.common.primitives.Bytes.asList;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
 
+import java.io.StringReader;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
@@ -153,6 +155,16 @@ public class JsonTest {
       assertEquals(json.toJson(map2), json.toJson(map));
    }
 
+   public void testFromReaderMatchesFromString() {
+      String map = "{\"string\":\"string\",\"map\":{\"key\":\"value\"},\"list\":[\"key\",\"value\"]}";
+      java.lang.reflect.Type type = new TypeLiteral<Map<String, Object>>() {
+      }.getType();
+      Map<String, Object> fromReader = json.fromJson(new StringReader(map), type);
+      Map<String, Object> fromString = json.fromJson(map, type);
+      assertEquals(fromReader, fromString);
+      assertNull(json.fromJson(new StringReader(""), type));
+   }
+
    public void testMapStringObjectWithNumericalKeysConvertToStrings() {
       Map<String, Object> map = ImmutableMap.<String, Object> of("map", ImmutableMap.of(1, "value"));
       assertEquals(json.toJson(map), "{\"map\":{\"1\":\"value\"}}");
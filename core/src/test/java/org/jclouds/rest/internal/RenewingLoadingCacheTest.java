@@ -0,0 +1,145 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.rest.internal;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.testng.annotations.Test;
+
+import com.google.common.base.Function;
+import com.google.common.base.Functions;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.MoreExecutors;
+
+@Test(groups = "unit", testName = "RenewingLoadingCacheTest")
+public class RenewingLoadingCacheTest {
+
+   /**
+    * Tokens named after the login which issued them, expiring after {@link #lifetime} milliseconds.
+    */
+   private static class Logins extends CacheLoader<String, String> {
+      private final AtomicInteger count = new AtomicInteger();
+      private long lifetime = 3600000;
+      private boolean fail;
+
+      @Override
+      public String load(String key) {
+         if (fail)
+            throw new IllegalStateException("rejected");
+         return key + count.incrementAndGet() + "@" + (System.currentTimeMillis() + lifetime);
+      }
+   }
+
+   private static final Function<String, Date> EXPIRES = new Function<String, Date>() {
+      @Override
+      public Date apply(String input) {
+         return new Date(Long.parseLong(input.substring(input.indexOf('@') + 1)));
+      }
+   };
+
+   private static RenewingLoadingCache<String, String> cache(Logins logins, long minInterval, Executor executor) {
+      return new RenewingLoadingCache<String, String>(CacheBuilder.newBuilder().build(logins), logins, EXPIRES,
+            Functions.<String> identity(), 60, minInterval, TimeUnit.SECONDS, executor);
+   }
+
+   public void testExpiringValueIsRenewedInTheBackground() {
+      Logins logins = new Logins();
+      logins.lifetime = 1000;
+      final List<Runnable> scheduled = Lists.newArrayList();
+      RenewingLoadingCache<String, String> cache = cache(logins, 60, new Executor() {
+         @Override
+         public void execute(Runnable command) {
+            scheduled.add(command);
+         }
+      });
+
+      String expiring = cache.getUnchecked("user");
+      // the caller keeps the current value while the renewal waits for the executor, which runs it once
+      assertEquals(cache.getUnchecked("user"), expiring);
+      assertEquals(scheduled.size(), 1);
+
+      logins.lifetime = 3600000;
+      scheduled.get(0).run();
+
+      assertFalse(cache.getUnchecked("user").equals(expiring));
+      assertEquals(cache.getRenewalCount(), 1);
+   }
+
+   public void testRenewalsAheadOfExpiryAreSpacedOut() {
+      Logins logins = new Logins();
+      // as seen by a client whose clock runs ahead of the authentication service
+      logins.lifetime = 1000;
+      RenewingLoadingCache<String, String> cache = cache(logins, 60, MoreExecutors.directExecutor());
+
+      cache.getUnchecked("user");
+      String renewed = cache.getUnchecked("user");
+
+      assertEquals(cache.getUnchecked("user"), renewed);
+      assertEquals(cache.getRenewalCount(), 1);
+   }
+
+   public void testValueFarFromExpiryIsNotRenewed() {
+      Logins logins = new Logins();
+      RenewingLoadingCache<String, String> cache = cache(logins, 60, MoreExecutors.directExecutor());
+
+      String value = cache.getUnchecked("user");
+
+      assertEquals(cache.getUnchecked("user"), value);
+      assertEquals(cache.getRenewalCount(), 0);
+   }
+
+   public void testRequestsRejectedWithARenewedTokenGetTheCurrentOne() throws ExecutionException {
+      Logins logins = new Logins();
+      RenewingLoadingCache<String, String> cache = cache(logins, 0, MoreExecutors.directExecutor());
+      String rejected = cache.getUnchecked("user");
+
+      String renewed = cache.renew("user", rejected);
+
+      // a request sent with the old token before the renewal, and rejected after it
+      assertEquals(cache.renew("user", rejected), renewed);
+      assertEquals(cache.getUnchecked("user"), renewed);
+      assertEquals(cache.getRenewalCount(), 1);
+   }
+
+   public void testFailedRenewalKeepsTheValue() {
+      Logins logins = new Logins();
+      RenewingLoadingCache<String, String> cache = cache(logins, 0, MoreExecutors.directExecutor());
+      String value = cache.getUnchecked("user");
+      logins.fail = true;
+
+      try {
+         cache.renew("user", value);
+         fail("expected the renewal to fail");
+      } catch (ExecutionException e) {
+         assertTrue(e.getCause() instanceof IllegalStateException);
+      }
+      assertEquals(cache.getUnchecked("user"), value);
+      assertFalse(cache.isRenewing());
+   }
+}
@@ -0,0 +1,137 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.rest.internal;
+
+import static org.jclouds.reflect.Reflection2.method;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.HeaderParam;
+import javax.ws.rs.POST;
+import javax.ws.rs.Path;
+import javax.ws.rs.PathParam;
+import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
+
+import org.jclouds.http.HttpRequest;
+import org.jclouds.http.HttpRequestFilter;
+import org.jclouds.http.filters.StripExpectHeader;
+import org.jclouds.http.options.HttpRequestOptions;
+import org.jclouds.javax.annotation.Nullable;
+import org.jclouds.rest.annotations.BinderParam;
+import org.jclouds.rest.annotations.OverrideRequestFilters;
+import org.jclouds.rest.annotations.RequestFilters;
+import org.jclouds.rest.annotations.VirtualHost;
+import org.jclouds.rest.annotations.WrapWith;
+import org.jclouds.rest.binders.BindToStringPayload;
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.reflect.Invokable;
+
+@Test(groups = "unit", testName = "RequestTemplateTest")
+public class RequestTemplateTest {
+
+   public static class OwnerFilter implements HttpRequestFilter {
+      @Override
+      public HttpRequest filter(HttpRequest request) {
+         return request;
+      }
+   }
+
+   @Path("/owner")
+   @Produces("text/plain")
+   @RequestFilters(OwnerFilter.class)
+   interface Api {
+      @GET
+      @Path("/{id}")
+      @VirtualHost
+      @Produces("application/json")
+      void get(@PathParam("id") String id, @Nullable @QueryParam("marker") String marker,
+            @HeaderParam("x-tag") String tag, HttpRequestOptions... options);
+
+      @POST
+      @RequestFilters(StripExpectHeader.class)
+      @OverrideRequestFilters
+      void create(@WrapWith("name") String name, @BinderParam(BindToStringPayload.class) String body);
+
+      @POST
+      @RequestFilters(StripExpectHeader.class)
+      void update(String body);
+   }
+
+   private static Invokable<?, ?> invokable(String name, Class<?>... parameterTypes) {
+      return method(Api.class, name, parameterTypes);
+   }
+
+   public void testTemplateIsReadOncePerMethod() {
+      Invokable<?, ?> get = invokable("get", String.class, String.class, String.class, HttpRequestOptions[].class);
+
+      assertSame(RequestTemplate.of(get), RequestTemplate.of(get));
+   }
+
+   public void testOwnerAnnotationsComeBeforeTheMethodOnes() {
+      RequestTemplate template = RequestTemplate.of(invokable("get", String.class, String.class, String.class,
+            HttpRequestOptions[].class));
+
+      assertEquals(template.httpMethod.get(), "GET");
+      assertEquals(template.paths, ImmutableList.of("/owner", "/{id}"));
+      assertEquals(template.produces.get(), ImmutableList.of("application/json"));
+      assertTrue(template.virtualHost);
+      assertEquals(template.filters, ImmutableList.of(OwnerFilter.class));
+   }
+
+   public void testOverrideRequestFiltersDropsTheOwnerFilters() {
+      RequestTemplate create = RequestTemplate.of(invokable("create", String.class, String.class));
+      RequestTemplate update = RequestTemplate.of(invokable("update", String.class));
+
+      assertEquals(create.filters, ImmutableList.of(StripExpectHeader.class));
+      assertEquals(update.filters, ImmutableList.of(OwnerFilter.class, StripExpectHeader.class));
+      assertFalse(update.virtualHost);
+   }
+
+   public void testParametersAreIndexed() {
+      RequestTemplate template = RequestTemplate.of(invokable("get", String.class, String.class, String.class,
+            HttpRequestOptions[].class));
+
+      assertEquals(template.pathParams.get(0).key, "id");
+      assertEquals(template.pathParams.get(0).index, 0);
+      assertFalse(template.pathParams.get(0).nullable);
+      assertEquals(template.queryParamParams.get(0).key, "marker");
+      assertEquals(template.queryParamParams.get(0).index, 1);
+      assertTrue(template.queryParamParams.get(0).nullable);
+      assertEquals(template.headerParams.get(0).key, "x-tag");
+      assertEquals(template.headerParams.get(0).index, 2);
+      assertEquals(template.indexesOfOptions, ImmutableSet.of(3));
+   }
+
+   public void testBindersComeBeforeWrappedParameters() {
+      RequestTemplate template = RequestTemplate.of(invokable("create", String.class, String.class));
+
+      assertEquals(template.boundParams.size(), 2);
+      assertEquals(template.boundParams.get(0).index, 1);
+      assertEquals(template.boundParams.get(0).binder, BindToStringPayload.class);
+      assertEquals(template.boundParams.get(1).index, 0);
+      assertNull(template.boundParams.get(1).binder);
+      assertEquals(template.boundParams.get(1).wrapWith, "name");
+   }
+}
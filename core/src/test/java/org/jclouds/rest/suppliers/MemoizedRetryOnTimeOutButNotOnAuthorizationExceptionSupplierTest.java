@@ -20,7 +20,11 @@ import static com.google.common.base.Suppliers.ofInstance;
 import static com.google.common.util.concurrent.Atomics.newReference;
 import static org.testng.Assert.assertEquals;
 
+import java.util.List;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 
 import org.jclouds.rest.AuthorizationException;
@@ -28,6 +32,7 @@ import org.jclouds.rest.suppliers.MemoizedRetryOnTimeOutButNotOnAuthorizationExc
 import org.testng.annotations.Test;
 
 import com.google.common.base.Supplier;
+import com.google.common.collect.Lists;
 import com.google.common.util.concurrent.UncheckedExecutionException;
 
 @Test(groups = "unit", testName = "MemoizedRetryOnTimeOutButNotOnAuthorizationExceptionSupplierTest")
@@ -95,4 +100,56 @@ public class MemoizedRetryOnTimeOutButNotOnAuthorizationExceptionSupplierTest {
          assertEquals(authException.get().getClass(), RuntimeException.class);
       }
    }
+
+   @Test
+   public void testRefreshServesPreviousValueUntilBackgroundReloadCompletes() throws InterruptedException {
+      AtomicReference<AuthorizationException> authException = newReference();
+      final AtomicInteger loads = new AtomicInteger();
+      final List<Runnable> refreshes = Lists.newArrayList();
+      Executor refreshExecutor = new Executor() {
+         public void execute(Runnable command) {
+            refreshes.add(command);
+         }
+      };
+      MemoizedRetryOnTimeOutButNotOnAuthorizationExceptionSupplier<Integer> supplier =
+            MemoizedRetryOnTimeOutButNotOnAuthorizationExceptionSupplier.create(
+                  authException,
+                  new Supplier<Integer>() {
+                     public Integer get() {
+                        return loads.incrementAndGet();
+                     }
+                  }, 10, TimeUnit.MILLISECONDS, 60000, refreshExecutor);
+
+      assertEquals(supplier.get(), Integer.valueOf(1));
+      Thread.sleep(50);
+      assertEquals(supplier.get(), Integer.valueOf(1));
+      assertEquals(refreshes.size(), 1);
+
+      refreshes.get(0).run();
+      assertEquals(supplier.get(), Integer.valueOf(2));
+      assertEquals(supplier.stats().loadSuccessCount(), 2);
+   }
+
+   @Test
+   public void testNoRefreshWhenMaxStalenessNotGreaterThanDuration() throws InterruptedException {
+      AtomicReference<AuthorizationException> authException = newReference();
+      final AtomicInteger loads = new AtomicInteger();
+      Executor refreshExecutor = new Executor() {
+         public void execute(Runnable command) {
+            throw new AssertionError("should not refresh in the background");
+         }
+      };
+      MemoizedRetryOnTimeOutButNotOnAuthorizationExceptionSupplier<Integer> supplier =
+            MemoizedRetryOnTimeOutButNotOnAuthorizationExceptionSupplier.create(
+                  authException,
+                  new Supplier<Integer>() {
+                     public Integer get() {
+                        return loads.incrementAndGet();
+                     }
+                  }, 10, TimeUnit.MILLISECONDS, 0, refreshExecutor);
+
+      assertEquals(supplier.get(), Integer.valueOf(1));
+      Thread.sleep(50);
+      assertEquals(supplier.get(), Integer.valueOf(2));
+   }
 }
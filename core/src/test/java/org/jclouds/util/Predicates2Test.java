@@ -19,14 +19,24 @@ package org.jclouds.util;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.jclouds.util.Predicates2.retry;
+import static org.jclouds.util.Predicates2.retryAsync;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
 import static org.testng.Assert.fail;
 
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
@@ -35,6 +45,9 @@ import com.google.common.base.Predicates;
 import com.google.common.base.Stopwatch;
 import com.google.common.base.Supplier;
 import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
 
 @Test(groups = "unit", singleThreaded = true)
 public class Predicates2Test {
@@ -45,6 +58,17 @@ public class Predicates2Test {
    public static int EARLY_RETURN_GRACE = 10;
 
    private Stopwatch stopwatch;
+   private ScheduledExecutorService scheduler;
+
+   @BeforeClass
+   public void setUpScheduler() {
+      scheduler = Executors.newSingleThreadScheduledExecutor();
+   }
+
+   @AfterClass(alwaysRun = true)
+   public void tearDownScheduler() {
+      scheduler.shutdownNow();
+   }
 
    @BeforeMethod
    public void setUp() {
@@ -149,6 +173,74 @@ public class Predicates2Test {
       assertCallTimes(rawPredicate.callTimes, 0, 1000, 2000);
    }
    
+   @Test
+   void testAsyncThirdTimeTrue() throws Exception {
+      // maxWait=4; period=1; maxPeriod=10
+      // will call at 0, 1, 1+(1*1.5)
+      RepeatedAttemptsPredicate rawPredicate = new RepeatedAttemptsPredicate(2);
+      ListenableFuture<Boolean> result = retryAsync(rawPredicate, "", 4, 1, 10, SECONDS, scheduler,
+            MoreExecutors.directExecutor());
+
+      assertTrue(result.get());
+      assertCallTimes(rawPredicate.callTimes, 0, 1000, 1000 + 1500);
+   }
+
+   @Test
+   void testAsyncFalseOnIllegalStateException() throws Exception {
+      ListenableFuture<Boolean> result = retryAsync(new Predicate<String>() {
+         public boolean apply(String input) {
+            throw new IllegalStateException();
+         }
+      }, "", 3, 1, 10, SECONDS, scheduler, MoreExecutors.directExecutor());
+
+      assertFalse(result.get(SLOW_BUILD_SERVER_GRACE, MILLISECONDS));
+   }
+
+   @Test(expectedExceptions = ExecutionException.class)
+   void testAsyncPropagatesOtherExceptions() throws Exception {
+      retryAsync(new Predicate<String>() {
+         public boolean apply(String input) {
+            throw new UnsupportedOperationException();
+         }
+      }, "", 3, 1, 10, SECONDS, scheduler, MoreExecutors.directExecutor()).get();
+   }
+
+   @Test
+   void testAsyncWaitsShareOneThread() throws Exception {
+      // each of these waits would hold a thread if it used retry
+      final AtomicInteger calls = new AtomicInteger();
+      List<ListenableFuture<Boolean>> results = Lists.newArrayList();
+      stopwatch.start();
+      for (int i = 0; i < 1000; i++) {
+         results.add(retryAsync(new Predicate<String>() {
+            private int count = 0;
+
+            public boolean apply(String input) {
+               calls.incrementAndGet();
+               return count++ == 2;
+            }
+         }, "", 5000, 100, 1000, MILLISECONDS, scheduler, MoreExecutors.directExecutor()));
+      }
+
+      assertEquals(Futures.allAsList(results).get(), Collections.nCopies(1000, true));
+      assertEquals(calls.get(), 3000);
+      // called at 0, 100, 100+(100*1.5)
+      assertOrdered(250 - EARLY_RETURN_GRACE, stopwatch.elapsed(MILLISECONDS), 1000 + SLOW_BUILD_SERVER_GRACE);
+   }
+
+   @Test
+   void testAsyncCancelStopsRetrying() throws Exception {
+      RepeatedAttemptsPredicate rawPredicate = new RepeatedAttemptsPredicate(Integer.MAX_VALUE);
+      ListenableFuture<Boolean> result = retryAsync(rawPredicate, "", 10000, 100, 100, MILLISECONDS, scheduler,
+            MoreExecutors.directExecutor());
+      Thread.sleep(150);
+      result.cancel(false);
+      int attempts = rawPredicate.callTimes.size();
+      Thread.sleep(300);
+
+      assertEquals(rawPredicate.callTimes.size(), attempts);
+   }
+
    public static class RepeatedAttemptsPredicate implements Predicate<String> {
       final List<Long> callTimes = Lists.newArrayList();
       private final int succeedOnAttempt;
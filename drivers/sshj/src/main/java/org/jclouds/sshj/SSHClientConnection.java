@@ -32,8 +32,10 @@ import net.schmizz.sshj.userauth.keyprovider.OpenSSHKeyFile;
 import net.schmizz.sshj.userauth.method.AuthMethod;
 
 import org.jclouds.domain.LoginCredentials;
+import org.jclouds.javax.annotation.Nullable;
 import org.jclouds.logging.Logger;
 import org.jclouds.sshj.SshjSshClient.Connection;
+import org.jclouds.util.Closeables2;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.MoreObjects;
@@ -61,6 +63,7 @@ public class SSHClientConnection implements Connection<SSHClient> {
       protected int connectTimeout;
       protected int sessionTimeout;
       protected Optional<Connector> agentConnector;
+      protected SshjConnectionPool pool;
 
       /**
        * @see SSHClientConnection#getHostAndPort()
@@ -102,23 +105,34 @@ public class SSHClientConnection implements Connection<SSHClient> {
          return this;
       }
 
+      /**
+       * @see SSHClientConnection#getPool()
+       */
+      public Builder pool(@Nullable SshjConnectionPool pool) {
+         this.pool = pool;
+         return this;
+      }
+
       public SSHClientConnection build() {
-         return new SSHClientConnection(hostAndPort, loginCredentials, connectTimeout, sessionTimeout, agentConnector);
+         return new SSHClientConnection(hostAndPort, loginCredentials, connectTimeout, sessionTimeout, agentConnector,
+                  pool);
       }
 
       protected Builder fromSSHClientConnection(SSHClientConnection in) {
          return hostAndPort(in.getHostAndPort()).connectTimeout(in.getConnectTimeout()).loginCredentials(
-                  in.getLoginCredentials()).sessionTimeout(in.getSessionTimeout()).agentConnector(in.getAgentConnector());
+                  in.getLoginCredentials()).sessionTimeout(in.getSessionTimeout()).agentConnector(in.getAgentConnector())
+                  .pool(in.getPool());
       }
    }
 
    private SSHClientConnection(HostAndPort hostAndPort, LoginCredentials loginCredentials, int connectTimeout,
-            int sessionTimeout, Optional<Connector> agentConnector) {
+            int sessionTimeout, Optional<Connector> agentConnector, @Nullable SshjConnectionPool pool) {
       this.hostAndPort = checkNotNull(hostAndPort, "hostAndPort");
       this.loginCredentials = checkNotNull(loginCredentials, "loginCredentials for %", hostAndPort);
       this.connectTimeout = connectTimeout;
       this.sessionTimeout = sessionTimeout;
       this.agentConnector = checkNotNull(agentConnector, "agentConnector for %", hostAndPort);
+      this.pool = pool;
    }
    
    @Resource
@@ -129,12 +143,19 @@ public class SSHClientConnection implements Connection<SSHClient> {
    private final LoginCredentials loginCredentials;
    private final int connectTimeout;
    private final int sessionTimeout;
+   private final SshjConnectionPool pool;
 
    @VisibleForTesting
    transient SSHClient ssh;
 
    @Override
    public void clear() {
+      if (pool != null) {
+         if (ssh != null)
+            pool.release(this, ssh);
+         ssh = null;
+         return;
+      }
       if (ssh != null && ssh.isConnected()) {
          try {
             ssh.disconnect();
@@ -149,28 +170,41 @@ public class SSHClientConnection implements Connection<SSHClient> {
 
    @Override
    public SSHClient create() throws Exception {
-      ssh = new net.schmizz.sshj.SSHClient();
-      ssh.addHostKeyVerifier(new PromiscuousVerifier());
-      if (connectTimeout != 0) {
-         ssh.setConnectTimeout(connectTimeout);
-      }
-      if (sessionTimeout != 0) {
-         ssh.setTimeout(sessionTimeout);
-      }
-      ssh.connect(hostAndPort.getHostText(), hostAndPort.getPortOrDefault(22));
-      if (loginCredentials.getOptionalPassword().isPresent()) {
-         ssh.authPassword(loginCredentials.getUser(), loginCredentials.getOptionalPassword().get());
-      } else if (loginCredentials.hasUnencryptedPrivateKey()) {
-         OpenSSHKeyFile key = new OpenSSHKeyFile();
-         key.init(loginCredentials.getOptionalPrivateKey().get(), null);
-         ssh.authPublickey(loginCredentials.getUser(), key);
-      } else if (agentConnector.isPresent()) {
-         AgentProxy proxy = new AgentProxy(agentConnector.get());
-         ssh.auth(loginCredentials.getUser(), getAuthMethods(proxy));
-      }
+      ssh = pool != null ? pool.lease(this) : connect();
       return ssh;
    }
 
+   /**
+    * @return a new connected and authenticated client, closed if it fails to authenticate
+    */
+   SSHClient connect() throws Exception {
+      SSHClient ssh = new net.schmizz.sshj.SSHClient();
+      try {
+         ssh.addHostKeyVerifier(new PromiscuousVerifier());
+         if (connectTimeout != 0) {
+            ssh.setConnectTimeout(connectTimeout);
+         }
+         if (sessionTimeout != 0) {
+            ssh.setTimeout(sessionTimeout);
+         }
+         ssh.connect(hostAndPort.getHostText(), hostAndPort.getPortOrDefault(22));
+         if (loginCredentials.getOptionalPassword().isPresent()) {
+            ssh.authPassword(loginCredentials.getUser(), loginCredentials.getOptionalPassword().get());
+         } else if (loginCredentials.hasUnencryptedPrivateKey()) {
+            OpenSSHKeyFile key = new OpenSSHKeyFile();
+            key.init(loginCredentials.getOptionalPrivateKey().get(), null);
+            ssh.authPublickey(loginCredentials.getUser(), key);
+         } else if (agentConnector.isPresent()) {
+            AgentProxy proxy = new AgentProxy(agentConnector.get());
+            ssh.auth(loginCredentials.getUser(), getAuthMethods(proxy));
+         }
+         return ssh;
+      } catch (Exception e) {
+         Closeables2.closeQuietly(ssh);
+         throw e;
+      }
+   }
+
    /**
     * @return host and port, where port if not present defaults to {@code 22}
     */
@@ -210,6 +244,15 @@ public class SSHClientConnection implements Connection<SSHClient> {
       return agentConnector;
    }
 
+   /**
+    * 
+    * @return the pool sharing the connection with other clients, or {@code null} if it isn't shared
+    */
+   @Nullable
+   public SshjConnectionPool getPool() {
+      return pool;
+   }
+
    /**
     * 
     * @return the current ssh or {@code null} if not connected
@@ -0,0 +1,199 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.sshj;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
+import javax.inject.Named;
+import javax.inject.Singleton;
+
+import net.schmizz.sshj.SSHClient;
+
+import org.jclouds.logging.Logger;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.inject.Inject;
+
+/**
+ * Shares authenticated ssh connections between the {@link SshjSshClient}s connecting to the same host and port with
+ * the same login. sshj multiplexes the exec and sftp channels of all of them over the shared connection, so only the
+ * first client pays for the handshake.
+ * <p>
+ * A connection is opened when none can be shared, and carries up to {@link #MAX_SESSIONS} clients at a time. Once no
+ * client uses it, it stays open for {@link #IDLE_TIMEOUT} milliseconds. Connections found disconnected are
+ * discarded. This class is thread safe, unlike the clients.
+ */
+@Singleton
+public class SshjConnectionPool {
+
+   /**
+    * Long property. Milliseconds an unused connection is kept open for the next client, or {@code 0} to close
+    * connections as soon as they are released. Defaults to 60000.
+    */
+   public static final String IDLE_TIMEOUT = "jclouds.ssh.pool.idle-timeout";
+
+   /**
+    * Integer property. Number of clients sharing a connection at the same time. Each uses a channel at a time, so
+    * this should not exceed the {@code MaxSessions} of the ssh servers. Defaults to 10.
+    */
+   public static final String MAX_SESSIONS = "jclouds.ssh.pool.max-sessions";
+
+   @Resource
+   @Named("jclouds.ssh")
+   protected Logger logger = Logger.NULL;
+
+   @Inject(optional = true)
+   @Named(IDLE_TIMEOUT)
+   @VisibleForTesting
+   long idleTimeout = 60000;
+
+   @Inject(optional = true)
+   @Named(MAX_SESSIONS)
+   @VisibleForTesting
+   int maxSessions = 10;
+
+   private static final class Pooled {
+      private final SSHClient ssh;
+      private int leases = 1;
+      private long idleSince;
+
+      private Pooled(SSHClient ssh) {
+         this.ssh = ssh;
+      }
+   }
+
+   // guarded by this
+   private final Map<List<Object>, List<Pooled>> connections = Maps.newHashMap();
+
+   /**
+    * @return a connected and authenticated client for {@code connection}, shared or opened through
+    *         {@link SSHClientConnection#connect()}; to {@link #release} once done with it
+    */
+   SSHClient lease(SSHClientConnection connection) throws Exception {
+      List<Object> key = key(connection);
+      List<SSHClient> evicted = Lists.newArrayList();
+      try {
+         synchronized (this) {
+            evictIdle(evicted);
+            List<Pooled> pooled = connections.get(key);
+            if (pooled != null) {
+               for (Pooled candidate : pooled) {
+                  if (candidate.leases < maxSessions && isHealthy(candidate.ssh)) {
+                     candidate.leases++;
+                     logger.trace("<< (%s) sharing ssh %s", connection.getHostAndPort(), candidate.ssh.hashCode());
+                     return candidate.ssh;
+                  }
+               }
+            }
+         }
+      } finally {
+         disconnect(evicted);
+      }
+      // the handshake is slow, so it runs outside of the lock
+      SSHClient ssh = connection.connect();
+      synchronized (this) {
+         List<Pooled> pooled = connections.get(key);
+         if (pooled == null)
+            connections.put(key, pooled = Lists.newArrayList());
+         pooled.add(new Pooled(ssh));
+      }
+      return ssh;
+   }
+
+   /**
+    * Gives back a client obtained from {@link #lease}.
+    */
+   void release(SSHClientConnection connection, SSHClient ssh) {
+      List<SSHClient> evicted = Lists.newArrayList();
+      synchronized (this) {
+         List<Pooled> pooled = connections.get(key(connection));
+         Pooled released = null;
+         if (pooled != null) {
+            for (Pooled candidate : pooled) {
+               if (candidate.ssh == ssh)
+                  released = candidate;
+            }
+         }
+         if (released == null) {
+            evicted.add(ssh);
+         } else if (--released.leases == 0) {
+            released.idleSince = System.currentTimeMillis();
+         }
+         evictIdle(evicted);
+      }
+      disconnect(evicted);
+   }
+
+   @PreDestroy
+   public void close() {
+      List<SSHClient> evicted = Lists.newArrayList();
+      synchronized (this) {
+         for (List<Pooled> pooled : connections.values()) {
+            for (Pooled candidate : pooled)
+               evicted.add(candidate.ssh);
+         }
+         connections.clear();
+      }
+      disconnect(evicted);
+   }
+
+   private void evictIdle(List<SSHClient> evicted) {
+      long now = System.currentTimeMillis();
+      for (Iterator<List<Pooled>> entries = connections.values().iterator(); entries.hasNext();) {
+         List<Pooled> pooled = entries.next();
+         for (Iterator<Pooled> i = pooled.iterator(); i.hasNext();) {
+            Pooled candidate = i.next();
+            if (candidate.leases == 0 && (now - candidate.idleSince >= idleTimeout || !isHealthy(candidate.ssh))) {
+               evicted.add(candidate.ssh);
+               i.remove();
+            }
+         }
+         if (pooled.isEmpty())
+            entries.remove();
+      }
+   }
+
+   private void disconnect(List<SSHClient> evicted) {
+      for (SSHClient ssh : evicted) {
+         try {
+            if (ssh.isConnected())
+               ssh.disconnect();
+         } catch (IOException e) {
+            logger.debug("<< exception disconnecting pooled ssh %s: %s", ssh.hashCode(), e.getMessage());
+         }
+      }
+   }
+
+   private static boolean isHealthy(SSHClient ssh) {
+      return ssh.isConnected() && ssh.isAuthenticated();
+   }
+
+   private static List<Object> key(SSHClientConnection connection) {
+      return Arrays.<Object> asList(connection.getHostAndPort(), connection.getLoginCredentials().getUser(),
+               connection.getLoginCredentials().getOptionalPassword(),
+               connection.getLoginCredentials().getOptionalPrivateKey(), connection.getConnectTimeout(),
+               connection.getSessionTimeout());
+   }
+}
@@ -60,6 +60,7 @@ import org.jclouds.domain.LoginCredentials;
 import org.jclouds.http.handlers.BackoffLimitedRetryHandler;
 import org.jclouds.io.Payload;
 import org.jclouds.io.Payloads;
+import org.jclouds.javax.annotation.Nullable;
 import org.jclouds.logging.Logger;
 import org.jclouds.rest.AuthorizationException;
 import org.jclouds.ssh.SshClient;
@@ -142,6 +143,17 @@ public class SshjSshClient implements SshClient {
 
    public SshjSshClient(BackoffLimitedRetryHandler backoffLimitedRetryHandler, HostAndPort socket,
             LoginCredentials loginCredentials, int timeout, Optional<Connector> agentConnector) {
+      this(backoffLimitedRetryHandler, socket, loginCredentials, timeout, agentConnector, null);
+   }
+
+   /**
+    * @param pool
+    *           shares the connection with the other clients of the same host and login, or {@code null} for a
+    *           connection of its own
+    */
+   public SshjSshClient(BackoffLimitedRetryHandler backoffLimitedRetryHandler, HostAndPort socket,
+            LoginCredentials loginCredentials, int timeout, Optional<Connector> agentConnector,
+            @Nullable SshjConnectionPool pool) {
       this.user = checkNotNull(loginCredentials, "loginCredentials").getUser();
       this.host = checkNotNull(socket, "socket").getHostText();
       checkArgument(socket.getPort() > 0, "ssh port must be greater then zero" + socket.getPort());
@@ -162,7 +174,8 @@ public class SshjSshClient implements SshClient {
                   host, socket.getPort());
       }
       sshClientConnection = SSHClientConnection.builder().hostAndPort(HostAndPort.fromParts(host, socket.getPort()))
-               .loginCredentials(loginCredentials).connectTimeout(timeout).sessionTimeout(timeout).agentConnector(agentConnector).build();
+               .loginCredentials(loginCredentials).connectTimeout(timeout).sessionTimeout(timeout).agentConnector(agentConnector).pool(pool)
+               .build();
    }
 
    @Override
@@ -472,21 +485,27 @@ public class SshjSshClient implements SshClient {
       return new Connection<Session>() {
 
          private Session session = null;
-         private SSHClient sshClientConnection;
+         private SSHClientConnection connection;
 
          @Override
          public void clear() throws TransportException, ConnectionException {
             if (session != null)
                session.close();
-            if (sshClientConnection != null)
-               Closeables2.closeQuietly(sshClientConnection);
+            if (connection != null)
+               connection.clear();
          }
 
          @Override
          public Session create() throws Exception {
-            this.sshClientConnection = acquire(SSHClientConnection.builder().fromSSHClientConnection(
-                     SshjSshClient.this.sshClientConnection).sessionTimeout(0).build());
-            session = sshClientConnection.startSession();
+            connection = SSHClientConnection.builder().fromSSHClientConnection(
+                     SshjSshClient.this.sshClientConnection).sessionTimeout(0).build();
+            SSHClient ssh = acquire(connection);
+            try {
+               session = ssh.startSession();
+            } catch (Exception e) {
+               connection.clear();
+               throw e;
+            }
             return session;
          }
 
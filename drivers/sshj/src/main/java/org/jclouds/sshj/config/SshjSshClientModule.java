@@ -23,6 +23,7 @@ import org.jclouds.domain.LoginCredentials;
 import org.jclouds.http.handlers.BackoffLimitedRetryHandler;
 import org.jclouds.ssh.SshClient;
 import org.jclouds.ssh.config.ConfiguresSshClient;
+import org.jclouds.sshj.SshjConnectionPool;
 import org.jclouds.sshj.SshjSshClient;
 
 import com.google.common.base.Optional;
@@ -60,16 +61,19 @@ public class SshjSshClientModule extends AbstractModule {
 
       private final BackoffLimitedRetryHandler backoffLimitedRetryHandler;
       private final Injector injector;
+      private final SshjConnectionPool pool;
 
       @Inject
-      public Factory(BackoffLimitedRetryHandler backoffLimitedRetryHandler, Injector injector) {
+      public Factory(BackoffLimitedRetryHandler backoffLimitedRetryHandler, Injector injector, SshjConnectionPool pool) {
          this.backoffLimitedRetryHandler = backoffLimitedRetryHandler;
          this.injector = injector;
+         this.pool = pool;
       }
 
       @Override
       public SshClient create(HostAndPort socket, LoginCredentials credentials) {
-         SshClient client = new SshjSshClient(backoffLimitedRetryHandler, socket, credentials, timeout, getAgentConnector());
+         SshClient client = new SshjSshClient(backoffLimitedRetryHandler, socket, credentials, timeout, getAgentConnector(),
+               pool);
          injector.injectMembers(client);  // add logger
          return client;
       }
@@ -0,0 +1,117 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.sshj;
+
+import static org.easymock.EasyMock.createMock;
+import static org.easymock.EasyMock.expect;
+import static org.easymock.EasyMock.expectLastCall;
+import static org.easymock.EasyMock.replay;
+import static org.easymock.EasyMock.verify;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertSame;
+
+import net.schmizz.sshj.SSHClient;
+
+import org.jclouds.domain.LoginCredentials;
+import org.testng.annotations.Test;
+
+import com.google.common.net.HostAndPort;
+
+@Test(groups = "unit", testName = "SshjConnectionPoolTest")
+public class SshjConnectionPoolTest {
+
+   private static SSHClientConnection connection() {
+      SSHClientConnection connection = createMock(SSHClientConnection.class);
+      expect(connection.getHostAndPort()).andReturn(HostAndPort.fromParts("localhost", 22)).anyTimes();
+      expect(connection.getLoginCredentials()).andReturn(
+               LoginCredentials.builder().user("username").password("password").build()).anyTimes();
+      expect(connection.getConnectTimeout()).andReturn(60000).anyTimes();
+      expect(connection.getSessionTimeout()).andReturn(60000).anyTimes();
+      return connection;
+   }
+
+   private static SSHClient healthyClient() {
+      SSHClient ssh = createMock(SSHClient.class);
+      expect(ssh.isConnected()).andReturn(true).anyTimes();
+      expect(ssh.isAuthenticated()).andReturn(true).anyTimes();
+      return ssh;
+   }
+
+   public void testLeasesShareOneConnection() throws Exception {
+      SshjConnectionPool pool = new SshjConnectionPool();
+      SSHClientConnection connection = connection();
+      SSHClient ssh = healthyClient();
+      expect(connection.connect()).andReturn(ssh);
+      replay(connection, ssh);
+
+      assertSame(pool.lease(connection), ssh);
+      assertSame(pool.lease(connection), ssh);
+      pool.release(connection, ssh);
+      pool.release(connection, ssh);
+      assertSame(pool.lease(connection), ssh);
+
+      verify(connection, ssh);
+   }
+
+   public void testConnectionIsOpenedPastMaxSessions() throws Exception {
+      SshjConnectionPool pool = new SshjConnectionPool();
+      pool.maxSessions = 1;
+      SSHClientConnection connection = connection();
+      SSHClient first = healthyClient();
+      SSHClient second = healthyClient();
+      expect(connection.connect()).andReturn(first);
+      expect(connection.connect()).andReturn(second);
+      replay(connection, first, second);
+
+      assertSame(pool.lease(connection), first);
+      assertSame(pool.lease(connection), second);
+
+      verify(connection, first, second);
+   }
+
+   public void testDisconnectedConnectionIsReplaced() throws Exception {
+      SshjConnectionPool pool = new SshjConnectionPool();
+      SSHClientConnection connection = connection();
+      SSHClient dropped = createMock(SSHClient.class);
+      expect(dropped.isConnected()).andReturn(false).anyTimes();
+      SSHClient ssh = healthyClient();
+      expect(connection.connect()).andReturn(dropped);
+      expect(connection.connect()).andReturn(ssh);
+      replay(connection, dropped, ssh);
+
+      assertSame(pool.lease(connection), dropped);
+      pool.release(connection, dropped);
+      assertNotSame(pool.lease(connection), dropped);
+
+      verify(connection, dropped, ssh);
+   }
+
+   public void testConnectionIsClosedOnReleaseWithoutIdleTimeout() throws Exception {
+      SshjConnectionPool pool = new SshjConnectionPool();
+      pool.idleTimeout = 0;
+      SSHClientConnection connection = connection();
+      SSHClient ssh = healthyClient();
+      expect(connection.connect()).andReturn(ssh);
+      ssh.disconnect();
+      expectLastCall();
+      replay(connection, ssh);
+
+      pool.release(connection, pool.lease(connection));
+
+      verify(connection, ssh);
+   }
+}
@@ -17,6 +17,7 @@
 package org.jclouds.aws.ec2;
 
 import static org.jclouds.ec2.reference.EC2Constants.PROPERTY_EC2_AMI_OWNERS;
+import static org.jclouds.ec2.reference.EC2Constants.PROPERTY_EC2_FILTER_NODES_BY_GROUP;
 
 import java.net.URI;
 import java.util.Properties;
@@ -53,6 +54,7 @@ public final class AWSEC2ApiMetadata extends BaseHttpApiMetadata<AWSEC2Api> {
       // authorized key executes after ssh has started.  
       properties.setProperty("jclouds.ssh.max-retries", "7");
       properties.setProperty("jclouds.ssh.retry-auth", "true");
+      properties.setProperty(PROPERTY_EC2_FILTER_NODES_BY_GROUP, "true");
       return properties;
    }
 
@@ -62,17 +62,30 @@ public class AWSEC2ListNodesStrategy extends EC2ListNodesStrategy {
 
    @Override
    protected Iterable<? extends RunningInstance> pollRunningInstances() {
-      Iterable<? extends AWSRunningInstance> spots = filter(transform(concat(transform(regions.get(),
-                                                                                       allSpotInstancesInRegion())),
+      Iterable<? extends AWSRunningInstance> spots = filter(transform(concat(transformRegions(regions.get(),
+                                                                                       allSpotInstancesInRegion(),
+                                                                                       "spot instance requests")),
                                                                       spotConverter), notNull());
 
       return concat(super.pollRunningInstances(), spots);
    }
 
+   @Override
+   protected Iterable<? extends RunningInstance> pollRunningInstancesInGroup(String group) {
+      // spot instance requests are few, so the group is left to the filter
+      Iterable<? extends AWSRunningInstance> spots = filter(transform(concat(transformRegions(regions.get(),
+                                                                                       allSpotInstancesInRegion(),
+                                                                                       "spot instance requests")),
+                                                                      spotConverter), notNull());
+
+      return concat(super.pollRunningInstancesInGroup(group), spots);
+   }
+
    @Override
    protected Iterable<? extends RunningInstance> pollRunningInstancesByRegionsAndIds(final Multimap<String, String> idsByRegions) {
-      Iterable<? extends AWSRunningInstance> spots = filter(transform(concat(transform(idsByRegions.keySet(),
-                                                                                       spotInstancesByIdInRegion(idsByRegions))),
+      Iterable<? extends AWSRunningInstance> spots = filter(transform(concat(transformRegions(idsByRegions.keySet(),
+                                                                                       spotInstancesByIdInRegion(idsByRegions),
+                                                                                       "spot instance requests by id")),
 
                                                                       spotConverter), notNull());
       Iterable<? extends RunningInstance> superInsts = super.pollRunningInstancesByRegionsAndIds(idsByRegions);
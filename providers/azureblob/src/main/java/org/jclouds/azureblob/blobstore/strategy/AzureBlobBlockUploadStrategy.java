@@ -16,70 +16,37 @@
  */
 package org.jclouds.azureblob.blobstore.strategy;
 
-import com.google.common.collect.Lists;
-import com.google.common.hash.Hashing;
-import com.google.common.io.BaseEncoding;
 import com.google.inject.Inject;
 import org.jclouds.azureblob.AzureBlobClient;
+import org.jclouds.blobstore.BlobStore;
 import org.jclouds.blobstore.domain.Blob;
 import org.jclouds.blobstore.reference.BlobStoreConstants;
-import org.jclouds.io.Payload;
-import org.jclouds.io.PayloadSlicer;
-import org.jclouds.logging.Logger;
+import org.jclouds.blobstore.strategy.PutBlobInPartsStrategy;
 
-import javax.annotation.Resource;
-import javax.inject.Named;
-
-import java.security.SecureRandom;
-import java.util.List;
-
-import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
-import static com.google.common.base.Preconditions.checkState;
 
 /**
  * Decomposes a blob into blocks for upload and assembly through PutBlock and PutBlockList
+ * <p>
+ * Blocks are uploaded {@link BlobStoreConstants#PROPERTY_MULTIPART_PARALLEL_DEGREE} at a time, and each is retried on
+ * failure, through {@link PutBlobInPartsStrategy}. Streamed payloads are read into memory one block at a time, as
+ * blocks finish uploading, so memory stays bounded by the parallel degree.
  */
 public class AzureBlobBlockUploadStrategy implements MultipartUploadStrategy {
-   @Resource
-   @Named(BlobStoreConstants.BLOBSTORE_LOGGER)
-   private Logger logger = Logger.NULL;
-
    private final AzureBlobClient client;
-   private final PayloadSlicer slicer;
+   private final BlobStore blobStore;
+   private final PutBlobInPartsStrategy putBlobInParts;
 
    @Inject
-   public AzureBlobBlockUploadStrategy(AzureBlobClient client, PayloadSlicer slicer) {
+   public AzureBlobBlockUploadStrategy(AzureBlobClient client, BlobStore blobStore,
+         PutBlobInPartsStrategy putBlobInParts) {
       this.client = checkNotNull(client, "client");
-      this.slicer = checkNotNull(slicer, "slicer");
+      this.blobStore = checkNotNull(blobStore, "blobStore");
+      this.putBlobInParts = checkNotNull(putBlobInParts, "putBlobInParts");
    }
 
    @Override
    public String execute(String container, Blob blob) {
-      String blobName = blob.getMetadata().getName();
-      Payload payload = blob.getPayload();
-      Long length = payload.getContentMetadata().getContentLength();
-      checkNotNull(length,
-            "please invoke payload.getContentMetadata().setContentLength(length) prior to azure block upload");
-      checkArgument(length <= (MAX_NUMBER_OF_BLOCKS * MAX_BLOCK_SIZE));
-      long offset = 0L;
-      List<String> blockIds = Lists.newArrayList();
-      long bytesWritten = 0;
-      while (offset < length) {
-         long chunkSize = MAX_BLOCK_SIZE;
-         if (length - offset < MAX_BLOCK_SIZE) {
-            chunkSize = length % MAX_BLOCK_SIZE;
-         }
-         bytesWritten += chunkSize;
-         Payload block = slicer.slice(payload, offset, chunkSize);
-         offset += MultipartUploadStrategy.MAX_BLOCK_SIZE;
-         String blockName = blobName + "-" + offset + "-" + new SecureRandom().nextInt();
-         byte blockIdBytes[] = Hashing.md5().hashBytes(blockName.getBytes()).asBytes();
-         String blockId = BaseEncoding.base64().encode(blockIdBytes);
-         blockIds.add(blockId);
-         client.putBlock(container, blobName, blockId, block);
-      }
-      checkState(bytesWritten == length, "Wrote %s bytes, but we wanted to write %s bytes", bytesWritten, length);
-      return client.putBlockList(container, blobName, blockIds);
+      return putBlobInParts.execute(new AzureBlobMultipartUploader(client, blobStore), container, blob);
    }
 }
@@ -0,0 +1,113 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.azureblob.blobstore.strategy;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Throwables.propagate;
+
+import java.io.IOException;
+import java.security.SecureRandom;
+import java.util.SortedMap;
+
+import org.jclouds.azureblob.AzureBlobClient;
+import org.jclouds.blobstore.BlobStore;
+import org.jclouds.blobstore.domain.Blob;
+import org.jclouds.blobstore.strategy.MultipartUploader;
+import org.jclouds.io.ByteStreams2;
+import org.jclouds.io.Payload;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.hash.Hashing;
+import com.google.common.io.BaseEncoding;
+
+/**
+ * Uploads the parts of a blob as blocks, and commits them with a block list.
+ * <p>
+ * Azure has no upload ids: the id of an upload is a random token mixed into the ids of its blocks. Blocks that are
+ * never committed are discarded by the service, so aborting an upload does nothing.
+ */
+public class AzureBlobMultipartUploader implements MultipartUploader {
+
+   private static final SecureRandom RANDOM = new SecureRandom();
+
+   private final AzureBlobClient client;
+   private final BlobStore blobStore;
+
+   /**
+    * @param blobStore
+    *           puts blobs that fit in a single block
+    */
+   public AzureBlobMultipartUploader(AzureBlobClient client, BlobStore blobStore) {
+      this.client = checkNotNull(client, "client");
+      this.blobStore = checkNotNull(blobStore, "blobStore");
+   }
+
+   @Override
+   public long getMinimumPartSize() {
+      return 1;
+   }
+
+   @Override
+   public long getMaximumPartSize() {
+      return MultipartUploadStrategy.MAX_BLOCK_SIZE;
+   }
+
+   @Override
+   public int getMaximumNumberOfParts() {
+      return MultipartUploadStrategy.MAX_NUMBER_OF_BLOCKS;
+   }
+
+   @Override
+   public String put(String container, Blob blob) {
+      return blobStore.putBlob(container, blob);
+   }
+
+   @Override
+   public String initiate(String container, Blob blob, int parts) {
+      return Integer.toHexString(RANDOM.nextInt());
+   }
+
+   /**
+    * Sends the MD5 of repeatable blocks, so that the service rejects a block corrupted on the way.
+    *
+    * @return the id of the block, all of the same length as required by the service
+    */
+   @Override
+   public String uploadPart(String container, String name, String uploadId, int part, Payload payload) {
+      String blockName = name + "-" + uploadId + "-" + part;
+      String blockId = BaseEncoding.base64().encode(Hashing.md5().hashBytes(blockName.getBytes()).asBytes());
+      if (payload.isRepeatable() && payload.getContentMetadata().getContentMD5AsHashCode() == null) {
+         try {
+            payload.getContentMetadata().setContentMD5(ByteStreams2.hashAndClose(payload.openStream(),
+                  Hashing.md5()));
+         } catch (IOException e) {
+            throw propagate(e);
+         }
+      }
+      client.putBlock(container, name, blockId, payload);
+      return blockId;
+   }
+
+   @Override
+   public String complete(String container, String name, String uploadId, SortedMap<Integer, String> parts) {
+      return client.putBlockList(container, name, ImmutableList.copyOf(parts.values()));
+   }
+
+   @Override
+   public void abort(String container, String name, String uploadId) {
+   }
+}
@@ -14,39 +14,76 @@
  * See the License for the specific language governing permissions and
  * limitations under the License.
  */
-
 package org.jclouds.azureblob.blobstore.strategy;
 
+import static org.easymock.EasyMock.anyObject;
+import static org.easymock.EasyMock.createMock;
+import static org.easymock.EasyMock.eq;
+import static org.easymock.EasyMock.expect;
+import static org.easymock.EasyMock.expectLastCall;
+import static org.easymock.EasyMock.replay;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import org.jclouds.azureblob.AzureBlobClient;
+import org.jclouds.blobstore.BlobStore;
 import org.jclouds.blobstore.domain.Blob;
 import org.jclouds.blobstore.domain.MutableBlobMetadata;
+import org.jclouds.blobstore.domain.internal.BlobBuilderImpl;
 import org.jclouds.blobstore.domain.internal.BlobImpl;
 import org.jclouds.blobstore.domain.internal.MutableBlobMetadataImpl;
+import org.jclouds.blobstore.strategy.internal.ParallelPutBlobInPartsStrategy;
 import org.jclouds.io.MutableContentMetadata;
 import org.jclouds.io.Payload;
 import org.jclouds.io.PayloadSlicer;
+import org.jclouds.io.internal.BasePayloadSlicer;
 import org.jclouds.io.payloads.BaseMutableContentMetadata;
 import org.jclouds.io.payloads.StringPayload;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
 import org.testng.annotations.Test;
-import static org.testng.Assert.assertEquals;
-
-import java.util.List;
 
-import static org.easymock.EasyMock.anyObject;
-import static org.easymock.EasyMock.createMock;
-import static org.easymock.EasyMock.eq;
-import static org.easymock.EasyMock.expect;
-import static org.easymock.EasyMock.expectLastCall;
-import static org.easymock.EasyMock.replay;
+import com.google.common.collect.Maps;
+import com.google.common.hash.Hashing;
+import com.google.common.io.ByteStreams;
+import com.google.common.util.concurrent.MoreExecutors;
 
 @Test(groups = "unit", testName = "AzureBlobBlockUploadStrategyTest")
 public class AzureBlobBlockUploadStrategyTest {
 
+   private ExecutorService executor;
+
+   @BeforeClass
+   public void setUp() {
+      executor = Executors.newCachedThreadPool();
+   }
+
+   @AfterClass(alwaysRun = true)
+   public void tearDown() {
+      executor.shutdownNow();
+   }
+
    public void testExecute() throws Exception {
       String container = "test-container";
       String blobName = "test-blob";
       long oneMB = 1048576L;
       AzureBlobClient client = createMock(AzureBlobClient.class);
+      BlobStore blobStore = createMock(BlobStore.class);
       PayloadSlicer slicer = createMock(PayloadSlicer.class);
       MutableBlobMetadata metadata = new MutableBlobMetadataImpl();
       MutableContentMetadata contentMetadata = new BaseMutableContentMetadata();
@@ -66,9 +103,78 @@ public class AzureBlobBlockUploadStrategyTest {
       expectLastCall().times(4);
       expect(client.putBlockList(eq(container), eq(blobName), anyObject(List.class))).andReturn("Fake ETAG");
 
-      AzureBlobBlockUploadStrategy strat = new AzureBlobBlockUploadStrategy(client, slicer);
-      replay(slicer, client);
+      AzureBlobBlockUploadStrategy strat = new AzureBlobBlockUploadStrategy(client, blobStore,
+            new ParallelPutBlobInPartsStrategy(slicer, MoreExecutors.newDirectExecutorService()));
+      replay(slicer, client, blobStore);
       String etag = strat.execute(container, blob);
       assertEquals(etag, "Fake ETAG");
    }
+
+   /**
+    * Stands in for the block calls of the service, checking the MD5 of each block and failing the first one sent.
+    */
+   private static class FakeBlocks implements InvocationHandler {
+      private final ConcurrentMap<String, byte[]> blocks = Maps.newConcurrentMap();
+      private final AtomicBoolean failed = new AtomicBoolean();
+      private final AtomicInteger running = new AtomicInteger();
+      private final AtomicInteger maxRunning = new AtomicInteger();
+      private byte[] committed;
+
+      private AzureBlobClient client() {
+         return (AzureBlobClient) Proxy.newProxyInstance(AzureBlobClient.class.getClassLoader(),
+               new Class<?>[] { AzureBlobClient.class }, this);
+      }
+
+      @Override
+      @SuppressWarnings("unchecked")
+      public Object invoke(Object proxy, Method method, Object[] args) throws Exception {
+         if (method.getName().equals("putBlock")) {
+            putBlock((String) args[2], (Payload) args[3]);
+            return null;
+         } else if (method.getName().equals("putBlockList")) {
+            ByteArrayOutputStream blob = new ByteArrayOutputStream();
+            for (String blockId : (List<String>) args[2])
+               blob.write(blocks.get(blockId));
+            committed = blob.toByteArray();
+            return "etag";
+         }
+         throw new UnsupportedOperationException(method.toString());
+      }
+
+      private void putBlock(String blockId, Payload block) throws IOException, InterruptedException {
+         int now = running.incrementAndGet();
+         synchronized (maxRunning) {
+            maxRunning.set(Math.max(maxRunning.get(), now));
+         }
+         try {
+            Thread.sleep(50);
+            if (failed.compareAndSet(false, true))
+               throw new IllegalStateException("connection reset");
+            byte[] content = ByteStreams.toByteArray(block.openStream());
+            assertEquals(block.getContentMetadata().getContentMD5AsHashCode(), Hashing.md5().hashBytes(content));
+            blocks.put(blockId, content);
+         } finally {
+            running.decrementAndGet();
+         }
+      }
+   }
+
+   public void testStreamedBlocksAreUploadedInParallel() {
+      byte[] content = new byte[(int) MultipartUploadStrategy.MAX_BLOCK_SIZE * 4 + 1000];
+      new Random().nextBytes(content);
+      Blob blob = new BlobBuilderImpl().name("blob").payload(new ByteArrayInputStream(content))
+            .contentLength(content.length).build();
+      FakeBlocks service = new FakeBlocks();
+
+      AzureBlobBlockUploadStrategy strat = new AzureBlobBlockUploadStrategy(service.client(),
+            createMock(BlobStore.class), new ParallelPutBlobInPartsStrategy(new BasePayloadSlicer(),
+                  MoreExecutors.listeningDecorator(executor)));
+
+      assertEquals(strat.execute("container", blob), "etag");
+      assertEquals(service.committed, content);
+      assertEquals(service.blocks.size(), 5);
+      int parallelDegree = ParallelPutBlobInPartsStrategy.DEFAULT_PARALLEL_DEGREE;
+      assertTrue(service.maxRunning.get() > 1 && service.maxRunning.get() <= parallelDegree,
+            "ran " + service.maxRunning.get() + " at once");
+   }
 }
@@ -27,6 +27,7 @@ import javax.inject.Inject;
 import javax.inject.Singleton;
 
 import org.jclouds.compute.ComputeServiceAdapter;
+import org.jclouds.compute.ComputeServiceAdapter.SelectsNodesByIds;
 import org.jclouds.compute.domain.Hardware;
 import org.jclouds.compute.domain.Template;
 import org.jclouds.compute.reference.ComputeServiceConstants.Timeouts;
@@ -45,8 +46,10 @@ import org.jclouds.logging.Logger;
 
 import com.google.common.base.Function;
 import com.google.common.base.Predicate;
+import com.google.common.base.Predicates;
 import com.google.common.base.Throwables;
 import com.google.common.collect.FluentIterable;
+import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Iterables;
 import com.google.common.primitives.Longs;
 
@@ -55,7 +58,8 @@ import com.google.common.primitives.Longs;
  * {@link ComputeService}
  */
 @Singleton
-public class GoGridComputeServiceAdapter implements ComputeServiceAdapter<Server, Hardware, ServerImage, Option> {
+public class GoGridComputeServiceAdapter implements ComputeServiceAdapter<Server, Hardware, ServerImage, Option>,
+      SelectsNodesByIds {
 
    @Resource
    protected Logger logger = Logger.NULL;
@@ -138,8 +142,11 @@ public class GoGridComputeServiceAdapter implements ComputeServiceAdapter<Server
    public Iterable<Server> listNodesByIds(final Iterable<String> ids) {
       Set<Long> idsAsLongs = FluentIterable.from(ids)
          .transform(toLong())
+         .filter(Predicates.notNull())
          .toSet();
-                  
+      // ids that are not numbers are not GoGrid ids, so they match no server
+      if (idsAsLongs.isEmpty())
+         return ImmutableSet.of();
       return client.getServerServices().getServersById(Longs.toArray(idsAsLongs));
    }
 
@@ -194,7 +201,7 @@ public class GoGridComputeServiceAdapter implements ComputeServiceAdapter<Server
 
          @Override
          public Long apply(String id) {
-            return Long.valueOf(checkNotNull(id, "id"));
+            return Longs.tryParse(checkNotNull(id, "id"));
          }
       };
    }